@@ -4,6 +4,7 @@ import com.github.manosbatsis.scrudbeans.api.DtoMapper;
 import com.github.manosbatsis.scrudbeans.api.mdd.ScrudModelProcessorException;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.EntityModelDescriptor;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.ModelDescriptor;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.ScrudModelDescriptor;
@@ -15,19 +16,23 @@ import org.slf4j.LoggerFactory;
 import javax.annotation.processing.*;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.Element;
-import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
 import javax.persistence.Entity;
 import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Annotation processor that generates SCRUD components
  * for model annotated with @{@link ScrudBean}
  * and JPA specification predicate factories for models
- * annotated with @{@link Entity}
+ * annotated with @{@link Entity}. Each model is the originating element of its generated sources.
+ * Generated sources also depend on application.properties and on types other than their model,
+ * e.g. superclasses and related models, so Gradle treats the processor as aggregating.
  */
 @SupportedAnnotationTypes({
         "com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean"
@@ -37,7 +42,8 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
 
 	private static final Logger log = LoggerFactory.getLogger(ScrudModelAnnotationProcessor.class);
 
-	private boolean complete = false;
+	/** Config properties cached per location, reused as long as the file is unchanged */
+	private static final Map<URI, CachedProperties> CONFIG_CACHE = new ConcurrentHashMap<>();
 
 	private Filer filer;
 
@@ -48,84 +54,77 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
 	 * {@inheritDoc}
 	 */
 	@Override
-	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-		// short-circuit if there are multiple rounds
-		if (complete) {
-			log.info("Processor has already been executed, ignoring");
-			return true;
-		}
-		log.info("ScrudModelAnnotationProcessor processing started");
+	public synchronized void init(ProcessingEnvironment processingEnv) {
+		super.init(processingEnv);
 		// Init a filer
 		this.filer = processingEnv.getFiler();
-		// Load config/properties
-		configProps = this.loadProperties();
-		// Create JPA query predicate factories for each entity in the source path
-		generateEntityPredicateFactories(roundEnv);
-		// Create other SCRUD components for each model annotated with ScrudBean
-		generateScrudComponents(roundEnv);
+		// Load config/properties once per compilation
+		this.configProps = this.loadProperties();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<? extends Element> annotatedModels = roundEnv.getElementsAnnotatedWith(ScrudBean.class);
+		log.info("ScrudModelAnnotationProcessor found {} annotated classes", annotatedModels.size());
+		// Each model originates its own files, which may also depend on other types and the config properties
+		for (final Element element : annotatedModels) {
+			if (element instanceof TypeElement) {
+				final TypeElement typeElement = (TypeElement) element;
+				// Create JPA query predicate factories for the entity
+				generateEntityPredicateFactories(typeElement);
+				// Create other SCRUD components for the model
+				generateScrudComponents(typeElement);
+			}
+			else {
+				log.warn("Not an instance of TypeElement but annotated with ScrudBean: {}", element.getSimpleName());
+			}
+		}
 		// Claiming that annotations have been processed by this processor
-		complete = true;
 		return true;
 	}
 
 	/**
 	 * Create SCRUD components for the target model
-	 * @param roundEnv The current compilation round environment
+	 * @param typeElement The target model type
 	 */
-	private void generateScrudComponents(RoundEnvironment roundEnv) {
-		Set<? extends Element> annotatedModels = roundEnv.getElementsAnnotatedWith(ScrudBean.class);
-		Map<Name, ScrudModelDescriptor> modelDescriptors = new HashMap<>();
-		log.info("ScrudModelAnnotationProcessor found {} annotated classes", (annotatedModels != null ? annotatedModels.size() : 0));
-		if (annotatedModels != null) {
-			for (final Element element : annotatedModels) {
-				try {
-					if (element instanceof TypeElement) {
-                        final TypeElement typeElement = (TypeElement) element;
-                        // Parse model to something more convenient
-                        ScrudModelDescriptor descriptor = new ScrudModelDescriptor(processingEnv, typeElement, configProps);
-                        // Generate components for model
-                        generateDtoMappers(descriptor);
-                        createIdAdapter(descriptor);
-                        createRepository(descriptor);
-                        createService(descriptor);
-                        createController(descriptor);
-                    }
-					else {
-						log.warn("Not an instance of TypeElement but annotated with ScrudBean: {}", element.getSimpleName());
-					}
-				}
-				catch (ScrudModelProcessorException e) {
-					e.printStackTrace();
-				}
-			}
+	private void generateScrudComponents(TypeElement typeElement) {
+		try {
+			// Parse model to something more convenient
+			ScrudModelDescriptor descriptor = new ScrudModelDescriptor(processingEnv, typeElement, configProps);
+			// Generate components for model
+			generateDtoMappers(descriptor);
+			createIdAdapter(descriptor);
+			createPropertyAccessor(descriptor);
+			createRepository(descriptor);
+			createService(descriptor);
+			createController(descriptor);
+		}
+		catch (ScrudModelProcessorException e) {
+			e.printStackTrace();
 		}
 	}
 
 	/**
-	 * Create JPA query predicate factories for each entity in the source path
-	 * @param roundEnv The current compilation round environment
+	 * Create JPA query predicate factories for the target model, if an entity
+	 * @param typeElement The target model type
 	 */
-	private void generateEntityPredicateFactories(RoundEnvironment roundEnv) {
-		Set<? extends Element> entities = roundEnv.getElementsAnnotatedWith(ScrudBean.class);
-		for (final Element element : entities) {
-			try {
-				if (element.getAnnotation(Entity.class) != null) {
-					if (element instanceof TypeElement) {
-						log.debug("generateEntityPredicateFactories, processing element: {}", element.getSimpleName());
-						final TypeElement typeElement = (TypeElement) element;
-						EntityModelDescriptor descriptor = new EntityModelDescriptor(processingEnv, typeElement);
-						createPredicateFactory(descriptor);
-					}
-					else {
-						log.warn("Not an instance of TypeElement but annotated with ScrudBean: {}", element.getSimpleName());
-                    }
-                }
-            } catch (RuntimeException | ScrudModelProcessorException e) {
-                log.error("Error generating components for {}: " + e.getMessage(),
-                        element.getSimpleName(), e);
-            }
-        }
-    }
+	private void generateEntityPredicateFactories(TypeElement typeElement) {
+		try {
+			if (typeElement.getAnnotation(Entity.class) != null) {
+				log.debug("generateEntityPredicateFactories, processing element: {}", typeElement.getSimpleName());
+				EntityModelDescriptor descriptor = new EntityModelDescriptor(processingEnv, typeElement);
+				createPredicateFactory(descriptor);
+				createFilterCompiler(descriptor);
+			}
+		}
+		catch (RuntimeException | ScrudModelProcessorException e) {
+			log.error("Error generating components for {}: " + e.getMessage(),
+					typeElement.getSimpleName(), e);
+		}
+	}
 
     /**
      * Create an {@link IdentifierAdapter} implementation
@@ -138,6 +137,17 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
         return writeJavaFile(descriptor, typeSpec, descriptor.getPackageName());
     }
 
+    /**
+     * Create a {@link PropertyAccessor} implementation
+     *
+     * @param descriptor The target model descriptor
+     * @return the written file
+     */
+    private JavaFile createPropertyAccessor(ScrudModelDescriptor descriptor) {
+        TypeSpec typeSpec = TypeSpecBuilder.createPropertyAccessor(descriptor);
+        return writeJavaFile(descriptor, typeSpec, descriptor.getPackageName());
+    }
+
     /**
      * Create a SCRUD REST controller source file
      *
@@ -231,6 +241,16 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
 		return writeJavaFile(descriptor, typeSpec, descriptor.getParentPackageName() + ".specification");
 	}
 
+	/**
+	 * Create a typed filter compiler for the target entity
+	 * @param descriptor The target model descriptor
+	 * @return the written file
+	 */
+	private JavaFile createFilterCompiler(EntityModelDescriptor descriptor) {
+		TypeSpec typeSpec = TypeSpecBuilder.createFilterCompiler(descriptor);
+		return writeJavaFile(descriptor, typeSpec, descriptor.getParentPackageName() + ".specification");
+	}
+
 	/**
 	 * Write and return a source file for the given {@link TypeSpec}
 	 * @param typeSpec The target model type spec
@@ -245,8 +265,9 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
 			TypeElement existing = processingEnv.getElementUtils().getTypeElement(fileObjectName);
 			if (existing == null) {
 				log.debug("writeJavaFile for {}, filer: {}", fileObjectName, filer);
+				// Set the model as the originating element for incremental builds
 				file = JavaFile
-						.builder(packageName, typeSpec)
+						.builder(packageName, typeSpec.toBuilder().addOriginatingElement(descriptor.getTypeElement()).build())
 						.build();
 				file.writeTo(filer);
 			}
@@ -261,18 +282,45 @@ public class ScrudModelAnnotationProcessor extends AbstractProcessor {
 	}
 
 	private Properties loadProperties() {
-		Properties props = null;
+		Properties props = new Properties();
 		try {
 			FileObject fileObject = this.filer
 					.getResource(StandardLocation.CLASS_OUTPUT, "", "application.properties");
-			props = new Properties();
-			props.load(fileObject.openInputStream());
-			log.debug("loadProperties, props: {}", props);
+			URI uri = fileObject.toUri();
+			long lastModified = fileObject.getLastModified();
+			CachedProperties cached = CONFIG_CACHE.get(uri);
+			if (cached != null && cached.lastModified == lastModified) {
+				log.debug("loadProperties, using cached props for {}", uri);
+				props.putAll(cached.properties);
+			}
+			else {
+				try (InputStream in = fileObject.openInputStream()) {
+					props.load(in);
+				}
+				CONFIG_CACHE.put(uri, new CachedProperties(lastModified, props));
+				log.debug("loadProperties, props: {}", props);
+			}
 		}
-		catch (IOException e) {
-			e.printStackTrace();
+		catch (IOException | IllegalArgumentException e) {
+			log.debug("loadProperties, application.properties not available: {}", e.getMessage());
 		}
 		return props;
 	}
 
+	/**
+	 * Config properties along with their source modification time
+	 */
+	private static class CachedProperties {
+
+		private final long lastModified;
+
+		private final Properties properties;
+
+		CachedProperties(long lastModified, Properties properties) {
+			this.lastModified = lastModified;
+			this.properties = new Properties();
+			this.properties.putAll(properties);
+		}
+	}
+
 }
\ No newline at end of file
@@ -1,20 +1,30 @@
 package com.github.manosbatsis.scrudbeans.processor.java;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
 import com.github.manosbatsis.scrudbeans.api.DtoMapper;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityFilterCompiler;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityPredicateFactory;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.IdentifierAdapterBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.PropertyAccessorBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.CompositeIdentifierFactory;
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
 import com.github.manosbatsis.scrudbeans.api.mdd.service.ModelService;
+import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
 import com.github.manosbatsis.scrudbeans.controller.AbstractModelServiceBackedController;
 import com.github.manosbatsis.scrudbeans.controller.AbstractPersistableModelController;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.EntityModelDescriptor;
+import com.github.manosbatsis.scrudbeans.processor.java.descriptor.FilterFieldDescriptor;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.ModelDescriptor;
+import com.github.manosbatsis.scrudbeans.processor.java.descriptor.ModelPropertyDescriptor;
 import com.github.manosbatsis.scrudbeans.processor.java.descriptor.ScrudModelDescriptor;
 import com.github.manosbatsis.scrudbeans.repository.ModelRepository;
 import com.github.manosbatsis.scrudbeans.service.AbstractJpaPersistableModelServiceImpl;
 import com.github.manosbatsis.scrudbeans.service.AbstractModelServiceImpl;
 import com.github.manosbatsis.scrudbeans.service.JpaPersistableModelService;
+import com.github.manosbatsis.scrudbeans.specification.AbstractEntityFilterCompiler;
 import com.github.manosbatsis.scrudbeans.specification.factory.AnyToOnePredicateFactory;
 import com.github.manosbatsis.scrudbeans.util.ClassUtils;
 import com.github.manosbatsis.scrudbeans.util.ScrudStringUtils;
@@ -27,6 +37,7 @@ import org.atteo.evo.inflector.English;
 import org.mapstruct.Mapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.convert.ConversionService;
 import org.springframework.hateoas.server.ExposesResourceFor;
 import org.springframework.stereotype.Repository;
 import org.springframework.stereotype.Service;
@@ -35,9 +46,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.lang.model.element.Modifier;
 import javax.persistence.Entity;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Objects;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.io.IOException;
+import java.util.*;
 
 import static com.github.manosbatsis.scrudbeans.api.util.Mimes.*;
 
@@ -222,7 +236,7 @@ class TypeSpecBuilder {
                 getSuperclassName(descriptor, CLASSNAME_KEY_IDADAPTER));
         ClassName modelClassName = ClassName.get(descriptor.getPackageName(), descriptor.getSimpleName());
         ClassName idClassName = ClassName.bestGuess(descriptor.getIdType());
-        return TypeSpec.classBuilder(className)
+        TypeSpec.Builder builder = TypeSpec.classBuilder(className)
                 .addSuperinterface(
                         ParameterizedTypeName.get(
                                 ClassName.get(pkgAndName.getLeft(), pkgAndName.getRight()),
@@ -245,6 +259,146 @@ class TypeSpecBuilder {
                         .returns(idClassName)
                         .addParameter(ParameterSpec.builder(modelClassName, "resource", Modifier.FINAL).build())
                         .addStatement("return resource.$L()", toGetterName(descriptor.getIdName()))
+                        .build());
+        // Composite identifiers are also created from their string representation without reflection
+        if (descriptor.isCompositeId()) {
+            builder.addSuperinterface(ParameterizedTypeName.get(ClassName.get(CompositeIdentifierFactory.class), idClassName))
+                    .addMethod(MethodSpec.methodBuilder("getIdentifierType")
+                            .addModifiers(Modifier.PUBLIC)
+                            .addAnnotation(Override.class)
+                            .returns(ParameterizedTypeName.get(ClassName.get(Class.class), idClassName))
+                            .addStatement("return $T.class", idClassName)
+                            .build())
+                    .addMethod(MethodSpec.methodBuilder("createIdentifier")
+                            .addModifiers(Modifier.PUBLIC)
+                            .addAnnotation(Override.class)
+                            .returns(idClassName)
+                            .addParameter(ParameterSpec.builder(String.class, "value", Modifier.FINAL).build())
+                            .addStatement("$T id = new $T()", idClassName, idClassName)
+                            .addStatement("id.init(value)")
+                            .addStatement("return id")
+                            .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Create an implementation of {@link PropertyAccessor}, used by Jackson to read, write
+     * and serialize model properties without reflection
+     *
+     * @param descriptor The target model descriptor
+     * @return the resulting type spec
+     */
+    static TypeSpec createPropertyAccessor(ScrudModelDescriptor descriptor) {
+        String className = descriptor.getSimpleName() + "PropertyAccessor";
+        ClassName modelClassName = ClassName.get(descriptor.getPackageName(), descriptor.getSimpleName());
+        List<ModelPropertyDescriptor> properties = descriptor.getProperties();
+        CodeBlock.Builder getterNames = CodeBlock.builder();
+        CodeBlock.Builder setterNames = CodeBlock.builder();
+        CodeBlock.Builder simple = CodeBlock.builder();
+        CodeBlock.Builder getValue = CodeBlock.builder().beginControlFlow("switch (index)");
+        CodeBlock.Builder setValue = CodeBlock.builder().beginControlFlow("switch (index)");
+        CodeBlock.Builder writeValue = CodeBlock.builder().beginControlFlow("switch (index)");
+        for (int i = 0; i < properties.size(); i++) {
+            ModelPropertyDescriptor property = properties.get(i);
+            String separator = i > 0 ? ", " : "";
+            getterNames.add("$L$S", separator, property.getGetterName());
+            setterNames.add("$L$S", separator, property.getSetterName());
+            simple.add("$L$L", separator, property.isSimple());
+            getValue.add("case $L:\n$>", i)
+                    .addStatement("return resource.$L()", property.getGetterName())
+                    .add("$<");
+            if (property.getSetterName() != null) {
+                setValue.add("case $L:\n$>", i)
+                        .addStatement("resource.$L(($T) value)", property.getSetterName(), TypeName.get(property.getSetterType()).box())
+                        .addStatement("return")
+                        .add("$<");
+            }
+            if (property.isSimple()) {
+                TypeName type = TypeName.get(property.getType());
+                writeValue.add("case $L: {\n$>", i)
+                        .addStatement("$T value = resource.$L()", type, property.getGetterName());
+                if (!type.isPrimitive()) {
+                    writeValue.addStatement("if (value == null) return false");
+                }
+                writeValue.addStatement("generator.writeFieldName(name)")
+                        .addStatement(type.equals(TypeName.BOOLEAN) || type.equals(TypeName.BOOLEAN.box())
+                                ? "generator.writeBoolean(value)"
+                                : (type.equals(ClassName.get(String.class)) ? "generator.writeString(value)" : "generator.writeNumber(value)"))
+                        .addStatement("return true")
+                        .add("$<}\n");
+            }
+        }
+        for (CodeBlock.Builder block : Arrays.asList(getValue, setValue, writeValue)) {
+            block.add("default:\n$>")
+                    .addStatement("throw new $T($S + index)", IllegalArgumentException.class, "Invalid property index: ")
+                    .add("$<")
+                    .endControlFlow();
+        }
+        ArrayTypeName stringArray = ArrayTypeName.of(String.class);
+        return TypeSpec.classBuilder(className)
+                .addSuperinterface(ParameterizedTypeName.get(ClassName.get(PropertyAccessor.class), modelClassName))
+                .addAnnotation(AnnotationSpec.builder(PropertyAccessorBean.class)
+                        .addMember("className", "$S", modelClassName.toString())
+                        .build())
+                .addModifiers(Modifier.PUBLIC)
+                .addField(FieldSpec.builder(stringArray, "GETTER_NAMES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("{$L}", getterNames.build())
+                        .build())
+                .addField(FieldSpec.builder(stringArray, "SETTER_NAMES", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("{$L}", setterNames.build())
+                        .build())
+                .addField(FieldSpec.builder(boolean[].class, "SIMPLE", Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                        .initializer("{$L}", simple.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getGetterNames")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(stringArray)
+                        .addStatement("return GETTER_NAMES.clone()")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getSetterNames")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(stringArray)
+                        .addStatement("return SETTER_NAMES.clone()")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("isSimple")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(boolean.class)
+                        .addParameter(int.class, "index", Modifier.FINAL)
+                        .addStatement("return SIMPLE[index]")
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("getValue")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(Object.class)
+                        .addParameter(ParameterSpec.builder(modelClassName, "resource", Modifier.FINAL).build())
+                        .addParameter(int.class, "index", Modifier.FINAL)
+                        .addCode(getValue.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("setValue")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .addAnnotation(AnnotationSpec.builder(SuppressWarnings.class)
+                                .addMember("value", "$S", "unchecked")
+                                .build())
+                        .addParameter(ParameterSpec.builder(modelClassName, "resource", Modifier.FINAL).build())
+                        .addParameter(int.class, "index", Modifier.FINAL)
+                        .addParameter(Object.class, "value", Modifier.FINAL)
+                        .addCode(setValue.build())
+                        .build())
+                .addMethod(MethodSpec.methodBuilder("writeValue")
+                        .addModifiers(Modifier.PUBLIC)
+                        .addAnnotation(Override.class)
+                        .returns(boolean.class)
+                        .addParameter(ParameterSpec.builder(modelClassName, "resource", Modifier.FINAL).build())
+                        .addParameter(int.class, "index", Modifier.FINAL)
+                        .addParameter(SerializableString.class, "name", Modifier.FINAL)
+                        .addParameter(JsonGenerator.class, "generator", Modifier.FINAL)
+                        .addException(IOException.class)
+                        .addCode(writeValue.build())
                         .build())
                 .build();
     }
@@ -285,6 +439,84 @@ class TypeSpecBuilder {
 				.build();
 	}
 
+	/**
+	 * Create a filter compiler for the given entity, with one typed method per filterable attribute
+	 * and a whitelist of sortable attributes
+	 * @param descriptor The target model descriptor
+	 * @return the resulting type spec
+	 */
+	static TypeSpec createFilterCompiler(EntityModelDescriptor descriptor) {
+		String className = descriptor.getSimpleName() + "FilterCompiler";
+		ClassName modelClassName = ClassName.get(descriptor.getPackageName(), descriptor.getSimpleName());
+		TypeName rootType = ParameterizedTypeName.get(ClassName.get(Root.class), WildcardTypeName.subtypeOf(Object.class));
+		TypeName valuesType = ParameterizedTypeName.get(List.class, String.class);
+		CodeBlock.Builder sortableFields = CodeBlock.builder().add("$S", descriptor.getSimpleName());
+		for (String sortableField : descriptor.getSortableFields()) {
+			sortableFields.add(", $S", sortableField);
+		}
+		TypeSpec.Builder builder = TypeSpec.classBuilder(className)
+				.addAnnotation(
+						AnnotationSpec.builder(EntityFilterCompiler.class)
+								.addMember("entityClass", "\"" + descriptor.getQualifiedName() + "\"").build())
+				.superclass(ParameterizedTypeName.get(ClassName.get(AbstractEntityFilterCompiler.class), modelClassName))
+				.addModifiers(Modifier.PUBLIC)
+				.addMethod(MethodSpec.constructorBuilder()
+						.addModifiers(Modifier.PUBLIC)
+						.addStatement("super($L)", sortableFields.build())
+						.build());
+		CodeBlock.Builder buildPredicate = CodeBlock.builder().beginControlFlow("switch (propertyPath)");
+		for (FilterFieldDescriptor field : descriptor.getFilterFields()) {
+			String methodName = "filter" + StringUtils.capitalize(field.getName());
+			ClassName valueType = ClassName.bestGuess(field.getValueType());
+			CodeBlock.Builder body = CodeBlock.builder()
+					.addStatement("checkOperator($S, operator, $L)", field.getName(), field.isEqualityOnly() ? "EQUALITY_OPERATORS" : "ALL_OPERATORS");
+			if (field.getRelationIdName() != null) {
+				body.addStatement("$T<$T> path = root.get($S).get($S)", Path.class, valueType, field.getName(), field.getRelationIdName());
+			}
+			else {
+				body.addStatement("$T<$T> path = root.get($S)", Path.class, valueType, field.getName());
+			}
+			if (field.getConverter() != null) {
+				body.addStatement("return $L(cb, path, operator, $L($S, values))",
+						field.getPredicateMethod(), field.getConverter(), field.getName());
+			}
+			else {
+				body.addStatement("return $L(cb, path, operator, convert($S, values, $T.class, conversionService))",
+						field.getPredicateMethod(), field.getName(), valueType);
+			}
+			builder.addMethod(MethodSpec.methodBuilder(methodName)
+					.addModifiers(Modifier.PROTECTED)
+					.returns(Predicate.class)
+					.addParameter(rootType, "root")
+					.addParameter(CriteriaBuilder.class, "cb")
+					.addParameter(PredicateOperator.class, "operator")
+					.addParameter(valuesType, "values")
+					.addParameter(ConversionService.class, "conversionService")
+					.addCode(body.build())
+					.build());
+			buildPredicate.add("case $S:\n$>", field.getName())
+					.addStatement("return $L(root, cb, operator, values, conversionService)", methodName)
+					.add("$<");
+		}
+		buildPredicate.add("default:\n$>")
+				.addStatement("return null")
+				.add("$<")
+				.endControlFlow();
+		return builder.addMethod(MethodSpec.methodBuilder("buildPredicate")
+				.addAnnotation(Override.class)
+				.addModifiers(Modifier.PUBLIC)
+				.returns(Predicate.class)
+				.addParameter(rootType, "root")
+				.addParameter(CriteriaBuilder.class, "cb")
+				.addParameter(String.class, "propertyPath")
+				.addParameter(PredicateOperator.class, "operator")
+				.addParameter(valuesType, "values")
+				.addParameter(ConversionService.class, "conversionService")
+				.addCode(buildPredicate.build())
+				.build())
+				.build();
+	}
+
 	/**
 	 * Generate a {@link RequestMapping} pattern for an {@link Entity}-specific  SCRUD REST controller
 	 * @param descriptor The target model descriptor
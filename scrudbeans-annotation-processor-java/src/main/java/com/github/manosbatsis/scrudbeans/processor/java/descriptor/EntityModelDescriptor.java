@@ -2,9 +2,33 @@ package com.github.manosbatsis.scrudbeans.processor.java.descriptor;
 
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Types;
+import javax.persistence.ElementCollection;
+import javax.persistence.Embedded;
+import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.ManyToMany;
+import javax.persistence.ManyToOne;
+import javax.persistence.MappedSuperclass;
+import javax.persistence.OneToMany;
+import javax.persistence.OneToOne;
+import javax.persistence.Transient;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.github.manosbatsis.scrudbeans.api.mdd.ScrudModelProcessorException;
 
@@ -14,6 +38,13 @@ import com.github.manosbatsis.scrudbeans.api.mdd.ScrudModelProcessorException;
  */
 public class EntityModelDescriptor extends ModelDescriptor {
 
+	// Populated during super constructor member scanning, so no initializers here
+	private Map<String, FilterFieldDescriptor> filterFields;
+
+	private Set<String> sortableFields;
+
+	private boolean fieldAccess;
+
 	public EntityModelDescriptor(ProcessingEnvironment processingEnv, TypeElement typeElement) throws ScrudModelProcessorException {
 		super(processingEnv, typeElement);
 	}
@@ -21,6 +52,104 @@ public class EntityModelDescriptor extends ModelDescriptor {
 	@Override
 	protected void scanMember(Types types, TypeElement currentTypeElement, Element memberElement) throws ScrudModelProcessorException {
 		checkIfMemberIsId(types, memberElement);
+		if (memberElement.getKind() == ElementKind.FIELD
+				&& (currentTypeElement.getAnnotation(Entity.class) != null || currentTypeElement.getAnnotation(MappedSuperclass.class) != null)) {
+			scanPersistentField(types, (VariableElement) memberElement);
+		}
+	}
+
+	/**
+	 * Collect the filterable and sortable attributes for the given field, if persistent
+	 */
+	private void scanPersistentField(Types types, VariableElement field) throws ScrudModelProcessorException {
+		if (filterFields == null) {
+			filterFields = new LinkedHashMap<>();
+			sortableFields = new LinkedHashSet<>();
+		}
+		String name = field.getSimpleName().toString();
+		if (field.getAnnotation(Id.class) != null || field.getAnnotation(EmbeddedId.class) != null) {
+			fieldAccess = true;
+		}
+		if (sortableFields.contains(name) || field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)
+				|| field.getAnnotation(Transient.class) != null || field.getAnnotation(ElementCollection.class) != null
+				|| field.getAnnotation(OneToMany.class) != null || field.getAnnotation(ManyToMany.class) != null) {
+			return;
+		}
+		// sortable by nested paths, e.g. id.left, but not filterable as a whole
+		if (field.getAnnotation(Embedded.class) != null || field.getAnnotation(EmbeddedId.class) != null) {
+			sortableFields.add(name);
+			return;
+		}
+		TypeMirror type = field.asType();
+		if (field.getAnnotation(ManyToOne.class) != null || field.getAnnotation(OneToOne.class) != null) {
+			sortableFields.add(name);
+			VariableElement relatedId = type.getKind() == TypeKind.DECLARED ? findIdField(types, asTypeElement(types, type)) : null;
+			if (relatedId != null && relatedId.getAnnotation(Id.class) != null) {
+				addFilterField(FilterFieldDescriptor.forRelation(name, relatedId.getSimpleName().toString(), getBoxedTypeName(types, relatedId.asType())));
+			}
+		}
+		else if (type.getKind().isPrimitive() || type.getKind() == TypeKind.DECLARED || type.getKind() == TypeKind.TYPEVAR) {
+			if (type.getKind() == TypeKind.TYPEVAR) {
+				type = types.asMemberOf((DeclaredType) getTypeElement().asType(), field);
+			}
+			// skip collections and maps
+			if (type.getKind() == TypeKind.DECLARED && isContainer(types, (DeclaredType) type)) {
+				return;
+			}
+			sortableFields.add(name);
+			boolean isEnum = type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+			addFilterField(FilterFieldDescriptor.forAttribute(name, getBoxedTypeName(types, type), isEnum));
+		}
+	}
+
+	private void addFilterField(FilterFieldDescriptor filterField) {
+		if (filterField != null) {
+			filterFields.put(filterField.getName(), filterField);
+		}
+	}
+
+	/**
+	 * Find the identifier field of the given entity type, searching superclasses
+	 */
+	private VariableElement findIdField(Types types, TypeElement entityType) throws ScrudModelProcessorException {
+		for (Element e : entityType.getEnclosedElements()) {
+			if (e.getKind() == ElementKind.FIELD && (e.getAnnotation(Id.class) != null || e.getAnnotation(EmbeddedId.class) != null)) {
+				return (VariableElement) e;
+			}
+		}
+		TypeMirror superclass = entityType.getSuperclass();
+		return superclass.getKind() == TypeKind.DECLARED ? findIdField(types, asTypeElement(types, superclass)) : null;
+	}
+
+	private boolean isContainer(Types types, DeclaredType type) {
+		TypeMirror erased = types.erasure(type);
+		for (TypeMirror superType : types.directSupertypes(erased)) {
+			if (isContainer(types, (DeclaredType) superType)) {
+				return true;
+			}
+		}
+		String name = ((TypeElement) type.asElement()).getQualifiedName().toString();
+		return name.equals(Iterable.class.getName()) || name.equals(Map.class.getName());
+	}
+
+	private String getBoxedTypeName(Types types, TypeMirror type) {
+		return type.getKind().isPrimitive()
+				? types.boxedClass((PrimitiveType) type).getQualifiedName().toString()
+				: types.erasure(type).toString();
+	}
+
+	/**
+	 * Get the filterable attributes, empty unless the entity uses field access
+	 */
+	public List<FilterFieldDescriptor> getFilterFields() {
+		return fieldAccess && filterFields != null ? new ArrayList<>(filterFields.values()) : Collections.emptyList();
+	}
+
+	/**
+	 * Get the sortable attributes, empty unless the entity uses field access
+	 */
+	public Set<String> getSortableFields() {
+		return fieldAccess && sortableFields != null ? sortableFields : Collections.emptySet();
 	}
 
 }
@@ -0,0 +1,120 @@
+package com.github.manosbatsis.scrudbeans.processor.java.descriptor;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Describes a filterable entity attribute, i.e. the value type, converter, allowed operators
+ * and JPA path used by a generated filter compiler
+ */
+public class FilterFieldDescriptor {
+
+	/** Types with a dedicated converter method in the filter compiler base class */
+	private static final Map<String, String> CONVERTERS = new HashMap<>();
+
+	static {
+		CONVERTERS.put(String.class.getName(), "toStrings");
+		CONVERTERS.put(Integer.class.getName(), "toIntegers");
+		CONVERTERS.put(Long.class.getName(), "toLongs");
+		CONVERTERS.put(Short.class.getName(), "toShorts");
+		CONVERTERS.put(Byte.class.getName(), "toBytes");
+		CONVERTERS.put(Double.class.getName(), "toDoubles");
+		CONVERTERS.put(Float.class.getName(), "toFloats");
+		CONVERTERS.put(BigDecimal.class.getName(), "toBigDecimals");
+		CONVERTERS.put(BigInteger.class.getName(), "toBigIntegers");
+		CONVERTERS.put(UUID.class.getName(), "toUuids");
+	}
+
+	private final String name;
+
+	private final String valueType;
+
+	private final String relationIdName;
+
+	private final String converter;
+
+	private final String predicateMethod;
+
+	private final boolean equalityOnly;
+
+	private FilterFieldDescriptor(String name, String valueType, String relationIdName,
+			String converter, String predicateMethod, boolean equalityOnly) {
+		this.name = name;
+		this.valueType = valueType;
+		this.relationIdName = relationIdName;
+		this.converter = converter;
+		this.predicateMethod = predicateMethod;
+		this.equalityOnly = equalityOnly;
+	}
+
+	/**
+	 * Describe a basic attribute
+	 * @param name the attribute name
+	 * @param valueType the (boxed) attribute type name
+	 * @param isEnum whether the attribute type is an enum
+	 * @return the descriptor or null if the type is not supported
+	 */
+	public static FilterFieldDescriptor forAttribute(String name, String valueType, boolean isEnum) {
+		String converter = CONVERTERS.get(valueType);
+		if (converter != null) {
+			return new FilterFieldDescriptor(name, valueType, null, converter,
+					String.class.getName().equals(valueType) ? "stringPredicate" : "comparablePredicate", false);
+		}
+		else if (isEnum || Boolean.class.getName().equals(valueType)) {
+			return new FilterFieldDescriptor(name, valueType, null, null, "equalityPredicate", true);
+		}
+		else if (Date.class.getName().equals(valueType) || LocalDate.class.getName().equals(valueType)
+				|| LocalDateTime.class.getName().equals(valueType)) {
+			return new FilterFieldDescriptor(name, valueType, null, null, "comparablePredicate", false);
+		}
+		return null;
+	}
+
+	/**
+	 * Describe a to-one relationship, filtered by the related entity identifier
+	 * @param name the attribute name
+	 * @param idName the related entity identifier name
+	 * @param idType the (boxed) related entity identifier type name
+	 * @return the descriptor or null if the identifier type is not supported
+	 */
+	public static FilterFieldDescriptor forRelation(String name, String idName, String idType) {
+		String converter = CONVERTERS.get(idType);
+		return converter != null
+				? new FilterFieldDescriptor(name, idType, idName, converter, "comparablePredicate", false)
+				: null;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/** The value type name, i.e. the related identifier type for relationships */
+	public String getValueType() {
+		return valueType;
+	}
+
+	/** The related entity identifier name, null if not a relationship */
+	public String getRelationIdName() {
+		return relationIdName;
+	}
+
+	/** The converter method name, null if the conversion service should be used */
+	public String getConverter() {
+		return converter;
+	}
+
+	public String getPredicateMethod() {
+		return predicateMethod;
+	}
+
+	/** Whether only equality operators are supported */
+	public boolean isEqualityOnly() {
+		return equalityOnly;
+	}
+}
@@ -1,6 +1,7 @@
 package com.github.manosbatsis.scrudbeans.processor.java.descriptor;
 
 import com.github.manosbatsis.scrudbeans.api.mdd.ScrudModelProcessorException;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdentifier;
 import lombok.NonNull;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +35,8 @@ public abstract class ModelDescriptor {
 
     private String idName;
 
+    private boolean compositeId;
+
     private final String qualifiedName;
 
     private final String simpleName;
@@ -75,9 +78,33 @@ public abstract class ModelDescriptor {
             }
             idType = getMemberType(types, e);
             idName = e.getSimpleName().toString();
+            TypeMirror idTypeMirror = getMemberTypeMirror(types, e);
+            compositeId = idTypeMirror != null && isCompositeIdentifier(types, idTypeMirror);
         }
 	}
 
+	/**
+	 * Check whether the given type implements {@link EmbeddableCompositeIdentifier}
+	 * @param types
+	 * @param typeMirror
+	 * @return whether the type is a composite identifier
+	 */
+	protected boolean isCompositeIdentifier(Types types, TypeMirror typeMirror) {
+		if (typeMirror.getKind() != TypeKind.DECLARED) {
+			return false;
+		}
+		TypeElement element = (TypeElement) ((DeclaredType) typeMirror).asElement();
+		if (element.getQualifiedName().contentEquals(EmbeddableCompositeIdentifier.class.getCanonicalName())) {
+			return true;
+		}
+		for (TypeMirror superType : types.directSupertypes(typeMirror)) {
+			if (isCompositeIdentifier(types, superType)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	/**
 	 * Convert the given {@link TypeMirror} to a {@link TypeElement}
 	 * @param typeMirror
@@ -104,6 +131,24 @@ public abstract class ModelDescriptor {
 	 */
 	protected String getMemberType(Types types, Element scrudModelMember) throws ScrudModelProcessorException {
 		String memberType = null;
+		TypeMirror typeMirror = getMemberTypeMirror(types, scrudModelMember);
+
+		// Get class/type name
+		if (typeMirror != null) {
+			memberType = asTypeElement(types, typeMirror).toString();
+		}
+
+		log.debug("getType for {}: {}", scrudModelMember.getSimpleName(), memberType);
+		return memberType;
+	}
+
+	/**
+	 * Inspect member and get type mirror if field or  getter, null otherwise.
+	 * @param types
+	 * @param scrudModelMember
+	 * @return
+	 */
+	protected TypeMirror getMemberTypeMirror(Types types, Element scrudModelMember) {
 		TypeMirror typeMirror = null;
 		// If member is a field
 		if (scrudModelMember.getKind() == ElementKind.FIELD) {
@@ -124,20 +169,17 @@ public abstract class ModelDescriptor {
 			}
 
 		}
-
-		// Get class/type name
-		if (typeMirror != null) {
-			memberType = asTypeElement(types, typeMirror).toString();
-		}
-
-		log.debug("getType for {}: {}", scrudModelMember.getSimpleName(), memberType);
-		return memberType;
+		return typeMirror;
 	}
 
 	public String getStack() {
 		return this.getJpaEntity() ? STACK_JPA : "";
     }
 
+    public TypeElement getTypeElement() {
+        return typeElement;
+    }
+
     public Boolean getJpaEntity() {
         return jpaEntity;
     }
@@ -150,6 +192,10 @@ public abstract class ModelDescriptor {
         return idName;
     }
 
+    public boolean isCompositeId() {
+        return compositeId;
+    }
+
     public void setIdType(String idType) {
         this.idType = idType;
     }
@@ -0,0 +1,72 @@
+package com.github.manosbatsis.scrudbeans.processor.java.descriptor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes a model property accessible via public getter and, optionally, setter methods
+ */
+public class ModelPropertyDescriptor {
+
+	/** Non-primitive types the generated accessors can write directly to a JSON generator */
+	private static final Set<String> SIMPLE_TYPES = new HashSet<>(Arrays.asList(
+			String.class.getName(), Boolean.class.getName(),
+			Integer.class.getName(), Long.class.getName(), Short.class.getName(), Byte.class.getName(),
+			Double.class.getName(), Float.class.getName(),
+			BigDecimal.class.getName(), BigInteger.class.getName()));
+
+	private final String name;
+
+	private final TypeMirror type;
+
+	private final String getterName;
+
+	private final String setterName;
+
+	private final TypeMirror setterType;
+
+	public ModelPropertyDescriptor(String name, TypeMirror type, String getterName, String setterName, TypeMirror setterType) {
+		this.name = name;
+		this.type = type;
+		this.getterName = getterName;
+		this.setterName = setterName;
+		this.setterType = setterType;
+	}
+
+	/** Whether the property is a string, number or boolean, excluding chars */
+	public boolean isSimple() {
+		if (type.getKind().isPrimitive()) {
+			return type.getKind() != TypeKind.CHAR;
+		}
+		return type.getKind() == TypeKind.DECLARED
+				&& SIMPLE_TYPES.contains(((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString());
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public TypeMirror getType() {
+		return type;
+	}
+
+	public String getGetterName() {
+		return getterName;
+	}
+
+	public String getSetterName() {
+		return setterName;
+	}
+
+	/** The erased setter parameter type */
+	public TypeMirror getSetterType() {
+		return setterType;
+	}
+}
@@ -7,10 +7,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.processing.ProcessingEnvironment;
-import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.Element;
-import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.MirroredTypesException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.Types;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -24,18 +27,110 @@ public class ScrudModelDescriptor extends ModelDescriptor {
 
 	private static final Logger log = LoggerFactory.getLogger(ScrudModelDescriptor.class);
 
+	private static final String LOMBOK_GETTER = "lombok.Getter";
+
+	private static final String LOMBOK_SETTER = "lombok.Setter";
+
+	private static final String LOMBOK_DATA = "lombok.Data";
+
+	private static final String LOMBOK_VALUE = "lombok.Value";
+
 	private final ScrudBean scrudBean;
 
 	private Set<String> dtoTypes;
 
 	private Properties configProperties;
 
+	private List<ModelPropertyDescriptor> properties;
+
 	public ScrudModelDescriptor(ProcessingEnvironment processingEnv, TypeElement typeElement, Properties props) throws ScrudModelProcessorException {
 		super(processingEnv, typeElement);
 		this.configProperties = props;
 		this.scrudBean = typeElement.getAnnotation(ScrudBean.class);
 		initDtoClassnames(typeElement);
+		this.properties = scanProperties(processingEnv, typeElement);
+	}
+
+	/**
+	 * Collect the instance fields of the model and its superclasses that have a public getter,
+	 * either declared or generated by Lombok
+	 */
+	private List<ModelPropertyDescriptor> scanProperties(ProcessingEnvironment processingEnv, TypeElement typeElement) {
+		Types types = processingEnv.getTypeUtils();
+		DeclaredType modelType = (DeclaredType) typeElement.asType();
+		// Public instance methods, including inherited ones
+		Map<String, ExecutableElement> methods = new HashMap<>();
+		for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(typeElement))) {
+			if (method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+				methods.putIfAbsent(method.getSimpleName() + "/" + method.getParameters().size(), method);
+			}
+		}
+		List<ModelPropertyDescriptor> properties = new LinkedList<>();
+		Set<String> names = new HashSet<>();
+		TypeElement current = typeElement;
+		while (current != null && !current.getQualifiedName().contentEquals(Object.class.getCanonicalName())) {
+			Boolean classGetters = getLombokAccess(current, LOMBOK_GETTER, LOMBOK_DATA, LOMBOK_VALUE);
+			Boolean classSetters = getLombokAccess(current, LOMBOK_SETTER, LOMBOK_DATA);
+			for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+				String name = field.getSimpleName().toString();
+				if (field.getModifiers().contains(Modifier.STATIC) || !names.add(name)) {
+					continue;
+				}
+				TypeMirror fieldType = types.asMemberOf(modelType, field);
+				boolean isPrefixed = fieldType.getKind() == TypeKind.BOOLEAN && name.matches("is[A-Z].*");
+				String getterName = fieldType.getKind() == TypeKind.BOOLEAN
+						? (isPrefixed ? name : toAccessorMethodName(name, "is"))
+						: toAccessorMethodName(name, "get");
+				String setterName = toAccessorMethodName(isPrefixed ? name.substring(2) : name, "set");
+				// Prefer the declared accessor signatures over the field type
+				ExecutableElement getter = methods.get(getterName + "/0");
+				ExecutableElement setter = methods.get(setterName + "/1");
+				TypeMirror type = getter != null
+						? ((ExecutableType) types.asMemberOf(modelType, getter)).getReturnType()
+						: fieldType;
+				TypeMirror setterType = setter != null
+						? ((ExecutableType) types.asMemberOf(modelType, setter)).getParameterTypes().get(0)
+						: fieldType;
+				if (getter != null || isLombokAccessible(field, classGetters, LOMBOK_GETTER)) {
+					boolean writable = setter != null
+							|| (!field.getModifiers().contains(Modifier.FINAL) && isLombokAccessible(field, classSetters, LOMBOK_SETTER));
+					properties.add(new ModelPropertyDescriptor(
+							name, type, getterName, writable ? setterName : null, writable ? types.erasure(setterType) : null));
+				}
+			}
+			TypeMirror superclass = current.getSuperclass();
+			current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+		}
+		return properties;
+	}
+
+	/** Whether the field gets a public Lombok accessor, from either its own or the class annotation */
+	private boolean isLombokAccessible(VariableElement field, Boolean classAccess, String annotationName) {
+		Boolean fieldAccess = getLombokAccess(field, annotationName);
+		return fieldAccess != null ? fieldAccess : Boolean.TRUE.equals(classAccess);
+	}
+
+	/**
+	 * Get whether the element carries any of the given Lombok annotations with public access,
+	 * <code>null</code> if none is present
+	 */
+	private Boolean getLombokAccess(Element element, String... annotationNames) {
+		for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+			String annotationType = annotation.getAnnotationType().toString();
+			if (Arrays.asList(annotationNames).contains(annotationType)) {
+				for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotation.getElementValues().entrySet()) {
+					if (entry.getKey().getSimpleName().contentEquals("value")) {
+						return entry.getValue().getValue().toString().equals("PUBLIC");
+					}
+				}
+				return true;
+			}
+		}
+		return null;
+	}
 
+	private static String toAccessorMethodName(String fieldName, String prefix) {
+		return prefix + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
 	}
 
 	/** Initialise the set of DTO classnames for this ScrudBean. Used to create mappers from/to this ScrudBean */
@@ -111,4 +206,8 @@ public class ScrudModelDescriptor extends ModelDescriptor {
 	public Properties getConfigProperties() {
 		return configProperties;
 	}
+
+	public List<ModelPropertyDescriptor> getProperties() {
+		return properties;
+	}
 }
\ No newline at end of file
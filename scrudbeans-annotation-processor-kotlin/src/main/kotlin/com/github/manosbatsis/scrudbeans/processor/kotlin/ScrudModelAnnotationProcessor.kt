@@ -5,6 +5,7 @@ import com.github.manosbatsis.scrudbeans.api.DtoMapper
 import com.github.manosbatsis.scrudbeans.api.mdd.ScrudModelProcessorException
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor
 import com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor.EntityModelDescriptor
 import com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor.ModelDescriptor
 import com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor.ScrudModelDescriptor
@@ -12,10 +13,11 @@ import com.squareup.kotlinpoet.*
 import org.slf4j.LoggerFactory
 import java.io.File
 import java.io.IOException
+import java.net.URI
 import java.util.*
+import java.util.concurrent.ConcurrentHashMap
 import javax.annotation.processing.*
 import javax.lang.model.SourceVersion
-import javax.lang.model.element.Name
 import javax.lang.model.element.TypeElement
 import javax.persistence.Entity
 import javax.tools.StandardLocation
@@ -24,7 +26,9 @@ import javax.tools.StandardLocation
  * Annotation processor that generates SCRUD components
  * for model annotated with @[ScrudBean]
  * and JPA specification predicate factories for models
- * annotated with @[Entity]
+ * annotated with @[Entity]. Each model is the originating element of its generated sources,
+ * while unchanged files are left untouched. Generated sources also depend on application.properties
+ * and on types other than their model, e.g. superclasses and related models, i.e. processing is aggregating.
  */
 @SupportedAnnotationTypes("com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean")
 @SupportedSourceVersion(SourceVersion.RELEASE_8)
@@ -37,9 +41,11 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
         const val KAPT_KOTLIN_GENERATED_OPTION_NAME = "kapt.kotlin.generated"
 
         val TYPE_PARAMETER_STAR = WildcardTypeName.producerOf(Any::class.asTypeName().copy(nullable = true))
+
+        /** Config properties cached per location, reused as long as the file is unchanged */
+        private val CONFIG_CACHE = ConcurrentHashMap<URI, Pair<Long, Properties>>()
     }
 
-    private var complete = false
     private val typeSpecBuilder by lazy { TypeSpecBuilder(processingEnv)}
     private lateinit var filer: Filer
 
@@ -67,56 +73,55 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
     /**
      * {@inheritDoc}
      */
-    override fun process(annotations: Set<TypeElement>, roundEnv: RoundEnvironment): Boolean {
-        // short-circuit if there are multiple rounds
-        if (complete) {
-            processingEnv.noteMessage { "Processor has already been executed, ignoring" }
-            return true
-        }
-        processingEnv.noteMessage { "ScrudModelAnnotationProcessor processing started" }
+    @Synchronized
+    override fun init(processingEnv: ProcessingEnvironment) {
+        super.init(processingEnv)
         // Init a filer
         this.filer = processingEnv.filer
-        // Load config/properties
+        // Load config/properties once per compilation
         configProps = this.loadProperties()
-        // Create JPA query predicate factories for each entity in the source path
-        generateEntityPredicateFactories(roundEnv)
-        // Create other SCRUD components for each model annotated with ScrudBean
-        generateScrudComponents(roundEnv)
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    override fun process(annotations: Set<TypeElement>, roundEnv: RoundEnvironment): Boolean {
+        val annotatedModels = roundEnv.getElementsAnnotatedWith(ScrudBean::class.java)
+        processingEnv.noteMessage { "ScrudModelAnnotationProcessor found ${annotatedModels.size} annotated classes" }
+        // Each model originates its own files, which may also depend on other types and the config properties
+        for (element in annotatedModels) {
+            if (element is TypeElement) {
+                // Create JPA query predicate factories for the entity
+                generateEntityPredicateFactories(element)
+                // Create other SCRUD components for the model
+                generateScrudComponents(element)
+            } else {
+                processingEnv.errorMessage { "Not an instance of TypeElement but annotated with ScrudBean: ${element.simpleName}" }
+            }
+        }
         // Claiming that annotations have been processed by this processor
-        complete = true
         return true
     }
 
     /**
      * Create SCRUD components for the target model
-     * @param roundEnv The current compilation round environment
+     * @param element The target model type
      */
-    private fun generateScrudComponents(roundEnv: RoundEnvironment) {
-        val annotatedModels = roundEnv.getElementsAnnotatedWith(ScrudBean::class.java)
-        val modelDescriptors = HashMap<Name, ScrudModelDescriptor>()
-        processingEnv.noteMessage { "ScrudModelAnnotationProcessor found ${annotatedModels?.size ?: 0} annotated classes" }
-        if (annotatedModels != null) {
-            for (element in annotatedModels) {
-                try {
-                    if (element is TypeElement) {
-                        // Parse model to something more convenient
-                        val descriptor = ScrudModelDescriptor(processingEnv, element, configProps)
-                        // Mappers for manual DTOs
-                        generateDtoMappers(descriptor)
-                        generateDto(descriptor)
-                        createIdAdapters(descriptor)
-                        createRepository(descriptor)
-                        createService(descriptor)
-                        createController(descriptor)
-                    } else {
-                        processingEnv.errorMessage { "Not an instance of TypeElement but annotated with ScrudBean: ${element.simpleName}" }
-                    }
-                } catch (e: ScrudModelProcessorException) {
-                    processingEnv.errorMessage { "Failed processing ScrudBean annotation for: ${element.simpleName}: ${e.message}" }
-                    throw e
-                }
-
-            }
+    private fun generateScrudComponents(element: TypeElement) {
+        try {
+            // Parse model to something more convenient
+            val descriptor = ScrudModelDescriptor(processingEnv, element, configProps)
+            // Mappers for manual DTOs
+            generateDtoMappers(descriptor)
+            generateDto(descriptor)
+            createIdAdapters(descriptor)
+            createPropertyAccessor(descriptor)
+            createRepository(descriptor)
+            createService(descriptor)
+            createController(descriptor)
+        } catch (e: ScrudModelProcessorException) {
+            processingEnv.errorMessage { "Failed processing ScrudBean annotation for: ${element.simpleName}: ${e.message}" }
+            throw e
         }
     }
 
@@ -132,31 +137,24 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
     }
 
     /**
-     * Create JPA query predicate factories for each entity in the source path
-     * @param roundEnv The current compilation round environment
+     * Create JPA query predicate factories for the target model, if an entity
+     * @param element The target model type
      */
-    private fun generateEntityPredicateFactories(roundEnv: RoundEnvironment) {
-        val entities = roundEnv.getElementsAnnotatedWith(ScrudBean::class.java)
-        for (element in entities) {
-            try {
-                if (element.getAnnotation(Entity::class.java) != null) {
-                    if (element is TypeElement) {
-                        processingEnv.noteMessage { "generateEntityPredicateFactories, processing element: ${element.simpleName}" }
-                        val descriptor = EntityModelDescriptor(processingEnv, element)
-                        createPredicateFactory(descriptor)
-                    } else {
-                        processingEnv.noteMessage { "Not an instance of TypeElement but annotated with ScrudBean: ${element.simpleName}" }
-                    }
-                }
-            } catch (e: RuntimeException) {
-                processingEnv.errorMessage { "Error generating components for element.simpleName ${e.message}: " }
-                throw e
-            } catch (e: ScrudModelProcessorException) {
-                e.printStackTrace()
-                processingEnv.errorMessage { "Error generating components for ${element.simpleName}: " + e.message }
-                throw e
+    private fun generateEntityPredicateFactories(element: TypeElement) {
+        try {
+            if (element.getAnnotation(Entity::class.java) != null) {
+                processingEnv.noteMessage { "generateEntityPredicateFactories, processing element: ${element.simpleName}" }
+                val descriptor = EntityModelDescriptor(processingEnv, element)
+                createPredicateFactory(descriptor)
+                createFilterCompiler(descriptor)
             }
-
+        } catch (e: RuntimeException) {
+            processingEnv.errorMessage { "Error generating components for ${element.simpleName}: ${e.message}" }
+            throw e
+        } catch (e: ScrudModelProcessorException) {
+            e.printStackTrace()
+            processingEnv.errorMessage { "Error generating components for ${element.simpleName}: " + e.message }
+            throw e
         }
     }
 
@@ -253,6 +251,16 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
                 }
     }
 
+    /**
+     * Create a [PropertyAccessor] implementation
+     * @param descriptor The target model descriptor
+     * @return the written file
+     */
+    private fun createPropertyAccessor(descriptor: ScrudModelDescriptor): FileSpec? {
+        val typeSpec = typeSpecBuilder.createPropertyAccessor(descriptor)
+        return writeKotlinFile(descriptor, typeSpec, descriptor.packageName)
+    }
+
     /**
      * Create a JPA specification predicate factory source file
      * @param descriptor The target model descriptor
@@ -263,6 +271,16 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
         return writeKotlinFile(descriptor, typeSpec, descriptor.parentPackageName + ".specification")
     }
 
+    /**
+     * Create a typed filter compiler source file
+     * @param descriptor The target model descriptor
+     * @return the written file
+     */
+    private fun createFilterCompiler(descriptor: EntityModelDescriptor): FileSpec? {
+        val typeSpec = typeSpecBuilder.createFilterCompiler(descriptor)
+        return writeKotlinFile(descriptor, typeSpec, descriptor.parentPackageName + ".specification")
+    }
+
     /**
      * Write and return a source file for the given [TypeSpec]
      * @param typeSpec The target model type spec
@@ -276,7 +294,7 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
         try {
             val existing = processingEnv.elementUtils.getTypeElement(fileObjectName)
             if (existing == null) {
-                processingEnv.noteMessage { "writeJavaFile for $fileObjectName" }
+                processingEnv.noteMessage { "writeKotlinFile for $fileObjectName" }
                 file = FileSpec.builder(packageName, typeSpec.name!!)
                         .addComment("-------------------- DO NOT EDIT -------------------\n")
                         .addComment(" This file is automatically generated by scrudbeans,\n")
@@ -284,14 +302,21 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
                         .addComment(" To edit this file, copy it to the appropriate package \n")
                         .addComment(" in your src/main/kotlin folder and edit there. \n")
                         .addComment("----------------------------------------------------")
-                        .addType(typeSpec)
+                        // Set the model as the originating element for incremental builds
+                        .addType(typeSpec.toBuilder().addOriginatingElement(descriptor.typeElement).build())
                         .build()
-                file.writeTo(sourceRootFile)
+                // Leave unchanged files untouched to avoid recompiling them
+                val target = File(sourceRootFile, packageName.replace('.', File.separatorChar) + File.separator + typeSpec.name + ".kt")
+                if (!target.isFile || target.readText() != file.toString()) {
+                    file.writeTo(sourceRootFile)
+                } else {
+                    processingEnv.noteMessage { "writeKotlinFile: Skipping for $fileObjectName as it is unchanged" }
+                }
             } else {
-                processingEnv.noteMessage { "writeJavaFile: Skipping for $fileObjectName as it already exists" }
+                processingEnv.noteMessage { "writeKotlinFile: Skipping for $fileObjectName as it already exists" }
             }
         } catch (e: Exception) {
-            processingEnv.noteMessage { "writeJavaFile: Error creating file for $fileObjectName: ${e.message}" }
+            processingEnv.noteMessage { "writeKotlinFile: Error creating file for $fileObjectName: ${e.message}" }
             throw e
         }
 
@@ -299,14 +324,25 @@ class ScrudModelAnnotationProcessor : AbstractProcessor(), ProcessingEnvironment
     }
 
     private fun loadProperties(): Properties {
-        var props = Properties()
+        val props = Properties()
         try {
-            val fileObject = this.filer!!
+            val fileObject = this.filer
                     .getResource(StandardLocation.CLASS_OUTPUT, "", "application.properties")
-            props.load(fileObject.openInputStream())
-            processingEnv.noteMessage { "loadProperties, props: $props" }
+            val uri = fileObject.toUri()
+            val lastModified = fileObject.lastModified
+            val cached = CONFIG_CACHE[uri]
+            if (cached != null && cached.first == lastModified) {
+                props.putAll(cached.second)
+                processingEnv.noteMessage { "loadProperties, using cached props for $uri" }
+            } else {
+                fileObject.openInputStream().use { props.load(it) }
+                CONFIG_CACHE[uri] = Pair(lastModified, Properties().apply { putAll(props) })
+                processingEnv.noteMessage { "loadProperties, props: $props" }
+            }
         } catch (e: IOException) {
-            e.printStackTrace()
+            processingEnv.noteMessage { "loadProperties, application.properties not available: ${e.message}" }
+        } catch (e: IllegalArgumentException) {
+            processingEnv.noteMessage { "loadProperties, application.properties not available: ${e.message}" }
         }
         return props
     }
@@ -1,12 +1,19 @@
 package com.github.manosbatsis.scrudbeans.processor.kotlin
 
+import com.fasterxml.jackson.core.JsonGenerator
+import com.fasterxml.jackson.core.SerializableString
 import com.github.manosbatsis.kotlin.utils.ProcessingEnvironmentAware
 import com.github.manosbatsis.scrudbeans.api.DtoMapper
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityFilterCompiler
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityPredicateFactory
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.IdentifierAdapterBean
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.PropertyAccessorBean
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean
+import com.github.manosbatsis.scrudbeans.api.mdd.model.CompositeIdentifierFactory
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor
 import com.github.manosbatsis.scrudbeans.api.mdd.service.ModelService
+import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator
 import com.github.manosbatsis.scrudbeans.api.util.Mimes.*
 import com.github.manosbatsis.scrudbeans.controller.AbstractDtoModelController
 import com.github.manosbatsis.scrudbeans.controller.AbstractModelServiceBackedController
@@ -18,6 +25,7 @@ import com.github.manosbatsis.scrudbeans.repository.ModelRepository
 import com.github.manosbatsis.scrudbeans.service.AbstractJpaPersistableModelServiceImpl
 import com.github.manosbatsis.scrudbeans.service.AbstractModelServiceImpl
 import com.github.manosbatsis.scrudbeans.service.JpaPersistableModelService
+import com.github.manosbatsis.scrudbeans.specification.AbstractEntityFilterCompiler
 import com.github.manosbatsis.scrudbeans.specification.factory.AnyToOnePredicateFactory
 import com.github.manosbatsis.scrudbeans.util.ClassUtils
 import com.github.manosbatsis.scrudbeans.util.ScrudStringUtils
@@ -31,6 +39,7 @@ import org.apache.commons.lang3.StringUtils
 import org.atteo.evo.inflector.English
 import org.mapstruct.Mapper
 import org.slf4j.LoggerFactory
+import org.springframework.core.convert.ConversionService
 import org.springframework.hateoas.server.ExposesResourceFor
 import org.springframework.stereotype.Repository
 import org.springframework.stereotype.Service
@@ -40,6 +49,10 @@ import java.io.File
 import java.util.*
 import javax.annotation.processing.ProcessingEnvironment
 import javax.persistence.Entity
+import javax.persistence.criteria.CriteriaBuilder
+import javax.persistence.criteria.Path
+import javax.persistence.criteria.Predicate
+import javax.persistence.criteria.Root
 
 /**
  * Utility methods creating [TypeSpec] instances for target SCRUD component types
@@ -144,7 +157,7 @@ internal class TypeSpecBuilder(
         val className: String = modelClassName.simpleName + "IdentifierAdapter"
         val pkgAndName = ClassUtils.getPackageAndSimpleName(
                 getSuperclassName(descriptor, TypeSpecBuilder.CLASSNAME_KEY_IDADAPTER))
-        return TypeSpec.classBuilder(className)
+        val builder = TypeSpec.classBuilder(className)
                 .addAnnotation(AnnotationSpec.builder(IdentifierAdapterBean::class.java)
                         .addMember("className = %S", modelClassName)
                         .build())
@@ -163,6 +176,124 @@ internal class TypeSpecBuilder(
                         .addParameter(ParameterSpec.builder("resource", modelClassName).build())
                         .addStatement("return resource.%L", descriptor.idName)
                         .build())
+        // Composite identifiers are also created from their string representation without reflection
+        if (descriptor.compositeId) {
+            builder.addSuperinterface(CompositeIdentifierFactory::class.asClassName().parameterizedBy(descriptor.idClassName))
+                    .addFunction(FunSpec.builder("getIdentifierType")
+                            .addModifiers(PUBLIC, OVERRIDE)
+                            .returns(Class::class.asClassName().parameterizedBy(descriptor.idClassName))
+                            .addStatement("return %T::class.java", descriptor.idClassName)
+                            .build())
+                    .addFunction(FunSpec.builder("createIdentifier")
+                            .addModifiers(PUBLIC, OVERRIDE)
+                            .returns(descriptor.idClassName)
+                            .addParameter(ParameterSpec.builder("value", String::class.asClassName().copy(nullable = true)).build())
+                            .addStatement("val id = %T()", descriptor.idClassName)
+                            .addStatement("id.init(value)")
+                            .addStatement("return id")
+                            .build())
+        }
+        return builder.build()
+    }
+
+    /**
+     * Create an implementation of [PropertyAccessor], used by Jackson to read, write
+     * and serialize model properties without reflection
+     *
+     * @param descriptor The target model descriptor
+     * @return the resulting type spec
+     */
+    fun createPropertyAccessor(descriptor: ScrudModelDescriptor): TypeSpec {
+        val modelClassName = ClassName(descriptor.packageName, descriptor.simpleName)
+        val properties = descriptor.properties
+        val stringArray = ARRAY.parameterizedBy(STRING.copy(nullable = true))
+        val invalidIndex = "else -> throw %T(\"Invalid property index: \" + index)"
+        val getValue = CodeBlock.builder().beginControlFlow("return when (index)")
+        val setValue = CodeBlock.builder().beginControlFlow("when (index)")
+        val writeValue = CodeBlock.builder().beginControlFlow("when (index)")
+        properties.forEachIndexed { index, property ->
+            getValue.addStatement("%L -> resource.%N", index, property.name)
+            if (property.setterTypeName != null) {
+                setValue.addStatement("%L -> resource.%N = value as %T", index, property.name, property.setterTypeName)
+            }
+            if (property.simple) {
+                writeValue.beginControlFlow("%L ->", index)
+                        .addStatement("val value = resource.%N ?: return false", property.name)
+                        .addStatement("generator.writeFieldName(name)")
+                        .addStatement(when (property.typeName) {
+                            "boolean", "java.lang.Boolean" -> "generator.writeBoolean(value)"
+                            "byte", "java.lang.Byte" -> "generator.writeNumber(value.toInt())"
+                            "java.lang.String" -> "generator.writeString(value)"
+                            else -> "generator.writeNumber(value)"
+                        })
+                        .endControlFlow()
+            }
+        }
+        listOf(getValue, setValue, writeValue).forEach {
+            it.addStatement(invalidIndex, IllegalArgumentException::class).endControlFlow()
+        }
+        return TypeSpec.classBuilder(modelClassName.simpleName + "PropertyAccessor")
+                .addAnnotation(AnnotationSpec.builder(PropertyAccessorBean::class.java)
+                        .addMember("className = %S", modelClassName)
+                        .build())
+                .addModifiers(PUBLIC)
+                .addSuperinterface(PropertyAccessor::class.asClassName().parameterizedBy(modelClassName))
+                .addType(TypeSpec.companionObjectBuilder()
+                        .addProperty(PropertySpec.builder("GETTER_NAMES", stringArray, KModifier.PRIVATE)
+                                .initializer("arrayOf(%L)", properties.joinToString(", ") { "\"${it.getterName}\"" })
+                                .build())
+                        .addProperty(PropertySpec.builder("SETTER_NAMES", stringArray, KModifier.PRIVATE)
+                                .initializer("arrayOf(%L)", properties.joinToString(", ") {
+                                    if (it.setterName != null) "\"${it.setterName}\"" else "null"
+                                })
+                                .build())
+                        .addProperty(PropertySpec.builder("SIMPLE", BooleanArray::class, KModifier.PRIVATE)
+                                .initializer("booleanArrayOf(%L)", properties.joinToString(", ") { it.simple.toString() })
+                                .build())
+                        .build())
+                .addFunction(FunSpec.builder("getGetterNames")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .returns(stringArray)
+                        .addStatement("return GETTER_NAMES.copyOf()")
+                        .build())
+                .addFunction(FunSpec.builder("getSetterNames")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .returns(stringArray)
+                        .addStatement("return SETTER_NAMES.copyOf()")
+                        .build())
+                .addFunction(FunSpec.builder("isSimple")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .returns(BOOLEAN)
+                        .addParameter("index", INT)
+                        .addStatement("return SIMPLE[index]")
+                        .build())
+                .addFunction(FunSpec.builder("getValue")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .returns(ANY.copy(nullable = true))
+                        .addParameter("resource", modelClassName)
+                        .addParameter("index", INT)
+                        .addCode(getValue.build())
+                        .build())
+                .addFunction(FunSpec.builder("setValue")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .addAnnotation(AnnotationSpec.builder(Suppress::class)
+                                .addMember("%S", "UNCHECKED_CAST")
+                                .build())
+                        .addParameter("resource", modelClassName)
+                        .addParameter("index", INT)
+                        .addParameter("value", ANY.copy(nullable = true))
+                        .addCode(setValue.build())
+                        .build())
+                .addFunction(FunSpec.builder("writeValue")
+                        .addModifiers(PUBLIC, OVERRIDE)
+                        .returns(BOOLEAN)
+                        .addParameter("resource", modelClassName)
+                        .addParameter("index", INT)
+                        .addParameter("name", SerializableString::class)
+                        .addParameter("generator", JsonGenerator::class)
+                        .addCode(writeValue.build())
+                        .addStatement("return true")
+                        .build())
                 .build()
     }
 
@@ -255,6 +386,66 @@ internal class TypeSpecBuilder(
                 .build()
     }
 
+    /**
+     * Create a filter compiler for the given entity, with one typed function per filterable attribute
+     * and a whitelist of sortable attributes
+     * @param descriptor The target model descriptor
+     * @return the resulting type spec
+     */
+    fun createFilterCompiler(descriptor: EntityModelDescriptor): TypeSpec {
+        val modelClassName = ClassName(descriptor.packageName, descriptor.simpleName)
+        val rootType = Root::class.asClassName().parameterizedBy(STAR)
+        val valuesType = LIST.parameterizedBy(STRING)
+        val builder = TypeSpec.classBuilder(descriptor.simpleName + "FilterCompiler")
+                .addAnnotation(AnnotationSpec.builder(EntityFilterCompiler::class.java)
+                        .addMember("entityClass = %S", descriptor.qualifiedName).build())
+                .superclass(AbstractEntityFilterCompiler::class.asClassName().parameterizedBy(modelClassName))
+                .addSuperclassConstructorParameter("%S", descriptor.simpleName)
+                .addModifiers(PUBLIC)
+        descriptor.sortableFields.forEach { builder.addSuperclassConstructorParameter("%S", it) }
+        val buildPredicate = CodeBlock.builder().beginControlFlow("return when (propertyPath)")
+        descriptor.filterFields.forEach { field ->
+            val functionName = "filter" + StringUtils.capitalize(field.name)
+            val body = CodeBlock.builder()
+                    .addStatement("checkOperator(%S, operator, %L)", field.name, if (field.equalityOnly) "EQUALITY_OPERATORS" else "ALL_OPERATORS")
+            if (field.relationIdName != null) {
+                body.addStatement("val path: %T<%T> = root.get<Any>(%S).get(%S)", Path::class, field.valueTypeName, field.name, field.relationIdName)
+            } else {
+                body.addStatement("val path: %T<%T> = root.get(%S)", Path::class, field.valueTypeName, field.name)
+            }
+            if (field.converter != null) {
+                body.addStatement("return %L(cb, path, operator, %L(%S, values))", field.predicateMethod, field.converter, field.name)
+            } else {
+                body.addStatement("return %L(cb, path, operator, convert(%S, values, %T::class.javaObjectType, conversionService))",
+                        field.predicateMethod, field.name, field.valueTypeName)
+            }
+            builder.addFunction(FunSpec.builder(functionName)
+                    .addModifiers(KModifier.PROTECTED)
+                    .returns(Predicate::class)
+                    .addParameter("root", rootType)
+                    .addParameter("cb", CriteriaBuilder::class)
+                    .addParameter("operator", PredicateOperator::class)
+                    .addParameter("values", valuesType)
+                    .addParameter("conversionService", ConversionService::class)
+                    .addCode(body.build())
+                    .build())
+            buildPredicate.addStatement("%S -> %N(root, cb, operator, values, conversionService)", field.name, functionName)
+        }
+        buildPredicate.addStatement("else -> null").endControlFlow()
+        return builder.addFunction(FunSpec.builder("buildPredicate")
+                .addModifiers(PUBLIC, OVERRIDE)
+                .returns(Predicate::class.asClassName().copy(nullable = true))
+                .addParameter("root", rootType)
+                .addParameter("cb", CriteriaBuilder::class)
+                .addParameter("propertyPath", STRING)
+                .addParameter("operator", PredicateOperator::class)
+                .addParameter("values", valuesType)
+                .addParameter("conversionService", ConversionService::class)
+                .addCode(buildPredicate.build())
+                .build())
+                .build()
+    }
+
     /**
      * Generate a [RequestMapping] pattern for an [Entity]-specific  SCRUD REST controller
      * @param descriptor The target model descriptor
@@ -1,12 +1,29 @@
 package com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor
 
+import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdentifier
 import com.squareup.kotlinpoet.ClassName
 import javax.annotation.processing.ProcessingEnvironment
+import javax.lang.model.element.ElementKind
+import javax.lang.model.element.Modifier
 import javax.lang.model.element.TypeElement
 import javax.lang.model.element.VariableElement
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.PrimitiveType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.ElementFilter
 import javax.lang.model.util.Types
+import javax.persistence.ElementCollection
+import javax.persistence.Embedded
 import javax.persistence.EmbeddedId
+import javax.persistence.Entity
 import javax.persistence.Id
+import javax.persistence.ManyToMany
+import javax.persistence.ManyToOne
+import javax.persistence.MappedSuperclass
+import javax.persistence.OneToMany
+import javax.persistence.OneToOne
+import javax.persistence.Transient
 
 /**
  * A metadata and utility context helper focusing on a single model annotated with
@@ -24,6 +41,15 @@ open class EntityModelDescriptor(
     lateinit var idClassName: ClassName
     lateinit var idName: String
 
+    /** Whether the identifier type implements [EmbeddableCompositeIdentifier] */
+    val compositeId: Boolean by lazy {
+        val idElement = processingEnvironment.elementUtils.getTypeElement(idClassName.canonicalName)
+        val compositeElement = processingEnvironment.elementUtils
+                .getTypeElement(EmbeddableCompositeIdentifier::class.java.canonicalName)
+        idElement != null && compositeElement != null
+                && processingEnvironment.typeUtils.isAssignable(idElement.asType(), compositeElement.asType())
+    }
+
     protected fun checkIfMemberIsId(types: Types, e: VariableElement) {
         for(annotationClass in idAnnotations) if (e.getAnnotation(annotationClass) != null) {
             val className = getMemberType(types, e)
@@ -39,4 +65,93 @@ open class EntityModelDescriptor(
     override fun scanMember(types: Types, currentTypeElement: TypeElement, memberElement: VariableElement) {
         checkIfMemberIsId(types, memberElement)
     }
+
+    /** The persistent fields of the entity and its mapped superclasses, empty unless using field access */
+    private val persistentFields: List<VariableElement> by lazy {
+        val fields = mutableListOf<VariableElement>()
+        var current: TypeElement? = typeElement
+        while (current != null && (current.getAnnotation(Entity::class.java) != null
+                        || current.getAnnotation(MappedSuperclass::class.java) != null)) {
+            ElementFilter.fieldsIn(current.enclosedElements)
+                    .filter { field -> fields.none { it.simpleName == field.simpleName } }
+                    .forEach { fields.add(it) }
+            val superclass = current.superclass
+            current = if (superclass.kind == TypeKind.DECLARED) (superclass as DeclaredType).asElement() as TypeElement else null
+        }
+        if (fields.any { isIdField(it) }) fields.filter { isPersistent(it) } else emptyList<VariableElement>()
+    }
+
+    /** The sortable attributes, i.e. basic, embedded and to-one ones, the latter two also by nested paths */
+    val sortableFields: List<String> by lazy {
+        persistentFields.filter { isEmbedded(it) || isToOne(it) || !isContainer(fieldType(it)) }.map { it.simpleName.toString() }
+    }
+
+    /** The filterable attributes */
+    val filterFields: List<FilterFieldDescriptor> by lazy {
+        persistentFields.filterNot { isEmbedded(it) }.mapNotNull { toFilterField(it) }
+    }
+
+    private fun isIdField(field: VariableElement) =
+            idAnnotations.any { field.getAnnotation(it) != null }
+
+    private fun isToOne(field: VariableElement) =
+            field.getAnnotation(ManyToOne::class.java) != null || field.getAnnotation(OneToOne::class.java) != null
+
+    private fun isEmbedded(field: VariableElement) =
+            field.getAnnotation(Embedded::class.java) != null || field.getAnnotation(EmbeddedId::class.java) != null
+
+    private fun isPersistent(field: VariableElement) =
+            !field.modifiers.contains(Modifier.STATIC) && !field.modifiers.contains(Modifier.TRANSIENT)
+                    && listOf(Transient::class.java, ElementCollection::class.java, OneToMany::class.java,
+                    ManyToMany::class.java).none { field.getAnnotation(it) != null }
+
+    private fun fieldType(field: VariableElement): TypeMirror {
+        val type = field.asType()
+        return if (type.kind == TypeKind.TYPEVAR)
+            processingEnvironment.typeUtils.asMemberOf(typeElement.asType() as DeclaredType, field)
+        else type
+    }
+
+    private fun isContainer(type: TypeMirror): Boolean {
+        if (type.kind == TypeKind.ARRAY) return true
+        if (type.kind != TypeKind.DECLARED) return false
+        val types = processingEnvironment.typeUtils
+        val name = ((type as DeclaredType).asElement() as TypeElement).qualifiedName.toString()
+        return name == Iterable::class.java.name || name == Map::class.java.name
+                || types.directSupertypes(types.erasure(type)).any { isContainer(it) }
+    }
+
+    /** Get the boxed type element for the given type, null if not a class or primitive */
+    private fun boxedTypeElement(type: TypeMirror): TypeElement? = when {
+        type.kind.isPrimitive -> processingEnvironment.typeUtils.boxedClass(type as PrimitiveType)
+        type.kind == TypeKind.DECLARED -> (type as DeclaredType).asElement() as TypeElement
+        else -> null
+    }
+
+    private fun toFilterField(field: VariableElement): FilterFieldDescriptor? {
+        val name = field.simpleName.toString()
+        val type = fieldType(field)
+        return if (isToOne(field)) {
+            val relatedType = boxedTypeElement(type) ?: return null
+            val relatedId = findIdField(relatedType) ?: return null
+            if (relatedId.getAnnotation(Id::class.java) == null) return null
+            val relatedIdType = boxedTypeElement(relatedId.asType()) ?: return null
+            FilterFieldDescriptor.forRelation(name, relatedId.simpleName.toString(),
+                    relatedIdType.qualifiedName.toString(), relatedIdType.asKotlinClassName())
+        } else {
+            if (isContainer(type)) return null
+            val valueType = boxedTypeElement(type) ?: return null
+            FilterFieldDescriptor.forAttribute(name, valueType.qualifiedName.toString(),
+                    valueType.asKotlinClassName(), valueType.kind == ElementKind.ENUM)
+        }
+    }
+
+    /** Find the identifier field of the given entity type, searching superclasses */
+    private fun findIdField(entityType: TypeElement): VariableElement? {
+        val idField = ElementFilter.fieldsIn(entityType.enclosedElements).firstOrNull { isIdField(it) }
+        val superclass = entityType.superclass
+        return idField ?: if (superclass.kind == TypeKind.DECLARED)
+            findIdField((superclass as DeclaredType).asElement() as TypeElement)
+        else null
+    }
 }
\ No newline at end of file
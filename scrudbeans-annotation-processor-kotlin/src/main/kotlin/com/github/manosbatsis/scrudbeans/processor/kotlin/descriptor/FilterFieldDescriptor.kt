@@ -0,0 +1,66 @@
+package com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor
+
+import com.squareup.kotlinpoet.ClassName
+
+/**
+ * Describes a filterable entity attribute, i.e. the value type, converter, allowed operators
+ * and JPA path used by a generated filter compiler
+ */
+data class FilterFieldDescriptor(
+        val name: String,
+        /** The value type, i.e. the related identifier type for relationships */
+        val valueTypeName: ClassName,
+        /** The related entity identifier name, null if not a relationship */
+        val relationIdName: String?,
+        /** The converter function name, null if the conversion service should be used */
+        val converter: String?,
+        val predicateMethod: String,
+        /** Whether only equality operators are supported */
+        val equalityOnly: Boolean
+) {
+
+    companion object {
+        /** Types with a dedicated converter in the filter compiler base class */
+        private val CONVERTERS = mapOf(
+                "java.lang.String" to "toStrings",
+                "java.lang.Integer" to "toIntegers",
+                "java.lang.Long" to "toLongs",
+                "java.lang.Short" to "toShorts",
+                "java.lang.Byte" to "toBytes",
+                "java.lang.Double" to "toDoubles",
+                "java.lang.Float" to "toFloats",
+                "java.math.BigDecimal" to "toBigDecimals",
+                "java.math.BigInteger" to "toBigIntegers",
+                "java.util.UUID" to "toUuids")
+
+        private val COMPARABLE_TYPES = setOf("java.util.Date", "java.time.LocalDate", "java.time.LocalDateTime")
+
+        /**
+         * Describe a basic attribute
+         * @param qualifiedName the (boxed) Java type name
+         * @return the descriptor or null if the type is not supported
+         */
+        fun forAttribute(name: String, qualifiedName: String, valueTypeName: ClassName, isEnum: Boolean): FilterFieldDescriptor? {
+            val converter = CONVERTERS[qualifiedName]
+            return when {
+                converter != null -> FilterFieldDescriptor(name, valueTypeName, null, converter,
+                        if (qualifiedName == "java.lang.String") "stringPredicate" else "comparablePredicate", false)
+                isEnum || qualifiedName == "java.lang.Boolean" ->
+                    FilterFieldDescriptor(name, valueTypeName, null, null, "equalityPredicate", true)
+                COMPARABLE_TYPES.contains(qualifiedName) ->
+                    FilterFieldDescriptor(name, valueTypeName, null, null, "comparablePredicate", false)
+                else -> null
+            }
+        }
+
+        /**
+         * Describe a to-one relationship, filtered by the related entity identifier
+         * @param idQualifiedName the (boxed) Java identifier type name
+         * @return the descriptor or null if the identifier type is not supported
+         */
+        fun forRelation(name: String, idName: String, idQualifiedName: String, idTypeName: ClassName): FilterFieldDescriptor? {
+            val converter = CONVERTERS[idQualifiedName] ?: return null
+            return FilterFieldDescriptor(name, idTypeName, idName, converter, "comparablePredicate", false)
+        }
+    }
+}
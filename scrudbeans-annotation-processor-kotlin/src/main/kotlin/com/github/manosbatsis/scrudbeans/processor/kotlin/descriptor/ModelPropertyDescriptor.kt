@@ -0,0 +1,32 @@
+package com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor
+
+import com.squareup.kotlinpoet.TypeName
+
+/**
+ * Describes a model property accessible via a public getter and, optionally, setter
+ */
+data class ModelPropertyDescriptor(
+        /** The name used to access the property from Kotlin */
+        val name: String,
+        val getterName: String,
+        /** The qualified getter return type name, or the primitive type keyword */
+        val typeName: String,
+        val setterName: String?,
+        /** The type to cast values to before setting them */
+        val setterTypeName: TypeName?
+) {
+
+    companion object {
+        /** Types the generated accessors can write directly to a JSON generator */
+        val SIMPLE_TYPES = setOf(
+                "boolean", "int", "long", "short", "byte", "double", "float",
+                "java.lang.String", "java.lang.Boolean",
+                "java.lang.Integer", "java.lang.Long", "java.lang.Short", "java.lang.Byte",
+                "java.lang.Double", "java.lang.Float",
+                "java.math.BigDecimal", "java.math.BigInteger")
+    }
+
+    /** Whether the property is a string, number or boolean, excluding chars */
+    val simple: Boolean
+        get() = SIMPLE_TYPES.contains(typeName)
+}
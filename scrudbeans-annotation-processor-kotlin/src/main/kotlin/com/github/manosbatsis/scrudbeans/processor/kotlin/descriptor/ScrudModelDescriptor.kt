@@ -2,11 +2,18 @@ package com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor
 
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean
 import com.github.manosbatsis.scrudbeans.processor.kotlin.descriptor.EntityModelDescriptor
-import com.squareup.kotlinpoet.ClassName
+import com.squareup.kotlinpoet.*
 import java.util.Properties
 import javax.annotation.processing.ProcessingEnvironment
 import javax.lang.model.element.AnnotationMirror
+import javax.lang.model.element.ExecutableElement
+import javax.lang.model.element.Modifier
 import javax.lang.model.element.TypeElement
+import javax.lang.model.type.DeclaredType
+import javax.lang.model.type.ExecutableType
+import javax.lang.model.type.TypeKind
+import javax.lang.model.type.TypeMirror
+import javax.lang.model.util.ElementFilter
 
 /**
  * A metadata and utility context helper focusing on a single model annotated with
@@ -20,13 +27,82 @@ class ScrudModelDescriptor(
     val scrudBean: ScrudBean
     val className: ClassName
     val dtoTypes: MutableSet<String> = mutableSetOf()
+    val properties: List<ModelPropertyDescriptor>
 
     init {
         scrudBean = typeElement.getAnnotation(ScrudBean::class.java)
         className = typeElement.asKotlinClassName()
         initDtoClassnames(typeElement)
+        properties = scanProperties(typeElement)
     }
 
+    /**
+     * Collect the instance fields of the model and its superclasses that have a public getter
+     */
+    private fun scanProperties(typeElement: TypeElement): List<ModelPropertyDescriptor> {
+        val types = processingEnvironment.typeUtils
+        val modelType = typeElement.asType() as DeclaredType
+        // Public instance methods, including inherited ones
+        val methods = mutableMapOf<String, ExecutableElement>()
+        ElementFilter.methodsIn(processingEnvironment.elementUtils.getAllMembers(typeElement))
+                .filter { it.modifiers.contains(Modifier.PUBLIC) && !it.modifiers.contains(Modifier.STATIC) }
+                .forEach {
+                    val key = "${it.simpleName}/${it.parameters.size}"
+                    if (!methods.containsKey(key)) methods[key] = it
+                }
+        val properties = mutableListOf<ModelPropertyDescriptor>()
+        val names = mutableSetOf<String>()
+        var current: TypeElement? = typeElement
+        while (current != null && !current.qualifiedName.contentEquals(Any::class.java.canonicalName)) {
+            for (field in ElementFilter.fieldsIn(current.enclosedElements)) {
+                val fieldName = field.simpleName.toString()
+                if (field.modifiers.contains(Modifier.STATIC) || !names.add(fieldName)) continue
+                val isPrefixed = fieldName.matches(Regex("is[A-Z].*"))
+                val getter = methods["${toAccessorMethodName(fieldName, "get")}/0"]
+                        ?: methods["${if (isPrefixed) fieldName else toAccessorMethodName(fieldName, "is")}/0"]
+                        ?: continue
+                val getterType = (types.asMemberOf(modelType, getter) as ExecutableType).returnType
+                if (getter.simpleName.startsWith("is") && getterType.kind != TypeKind.BOOLEAN) continue
+                val setter = methods["${toAccessorMethodName(if (isPrefixed && getterType.kind == TypeKind.BOOLEAN) fieldName.substring(2) else fieldName, "set")}/1"]
+                val setterTypeName = if (setter == null) null
+                else toSetterTypeName(setter, (types.asMemberOf(modelType, setter) as ExecutableType).parameterTypes[0])
+                properties.add(ModelPropertyDescriptor(
+                        name = if (getter.simpleName.startsWith("is")) getter.simpleName.toString() else fieldName,
+                        getterName = getter.simpleName.toString(),
+                        typeName = if (getterType.kind.isPrimitive) getterType.toString()
+                        else if (getterType.kind == TypeKind.DECLARED) ((getterType as DeclaredType).asElement() as TypeElement).qualifiedName.toString()
+                        else getterType.toString(),
+                        setterName = if (setterTypeName != null) setter!!.simpleName.toString() else null,
+                        setterTypeName = setterTypeName))
+            }
+            val superclass = current.superclass
+            current = if (superclass.kind == TypeKind.DECLARED) types.asElement(superclass) as TypeElement else null
+        }
+        return properties
+    }
+
+    /**
+     * Get the Kotlin type to cast values to before passing them to the given setter,
+     * null for generic or collection types that are left to Jackson
+     */
+    private fun toSetterTypeName(setter: ExecutableElement, type: TypeMirror): TypeName? {
+        if (type.kind.isPrimitive) return KOTLIN_TYPES[type.toString()]
+        if (type.kind != TypeKind.DECLARED) return null
+        val declaredType = type as DeclaredType
+        if (declaredType.typeArguments.isNotEmpty()) return null
+        val typeElement = declaredType.asElement() as TypeElement
+        val qualifiedName = typeElement.qualifiedName.toString()
+        val nullable = setter.parameters[0].annotationMirrors
+                .none { it.annotationType.toString() == "org.jetbrains.annotations.NotNull" }
+        val typeName = KOTLIN_TYPES[qualifiedName]
+                ?: if (qualifiedName.startsWith("java.lang.") || qualifiedName.startsWith("java.util.")) return null
+                else typeElement.asClassName()
+        return typeName.copy(nullable = nullable)
+    }
+
+    private fun toAccessorMethodName(fieldName: String, prefix: String): String =
+            prefix + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1)
+
 
     /** Initialise the set of DTO classnames for this ScrudBean. Used to create mappers from/to this ScrudBean  */
     private fun initDtoClassnames(typeElement: TypeElement) {
@@ -71,5 +147,13 @@ class ScrudModelDescriptor(
                 }
     }
 
-
-}
\ No newline at end of file
+    companion object {
+        /** Kotlin types to cast primitive, boxed and string values to */
+        private val KOTLIN_TYPES: Map<String, TypeName> = mapOf(
+                "boolean" to BOOLEAN, "int" to INT, "long" to LONG, "short" to SHORT,
+                "byte" to BYTE, "double" to DOUBLE, "float" to FLOAT, "char" to CHAR,
+                "java.lang.Boolean" to BOOLEAN, "java.lang.Integer" to INT, "java.lang.Long" to LONG,
+                "java.lang.Short" to SHORT, "java.lang.Byte" to BYTE, "java.lang.Double" to DOUBLE,
+                "java.lang.Float" to FLOAT, "java.lang.Character" to CHAR, "java.lang.String" to STRING)
+    }
+}
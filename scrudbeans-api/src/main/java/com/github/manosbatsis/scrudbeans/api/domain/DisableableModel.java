@@ -23,7 +23,9 @@ package com.github.manosbatsis.scrudbeans.api.domain;
 import java.time.LocalDateTime;
 
 /**
- * Base interface for models that can be disabled as a means for soft deletion
+ * Base interface for models that can be disabled as a means for soft deletion.
+ * Active rows are those with a null <code>disabled</code> date, unless
+ * <code>scrudbeans.soft-delete.scheduled</code> is enabled.
  */
 public interface DisableableModel {
 
@@ -0,0 +1,52 @@
+/**
+ *
+ * Restdude
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.domain.event;
+
+import java.util.List;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * Fired once per bulk deletion, i.e. instead of an {@link EntityDeletedEvent} per instance
+ */
+public class EntitiesDeletedEvent<T> extends ApplicationEvent implements ResolvableTypeProvider {
+
+	@Getter
+	private final Class<T> modelType;
+
+	/** The identifiers of the deleted instances */
+	@Getter
+	private final List<?> ids;
+
+	public EntitiesDeletedEvent(Class<T> modelType, List<?> ids) {
+		super(modelType);
+		this.modelType = modelType;
+		this.ids = ids;
+	}
+
+	@Override
+	public ResolvableType getResolvableType() {
+		return ResolvableType.forClassWithGenerics(getClass(), this.modelType);
+	}
+}
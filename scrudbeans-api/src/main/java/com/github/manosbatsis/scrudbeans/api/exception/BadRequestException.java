@@ -71,4 +71,8 @@ public class BadRequestException extends SystemException {
 		super(message, STATUS, cause);
 	}
 
+	@Override
+	protected boolean isClientError() {
+		return true;
+	}
 }
@@ -67,4 +67,8 @@ public class NotFoundException extends SystemException {
 		super(message, STATUS, cause);
 	}
 
+	@Override
+	protected boolean isClientError() {
+		return true;
+	}
 }
@@ -96,6 +96,23 @@ public abstract class SystemException extends RuntimeException {
 		initCause(cause);
 	}
 
+	/**
+	 * Skip capturing the stack trace of client errors, which signal expected conditions
+	 * rather than defects and may be thrown in large numbers by misbehaving clients.
+	 */
+	@Override
+	public synchronized Throwable fillInStackTrace() {
+		return this.isClientError() ? this : super.fillInStackTrace();
+	}
+
+	/**
+	 * Whether this type signals a client error, in which case no stack trace is captured.
+	 * Called during construction, implementations must not depend on instance state.
+	 */
+	protected boolean isClientError() {
+		return false;
+	}
+
 	@Override
 	public String getMessage() {
 		return message;
@@ -0,0 +1,17 @@
+package com.github.manosbatsis.scrudbeans.api.mdd.annotation;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBeansModelAnnotation;
+
+import java.lang.annotation.*;
+
+
+/**
+ * Marks a type as a generated property accessor
+ */
+@ScrudBeansModelAnnotation
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface PropertyAccessorBean {
+    String className();
+}
@@ -20,11 +20,18 @@
  */
 package com.github.manosbatsis.scrudbeans.api.mdd.annotation.model;
 
+import java.lang.annotation.ElementType;
 import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
 
 /**
- * Configure thumbs or other preview generation
+ * Configure thumbs or other preview generation. Previews are rendered lazily,
+ * on first request, and only for the sizes declared here.
  */
+@Target(value = ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
 @Repeatable(FilePersistencePreviews.class)
 public @interface FilePersistencePreview {
 
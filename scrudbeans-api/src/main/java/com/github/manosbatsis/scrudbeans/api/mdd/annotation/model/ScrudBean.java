@@ -117,4 +117,35 @@ public @interface ScrudBean {
 
 	boolean linkable() default true;
 
+	/**
+	 * The maximum page size for search results, overrides <code>scrudbeans.query.max-page-size</code> if positive
+	 */
+	int maxPageSize() default -1;
+
+	/**
+	 * The maximum number of RSQL filter nodes, overrides <code>scrudbeans.query.max-filter-nodes</code> if positive
+	 */
+	int maxFilterNodes() default -1;
+
+	/**
+	 * The maximum nesting depth of RSQL filters, overrides <code>scrudbeans.query.max-filter-depth</code> if positive
+	 */
+	int maxFilterDepth() default -1;
+
+	/**
+	 * The attribute names allowed in search criteria, any if empty
+	 */
+	String[] filterableFields() default {};
+
+	/**
+	 * The attribute names allowed in sort criteria, any if empty unless <code>scrudbeans.query.restrict-sortable-fields</code>
+	 * is enabled. The identifier is always allowed.
+	 */
+	String[] sortableFields() default {};
+
+	/**
+	 * The query timeout in milliseconds, overrides <code>scrudbeans.query.timeout</code> if zero or positive
+	 */
+	int queryTimeout() default -1;
+
 }
@@ -0,0 +1,42 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.mdd.model;
+
+/**
+ * Creates {@link EmbeddableCompositeIdentifier} instances from their string representation
+ * without reflection. Implemented by the generated identifier adapters of models using a composite identifier.
+ *
+ * @param <ID> the composite identifier type
+ */
+public interface CompositeIdentifierFactory<ID extends EmbeddableCompositeIdentifier> {
+
+	/**
+	 * Get the composite identifier type created by this factory
+	 */
+	Class<ID> getIdentifierType();
+
+	/**
+	 * Create a composite identifier using the given string representation
+	 * @param value the string representation
+	 * @return the identifier
+	 */
+	ID createIdentifier(String value);
+}
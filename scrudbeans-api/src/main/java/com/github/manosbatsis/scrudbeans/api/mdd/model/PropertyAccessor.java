@@ -0,0 +1,32 @@
+package com.github.manosbatsis.scrudbeans.api.mdd.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.io.IOException;
+
+/**
+ * Provides reflection-free, index-based read/write access to the bean properties of a model type.
+ * Implementations are generated per model by the annotation processors.
+ */
+public interface PropertyAccessor<T> {
+
+    /** The getter method names of the accessible properties, by property index */
+    String[] getGetterNames();
+
+    /** The setter method names of the accessible properties by property index, <code>null</code> for non-writable properties */
+    String[] getSetterNames();
+
+    /** Whether the property value is a string, number or boolean that can be written by {@link #writeValue} */
+    boolean isSimple(int index);
+
+    Object getValue(T resource, int index);
+
+    void setValue(T resource, int index, Object value);
+
+    /**
+     * Write the field name and value of the given simple property.
+     * @return <code>false</code> without writing anything if the value is <code>null</code>
+     */
+    boolean writeValue(T resource, int index, SerializableString name, JsonGenerator generator) throws IOException;
+}
@@ -0,0 +1,98 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.mdd.registry;
+
+import org.springframework.util.Assert;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds values registered per class. A class with no value of its own resolves to the value
+ * of its closest registered superclass, e.g. a Hibernate proxy resolves to its entity and
+ * a {@code java.sql.Timestamp} to the value of {@code java.util.Date}.
+ * Lookups go through a {@link ClassValue}, so once a class is resolved they are constant-time
+ * and do not allocate. Registering a value invalidates all previously resolved classes,
+ * so registrations are meant for startup rather than the request path.
+ *
+ * @param <V> the value type
+ */
+public class ClassRegistry<V> {
+
+    private final Map<Class<?>, V> registered = new ConcurrentHashMap<>();
+
+    private final ClassValue<Resolved<V>> resolved = new ClassValue<Resolved<V>>() {
+        @Override
+        protected Resolved<V> computeValue(Class<?> type) {
+            // read the version first so that concurrent registrations trigger a recompute
+            int currentVersion = version;
+            return new Resolved<>(currentVersion, resolve(type));
+        }
+    };
+
+    private volatile int version;
+
+    /**
+     * Register the value for the given class
+     */
+    public synchronized void put(Class<?> clazz, V value) {
+        Assert.notNull(clazz, "clazz cannot be null");
+        Assert.notNull(value, "value cannot be null");
+        registered.put(clazz, value);
+        version++;
+    }
+
+    /**
+     * Get the value for the given class or its closest registered superclass
+     *
+     * @return the value or null if none was found
+     */
+    public V get(Class<?> clazz) {
+        Resolved<V> entry = resolved.get(clazz);
+        if (entry.version != version) {
+            resolved.remove(clazz);
+            entry = resolved.get(clazz);
+        }
+        return entry.value;
+    }
+
+    private V resolve(Class<?> clazz) {
+        for (Class<?> current = clazz; current != null && !Object.class.equals(current); current = current.getSuperclass()) {
+            V value = registered.get(current);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static final class Resolved<V> {
+
+        private final int version;
+
+        private final V value;
+
+        private Resolved(int version, V value) {
+            this.version = version;
+            this.value = value;
+        }
+    }
+}
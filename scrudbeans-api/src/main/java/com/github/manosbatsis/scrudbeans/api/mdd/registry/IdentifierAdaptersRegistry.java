@@ -3,29 +3,28 @@ package com.github.manosbatsis.scrudbeans.api.mdd.registry;
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
 import org.springframework.util.Assert;
 
-import java.util.HashMap;
-
+/**
+ * Holds the {@link IdentifierAdapter} of each model type. Lookups resolve runtime proxies
+ * to their model type and do not allocate, see {@link ClassRegistry}.
+ */
 public class IdentifierAdaptersRegistry {
 
-    protected static final HashMap<String, IdentifierAdapter> adaptersMap = new HashMap<>();
+    protected static final ClassRegistry<IdentifierAdapter> adapters = new ClassRegistry<>();
 
     /**
-     * Register an appropriate predicate factory for the given class
+     * Register the identifier adapter for the given class
      */
     public static void addAdapterForClass(Class clazz, IdentifierAdapter adapter) {
-        Assert.notNull(clazz, "clazz cannot be null");
-        Assert.notNull(adapter, "adapter cannot be null");
-        adaptersMap.put(clazz.getCanonicalName(), adapter);
+        adapters.put(clazz, adapter);
     }
 
     /**
-     * Register an appropriate predicate factory for the given class
+     * Register the identifier adapter for the given class
      */
     public static void addAdapterForClass(Class clazz, Class<IdentifierAdapter> adapterClass) {
-        Assert.notNull(clazz, "clazz cannot be null");
         Assert.notNull(adapterClass, "adapterClass cannot be null");
         try {
-            adaptersMap.put(clazz.getCanonicalName(), adapterClass.newInstance());
+            addAdapterForClass(clazz, adapterClass.newInstance());
         } catch (Exception e) {
             throw new RuntimeException("Failed creating identifier adapter instance", e);
         }
@@ -35,7 +34,7 @@ public class IdentifierAdaptersRegistry {
      * Get an appropriate {@link IdentifierAdapter} factory for the given class
      */
     public static <T> IdentifierAdapter<T, ?> getAdapterForClass(Class<T> clazz) {
-        return adaptersMap.get(clazz.getCanonicalName());
+        return adapters.get(clazz);
     }
 
     /**
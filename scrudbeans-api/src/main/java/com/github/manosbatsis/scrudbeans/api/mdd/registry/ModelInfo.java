@@ -78,4 +78,11 @@ public interface ModelInfo<T, PK extends Serializable> {
 
 	void setModelControllerType(Class<?> modelControllerType);
 
+	/**
+	 * Get the precomputed link paths for this model type
+	 */
+	ModelLinkTemplate getLinkTemplate();
+
+	void setLinkTemplate(ModelLinkTemplate linkTemplate);
+
 }
@@ -38,4 +38,9 @@ public interface ModelInfoRegistry {
 	List<Class> getTypes();
 
 	Class<?> getHandlerModelType(@NonNull Class<?> handlerType);
+
+	/**
+	 * Get the index of relationships between the registered models
+	 */
+	RelationshipGraph getRelationshipGraph();
 }
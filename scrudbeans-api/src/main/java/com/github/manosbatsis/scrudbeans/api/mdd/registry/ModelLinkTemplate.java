@@ -0,0 +1,173 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.mdd.registry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import lombok.NonNull;
+
+/**
+ * Precomputed link paths for a model type, used to render the self and relationship
+ * links of each instance with a single, pre-sized buffer. Created per {@link ModelInfo}
+ * once the registry has resolved relationships.
+ */
+public class ModelLinkTemplate {
+
+	public static final String PATH_RELATIONSHIPS = "/relationships/";
+
+	private final Class<?> modelType;
+
+	/** The model request mapping plus a trailing slash */
+	private final String selfPath;
+
+	/** Names of linkable relationship fields, sorted */
+	private final String[] relationshipNames;
+
+	/** Relationship link suffixes, i.e. "/relationships/{name}" */
+	private final String[] relationshipSuffixes;
+
+	/** Related resource link suffixes, i.e. "/{name}" */
+	private final String[] relatedSuffixes;
+
+	/** The longest suffix length, used to size buffers */
+	private final int maxSuffixLength;
+
+	private volatile IdentifierAdapter identifierAdapter;
+
+	public ModelLinkTemplate(@NonNull ModelInfo<?, ?> modelInfo) {
+		this(modelInfo, getLinkableFieldNames(modelInfo));
+	}
+
+	/**
+	 * Create a template using the linkable relationships of the given graph
+	 */
+	public ModelLinkTemplate(@NonNull ModelInfo<?, ?> modelInfo, @NonNull RelationshipGraph relationshipGraph) {
+		this(modelInfo, getLinkableFieldNames(relationshipGraph.getEdges(modelInfo.getModelType()).values()));
+	}
+
+	private ModelLinkTemplate(ModelInfo<?, ?> modelInfo, List<String> names) {
+		this.modelType = modelInfo.getModelType();
+		this.selfPath = modelInfo.getRequestMapping() + '/';
+		Collections.sort(names);
+
+		this.relationshipNames = names.toArray(new String[names.size()]);
+		this.relationshipSuffixes = new String[this.relationshipNames.length];
+		this.relatedSuffixes = new String[this.relationshipNames.length];
+		int maxLength = 0;
+		for (int i = 0; i < this.relationshipNames.length; i++) {
+			this.relationshipSuffixes[i] = PATH_RELATIONSHIPS + this.relationshipNames[i];
+			this.relatedSuffixes[i] = '/' + this.relationshipNames[i];
+			maxLength = Math.max(maxLength, this.relationshipSuffixes[i].length());
+		}
+		this.maxSuffixLength = maxLength;
+		this.identifierAdapter = IdentifierAdaptersRegistry.getAdapterForClass(this.modelType);
+	}
+
+	private static List<String> getLinkableFieldNames(ModelInfo<?, ?> modelInfo) {
+		List<String> names = new ArrayList<>();
+		addLinkableFieldNames(modelInfo, modelInfo.getToOneFieldNames(), names);
+		addLinkableFieldNames(modelInfo, modelInfo.getToManyFieldNames(), names);
+		return names;
+	}
+
+	private static List<String> getLinkableFieldNames(Collection<RelationshipEdge> edges) {
+		List<String> names = new ArrayList<>(edges.size());
+		for (RelationshipEdge edge : edges) {
+			if (edge.isLinkable()) {
+				names.add(edge.getFieldName());
+			}
+		}
+		return names;
+	}
+
+	private static void addLinkableFieldNames(ModelInfo<?, ?> modelInfo, Iterable<String> fieldNames, List<String> target) {
+		for (String fieldName : fieldNames) {
+			FieldInfo fieldInfo = modelInfo.getField(fieldName);
+			if (fieldInfo != null && fieldInfo.isLinkableResource()) {
+				target.add(fieldName);
+			}
+		}
+	}
+
+	/**
+	 * Read the identifier of the given model instance
+	 */
+	public Object readId(@NonNull Object model) {
+		IdentifierAdapter adapter = this.identifierAdapter;
+		if (adapter == null) {
+			this.identifierAdapter = adapter = IdentifierAdaptersRegistry.getAdapterForClass(this.modelType);
+		}
+		return adapter.readId(model);
+	}
+
+	/**
+	 * Render the self link for the given identifier
+	 */
+	public String renderSelf(@NonNull String baseUrl, @NonNull Object id) {
+		String idString = id.toString();
+		return new StringBuilder(baseUrl.length() + this.selfPath.length() + idString.length())
+				.append(baseUrl).append(this.selfPath).append(idString).toString();
+	}
+
+	/**
+	 * Render the links for the given identifier. The result contains the self link
+	 * at index 0, followed by a relationship link per {@link #getRelationshipNames()} entry
+	 * and, if <code>includeRelated</code> is true, a related resource link per entry.
+	 *
+	 * @param baseUrl        the base URL, typically resolved once per request
+	 * @param id             the model identifier
+	 * @param includeRelated whether to include related resource links
+	 * @return the rendered links
+	 */
+	public String[] render(@NonNull String baseUrl, @NonNull Object id, boolean includeRelated) {
+		int count = this.relationshipNames.length;
+		String[] links = new String[1 + (includeRelated ? 2 * count : count)];
+		String idString = id.toString();
+		StringBuilder buffer = new StringBuilder(baseUrl.length() + this.selfPath.length() + idString.length() + this.maxSuffixLength);
+		buffer.append(baseUrl).append(this.selfPath).append(idString);
+		int selfLength = buffer.length();
+		links[0] = buffer.toString();
+		for (int i = 0; i < count; i++) {
+			buffer.setLength(selfLength);
+			links[1 + i] = buffer.append(this.relationshipSuffixes[i]).toString();
+			if (includeRelated) {
+				buffer.setLength(selfLength);
+				links[1 + count + i] = buffer.append(this.relatedSuffixes[i]).toString();
+			}
+		}
+		return links;
+	}
+
+	/**
+	 * Get the names of linkable relationship fields, in the order used by {@link #render(String, Object, boolean)}
+	 */
+	public String[] getRelationshipNames() {
+		return this.relationshipNames;
+	}
+
+	public String getSelfPath() {
+		return this.selfPath;
+	}
+}
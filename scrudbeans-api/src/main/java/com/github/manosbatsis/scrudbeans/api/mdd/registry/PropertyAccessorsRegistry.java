@@ -0,0 +1,26 @@
+package com.github.manosbatsis.scrudbeans.api.mdd.registry;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
+
+/**
+ * Holds the generated {@link PropertyAccessor} of each model type, see {@link ClassRegistry}.
+ */
+public class PropertyAccessorsRegistry {
+
+    protected static final ClassRegistry<PropertyAccessor> accessors = new ClassRegistry<>();
+
+    /**
+     * Register the property accessor for the given class
+     */
+    public static void addAccessorForClass(Class clazz, PropertyAccessor accessor) {
+        accessors.put(clazz, accessor);
+    }
+
+    /**
+     * Get the property accessor for the given class or its closest superclass,
+     * e.g. when given a runtime proxy type
+     */
+    public static <T> PropertyAccessor<T> getAccessorForClass(Class<T> clazz) {
+        return accessors.get(clazz);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.mdd.registry;
+
+import java.util.Optional;
+
+import javax.persistence.CascadeType;
+import javax.persistence.FetchType;
+
+import lombok.NonNull;
+
+/**
+ * A relationship of a model type, i.e. an edge of the {@link RelationshipGraph}
+ * keyed by model type and field name, linked to the edge of the opposite side if bidirectional.
+ */
+public class RelationshipEdge {
+
+	private static final CascadeType[] NO_CASCADE = new CascadeType[0];
+
+	private final Class<?> modelType;
+
+	private final FieldInfo fieldInfo;
+
+	private final ModelInfo<?, ?> relatedModelInfo;
+
+	/** The mappedBy attribute of the inverse side, null for the owning side */
+	private final String mappedBy;
+
+	private final CascadeType[] cascadeTypes;
+
+	private final boolean cascadeRemove;
+
+	private RelationshipEdge reverse;
+
+	public RelationshipEdge(@NonNull Class<?> modelType, @NonNull FieldInfo fieldInfo, @NonNull ModelInfo<?, ?> relatedModelInfo) {
+		this.modelType = modelType;
+		this.fieldInfo = fieldInfo;
+		this.relatedModelInfo = relatedModelInfo;
+		this.mappedBy = fieldInfo.isInverse() ? fieldInfo.getReverseFieldName().orElse(null) : null;
+		this.cascadeTypes = fieldInfo.getCascadeTypes() != null ? fieldInfo.getCascadeTypes() : NO_CASCADE;
+		boolean remove = false;
+		for (CascadeType cascadeType : this.cascadeTypes) {
+			if (cascadeType == CascadeType.REMOVE || cascadeType == CascadeType.ALL) {
+				remove = true;
+				break;
+			}
+		}
+		this.cascadeRemove = remove;
+	}
+
+	public Class<?> getModelType() {
+		return this.modelType;
+	}
+
+	public String getFieldName() {
+		return this.fieldInfo.getFieldName();
+	}
+
+	public FieldInfo getFieldInfo() {
+		return this.fieldInfo;
+	}
+
+	public ModelInfo getRelatedModelInfo() {
+		return this.relatedModelInfo;
+	}
+
+	public Class<?> getRelatedModelType() {
+		return this.relatedModelInfo.getModelType();
+	}
+
+	public FieldMappingType getMappingType() {
+		return this.fieldInfo.getFieldMappingType();
+	}
+
+	public FetchType getFetchType() {
+		return this.fieldInfo.isLazy() ? FetchType.LAZY : FetchType.EAGER;
+	}
+
+	public CascadeType[] getCascadeTypes() {
+		return this.cascadeTypes.clone();
+	}
+
+	/**
+	 * Whether removals cascade to the related side, i.e. via {@link CascadeType#REMOVE} or {@link CascadeType#ALL}
+	 */
+	public boolean isCascadeRemove() {
+		return this.cascadeRemove;
+	}
+
+	/**
+	 * Whether this is the inverse (mappedBy) side of the relationship
+	 */
+	public boolean isInverse() {
+		return this.mappedBy != null;
+	}
+
+	/**
+	 * Whether a link can be generated for the relationship
+	 */
+	public boolean isLinkable() {
+		return this.fieldInfo.isLinkableResource();
+	}
+
+	/**
+	 * Get the edge of the opposite side, null if unidirectional
+	 */
+	public RelationshipEdge getReverse() {
+		return this.reverse;
+	}
+
+	void setReverse(RelationshipEdge reverse) {
+		this.reverse = reverse;
+	}
+
+	/**
+	 * Get the field name of the opposite side, if any
+	 */
+	public Optional<String> getReverseFieldName() {
+		return this.reverse != null ? Optional.of(this.reverse.getFieldName()) : Optional.ofNullable(this.mappedBy);
+	}
+
+	@Override
+	public String toString() {
+		return this.modelType.getSimpleName() + "." + this.getFieldName()
+				+ " -[" + this.getMappingType() + "]-> " + this.getRelatedModelType().getSimpleName()
+				+ this.getReverseFieldName().map(name -> "." + name).orElse("");
+	}
+}
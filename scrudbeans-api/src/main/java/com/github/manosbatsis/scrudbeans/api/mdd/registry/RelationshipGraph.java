@@ -0,0 +1,154 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.mdd.registry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.CascadeType;
+
+import lombok.NonNull;
+
+/**
+ * An index of the relationships between model types, built once by the registry after
+ * resolving related models. Edges are keyed by model type and field name and linked
+ * to the edge of the opposite side, allowing constant time lookups of relationships,
+ * their reverse fields, cardinality, fetch type and cascades.
+ */
+public class RelationshipGraph {
+
+	private static final Comparator<RelationshipEdge> BY_FIELD_NAME = Comparator.comparing(RelationshipEdge::getFieldName);
+
+	private final Map<Class<?>, Map<String, RelationshipEdge>> edges = new HashMap<>();
+
+	private final Map<Class<?>, List<RelationshipEdge>> incomingEdges = new HashMap<>();
+
+	private final Map<Class<?>, List<RelationshipEdge>> cascadeRemoveEdges = new HashMap<>();
+
+	/**
+	 * Build the graph for the given models. Relationship fields are expected to have their
+	 * related {@link ModelInfo} set already, fields without one are ignored.
+	 *
+	 * @param models the model metadata
+	 */
+	@SuppressWarnings("rawtypes")
+	public RelationshipGraph(@NonNull Iterable<? extends ModelInfo> models) {
+		// add an edge per relationship field
+		for (ModelInfo<?, ?> modelInfo : models) {
+			Map<String, RelationshipEdge> modelEdges = new HashMap<>();
+			addEdges(modelInfo, modelInfo.getToOneFieldNames(), modelEdges);
+			addEdges(modelInfo, modelInfo.getToManyFieldNames(), modelEdges);
+			this.edges.put(modelInfo.getModelType(), modelEdges);
+		}
+		// link each inverse side to the owning side named by its mappedBy
+		for (Map<String, RelationshipEdge> modelEdges : this.edges.values()) {
+			for (RelationshipEdge edge : modelEdges.values()) {
+				this.incomingEdges.computeIfAbsent(edge.getRelatedModelType(), type -> new ArrayList<>()).add(edge);
+				if (edge.isInverse()) {
+					RelationshipEdge owner = this.getEdge(edge.getRelatedModelType(), edge.getReverseFieldName().get());
+					if (owner != null && !owner.isInverse() && owner.getRelatedModelType().isAssignableFrom(edge.getModelType())) {
+						edge.setReverse(owner);
+						owner.setReverse(edge);
+					}
+				}
+				if (edge.isInverse() && edge.isCascadeRemove() && (edge.getFieldInfo().isOneToMany() || edge.getFieldInfo().isOneToOne())) {
+					this.cascadeRemoveEdges.computeIfAbsent(edge.getModelType(), type -> new ArrayList<>()).add(edge);
+				}
+			}
+		}
+		this.cascadeRemoveEdges.values().forEach(list -> list.sort(BY_FIELD_NAME));
+		this.incomingEdges.values().forEach(list -> list.sort(BY_FIELD_NAME));
+	}
+
+	private static void addEdges(ModelInfo<?, ?> modelInfo, Set<String> fieldNames, Map<String, RelationshipEdge> modelEdges) {
+		for (String fieldName : fieldNames) {
+			FieldInfo fieldInfo = modelInfo.getField(fieldName);
+			if (fieldInfo != null && fieldInfo.getRelatedModelInfo() != null) {
+				modelEdges.put(fieldName, new RelationshipEdge(modelInfo.getModelType(), fieldInfo, fieldInfo.getRelatedModelInfo()));
+			}
+		}
+	}
+
+	/**
+	 * Get the relationship of the given model type and field name
+	 * @return the edge, null if no such relationship exists
+	 */
+	public RelationshipEdge getEdge(@NonNull Class<?> modelType, @NonNull String fieldName) {
+		Map<String, RelationshipEdge> modelEdges = this.edges.get(modelType);
+		return modelEdges != null ? modelEdges.get(fieldName) : null;
+	}
+
+	/**
+	 * Get the relationships of the given model type, keyed by field name
+	 */
+	public Map<String, RelationshipEdge> getEdges(@NonNull Class<?> modelType) {
+		return Collections.unmodifiableMap(this.edges.getOrDefault(modelType, Collections.emptyMap()));
+	}
+
+	/**
+	 * Get the relationships of other models targeting the given model type, sorted by field name
+	 */
+	public List<RelationshipEdge> getIncomingEdges(@NonNull Class<?> modelType) {
+		return Collections.unmodifiableList(this.incomingEdges.getOrDefault(modelType, Collections.emptyList()));
+	}
+
+	/**
+	 * Get the inverse OneToMany and OneToOne relationships of the given model type that cascade removals,
+	 * sorted by field name
+	 */
+	public List<RelationshipEdge> getCascadeRemoveEdges(@NonNull Class<?> modelType) {
+		return Collections.unmodifiableList(this.cascadeRemoveEdges.getOrDefault(modelType, Collections.emptyList()));
+	}
+
+	/**
+	 * Export the graph for tooling, i.e. as a list of edge descriptions sorted by
+	 * model and field name, suitable for serialization to JSON
+	 */
+	public List<Map<String, Object>> export() {
+		List<RelationshipEdge> all = new ArrayList<>();
+		this.edges.values().forEach(modelEdges -> all.addAll(modelEdges.values()));
+		all.sort(Comparator.comparing((RelationshipEdge edge) -> edge.getModelType().getName()).thenComparing(BY_FIELD_NAME));
+		List<Map<String, Object>> exported = new ArrayList<>(all.size());
+		for (RelationshipEdge edge : all) {
+			Map<String, Object> entry = new LinkedHashMap<>();
+			entry.put("model", edge.getModelType().getName());
+			entry.put("field", edge.getFieldName());
+			entry.put("relatedModel", edge.getRelatedModelType().getName());
+			entry.put("reverseField", edge.getReverseFieldName().orElse(null));
+			entry.put("mappingType", edge.getMappingType().name());
+			entry.put("inverse", edge.isInverse());
+			entry.put("fetch", edge.getFetchType().name());
+			List<String> cascade = new ArrayList<>();
+			for (CascadeType cascadeType : edge.getCascadeTypes()) {
+				cascade.add(cascadeType.name());
+			}
+			entry.put("cascade", cascade);
+			exported.add(entry);
+		}
+		return exported;
+	}
+}
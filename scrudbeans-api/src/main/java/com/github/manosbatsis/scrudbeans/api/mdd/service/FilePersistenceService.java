@@ -23,6 +23,7 @@ package com.github.manosbatsis.scrudbeans.api.mdd.service;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.Map;
@@ -115,4 +116,13 @@ public interface FilePersistenceService {
 
 	void deleteFiles(String... path);
 
+	/**
+	 * Read a previously saved file
+	 *
+	 * @param path the path the file was saved to
+	 * @return the file contents, to be closed by the caller
+	 * @throws IOException if the file cannot be read
+	 */
+	InputStream readFile(String path) throws IOException;
+
 }
@@ -0,0 +1,115 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.api.specification;
+
+import java.util.Locale;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import lombok.NonNull;
+
+/**
+ * An aggregate function applied to a model attribute, parsed from
+ * expressions like <code>count</code>, <code>count(id)</code> or <code>sum(total)</code>
+ */
+public class AggregateMetric {
+
+	/**
+	 * Supported aggregate functions
+	 */
+	public enum Function {
+		COUNT,
+		SUM,
+		AVG,
+		MIN,
+		MAX;
+	}
+
+	private final Function function;
+
+	private final String fieldName;
+
+	private final String alias;
+
+	public AggregateMetric(@NonNull Function function, String fieldName) {
+		if (fieldName == null && function != Function.COUNT) {
+			throw new BadRequestException("Aggregate function requires an attribute name: " + function);
+		}
+		this.function = function;
+		this.fieldName = fieldName;
+		String name = function.name().toLowerCase(Locale.ROOT);
+		this.alias = fieldName != null ? name + "(" + fieldName + ")" : name;
+	}
+
+	/**
+	 * Parse the given expression
+	 *
+	 * @param expression the metric expression, e.g. <code>sum(total)</code>
+	 * @return the metric
+	 * @throws BadRequestException if the expression is invalid
+	 */
+	public static AggregateMetric parse(@NonNull String expression) {
+		String value = expression.trim();
+		String functionName = value;
+		String fieldName = null;
+		int start = value.indexOf('(');
+		if (start > 0) {
+			if (!value.endsWith(")")) {
+				throw new BadRequestException("Invalid aggregate metric: " + expression);
+			}
+			functionName = value.substring(0, start).trim();
+			fieldName = value.substring(start + 1, value.length() - 1).trim();
+			if (fieldName.isEmpty()) {
+				fieldName = null;
+			}
+		}
+		Function function;
+		try {
+			function = Function.valueOf(functionName.toUpperCase(Locale.ROOT));
+		}
+		catch (IllegalArgumentException e) {
+			throw new BadRequestException("Unsupported aggregate function: " + functionName);
+		}
+		return new AggregateMetric(function, fieldName);
+	}
+
+	public Function getFunction() {
+		return function;
+	}
+
+	/**
+	 * Get the attribute name, may be null for {@link Function#COUNT}
+	 */
+	public String getFieldName() {
+		return fieldName;
+	}
+
+	/**
+	 * Get the result name of this metric, i.e. the normalized expression
+	 */
+	public String getAlias() {
+		return alias;
+	}
+
+	@Override
+	public String toString() {
+		return this.alias;
+	}
+}
@@ -1,5 +1,6 @@
 package com.github.manosbatsis.scrudbeans;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
@@ -24,6 +25,33 @@ public class ScrudBeansProperties {
 	/** The packages to scan for model resources resulting in component generation */
 	private String packages;
 
+	/** File persistence and preview rendition settings */
+	private Files files = new Files();
+
+	/** Full-text search settings */
+	private Search search = new Search();
+
+	/** Query limits, applied to all models unless overridden per model */
+	private Query query = new Query();
+
+	/** Read replica routing settings */
+	private Replicas replicas = new Replicas();
+
+	/** Changes feed settings */
+	private Changes changes = new Changes();
+
+	/** Soft-delete settings */
+	private SoftDelete softDelete = new SoftDelete();
+
+	/** Startup settings */
+	private Startup startup = new Startup();
+
+	/** JSON and UI schema endpoint settings */
+	private Schemas schemas = new Schemas();
+
+	/** Relationship fetch tuning settings */
+	private Fetch fetch = new Fetch();
+
 	@Override
 	public String toString() {
 		return "ScrudBeansProperties{" +
@@ -31,6 +59,15 @@ public class ScrudBeansProperties {
 				", defaultParentPath='" + defaultParentPath + '\'' +
 				", packages='" + packages + '\'' +
 				", foo='" + foo + '\'' +
+				", files=" + files +
+				", search=" + search +
+				", query=" + query +
+				", replicas=" + replicas +
+				", changes=" + changes +
+				", softDelete=" + softDelete +
+				", startup=" + startup +
+				", schemas=" + schemas +
+				", fetch=" + fetch +
 				'}';
 	}
 
@@ -66,6 +103,78 @@ public class ScrudBeansProperties {
 		this.packages = packages;
 	}
 
+	public Files getFiles() {
+		return files;
+	}
+
+	public void setFiles(Files files) {
+		this.files = files;
+	}
+
+	public Search getSearch() {
+		return search;
+	}
+
+	public void setSearch(Search search) {
+		this.search = search;
+	}
+
+	public Query getQuery() {
+		return query;
+	}
+
+	public void setQuery(Query query) {
+		this.query = query;
+	}
+
+	public Replicas getReplicas() {
+		return replicas;
+	}
+
+	public void setReplicas(Replicas replicas) {
+		this.replicas = replicas;
+	}
+
+	public Changes getChanges() {
+		return changes;
+	}
+
+	public void setChanges(Changes changes) {
+		this.changes = changes;
+	}
+
+	public SoftDelete getSoftDelete() {
+		return softDelete;
+	}
+
+	public void setSoftDelete(SoftDelete softDelete) {
+		this.softDelete = softDelete;
+	}
+
+	public Startup getStartup() {
+		return startup;
+	}
+
+	public void setStartup(Startup startup) {
+		this.startup = startup;
+	}
+
+	public Schemas getSchemas() {
+		return schemas;
+	}
+
+	public void setSchemas(Schemas schemas) {
+		this.schemas = schemas;
+	}
+
+	public Fetch getFetch() {
+		return fetch;
+	}
+
+	public void setFetch(Fetch fetch) {
+		this.fetch = fetch;
+	}
+
 	public Set<String> getPackagesToScanAsSet() {
         Set<String> nameSet = new HashSet<String>();
         if (StringUtils.isNotBlank(packages)) {
@@ -81,4 +190,630 @@ public class ScrudBeansProperties {
         return nameSet;
 
 	}
-}
\ No newline at end of file
+
+	/** File persistence and preview rendition settings */
+	public static class Files {
+
+		/** The directory used to cache preview renditions, defaults to a temp subdirectory private to the application */
+		private String renditionCacheDir;
+
+		/** The maximum total size of cached preview renditions in bytes */
+		private long renditionCacheMaxSize = 256L * 1024 * 1024;
+
+		/** The max-age in seconds of the Cache-Control header for preview renditions */
+		private long renditionMaxAge = 24L * 60 * 60;
+
+		@Override
+		public String toString() {
+			return "Files{" +
+					"renditionCacheDir='" + renditionCacheDir + '\'' +
+					", renditionCacheMaxSize=" + renditionCacheMaxSize +
+					", renditionMaxAge=" + renditionMaxAge +
+					'}';
+		}
+
+		public String getRenditionCacheDir() {
+			return renditionCacheDir;
+		}
+
+		public void setRenditionCacheDir(String renditionCacheDir) {
+			this.renditionCacheDir = renditionCacheDir;
+		}
+
+		public long getRenditionCacheMaxSize() {
+			return renditionCacheMaxSize;
+		}
+
+		public void setRenditionCacheMaxSize(long renditionCacheMaxSize) {
+			this.renditionCacheMaxSize = renditionCacheMaxSize;
+		}
+
+		public long getRenditionMaxAge() {
+			return renditionMaxAge;
+		}
+
+		public void setRenditionMaxAge(long renditionMaxAge) {
+			this.renditionMaxAge = renditionMaxAge;
+		}
+	}
+
+	/** Full-text search settings */
+	public static class Search {
+
+		/** The full-text search provider, either "lucene" or "database", disabled if empty */
+		private String provider;
+
+		/** The directory of the embedded index, defaults to a temp subdirectory private to the application */
+		private String indexDir;
+
+		/** The interval in milliseconds between index commits */
+		private long commitInterval = 1000;
+
+		/** The number of pending index changes that triggers an early commit */
+		private int commitBatchSize = 1000;
+
+		/** The maximum number of full-text matches, up to 512. Searches matching more are rejected */
+		private int maxResults = 512;
+
+		/** The text search configuration used by the database provider, i.e. for PostgreSQL */
+		private String textSearchConfig = "simple";
+
+		@Override
+		public String toString() {
+			return "Search{" +
+					"provider='" + provider + '\'' +
+					", indexDir='" + indexDir + '\'' +
+					", commitInterval=" + commitInterval +
+					", commitBatchSize=" + commitBatchSize +
+					", maxResults=" + maxResults +
+					", textSearchConfig='" + textSearchConfig + '\'' +
+					'}';
+		}
+
+		public String getProvider() {
+			return provider;
+		}
+
+		public void setProvider(String provider) {
+			this.provider = provider;
+		}
+
+		public String getIndexDir() {
+			return indexDir;
+		}
+
+		public void setIndexDir(String indexDir) {
+			this.indexDir = indexDir;
+		}
+
+		public long getCommitInterval() {
+			return commitInterval;
+		}
+
+		public void setCommitInterval(long commitInterval) {
+			this.commitInterval = commitInterval;
+		}
+
+		public int getCommitBatchSize() {
+			return commitBatchSize;
+		}
+
+		public void setCommitBatchSize(int commitBatchSize) {
+			this.commitBatchSize = commitBatchSize;
+		}
+
+		public int getMaxResults() {
+			return maxResults;
+		}
+
+		public void setMaxResults(int maxResults) {
+			this.maxResults = maxResults;
+		}
+
+		public String getTextSearchConfig() {
+			return textSearchConfig;
+		}
+
+		public void setTextSearchConfig(String textSearchConfig) {
+			this.textSearchConfig = textSearchConfig;
+		}
+	}
+
+	/** Query limits, applied to all models unless overridden per model */
+	public static class Query {
+
+		/** The maximum page size for search results, zero for no limit */
+		private int maxPageSize = 0;
+
+		/** The maximum number of nodes in a search filter */
+		private int maxFilterNodes = 100;
+
+		/** The maximum nesting depth of a search filter */
+		private int maxFilterDepth = 10;
+
+		/** The query timeout in milliseconds, zero for none */
+		private int timeout = 0;
+
+		/** The maximum number of groups returned by the aggregate endpoint, zero for no limit */
+		private int maxAggregateGroups = 1000;
+
+		/**
+		 * Whether models without <code>@ScrudBean.sortableFields</code> may only be sorted by the
+		 * attributes found by the annotation processor, i.e. basic, embedded and to-one ones
+		 */
+		private boolean restrictSortableFields = false;
+
+		@Override
+		public String toString() {
+			return "Query{" +
+					"maxPageSize=" + maxPageSize +
+					", maxFilterNodes=" + maxFilterNodes +
+					", maxFilterDepth=" + maxFilterDepth +
+					", timeout=" + timeout +
+					", maxAggregateGroups=" + maxAggregateGroups +
+					", restrictSortableFields=" + restrictSortableFields +
+					'}';
+		}
+
+		public int getMaxPageSize() {
+			return maxPageSize;
+		}
+
+		public void setMaxPageSize(int maxPageSize) {
+			this.maxPageSize = maxPageSize;
+		}
+
+		public int getMaxFilterNodes() {
+			return maxFilterNodes;
+		}
+
+		public void setMaxFilterNodes(int maxFilterNodes) {
+			this.maxFilterNodes = maxFilterNodes;
+		}
+
+		public int getMaxFilterDepth() {
+			return maxFilterDepth;
+		}
+
+		public void setMaxFilterDepth(int maxFilterDepth) {
+			this.maxFilterDepth = maxFilterDepth;
+		}
+
+		public int getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(int timeout) {
+			this.timeout = timeout;
+		}
+
+		public int getMaxAggregateGroups() {
+			return maxAggregateGroups;
+		}
+
+		public void setMaxAggregateGroups(int maxAggregateGroups) {
+			this.maxAggregateGroups = maxAggregateGroups;
+		}
+
+		public boolean isRestrictSortableFields() {
+			return restrictSortableFields;
+		}
+
+		public void setRestrictSortableFields(boolean restrictSortableFields) {
+			this.restrictSortableFields = restrictSortableFields;
+		}
+	}
+
+	/** Read replica routing settings */
+	public static class Replicas {
+
+		/** Whether to route read-only transactions and GET requests to replicas */
+		private boolean enabled = false;
+
+		/** The replica connection settings */
+		private List<Replica> datasources = new ArrayList<>();
+
+		/** The maximum replica lag in milliseconds, lagging replicas are skipped */
+		private long maxLag = 5000;
+
+		/**
+		 * A query returning the replica lag in seconds, e.g. for PostgreSQL
+		 * <code>SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)</code>.
+		 * Only connectivity is checked if empty.
+		 */
+		private String lagQuery;
+
+		/** The interval in milliseconds between replica checks */
+		private long checkInterval = 5000;
+
+		/** The time in milliseconds reads stick to the primary after a write by the same client */
+		private long stickiness = 5000;
+
+		@Override
+		public String toString() {
+			return "Replicas{" +
+					"enabled=" + enabled +
+					", datasources=" + datasources +
+					", maxLag=" + maxLag +
+					", lagQuery='" + lagQuery + '\'' +
+					", checkInterval=" + checkInterval +
+					", stickiness=" + stickiness +
+					'}';
+		}
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public List<Replica> getDatasources() {
+			return datasources;
+		}
+
+		public void setDatasources(List<Replica> datasources) {
+			this.datasources = datasources;
+		}
+
+		public long getMaxLag() {
+			return maxLag;
+		}
+
+		public void setMaxLag(long maxLag) {
+			this.maxLag = maxLag;
+		}
+
+		public String getLagQuery() {
+			return lagQuery;
+		}
+
+		public void setLagQuery(String lagQuery) {
+			this.lagQuery = lagQuery;
+		}
+
+		public long getCheckInterval() {
+			return checkInterval;
+		}
+
+		public void setCheckInterval(long checkInterval) {
+			this.checkInterval = checkInterval;
+		}
+
+		public long getStickiness() {
+			return stickiness;
+		}
+
+		public void setStickiness(long stickiness) {
+			this.stickiness = stickiness;
+		}
+	}
+
+	/** Connection settings of a read replica */
+	public static class Replica {
+
+		private String url;
+
+		private String username;
+
+		private String password;
+
+		/** The JDBC driver class name, detected from the URL if empty */
+		private String driverClassName;
+
+		@Override
+		public String toString() {
+			return "Replica{" +
+					"url='" + url + '\'' +
+					", username='" + username + '\'' +
+					", driverClassName='" + driverClassName + '\'' +
+					'}';
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public void setUrl(String url) {
+			this.url = url;
+		}
+
+		public String getUsername() {
+			return username;
+		}
+
+		public void setUsername(String username) {
+			this.username = username;
+		}
+
+		public String getPassword() {
+			return password;
+		}
+
+		public void setPassword(String password) {
+			this.password = password;
+		}
+
+		public String getDriverClassName() {
+			return driverClassName;
+		}
+
+		public void setDriverClassName(String driverClassName) {
+			this.driverClassName = driverClassName;
+		}
+	}
+
+	/** Changes feed settings */
+	public static class Changes {
+
+		/**
+		 * Milliseconds subtracted from the start of the oldest in-flight writing transaction when reading
+		 * changes, covering clock differences between application nodes and timestamp precision
+		 */
+		private long settleTime = 1000;
+
+		/** The reconnection delay in milliseconds suggested to event stream clients */
+		private long retry = 5000;
+
+		/** The max number of milliseconds an event stream response stays open */
+		private long streamMaxDuration = 30000;
+
+		/** The max number of events written to an event stream response */
+		private int streamMaxEvents = 1000;
+
+		/** The number of days hard deletions are kept in the changes feed, zero or less to never purge them */
+		private int tombstoneRetention = 30;
+
+		@Override
+		public String toString() {
+			return "Changes{" +
+					"settleTime=" + settleTime +
+					", retry=" + retry +
+					", streamMaxDuration=" + streamMaxDuration +
+					", streamMaxEvents=" + streamMaxEvents +
+					", tombstoneRetention=" + tombstoneRetention +
+					'}';
+		}
+
+		public long getSettleTime() {
+			return settleTime;
+		}
+
+		public void setSettleTime(long settleTime) {
+			this.settleTime = settleTime;
+		}
+
+		public long getRetry() {
+			return retry;
+		}
+
+		public void setRetry(long retry) {
+			this.retry = retry;
+		}
+
+		public long getStreamMaxDuration() {
+			return streamMaxDuration;
+		}
+
+		public void setStreamMaxDuration(long streamMaxDuration) {
+			this.streamMaxDuration = streamMaxDuration;
+		}
+
+		public int getStreamMaxEvents() {
+			return streamMaxEvents;
+		}
+
+		public void setStreamMaxEvents(int streamMaxEvents) {
+			this.streamMaxEvents = streamMaxEvents;
+		}
+
+		public int getTombstoneRetention() {
+			return tombstoneRetention;
+		}
+
+		public void setTombstoneRetention(int tombstoneRetention) {
+			this.tombstoneRetention = tombstoneRetention;
+		}
+	}
+
+	/** Soft-delete settings */
+	public static class SoftDelete {
+
+		/**
+		 * Whether disabled dates in the future are supported, i.e. rows stay visible until then.
+		 * If false, active rows are filtered with a single <code>disabled IS NULL</code> predicate
+		 * that can use a partial index.
+		 */
+		private boolean scheduled = false;
+
+		/** Move rows disabled more than this number of days ago to archive tables, zero or negative to never archive */
+		private int archiveAfter = 0;
+
+		/** The number of rows to archive per transaction */
+		private int archiveBatchSize = 500;
+
+		/** The interval between archival runs in milliseconds */
+		private long archiveInterval = 60L * 60 * 1000;
+
+		/**
+		 * Whether cascaded bulk deletions of soft-deleted resources hard-delete children that are not
+		 * soft-deletable. If false, such children are kept along with their soft-deleted parents.
+		 */
+		private boolean cascadeHardDelete = false;
+
+		@Override
+		public String toString() {
+			return "SoftDelete{" +
+					"scheduled=" + scheduled +
+					", archiveAfter=" + archiveAfter +
+					", archiveBatchSize=" + archiveBatchSize +
+					", archiveInterval=" + archiveInterval +
+					", cascadeHardDelete=" + cascadeHardDelete +
+					'}';
+		}
+
+		public boolean isScheduled() {
+			return scheduled;
+		}
+
+		public void setScheduled(boolean scheduled) {
+			this.scheduled = scheduled;
+		}
+
+		public int getArchiveAfter() {
+			return archiveAfter;
+		}
+
+		public void setArchiveAfter(int archiveAfter) {
+			this.archiveAfter = archiveAfter;
+		}
+
+		public int getArchiveBatchSize() {
+			return archiveBatchSize;
+		}
+
+		public void setArchiveBatchSize(int archiveBatchSize) {
+			this.archiveBatchSize = archiveBatchSize;
+		}
+
+		public long getArchiveInterval() {
+			return archiveInterval;
+		}
+
+		public void setArchiveInterval(long archiveInterval) {
+			this.archiveInterval = archiveInterval;
+		}
+
+		public boolean isCascadeHardDelete() {
+			return cascadeHardDelete;
+		}
+
+		public void setCascadeHardDelete(boolean cascadeHardDelete) {
+			this.cascadeHardDelete = cascadeHardDelete;
+		}
+	}
+
+	/** Startup settings */
+	public static class Startup {
+
+		/**
+		 * The file of the model registry snapshot. If set, the snapshot is loaded on startup
+		 * instead of scanning the classpath, or written after scanning if missing or stale.
+		 */
+		private String snapshot;
+
+		/**
+		 * A key identifying the build, e.g. the application version. Snapshots written
+		 * with a different key are ignored and rewritten.
+		 */
+		private String snapshotKey = "";
+
+		@Override
+		public String toString() {
+			return "Startup{" +
+					"snapshot='" + snapshot + '\'' +
+					", snapshotKey='" + snapshotKey + '\'' +
+					'}';
+		}
+
+		public String getSnapshot() {
+			return snapshot;
+		}
+
+		public void setSnapshot(String snapshot) {
+			this.snapshot = snapshot;
+		}
+
+		public String getSnapshotKey() {
+			return snapshotKey;
+		}
+
+		public void setSnapshotKey(String snapshotKey) {
+			this.snapshotKey = snapshotKey;
+		}
+	}
+
+	/** JSON and UI schema endpoint settings */
+	public static class Schemas {
+
+		/**
+		 * The max-age in seconds of the Cache-Control header for model JSON and UI schemas.
+		 * The default of zero uses no-cache, i.e. clients revalidate using the ETag.
+		 */
+		private long maxAge = 0;
+
+		@Override
+		public String toString() {
+			return "Schemas{" +
+					"maxAge=" + maxAge +
+					'}';
+		}
+
+		public long getMaxAge() {
+			return maxAge;
+		}
+
+		public void setMaxAge(long maxAge) {
+			this.maxAge = maxAge;
+		}
+	}
+
+	/** Relationship fetch tuning settings */
+	public static class Fetch {
+
+		/** Whether to apply batch or subselect fetching to model relationships without explicit settings */
+		private boolean enabled = true;
+
+		/** The number of related entities to initialize in a single select when navigating to-one relationships */
+		private int entityBatchSize = 16;
+
+		/** The number of collections to initialize in a single select when navigating to-many relationships */
+		private int collectionBatchSize = 16;
+
+		/** Whether to initialize to-many relationships of all subjects of the original query using a subselect, instead of batches */
+		private boolean subselectCollections = false;
+
+		@Override
+		public String toString() {
+			return "Fetch{" +
+					"enabled=" + enabled +
+					", entityBatchSize=" + entityBatchSize +
+					", collectionBatchSize=" + collectionBatchSize +
+					", subselectCollections=" + subselectCollections +
+					'}';
+		}
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getEntityBatchSize() {
+			return entityBatchSize;
+		}
+
+		public void setEntityBatchSize(int entityBatchSize) {
+			this.entityBatchSize = entityBatchSize;
+		}
+
+		public int getCollectionBatchSize() {
+			return collectionBatchSize;
+		}
+
+		public void setCollectionBatchSize(int collectionBatchSize) {
+			this.collectionBatchSize = collectionBatchSize;
+		}
+
+		public boolean isSubselectCollections() {
+			return subselectCollections;
+		}
+
+		public void setSubselectCollections(boolean subselectCollections) {
+			this.subselectCollections = subselectCollections;
+		}
+	}
+}
@@ -21,14 +21,22 @@
 package com.github.manosbatsis.scrudbeans.repository;
 
 import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import javax.persistence.EntityManager;
 import javax.validation.ConstraintViolation;
 
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
+import com.github.manosbatsis.scrudbeans.api.specification.AggregateMetric;
 import com.github.manotbatsis.kotlin.utils.api.Dto;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -125,4 +133,106 @@ public interface ModelRepository<T, PK extends Serializable>
      */
     <RT> RT findRelatedEntityByOwnId(PK id, FieldInfo fieldInfo);
 
+	/**
+	 * Find a page of projections, selecting only the given attributes instead of loading entities
+	 *
+	 * @param spec       the query specification, may be null
+	 * @param pageable   the page config
+	 * @param fieldNames the attributes to select
+	 * @return the page of projections, one map of attribute names to values per row
+	 */
+	default Page<Map<String, Object>> findAllProjected(Specification<T> spec, Pageable pageable, Collection<String> fieldNames) {
+		throw new UnsupportedOperationException("findAllProjected");
+	}
+
+	/**
+	 * Compute the given metrics in the database, grouped by the given attributes
+	 *
+	 * @param spec     the query specification, may be null
+	 * @param groupBy    the attributes to group by, may be empty
+	 * @param metrics    the aggregate metrics to compute
+	 * @param maxResults the max number of groups to return, zero or negative for no limit
+	 * @return one map per group, containing the group attribute values and metrics by alias
+	 */
+	default List<Map<String, Object>> aggregate(Specification<T> spec, List<String> groupBy, List<AggregateMetric> metrics, int maxResults) {
+		throw new UnsupportedOperationException("aggregate");
+	}
+
+	/**
+	 * Find entities modified after the given keyset position, soft-deleted ones included,
+	 * ordered by last modification date and identifier. Requires a domain class
+	 * implementing {@link com.github.manosbatsis.scrudbeans.api.domain.BasicAuditedModel}.
+	 *
+	 * @param lastModifiedDate the last modification date of the keyset position, null to start from the beginning
+	 * @param id               the identifier of the keyset position, may be null
+	 * @param until            the max last modification date to include
+	 * @param maxResults       the max number of results
+	 * @return the matching entities
+	 */
+	default List<T> findModifiedAfter(LocalDateTime lastModifiedDate, PK id, LocalDateTime until, int maxResults) {
+		throw new UnsupportedOperationException("findModifiedAfter");
+	}
+
+	/**
+	 * Find the identifiers of entities matching the given specification,
+	 * excluding soft-deleted ones, without loading the entities
+	 *
+	 * @param spec the criteria, may be null to match all
+	 * @return the matching identifiers
+	 */
+	default List<PK> findAllIds(Specification<T> spec) {
+		throw new UnsupportedOperationException("findAllIds");
+	}
+
+	/**
+	 * Find up to the given number of identifiers of entities matching the given specification,
+	 * excluding soft-deleted ones, in no particular order
+	 *
+	 * @param spec       the criteria, may be null to match all
+	 * @param maxResults the max number of identifiers, zero or negative for no limit
+	 * @return the matching identifiers
+	 */
+	default List<PK> findAllIds(Specification<T> spec, int maxResults) {
+		throw new UnsupportedOperationException("findAllIds");
+	}
+
+	/**
+	 * Delete the entities with the given identifiers using a single <code>UPDATE</code>
+	 * (soft-delete) or <code>DELETE</code> statement per chunk of identifiers, then clear the
+	 * persistence context. Entities with cascaded removals, element collections or join tables
+	 * are hard-deleted one by one instead.
+	 *
+	 * @param ids the identifiers of the entities to delete
+	 * @return the number of deleted entities
+	 */
+	default int deleteAllByIdInBatch(Collection<PK> ids) {
+		throw new UnsupportedOperationException("deleteAllByIdInBatch");
+	}
+
+	/**
+	 * Find the descendants of a hierarchical entity, i.e. entities whose materialized path
+	 * starts with the path of the given one. Requires a domain class extending
+	 * <code>AbstractPersistableHierarchicalModel</code>.
+	 *
+	 * @param id       the identifier of the ancestor
+	 * @param maxDepth the max number of levels below the ancestor to include, null for all, 1 for children only
+	 * @param spec     additional criteria, may be null
+	 * @param pageable the page request
+	 * @return the matching descendants
+	 */
+	default Page<T> findDescendants(PK id, Integer maxDepth, Specification<T> spec, Pageable pageable) {
+		throw new UnsupportedOperationException("findDescendants");
+	}
+
+	/**
+	 * Find the ancestors of a hierarchical entity, starting from the root.
+	 * Requires a domain class extending <code>AbstractPersistableHierarchicalModel</code>.
+	 *
+	 * @param id the identifier of the descendant
+	 * @return the ancestors, ordered by path level
+	 */
+	default List<T> findAncestors(PK id) {
+		throw new UnsupportedOperationException("findAncestors");
+	}
+
 }
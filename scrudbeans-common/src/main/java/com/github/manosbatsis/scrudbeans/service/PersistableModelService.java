@@ -23,10 +23,14 @@ package com.github.manosbatsis.scrudbeans.service;
 
 import com.github.manosbatsis.scrudbeans.api.domain.MetadatumModel;
 import com.github.manosbatsis.scrudbeans.api.domain.UploadedFileModel;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.service.ModelService;
+import com.github.manosbatsis.scrudbeans.api.specification.AggregateMetric;
 import com.github.manosbatsis.scrudbeans.repository.ModelRepository;
+import com.github.manosbatsis.scrudbeans.util.ChangesFeedPage;
 import lombok.NonNull;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -36,8 +40,10 @@ import org.springframework.web.multipart.MultipartHttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 //import com.github.manosbatsis.scrudbeans.api.domain.users.model.User;
@@ -90,6 +96,77 @@ public interface PersistableModelService<T, PK extends Serializable>
 	 */
 	Page<T> findPaginated(Specification<T> spec, Pageable pageRequest);
 
+	/**
+	 * Find resources page-by-page, selecting only the given fields
+	 *
+	 * @param spec the query specification
+	 * @param pageRequest page request
+	 * @param fieldNames the fields to select
+	 * @return projections of matching resources
+	 */
+	default Page<Map<String, Object>> findProjectedPaginated(Specification<T> spec, Pageable pageRequest, Collection<String> fieldNames) {
+		throw new UnsupportedOperationException("findProjectedPaginated");
+	}
+
+	/**
+	 * Compute the given metrics for matching resources, grouped by the given fields
+	 *
+	 * @param spec the query specification
+	 * @param groupBy the fields to group by, may be empty
+	 * @param metrics the metrics to compute
+	 * @param maxResults the max number of groups to return, zero or negative for no limit
+	 * @return one entry per group
+	 */
+	default List<Map<String, Object>> aggregate(Specification<T> spec, List<String> groupBy, List<AggregateMetric> metrics, int maxResults) {
+		throw new UnsupportedOperationException("aggregate");
+	}
+
+	/**
+	 * Find resources created, updated or soft-deleted after the given keyset position
+	 *
+	 * @param lastModifiedDate the last modification date of the keyset position, null to start from the beginning
+	 * @param id the identifier of the keyset position, may be null
+	 * @param until the max last modification date to include
+	 * @param maxResults the max number of results
+	 * @return the matching resources, ordered by last modification date and identifier
+	 * @see ModelRepository#findModifiedAfter(LocalDateTime, Serializable, LocalDateTime, int)
+	 */
+	default List<T> findModifiedAfter(LocalDateTime lastModifiedDate, PK id, LocalDateTime until, int maxResults) {
+		throw new UnsupportedOperationException("findModifiedAfter");
+	}
+
+	/**
+	 * Get the changes after the position of the given token, merging resources modified after it
+	 * with hard deletions, if tracked. Changes are read up to a watermark that excludes transactions still in flight.
+	 *
+	 * @param since the token of the last known change, null to start from the beginning
+	 * @param size the max number of changes
+	 * @return the changes page
+	 * @throws BadRequestException if changes are not tracked for the model type or the token is invalid
+	 * @see #findModifiedAfter(LocalDateTime, Serializable, LocalDateTime, int)
+	 */
+	default ChangesFeedPage<T> findChanges(String since, int size) {
+		throw new UnsupportedOperationException("findChanges");
+	}
+
+	/**
+	 * Find the descendants of a hierarchical resource
+	 *
+	 * @see ModelRepository#findDescendants(Serializable, Integer, Specification, Pageable)
+	 */
+	default Page<T> findDescendants(PK id, Integer maxDepth, Specification<T> spec, Pageable pageable) {
+		throw new UnsupportedOperationException("findDescendants");
+	}
+
+	/**
+	 * Find the ancestors of a hierarchical resource, starting from the root
+	 *
+	 * @see ModelRepository#findAncestors(Serializable)
+	 */
+	default List<T> findAncestors(PK id) {
+		throw new UnsupportedOperationException("findAncestors");
+	}
+
     /**
      * Find the other end of a ToOne relationship
      *
@@ -124,6 +201,21 @@ public interface PersistableModelService<T, PK extends Serializable>
 	 */
 	void deleteAllWithCascade();
 
+	/**
+	 * Delete the resources matching the given criteria using set-based statements, in pages of
+	 * identifiers. Cascades follow the {@link javax.persistence.CascadeType#REMOVE} mappings
+	 * of inverse relationships and are applied to children before parents.
+	 * A single {@link com.github.manosbatsis.scrudbeans.api.domain.event.EntitiesDeletedEvent}
+	 * is fired per page of deleted resources instead of an event per resource.
+	 *
+	 * @param spec    the criteria, may be null to match all
+	 * @param cascade whether to apply cascades
+	 * @return the number of deleted resources, excluding cascades
+	 */
+	default int deleteAll(Specification<T> spec, boolean cascade) {
+		throw new UnsupportedOperationException("deleteAll");
+	}
+
 	/**
 	 * Utility method to be called by implementations
 	 *
@@ -134,9 +226,59 @@ public interface PersistableModelService<T, PK extends Serializable>
 
 	T updateFiles(PK id, MultipartHttpServletRequest request, HttpServletResponse response);
 
+	/**
+	 * Get a preview rendition of the file stored for the given entity property,
+	 * rendering it on first request
+	 *
+	 * @param id           the entity id
+	 * @param propertyName the property holding the file
+	 * @param width        the preview width, must match a configured preview
+	 * @param height       the preview height, must match a configured preview
+	 * @return the opened rendition, to be closed by the caller when done
+	 */
+	default Resource getFileRendition(PK id, String propertyName, int width, int height) {
+		throw new UnsupportedOperationException("getFileRendition");
+	}
+
+	/**
+	 * Add or update the metadatum of the given subject for the predicate of the given DTO
+	 *
+	 * @param subjectId the subject id
+	 * @param dto       the predicate and object to store
+	 * @throws BadRequestException if the model type does not support metadata
+	 */
 	void addMetadatum(PK subjectId, MetadatumModel dto);
 
 	void addMetadata(PK subjectId, Collection<MetadatumModel> dtos);
 
+	/**
+	 * Remove the metadatum of the given subject for the given predicate, if it exists
+	 *
+	 * @param subjectId the subject id
+	 * @param predicate the metadatum predicate
+	 * @throws BadRequestException if the model type does not support metadata
+	 */
 	void removeMetadatum(PK subjectId, String predicate);
+
+	/**
+	 * Find the metadatum of the given subject for the given predicate
+	 *
+	 * @param subjectId the subject id
+	 * @param predicate the metadatum predicate
+	 * @return the metadatum if found, null otherwise
+	 * @throws BadRequestException if the model type does not support metadata
+	 */
+	default MetadatumModel findMetadatum(PK subjectId, String predicate) {
+		throw new UnsupportedOperationException("findMetadatum");
+	}
+
+	/**
+	 * Get the metadata of the given subject
+	 *
+	 * @param subjectId the subject id
+	 * @return the metadata objects mapped by predicate
+	 */
+	default Map<String, String> getMetadata(PK subjectId) {
+		throw new UnsupportedOperationException("getMetadata");
+	}
 }
@@ -0,0 +1,140 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import lombok.Getter;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * A page of a model changes feed, i.e. entities created, updated or deleted after a position
+ * given as an opaque token. Clients pass {@link #getNext()} as the <code>since</code> parameter
+ * of the next request to fetch only subsequent changes.
+ *
+ * @param <T> the model type
+ */
+@Getter
+public class ChangesFeedPage<T> {
+
+	public static final String OP_UPSERT = "upsert";
+
+	public static final String OP_DELETE = "delete";
+
+	private static final char ENTITY_SEPARATOR = ',';
+
+	private static final char TOMBSTONE_SEPARATOR = ';';
+
+	private final List<Change<T>> changes;
+
+	/** The token to continue from */
+	private final String next;
+
+	/** Whether more changes are immediately available */
+	private final boolean hasMore;
+
+	public ChangesFeedPage(@NonNull List<Change<T>> changes, String next, boolean hasMore) {
+		this.changes = changes;
+		this.next = next;
+		this.hasMore = hasMore;
+	}
+
+	/**
+	 * Create a token for the given keyset position
+	 */
+	public static String toToken(@NonNull LocalDateTime lastModifiedDate, @NonNull Object id) {
+		return toToken(lastModifiedDate, id, false);
+	}
+
+	/**
+	 * Create a token for the given keyset position, either of an entity or a hard deletion tombstone
+	 */
+	public static String toToken(@NonNull LocalDateTime lastModifiedDate, @NonNull Object id, boolean tombstone) {
+		String position = lastModifiedDate.toString() + (tombstone ? TOMBSTONE_SEPARATOR : ENTITY_SEPARATOR) + id;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Parse the given token to a keyset position
+	 *
+	 * @return the last modification date, identifier string and whether the position is a tombstone
+	 * @throws BadRequestException if the token is invalid
+	 */
+	public static Object[] fromToken(@NonNull String token) {
+		try {
+			String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+			int separator = StringUtils.indexOfAny(position, ENTITY_SEPARATOR, TOMBSTONE_SEPARATOR);
+			return new Object[]{LocalDateTime.parse(position.substring(0, separator)), position.substring(separator + 1),
+					position.charAt(separator) == TOMBSTONE_SEPARATOR};
+		}
+		catch (RuntimeException e) {
+			throw new BadRequestException("Invalid changes token: " + token, e);
+		}
+	}
+
+	/**
+	 * A single change
+	 *
+	 * @param <T> the model type
+	 */
+	@Getter
+	public static class Change<T> {
+
+		/** Either {@link #OP_UPSERT} or {@link #OP_DELETE} */
+		private final String op;
+
+		private final Object id;
+
+		private final LocalDateTime modified;
+
+		/** The model, null for deletions */
+		private final T model;
+
+		/** Whether this is a hard deletion, i.e. read from a tombstone rather than the entity */
+		@JsonIgnore
+		private final boolean tombstone;
+
+		public Change(@NonNull String op, @NonNull Object id, @NonNull LocalDateTime modified, T model) {
+			this(op, id, modified, model, false);
+		}
+
+		public Change(@NonNull String op, @NonNull Object id, @NonNull LocalDateTime modified, T model, boolean tombstone) {
+			this.op = op;
+			this.id = id;
+			this.modified = modified;
+			this.model = model;
+			this.tombstone = tombstone;
+		}
+
+		/**
+		 * Get the token for the position of this change
+		 */
+		public String getToken() {
+			return toToken(this.modified, this.id, this.tombstone);
+		}
+	}
+}
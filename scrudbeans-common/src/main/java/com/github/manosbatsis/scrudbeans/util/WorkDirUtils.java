@@ -0,0 +1,55 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.util;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.lang3.StringUtils;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * Resolves default working directories private to the running application, so that
+ * applications sharing a host do not share caches or indexes.
+ */
+public class WorkDirUtils {
+
+	private static final String TMP_DIR = "java.io.tmpdir";
+
+	/**
+	 * Get a temp subdirectory for the given purpose, unique per application name,
+	 * working directory and user
+	 *
+	 * @param applicationName the application name, i.e. <code>spring.application.name</code>, may be empty
+	 * @param purpose         the directory purpose, i.e. "renditions"
+	 * @return the directory, not created
+	 */
+	public static File getDefaultWorkDir(String applicationName, String purpose) {
+		String owner = StringUtils.defaultString(applicationName) + '@'
+				+ System.getProperty("user.dir", "") + '@' + System.getProperty("user.name", "");
+		String id = DigestUtils.md5DigestAsHex(owner.getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+		if (StringUtils.isNotBlank(applicationName)) {
+			id = applicationName.replaceAll("[^A-Za-z0-9._-]", "_") + '-' + id;
+		}
+		return new File(new File(System.getProperty(TMP_DIR), "scrudbeans-" + purpose), id);
+	}
+}
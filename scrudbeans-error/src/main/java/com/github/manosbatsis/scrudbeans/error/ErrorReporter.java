@@ -0,0 +1,217 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.error;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Counts errors per HTTP status and model and logs them, at most
+ * <code>scrudbeans.errors.log-limit</code> times per exception type and status every
+ * <code>scrudbeans.errors.log-interval</code> seconds. Server errors are logged with
+ * their stack trace, client errors with their message only.
+ */
+@Component
+public class ErrorReporter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ErrorReporter.class);
+
+	/** The request attribute holding the handler that failed, if any */
+	public static final String HANDLER_ATTRIBUTE = ErrorReporter.class.getName() + ".HANDLER";
+
+	/** The model name used for errors not handled by a model controller */
+	public static final String NO_MODEL = "none";
+
+	/** The model type key of errors not handled by a model controller */
+	private static final Class<?> NO_MODEL_TYPE = Void.class;
+
+	/** The error type key of errors reported without an exception */
+	private static final Class<?> UNKNOWN_ERROR_TYPE = Void.class;
+
+	/** Counters per model type and status */
+	private final Map<Class<?>, ByStatus<LongAdder>> counters = new ConcurrentHashMap<>();
+
+	/** Log windows per error type and status */
+	private final Map<Class<?>, ByStatus<LogWindow>> logWindows = new ConcurrentHashMap<>();
+
+	private ModelInfoRegistry modelInfoRegistry;
+
+	private int logLimit = 10;
+
+	private long logIntervalMillis = TimeUnit.SECONDS.toMillis(60);
+
+	@Autowired(required = false)
+	public void setModelInfoRegistry(ModelInfoRegistry modelInfoRegistry) {
+		this.modelInfoRegistry = modelInfoRegistry;
+	}
+
+	/** Set the max number of log entries per exception type and status within an interval, zero or negative for no limit */
+	@Value("${scrudbeans.errors.log-limit:10}")
+	public void setLogLimit(int logLimit) {
+		this.logLimit = logLimit;
+	}
+
+	/** Set the log limit interval in seconds */
+	@Value("${scrudbeans.errors.log-interval:60}")
+	public void setLogInterval(long logInterval) {
+		this.logIntervalMillis = TimeUnit.SECONDS.toMillis(logInterval);
+	}
+
+	/**
+	 * Count and, unless over the limit, log the given error
+	 *
+	 * @param webRequest the failed request
+	 * @param ex         the error if any
+	 * @param status     the response status code
+	 */
+	public void report(WebRequest webRequest, Throwable ex, int status) {
+		Class<?> modelType = this.getModelType(webRequest.getAttribute(HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+		this.counters.computeIfAbsent(modelType, key -> new ByStatus<>()).get(status, LongAdder::new).increment();
+
+		int suppressed = this.sample(ex != null ? ex.getClass() : UNKNOWN_ERROR_TYPE, status);
+		if (suppressed >= 0) {
+			String model = modelType != NO_MODEL_TYPE ? modelType.getSimpleName() : NO_MODEL;
+			if (status >= 500) {
+				LOGGER.error("Request failed with status {}, model: {}, suppressed since last: {}", status, model, suppressed, ex);
+			}
+			else {
+				LOGGER.warn("Request failed with status {}, model: {}, suppressed since last: {}, error: {}",
+						status, model, suppressed, String.valueOf(ex));
+			}
+		}
+	}
+
+	/**
+	 * Get the error counts keyed by status and model, i.e. <code>404 Order</code>
+	 */
+	public Map<String, Long> getCounts() {
+		Map<String, Long> counts = new TreeMap<>();
+		for (Map.Entry<Class<?>, ByStatus<LongAdder>> entry : this.counters.entrySet()) {
+			String model = entry.getKey() != NO_MODEL_TYPE ? entry.getKey().getSimpleName() : NO_MODEL;
+			entry.getValue().forEach((status, counter) -> counts.put(status + " " + model, counter.sum()));
+		}
+		return Collections.unmodifiableMap(counts);
+	}
+
+	/**
+	 * Get the model type handled by the given handler
+	 *
+	 * @return the model type, {@link Void} if none
+	 */
+	protected Class<?> getModelType(Object handler) {
+		Class<?> modelType = null;
+		if (handler instanceof HandlerMethod && this.modelInfoRegistry != null) {
+			modelType = this.modelInfoRegistry.getHandlerModelType(((HandlerMethod) handler).getBeanType());
+		}
+		return modelType != null ? modelType : NO_MODEL_TYPE;
+	}
+
+	/**
+	 * Check whether an entry for the given error type and status can be logged within the current interval
+	 *
+	 * @param errorType the exception type, {@link Void} if unknown
+	 * @param status    the response status code
+	 * @return the number of entries suppressed since the last one logged, or -1 if this one should be suppressed
+	 */
+	protected int sample(Class<?> errorType, int status) {
+		if (this.logLimit <= 0) {
+			return 0;
+		}
+		LogWindow window = this.logWindows.computeIfAbsent(errorType, key -> new ByStatus<>()).get(status, LogWindow::new);
+		long now = System.currentTimeMillis();
+		synchronized (window) {
+			if (now - window.start >= this.logIntervalMillis) {
+				window.start = now;
+				window.logged = 0;
+			}
+			if (window.logged < this.logLimit) {
+				window.logged++;
+				int suppressed = window.suppressed;
+				window.suppressed = 0;
+				return suppressed;
+			}
+			window.suppressed++;
+			return -1;
+		}
+	}
+
+	private static final class LogWindow {
+
+		private long start;
+
+		private int logged;
+
+		private int suppressed;
+	}
+
+	/**
+	 * Values indexed by HTTP status code, i.e. without boxing or building keys per error
+	 */
+	private static final class ByStatus<V> {
+
+		private static final int MAX_STATUS = 600;
+
+		private final AtomicReferenceArray<V> values = new AtomicReferenceArray<>(MAX_STATUS);
+
+		/** Values of unexpected status codes */
+		private final Map<Integer, V> others = new ConcurrentHashMap<>();
+
+		V get(int status, Supplier<V> factory) {
+			if (status < 0 || status >= MAX_STATUS) {
+				return this.others.computeIfAbsent(status, key -> factory.get());
+			}
+			V value = this.values.get(status);
+			if (value == null) {
+				this.values.compareAndSet(status, null, factory.get());
+				value = this.values.get(status);
+			}
+			return value;
+		}
+
+		void forEach(BiConsumer<Integer, V> action) {
+			for (int status = 0; status < MAX_STATUS; status++) {
+				V value = this.values.get(status);
+				if (value != null) {
+					action.accept(status, value);
+				}
+			}
+			this.others.forEach(action);
+		}
+	}
+}
@@ -27,6 +27,7 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.error.DefaultErrorAttributes;
 import org.springframework.boot.web.servlet.error.ErrorAttributes;
@@ -53,23 +54,26 @@ public class ScrudbeansErrorAttributes
 	private String currentApiVersion;
 	private String sendReportUri;
 	private Boolean includeException;
+	private ErrorReporter errorReporter;
 
 	@Override
 	public ModelAndView resolveException(HttpServletRequest request, HttpServletResponse response, Object handler,
 										 Exception ex) {
-		storeErrorAttributes(request, ex);
+		storeErrorAttributes(request, handler, ex);
 		return null;
 	}
 
-	private void storeErrorAttributes(HttpServletRequest request, Exception ex) {
+	private void storeErrorAttributes(HttpServletRequest request, Object handler, Exception ex) {
 		request.setAttribute(ERROR_ATTRIBUTE, ex);
+		if (handler != null) {
+			request.setAttribute(ErrorReporter.HANDLER_ATTRIBUTE, handler);
+		}
 	}
 
 	@Override
 	public Map<String, Object> getErrorAttributes(WebRequest request, boolean includeStackTrace) {
 		Map<String, Object> errorAttributes = new HashMap<String, Object>();
 		Throwable throwable = getError(request);
-		printRequestProps(request);
 		ScrudbeansErrorResponse errorResponse = getErrorResponse(request, throwable, includeStackTrace);
 		errorAttributes.put("message", errorResponse.getMessage());
 		errorAttributes.put("remoteAddress", errorResponse.getRemoteAddress());
@@ -102,6 +106,11 @@ public class ScrudbeansErrorAttributes
 		this.includeException = includeException;
 	}
 
+	@Autowired(required = false)
+	public void setErrorReporter(ErrorReporter errorReporter) {
+		this.errorReporter = errorReporter;
+	}
+
 
 	public void printRequestProps(WebRequest webRequest) {
 		Util.printRequestProps(webRequest);
@@ -109,15 +118,17 @@ public class ScrudbeansErrorAttributes
 
 	public ScrudbeansErrorResponse getErrorResponse(WebRequest webRequest, boolean includeStackTrace) {
 		LOGGER.debug("getErrorResponse, includeStackTrace: {}", includeStackTrace);
-		printRequestProps(webRequest);
 		return getErrorResponse(webRequest, Util.getErrorAttribute(webRequest), includeStackTrace);
 	}
 
 	public ScrudbeansErrorResponse getErrorResponse(WebRequest webRequest, Throwable ex, boolean includeStackTrace) {
-		LOGGER.warn("getErrorResponse, exception: {}", ex);
 		printRequestProps(webRequest);
-		return new ScrudbeansErrorResponse(
+		ScrudbeansErrorResponse errorResponse = new ScrudbeansErrorResponse(
 				(ServletWebRequest) webRequest, null, Util.getHttpStatus(ex), ex, includeStackTrace);
+		if (this.errorReporter != null && errorResponse.getHttpStatusCode() != null) {
+			this.errorReporter.report(webRequest, ex, errorResponse.getHttpStatusCode());
+		}
+		return errorResponse;
 	}
 
 	@Override
@@ -31,7 +31,6 @@ public class ScrudbeansErrorControllerAdvice {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ScrudbeansErrorResponse> handleError(ServletWebRequest request, Exception ex) {
         Util.storeErrorAttribute(request, ex);
-        LOGGER.warn("ScrudbeansErrorControllerAdvice handleError, exception:", ex);
         ScrudbeansErrorResponse scrudbeansErrorResponse =
                 errorAttributes.getErrorResponse(request, ex, includeException);
         return new ResponseEntity(scrudbeansErrorResponse, HttpStatus.resolve(scrudbeansErrorResponse.getHttpStatusCode()));
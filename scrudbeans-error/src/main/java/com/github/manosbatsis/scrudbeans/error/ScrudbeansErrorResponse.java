@@ -96,7 +96,7 @@ public class ScrudbeansErrorResponse implements Error {
 
     public ScrudbeansErrorResponse(
             @NonNull ServletWebRequest request, String message, HttpStatus status, Throwable throwable, @NonNull boolean includeStackTrace) {
-        LOGGER.warn("ScrudbeansErrorResponse, throwable:", throwable);
+        LOGGER.debug("ScrudbeansErrorResponse, status: {}, throwable: {}", status, throwable);
         if (StringUtils.isBlank(message) && !Objects.isNull(throwable)) message = throwable.getMessage();
         if (!Objects.isNull(throwable)) {
             Class errorClass = throwable.getClass();
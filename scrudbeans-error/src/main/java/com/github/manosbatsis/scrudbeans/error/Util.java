@@ -36,6 +36,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.xml.bind.ValidationException;
 import java.io.FileNotFoundException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,37 +49,53 @@ public class Util {
     private static final String ERROR_ATTRIBUTE = DefaultErrorAttributes.class.getName() + ".ERROR";
     private static final String SERVLET_ERROR_ATTRIBUTE = "javax.servlet.error.exception";
 
-    private static Map<String, Integer> exceptionStatuses = new HashMap<>();
+    private static final Map<String, Integer> exceptionStatuses;
+
+    /** Standard statuses resolved per exception type */
+    private static final ClassValue<HttpStatus> STANDARD_STATUSES = new ClassValue<HttpStatus>() {
+        @Override
+        protected HttpStatus computeValue(Class<?> type) {
+            Class<?> exceptionClass = type;
+            Integer statusCode = null;
+            while (statusCode == null && exceptionClass != null) {
+                statusCode = exceptionStatuses.get(exceptionClass.getCanonicalName());
+                exceptionClass = exceptionClass.getSuperclass();
+            }
+            return statusCode != null ? HttpStatus.valueOf(statusCode) : HttpStatus.INTERNAL_SERVER_ERROR;
+        }
+    };
 
     static {
-        exceptionStatuses.put(AuthenticationException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
-        exceptionStatuses.put(UsernameNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
-        exceptionStatuses.put(AccessDeniedException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
-        exceptionStatuses.put("org.hibernate.ObjectNotFoundException", HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put(NotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put(FileNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put(EntityNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put(EntityExistsException.class.getCanonicalName(), HttpServletResponse.SC_CONFLICT);
-        exceptionStatuses.put(HttpRequestMethodNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_METHOD_NOT_ALLOWED);
-        exceptionStatuses.put(HttpMediaTypeNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
-        exceptionStatuses.put(HttpMediaTypeNotAcceptableException.class.getCanonicalName(), HttpServletResponse.SC_NOT_ACCEPTABLE);
-        exceptionStatuses.put(MissingPathVariableException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        exceptionStatuses.put("org.springframework.dao.DataIntegrityViolationException", HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(MissingServletRequestParameterException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(ServletRequestBindingException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(ValidationException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(ConversionNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        exceptionStatuses.put(TypeMismatchException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(HttpMessageNotReadableException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(HttpMessageNotWritableException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        exceptionStatuses.put(MethodArgumentNotValidException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(MissingServletRequestPartException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(BindException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
-        exceptionStatuses.put(NoHandlerFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put("com.github.manosbatsis.vaultaire.service.node.NotFoundException", HttpServletResponse.SC_NOT_FOUND);
-        exceptionStatuses.put(AsyncRequestTimeoutException.class.getCanonicalName(), HttpServletResponse.SC_SERVICE_UNAVAILABLE);
-        exceptionStatuses.put(RuntimeException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
-        exceptionStatuses.put(Exception.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        Map<String, Integer> statuses = new HashMap<>();
+        statuses.put(AuthenticationException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
+        statuses.put(UsernameNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
+        statuses.put(AccessDeniedException.class.getCanonicalName(), HttpServletResponse.SC_UNAUTHORIZED);
+        statuses.put("org.hibernate.ObjectNotFoundException", HttpServletResponse.SC_NOT_FOUND);
+        statuses.put(NotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
+        statuses.put(FileNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
+        statuses.put(EntityNotFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
+        statuses.put(EntityExistsException.class.getCanonicalName(), HttpServletResponse.SC_CONFLICT);
+        statuses.put(HttpRequestMethodNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        statuses.put(HttpMediaTypeNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE);
+        statuses.put(HttpMediaTypeNotAcceptableException.class.getCanonicalName(), HttpServletResponse.SC_NOT_ACCEPTABLE);
+        statuses.put(MissingPathVariableException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        statuses.put("org.springframework.dao.DataIntegrityViolationException", HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(MissingServletRequestParameterException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(ServletRequestBindingException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(ValidationException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(ConversionNotSupportedException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        statuses.put(TypeMismatchException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(HttpMessageNotReadableException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(HttpMessageNotWritableException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        statuses.put(MethodArgumentNotValidException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(MissingServletRequestPartException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(BindException.class.getCanonicalName(), HttpServletResponse.SC_BAD_REQUEST);
+        statuses.put(NoHandlerFoundException.class.getCanonicalName(), HttpServletResponse.SC_NOT_FOUND);
+        statuses.put("com.github.manosbatsis.vaultaire.service.node.NotFoundException", HttpServletResponse.SC_NOT_FOUND);
+        statuses.put(AsyncRequestTimeoutException.class.getCanonicalName(), HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        statuses.put(RuntimeException.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        statuses.put(Exception.class.getCanonicalName(), HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        exceptionStatuses = Collections.unmodifiableMap(statuses);
     }
 
     public static <T> T getAttribute(RequestAttributes requestAttributes, String name) {
@@ -111,14 +128,13 @@ public class Util {
         HttpStatus status = null;
         if (ex != null) {
             // if ResponseStatusException
-            if (ResponseStatusException.class.isAssignableFrom(ex.getClass())) {
+            if (ex instanceof ResponseStatusException) {
                 status = ((ResponseStatusException) ex).getStatus();
             }
             // if SystemException
-            else if (SystemException.class.isAssignableFrom(ex.getClass())) {
+            else if (ex instanceof SystemException) {
                 status = ((SystemException) ex).getStatus();
-            } else if (ex.getMessage().toLowerCase().contains("detached entity passed to persist")
-                    || ex.getMessage().toLowerCase().contains("A different object with the same identifier value")) {
+            } else if (isConflict(ex.getMessage())) {
                 status = HttpStatus.CONFLICT;
             } else {
                 status = getStandardExceptionHttpStatus(ex);
@@ -127,21 +143,24 @@ public class Util {
         return status;
     }
 
+    private static boolean isConflict(String message) {
+        if (message == null) {
+            return false;
+        }
+        String lowerCaseMessage = message.toLowerCase();
+        return lowerCaseMessage.contains("detached entity passed to persist")
+                || lowerCaseMessage.contains("a different object with the same identifier value");
+    }
+
 
     protected static HttpStatus getStandardExceptionHttpStatus(Throwable ex) {
-        Class exceptionClass = ex.getClass();
-        Integer statusCode = null;
-        while (statusCode == null) {
-            statusCode = exceptionStatuses.get(exceptionClass.getCanonicalName());
-            if (statusCode == null) {
-                exceptionClass = exceptionClass.getSuperclass();
-            }
-        }
-        return HttpStatus.valueOf(statusCode.intValue());
+        return STANDARD_STATUSES.get(ex.getClass());
     }
 
     public static void printRequestProps(WebRequest webRequest) {
-
+        if (!LOGGER.isDebugEnabled()) {
+            return;
+        }
         LOGGER.debug("printRequestProps SCOPE_SESSION");
         for (String name : webRequest.getAttributeNames(SCOPE_SESSION)) {
             if (name.toLowerCase().contains("error") || name.toLowerCase().contains("exception"))
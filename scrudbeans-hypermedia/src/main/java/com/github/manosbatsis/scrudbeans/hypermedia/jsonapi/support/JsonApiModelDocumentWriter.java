@@ -0,0 +1,251 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelLinkTemplate;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.JsonApiDocument;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.JsonApiLink;
+import lombok.NonNull;
+import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.collections4.MapUtils;
+
+import org.springframework.data.domain.Page;
+import org.springframework.hateoas.RepresentationModel;
+
+/**
+ * Writes JSON API documents directly to a {@link JsonGenerator} using {@link ModelInfo} metadata,
+ * i.e. without wrapping models in intermediate resource or document objects. The
+ * output follows the member order of {@link JsonApiDocument}: data, meta, links and included.
+ *
+ * Instances are thread-safe and should be reused, e.g. one per {@link ObjectMapper}.
+ *
+ * @see StreamingModelResourceDocument
+ * @see <a href="http://jsonapi.org/format/upcoming/#document-structure">JSON API Documents</a>
+ */
+public class JsonApiModelDocumentWriter {
+
+	/** Excludes HATEOAS links from resource attributes, as they are written as JSON API links instead */
+	@JsonIgnoreProperties({"links"})
+	abstract static class AttributesMixin {
+	}
+
+	private final ObjectWriter objectWriter;
+
+	public JsonApiModelDocumentWriter(@NonNull ObjectMapper objectMapper) {
+		this.objectWriter = objectMapper.copy()
+				.addMixIn(RepresentationModel.class, AttributesMixin.class)
+				.writer()
+				.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+	}
+
+	/**
+	 * Write a document with the page contents as <code>data</code> and
+	 * the page properties, followed by any given entries, as <code>meta</code>
+	 */
+	public <T> void writePageDocument(@NonNull JsonGenerator gen, @NonNull Page<T> page, @NonNull ModelInfo<T, ?> modelInfo,
+			@NonNull String baseUrl, Map<String, Serializable> meta, Collection<JsonApiLink> links,
+			Iterable<?> included, ModelInfoRegistry modelInfoRegistry) throws IOException {
+		gen.writeStartObject();
+		this.writeData(gen, page.getContent(), modelInfo, baseUrl);
+		gen.writeObjectFieldStart("meta");
+		gen.writeBooleanField("first", page.isFirst());
+		gen.writeBooleanField("last", page.isLast());
+		gen.writeNumberField("size", page.getSize());
+		gen.writeNumberField("number", page.getNumber());
+		gen.writeNumberField("numberOfElements", page.getNumberOfElements());
+		gen.writeNumberField("totalElements", page.getTotalElements());
+		gen.writeNumberField("totalPages", page.getTotalPages());
+		gen.writeFieldName("sort");
+		this.objectWriter.writeValue(gen, page.getSort());
+		this.writeMetaEntries(gen, meta);
+		gen.writeEndObject();
+		this.writeLinks(gen, links);
+		this.writeIncluded(gen, included, modelInfoRegistry, baseUrl);
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Write a document with the given models as <code>data</code>
+	 */
+	public <T> void writeCollectionDocument(@NonNull JsonGenerator gen, @NonNull Iterable<T> models, @NonNull ModelInfo<T, ?> modelInfo,
+			@NonNull String baseUrl, Map<String, Serializable> meta, Collection<JsonApiLink> links,
+			Iterable<?> included, ModelInfoRegistry modelInfoRegistry) throws IOException {
+		gen.writeStartObject();
+		this.writeData(gen, models, modelInfo, baseUrl);
+		this.writeMeta(gen, meta);
+		this.writeLinks(gen, links);
+		this.writeIncluded(gen, included, modelInfoRegistry, baseUrl);
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Write a document with the given model as <code>data</code>
+	 */
+	public <T> void writeDocument(@NonNull JsonGenerator gen, T model, @NonNull ModelInfo<T, ?> modelInfo,
+			@NonNull String baseUrl, Map<String, Serializable> meta, Collection<JsonApiLink> links,
+			Iterable<?> included, ModelInfoRegistry modelInfoRegistry) throws IOException {
+		gen.writeStartObject();
+		gen.writeFieldName("data");
+		if (model != null) {
+			this.writeResource(gen, model, modelInfo, baseUrl);
+		}
+		else {
+			gen.writeNull();
+		}
+		this.writeMeta(gen, meta);
+		this.writeLinks(gen, links);
+		this.writeIncluded(gen, included, modelInfoRegistry, baseUrl);
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Write the given models as the <code>data</code> array
+	 */
+	public <T> void writeData(@NonNull JsonGenerator gen, @NonNull Iterable<T> models, @NonNull ModelInfo<T, ?> modelInfo, @NonNull String baseUrl) throws IOException {
+		gen.writeArrayFieldStart("data");
+		for (T model : models) {
+			this.writeResource(gen, model, modelInfo, baseUrl);
+		}
+		gen.writeEndArray();
+	}
+
+	/**
+	 * Write a single resource object, including <code>id</code>, <code>type</code>,
+	 * <code>attributes</code>, <code>relationships</code> and <code>links</code>
+	 */
+	public <T> void writeResource(@NonNull JsonGenerator gen, @NonNull T model, @NonNull ModelInfo<T, ?> modelInfo, @NonNull String baseUrl) throws IOException {
+		ModelLinkTemplate template = modelInfo.getLinkTemplate();
+		Object id = template.readId(model);
+
+		gen.writeStartObject();
+		if (id != null) {
+			gen.writeFieldName("id");
+			this.objectWriter.writeValue(gen, id);
+		}
+		gen.writeStringField("type", modelInfo.getUriComponent());
+		gen.writeFieldName("attributes");
+		this.objectWriter.writeValue(gen, model);
+
+		// links are only available for persisted resources
+		if (id != null) {
+			String[] hrefs = template.render(baseUrl, id, true);
+			this.writeRelationships(gen, template.getRelationshipNames(), hrefs);
+			gen.writeObjectFieldStart("links");
+			gen.writeStringField("self", hrefs[0]);
+			gen.writeEndObject();
+		}
+		gen.writeEndObject();
+	}
+
+	/**
+	 * Write the <code>relationships</code> object, if any linkable fields exist
+	 *
+	 * @param names the relationship names
+	 * @param hrefs the links as rendered by {@link ModelLinkTemplate#render(String, Object, boolean)}
+	 */
+	protected void writeRelationships(JsonGenerator gen, String[] names, String[] hrefs) throws IOException {
+		if (names.length > 0) {
+			gen.writeObjectFieldStart("relationships");
+			for (int i = 0; i < names.length; i++) {
+				gen.writeObjectFieldStart(names[i]);
+				gen.writeObjectFieldStart("links");
+				gen.writeStringField("self", hrefs[1 + i]);
+				gen.writeStringField("related", hrefs[1 + names.length + i]);
+				gen.writeEndObject();
+				gen.writeEndObject();
+			}
+			gen.writeEndObject();
+		}
+	}
+
+	/**
+	 * Write the <code>meta</code> object, if not empty
+	 */
+	public void writeMeta(@NonNull JsonGenerator gen, Map<String, Serializable> meta) throws IOException {
+		if (MapUtils.isNotEmpty(meta)) {
+			gen.writeObjectFieldStart("meta");
+			this.writeMetaEntries(gen, meta);
+			gen.writeEndObject();
+		}
+	}
+
+	/**
+	 * Write the given entries as fields of the current <code>meta</code> object
+	 */
+	protected void writeMetaEntries(JsonGenerator gen, Map<String, Serializable> meta) throws IOException {
+		if (meta != null) {
+			for (Map.Entry<String, Serializable> entry : meta.entrySet()) {
+				gen.writeFieldName(entry.getKey());
+				this.objectWriter.writeValue(gen, entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Write the <code>links</code> object, if not empty
+	 */
+	public void writeLinks(@NonNull JsonGenerator gen, Collection<JsonApiLink> links) throws IOException {
+		if (CollectionUtils.isNotEmpty(links)) {
+			gen.writeObjectFieldStart("links");
+			for (JsonApiLink link : links) {
+				if (MapUtils.isEmpty(link.getMeta())) {
+					gen.writeStringField(link.getRel(), link.getHref());
+				}
+				else {
+					gen.writeObjectFieldStart(link.getRel());
+					gen.writeStringField("href", link.getHref());
+					this.writeMeta(gen, link.getMeta());
+					gen.writeEndObject();
+				}
+			}
+			gen.writeEndObject();
+		}
+	}
+
+	/**
+	 * Write the <code>included</code> array, if not empty, resolving the {@link ModelInfo} of each model
+	 */
+	public void writeIncluded(@NonNull JsonGenerator gen, Iterable<?> included, ModelInfoRegistry modelInfoRegistry, @NonNull String baseUrl) throws IOException {
+		if (included != null && included.iterator().hasNext()) {
+			if (modelInfoRegistry == null) {
+				throw new IllegalArgumentException("A ModelInfoRegistry is required to write included resources");
+			}
+			gen.writeArrayFieldStart("included");
+			for (Object model : included) {
+				this.writeResource(gen, model, modelInfoRegistry.getEntryFor(model.getClass()), baseUrl);
+			}
+			gen.writeEndArray();
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.JsonApiLink;
+import lombok.NonNull;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A JSON API Document that is written directly to the output by a {@link JsonApiModelDocumentWriter}
+ * when serialized by Jackson, i.e. a lightweight alternative to {@link SimpleModelResourceDocument}
+ * and {@link SimpleModelResourceCollectionDocument} for responses
+ *
+ * @param <T> the JSON API EntityModel model type
+ */
+public class StreamingModelResourceDocument<T> implements JsonSerializable {
+
+	private final JsonApiModelDocumentWriter writer;
+
+	private final ModelInfo<T, ?> modelInfo;
+
+	private final String baseUrl;
+
+	private T model;
+
+	private Iterable<T> models;
+
+	private Page<T> page;
+
+	private Map<String, Serializable> meta;
+
+	private Collection<JsonApiLink> links;
+
+	private Iterable<?> included;
+
+	private ModelInfoRegistry modelInfoRegistry;
+
+	/**
+	 * @param writer    the writer to use
+	 * @param modelInfo the model metadata
+	 * @param baseUrl   the base URL for resource links, resolved once per request
+	 */
+	public StreamingModelResourceDocument(@NonNull JsonApiModelDocumentWriter writer, @NonNull ModelInfo<T, ?> modelInfo, @NonNull String baseUrl) {
+		this.writer = writer;
+		this.modelInfo = modelInfo;
+		this.baseUrl = baseUrl;
+	}
+
+	/** Use the given model as the document <code>data</code> */
+	public StreamingModelResourceDocument<T> withData(T model) {
+		this.model = model;
+		return this;
+	}
+
+	/** Use the given models as the document <code>data</code> */
+	public StreamingModelResourceDocument<T> withData(@NonNull Iterable<T> models) {
+		this.models = models;
+		return this;
+	}
+
+	/** Use the page contents as the document <code>data</code> and page properties as <code>meta</code>, along with any given with {@link #withMeta(Map)} */
+	public StreamingModelResourceDocument<T> withData(@NonNull Page<T> page) {
+		this.page = page;
+		return this;
+	}
+
+	public StreamingModelResourceDocument<T> withMeta(Map<String, Serializable> meta) {
+		this.meta = meta;
+		return this;
+	}
+
+	public StreamingModelResourceDocument<T> withLinks(Collection<JsonApiLink> links) {
+		this.links = links;
+		return this;
+	}
+
+	public StreamingModelResourceDocument<T> withIncluded(Iterable<?> included, @NonNull ModelInfoRegistry modelInfoRegistry) {
+		this.included = included;
+		this.modelInfoRegistry = modelInfoRegistry;
+		return this;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+		if (this.page != null) {
+			this.writer.writePageDocument(gen, this.page, this.modelInfo, this.baseUrl, this.meta, this.links, this.included, this.modelInfoRegistry);
+		}
+		else if (this.models != null) {
+			this.writer.writeCollectionDocument(gen, this.models, this.modelInfo, this.baseUrl, this.meta, this.links, this.included, this.modelInfoRegistry);
+		}
+		else {
+			this.writer.writeDocument(gen, this.model, this.modelInfo, this.baseUrl, this.meta, this.links, this.included, this.modelInfoRegistry);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer) throws IOException {
+		this.serialize(gen, serializers);
+	}
+}
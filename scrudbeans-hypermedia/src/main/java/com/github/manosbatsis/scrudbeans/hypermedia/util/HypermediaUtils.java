@@ -20,16 +20,16 @@
  */
 package com.github.manosbatsis.scrudbeans.hypermedia.util;
 
-import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
-import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
-import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelLinkTemplate;
 import com.github.manosbatsis.scrudbeans.api.util.ParamsAwarePage;
 import com.github.manosbatsis.scrudbeans.hypermedia.hateoas.ModelResource;
 import com.github.manosbatsis.scrudbeans.hypermedia.hateoas.ModelResources;
 import com.github.manosbatsis.scrudbeans.hypermedia.hateoas.PagedModelResources;
 import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.JsonApiModelResourceDocument;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support.JsonApiModelDocumentWriter;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support.StreamingModelResourceDocument;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
@@ -37,6 +37,8 @@ import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.server.mvc.BasicLinkBuilder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import javax.servlet.http.HttpServletRequest;
@@ -49,6 +51,7 @@ import java.util.*;
 @Slf4j
 public class HypermediaUtils {
 
+    private static final String ATTR_BASE_URL = HypermediaUtils.class.getName() + ".baseUrl";
 
     public static List<Link> buileHateoasLinks(@NonNull ParamsAwarePage page, @NonNull HttpServletRequest request, @NonNull String pageNumberParamName) {
         List<Link> links = new LinkedList<>();
@@ -83,31 +86,31 @@ public class HypermediaUtils {
     }
 
     public static List<Link> buileHateoasLinks(@NonNull Object model, ModelInfo modelInfo) {
-        List<Link> links = null;
-        IdentifierAdapter identifierAdapter = IdentifierAdaptersRegistry.getAdapterForClass(model.getClass());
-        if (identifierAdapter.readId(model) != null && modelInfo != null) {
-
-            links = new LinkedList<>();
+        return modelInfo != null ? buileHateoasLinks(model, modelInfo, getBaseUrl()) : null;
+    }
 
+    /**
+     * Build the self and relationship links of the given model using
+     * the precomputed {@link ModelLinkTemplate} of its type
+     *
+     * @param model     the model
+     * @param modelInfo the model metadata
+     * @param baseUrl   the base URL, see {@link #getBaseUrl()}
+     * @return the links, or null if the model has no identifier yet
+     */
+    public static List<Link> buileHateoasLinks(@NonNull Object model, @NonNull ModelInfo modelInfo, @NonNull String baseUrl) {
+        List<Link> links = null;
+        ModelLinkTemplate template = modelInfo.getLinkTemplate();
+        Object id = template.readId(model);
+        if (id != null) {
+            String[] hrefs = template.render(baseUrl, id, false);
+            String[] names = template.getRelationshipNames();
+            links = new ArrayList<>(hrefs.length);
             // add link to self
-            links.add(BasicLinkBuilder.linkToCurrentMapping()
-                    .slash(modelInfo.getRequestMapping())
-                    .slash(identifierAdapter.readId(model)).withSelfRel());
-
+            links.add(new Link(hrefs[0]));
             // add links to linkable relationships
-            Set<String> relationshipFields = new HashSet<>();
-			relationshipFields.addAll(modelInfo.getToOneFieldNames());
-			relationshipFields.addAll(modelInfo.getToManyFieldNames());
-			for (String fieldName : relationshipFields) {
-				FieldInfo fieldInfo = modelInfo.getField(fieldName);
-
-				if (fieldInfo.isLinkableResource()) {
-					links.add(BasicLinkBuilder.linkToCurrentMapping()
-                            .slash(modelInfo.getRequestMapping())
-                            .slash(identifierAdapter.readId(model))
-                            .slash("relationships")
-                            .slash(fieldName).withRel(fieldName));
-                }
+            for (int i = 0; i < names.length; i++) {
+                links.add(new Link(hrefs[i + 1], names[i]));
             }
         }
         return links;
@@ -162,6 +165,36 @@ public class HypermediaUtils {
         return doc;
     }
 
+    /**
+     * Create a JSON API Document for the given model type, to be written directly to the output
+     * when serialized. Add data using one of the document's <code>withData</code> methods.
+     *
+     * @param writer    the writer to use
+     * @param modelInfo the model metadata
+     * @return the document
+     */
+    public static <RT> StreamingModelResourceDocument<RT> toStreamingDocument(@NonNull JsonApiModelDocumentWriter writer, @NonNull ModelInfo<RT, ?> modelInfo) {
+        return new StreamingModelResourceDocument<>(writer, modelInfo, getBaseUrl());
+    }
+
+    /**
+     * Get the base URL of the current servlet mapping. The value is resolved
+     * once per request and cached as a request attribute.
+     */
+    public static String getBaseUrl() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        String baseUrl = requestAttributes != null
+                ? (String) requestAttributes.getAttribute(ATTR_BASE_URL, RequestAttributes.SCOPE_REQUEST)
+                : null;
+        if (baseUrl == null) {
+            baseUrl = BasicLinkBuilder.linkToCurrentMapping().toUri().toString();
+            if (requestAttributes != null) {
+                requestAttributes.setAttribute(ATTR_BASE_URL, baseUrl, RequestAttributes.SCOPE_REQUEST);
+            }
+        }
+        return baseUrl;
+    }
+
     public static <M> PagedModelResources<M> toHateoasPagedResources(@NonNull ParamsAwarePage<M> page, @NonNull HttpServletRequest request, @NonNull String pageNumberParamName, ModelInfoRegistry modelInfoRegistry) {
 
         PagedModel.PageMetadata paginationInfo = new PagedModel.PageMetadata(page.getSize(), page.getNumber(), page.getTotalElements(), page.getTotalPages());
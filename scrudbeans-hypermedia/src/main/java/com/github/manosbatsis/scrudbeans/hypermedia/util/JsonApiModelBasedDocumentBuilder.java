@@ -59,6 +59,8 @@ import java.util.*;
  * }
  * </pre>
  *
+ * For responses, consider {@link com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support.StreamingModelResourceDocument}
+ * that skips the intermediate resource and document objects altogether.
  *
  */
 public class JsonApiModelBasedDocumentBuilder<T, PK extends Serializable> {
@@ -0,0 +1,37 @@
+package myjavapackage.model;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.manosbatsis.scrudbeans.api.domain.DisableableModel;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.model.AbstractSystemUuidPersistableModel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sample soft-deletable entity model to test archiving of disabled rows
+ */
+@Entity
+@Table(name = "bookmarks")
+@ScrudBean
+@Schema(name = "Bookmark", description = "A model representing a bookmark")
+@Getter
+@Setter
+public class Bookmark extends AbstractSystemUuidPersistableModel implements DisableableModel {
+
+    @NotNull
+    @Column(nullable = false)
+    @Schema(description = "The bookmarked URL", required = true)
+    private String url;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Schema(description = "The date disabled, i.e. soft-deleted", readOnly = true)
+    private LocalDateTime disabled;
+}
@@ -0,0 +1,26 @@
+package myjavapackage.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.model.AbstractPersistableHierarchicalModel;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Sample hierarchical entity model to test materialized path queries and moves
+ */
+@Entity
+@Table(name = "categories")
+@ScrudBean
+@Schema(name = "Category", description = "A model representing a category of a tree")
+public class Category extends AbstractPersistableHierarchicalModel<Category, Category> {
+
+    public Category() {
+        super();
+    }
+
+    public Category(String name, Category parent) {
+        super(name, parent);
+    }
+}
@@ -0,0 +1,38 @@
+package myjavapackage.model;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.model.AbstractBasicAuditedModel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sample audited entity model to test changes feeds and deletions of entities with element collections
+ */
+@Entity
+@Table(name = "notes")
+@ScrudBean
+@Schema(name = "Note", description = "A model representing a note")
+@Getter
+@Setter
+public class Note extends AbstractBasicAuditedModel {
+
+    @NotNull
+    @Column(nullable = false)
+    @Schema(description = "The note text", required = true)
+    private String text;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @Schema(description = "The note tags")
+    private Set<String> tags = new HashSet<>();
+}
@@ -0,0 +1,34 @@
+package myjavapackage.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.metadata.AbstractMetadataSubjectModel;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sample entity model to test metadata operations
+ */
+@Entity
+@Table(name = "places")
+@ScrudBean(controllerSuperClass = "com.github.manosbatsis.scrudbeans.controller.AbstractPersistableModelWithMetadataController")
+@Schema(name = "Place", description = "A model representing a place with metadata")
+@Getter
+@Setter
+public class Place extends AbstractMetadataSubjectModel<PlaceMetadatum> {
+
+    @NotNull
+    @Column(nullable = false)
+    @Schema(description = "The place name", required = true)
+    private String name;
+
+    @Override
+    public Class<PlaceMetadatum> getMetadataDomainClass() {
+        return PlaceMetadatum.class;
+    }
+}
@@ -0,0 +1,18 @@
+package myjavapackage.model;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import com.github.manosbatsis.scrudbeans.metadata.AbstractMetadatumModel;
+
+/**
+ * Sample metadatum entity of {@link Place}
+ */
+@Entity
+@Table(name = "place_metadata", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"subject", "predicate"})
+})
+public class PlaceMetadatum extends AbstractMetadatumModel<Place> {
+
+}
@@ -7,6 +7,7 @@ import javax.persistence.Entity;
 import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FullTextSearchable;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
 import com.github.manosbatsis.scrudbeans.model.AbstractSystemUuidPersistableModel;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -26,11 +27,13 @@ import lombok.NoArgsConstructor;
 public class Product extends AbstractSystemUuidPersistableModel {
 
     @NotNull
+    @FullTextSearchable
     @Column(nullable = false)
     @Schema(description = "The product name", required = true)
     private String name;
 
     @NotNull
+    @FullTextSearchable
     @Column(nullable = false, length = 512)
     @Schema(description = "The product short description (max 512 chars)", required = true)
     private String description;
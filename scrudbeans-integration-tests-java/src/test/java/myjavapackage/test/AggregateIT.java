@@ -0,0 +1,69 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify aggregate queries, their guardrails and group limit
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"scrudbeans.query.max-aggregate-groups=4", "spring.datasource.generate-unique-name=true"})
+public class AggregateIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testCount() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("name", "LOTR %")
+				.queryParam("_metrics", "count,max(price)")
+				.get("/api/rest/products/aggregate")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(1))
+				.body("[0].count", equalTo(3));
+	}
+
+	@Test
+	public void testGroupBy() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_groupBy", "price")
+				.queryParam("_metrics", "count")
+				.get("/api/rest/products/aggregate")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(3));
+	}
+
+	@Test
+	public void testGroupLimit() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_groupBy", "name")
+				.get("/api/rest/products/aggregate")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	public void testInvalidGroupBy() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_groupBy", "noSuchAttribute")
+				.get("/api/rest/products/aggregate")
+				.then()
+				.statusCode(400);
+	}
+}
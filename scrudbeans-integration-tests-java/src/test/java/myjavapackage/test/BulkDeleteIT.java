@@ -0,0 +1,184 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Bookmark;
+import myjavapackage.model.DiscountCode;
+import myjavapackage.repository.BookmarkRepository;
+import myjavapackage.repository.DiscountCodeRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verify deletions of resources matching a filter, and that bulk deletions only detach
+ * instances of the affected type, keeping other managed entities and their pending changes
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.datasource.generate-unique-name=true")
+public class BulkDeleteIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private DiscountCodeRepository discountCodeRepository;
+
+	@Autowired
+	private BookmarkRepository bookmarkRepository;
+
+	@Autowired
+	private EntityManager entityManager;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	public void testDeleteWithBulkStatement() {
+		this.create("/api/rest/discountCodes", "code", "BULK-1", "percentage", 10);
+		this.create("/api/rest/discountCodes", "code", "BULK-2", "percentage", 20);
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "code==BULK-1")
+				.delete("/api/rest/discountCodes")
+				.then()
+				.statusCode(204)
+				.header("X-Deleted-Count", "1");
+		assertEquals(0, this.count("/api/rest/discountCodes", "code==BULK-1"));
+		assertEquals(1, this.count("/api/rest/discountCodes", "code==BULK-2"));
+	}
+
+	@Test
+	public void testDeleteWithElementCollection() {
+		// Element collection rows must be removed with their entity
+		this.create("/api/rest/notes", "text", "bulk-a", "tags", Arrays.asList("x", "y"));
+		this.create("/api/rest/notes", "text", "bulk-a", "tags", Arrays.asList("z"));
+		this.create("/api/rest/notes", "text", "bulk-b", "tags", Arrays.asList("x"));
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "text==bulk-a")
+				.delete("/api/rest/notes")
+				.then()
+				.statusCode(204)
+				.header("X-Deleted-Count", "2");
+		assertEquals(0, this.count("/api/rest/notes", "text==bulk-a"));
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "text==bulk-b")
+				.queryParam("page", "no")
+				.get("/api/rest/notes")
+				.then()
+				.statusCode(200)
+				.body("[0].tags", equalTo(Arrays.asList("x")));
+	}
+
+	@Test
+	public void testDeleteByIdKeepsOtherEntities() {
+		DiscountCode deleted = this.createDiscountCode("BULK1");
+		DiscountCode kept = this.createDiscountCode("BULK2");
+		Bookmark bookmark = this.createBookmark("https://example.com/bulk");
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			Bookmark changed = this.entityManager.find(Bookmark.class, bookmark.getId());
+			changed.setUrl("https://example.com/changed");
+			DiscountCode managed = this.entityManager.find(DiscountCode.class, kept.getId());
+			DiscountCode stale = this.entityManager.find(DiscountCode.class, deleted.getId());
+
+			assertEquals(1, this.discountCodeRepository.deleteAllByIdInBatch(Collections.singletonList(deleted.getId())));
+			assertTrue(this.entityManager.contains(changed));
+			assertTrue(this.entityManager.contains(managed));
+			assertFalse(this.entityManager.contains(stale));
+			assertNull(this.entityManager.find(DiscountCode.class, deleted.getId()));
+			return null;
+		});
+		assertEquals("https://example.com/changed", this.bookmarkRepository.findById(bookmark.getId()).get().getUrl());
+	}
+
+	@Test
+	public void testDeleteInBatchKeepsPendingChanges() {
+		DiscountCode deleted = this.createDiscountCode("BULK3");
+		DiscountCode kept = this.createDiscountCode("BULK4");
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			DiscountCode changed = this.entityManager.find(DiscountCode.class, kept.getId());
+			changed.setPercentage(50);
+			this.discountCodeRepository.deleteInBatch(Collections.singletonList(
+					this.entityManager.find(DiscountCode.class, deleted.getId())));
+			assertTrue(this.entityManager.contains(changed));
+			return null;
+		});
+		assertFalse(this.discountCodeRepository.findById(deleted.getId()).isPresent());
+		assertEquals(50, this.discountCodeRepository.findById(kept.getId()).get().getPercentage().intValue());
+	}
+
+	@Test
+	public void testSoftDeleteAllKeepsOtherEntities() {
+		Bookmark bookmark = this.createBookmark("https://example.com/all");
+		DiscountCode kept = this.createDiscountCode("BULK5");
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			DiscountCode changed = this.entityManager.find(DiscountCode.class, kept.getId());
+			changed.setPercentage(60);
+			Bookmark stale = this.entityManager.find(Bookmark.class, bookmark.getId());
+			this.bookmarkRepository.deleteAll();
+			assertTrue(this.entityManager.contains(changed));
+			assertFalse(this.entityManager.contains(stale));
+			// reloaded with the disabled date set by the bulk update
+			assertNotNull(this.entityManager.find(Bookmark.class, bookmark.getId()).getDisabled());
+			return null;
+		});
+		assertEquals(60, this.discountCodeRepository.findById(kept.getId()).get().getPercentage().intValue());
+	}
+
+	private void create(String path, String field, Object value, String otherField, Object otherValue) {
+		Map<String, Object> body = new HashMap<>();
+		body.put(field, value);
+		body.put(otherField, otherValue);
+		given()
+				.spec(defaultSpec())
+				.body(body)
+				.post(path)
+				.then()
+				.statusCode(201);
+	}
+
+	private int count(String path, String filter) {
+		return given()
+				.spec(defaultSpec())
+				.queryParam("filter", filter)
+				.get(path + "/aggregate")
+				.then()
+				.statusCode(200)
+				.extract().path("[0].count");
+	}
+
+	private DiscountCode createDiscountCode(String code) {
+		DiscountCode discountCode = new DiscountCode();
+		discountCode.setCode(code);
+		discountCode.setPercentage(10);
+		return this.discountCodeRepository.save(discountCode);
+	}
+
+	private Bookmark createBookmark(String url) {
+		Bookmark bookmark = new Bookmark();
+		bookmark.setUrl(url);
+		return this.bookmarkRepository.save(bookmark);
+	}
+}
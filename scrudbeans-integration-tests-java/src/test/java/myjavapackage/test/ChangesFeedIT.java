@@ -0,0 +1,157 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import com.github.manosbatsis.scrudbeans.util.ChangesFeedPage;
+import io.restassured.path.json.JsonPath;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Note;
+import myjavapackage.service.NoteService;
+import myjavapackage.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify changes feeds report creations and hard deletions, and bound event streams
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.generate-unique-name=true",
+				"scrudbeans.changes.settle-time=0",
+				"scrudbeans.changes.stream-max-events=1"
+		})
+public class ChangesFeedIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private NoteService noteService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	public void testUpsertAndDelete() {
+		String since = this.findChanges(null).getString("next");
+		String id = given()
+				.spec(defaultSpec())
+				.body(Collections.singletonMap("text", "Buy milk"))
+				.post("/api/rest/notes")
+				.then()
+				.statusCode(201)
+				.extract().path("id");
+
+		JsonPath created = this.findChanges(since);
+		List<Map<String, Object>> changes = created.getList("changes");
+		assertEquals(1, changes.size());
+		assertEquals("upsert", changes.get(0).get("op"));
+		assertEquals(id, changes.get(0).get("id"));
+
+		given()
+				.spec(defaultSpec())
+				.delete("/api/rest/notes/{id}", id)
+				.then()
+				.statusCode(204);
+
+		// The hard deletion is reported after the creation
+		JsonPath deleted = this.findChanges(created.getString("next"));
+		assertEquals(Collections.singletonList("delete"), deleted.getList("changes.op"));
+		assertEquals(Collections.singletonList(id), deleted.getList("changes.id"));
+		// Nothing after the tombstone
+		assertEquals(0, this.findChanges(deleted.getString("next")).getList("changes").size());
+	}
+
+	@Test
+	public void testStreamBoundedByEventCount() {
+		for (String text : new String[]{"First", "Second"}) {
+			given()
+					.spec(defaultSpec())
+					.body(Collections.singletonMap("text", text))
+					.post("/api/rest/notes")
+					.then()
+					.statusCode(201);
+		}
+		given()
+				.spec(defaultSpec())
+				.accept("text/event-stream")
+				.get("/api/rest/notes/changes")
+				.then()
+				.statusCode(200)
+				.body(containsString("event: change"))
+				.body(endsWith("retry: 5000\n\n"));
+		assertEquals(1, given()
+				.spec(defaultSpec())
+				.accept("text/event-stream")
+				.get("/api/rest/notes/changes")
+				.asString()
+				.split("event: change", -1).length - 1);
+	}
+
+	@Test
+	public void testInvalidToken() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("since", "not-a-token")
+				.get("/api/rest/notes/changes")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	public void testServiceKeysetPaging() {
+		String since = this.noteService.findChanges(null, 100).getNext();
+		List<String> ids = new ArrayList<>();
+		for (String text : new String[]{"One", "Two", "Three"}) {
+			Note note = new Note();
+			note.setText(text);
+			ids.add(this.noteService.create(note).getId());
+		}
+		List<Object> paged = new ArrayList<>();
+		ChangesFeedPage<Note> page;
+		do {
+			page = this.noteService.findChanges(since, 1);
+			assertTrue(page.getChanges().size() <= 1);
+			for (ChangesFeedPage.Change<Note> change : page.getChanges()) {
+				paged.add(change.getId());
+				assertEquals(ChangesFeedPage.OP_UPSERT, change.getOp());
+			}
+			since = page.getNext();
+		}
+		while (page.isHasMore());
+		// notes modified in the same instant are ordered by id
+		assertEquals(ids.size(), paged.size());
+		assertTrue(paged.containsAll(ids));
+	}
+
+	@Test
+	public void testServiceUntrackedModel() {
+		assertThrows(BadRequestException.class, () -> this.productService.findChanges(null, 10));
+	}
+
+	private JsonPath findChanges(String since) {
+		return given()
+				.spec(defaultSpec())
+				.queryParam("since", since != null ? since : "")
+				.get("/api/rest/notes/changes")
+				.then()
+				.statusCode(200)
+				.extract().jsonPath();
+	}
+}
@@ -0,0 +1,60 @@
+package myjavapackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Product;
+import myjavapackage.model.ProductRelationshipIdentifier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify composite identifier equality
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CompositeIdIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testEqualWhenAllPartsIdentified() {
+		ProductRelationshipIdentifier id = new ProductRelationshipIdentifier();
+		id.init("a_b");
+		ProductRelationshipIdentifier other = new ProductRelationshipIdentifier();
+		other.init("a_b");
+		assertEquals(id, other);
+		assertEquals(id.hashCode(), other.hashCode());
+
+		other.init("a_c");
+		assertNotEquals(id, other);
+	}
+
+	@Test
+	public void testUnequalWithMissingParts() {
+		ProductRelationshipIdentifier id = new ProductRelationshipIdentifier();
+		ProductRelationshipIdentifier other = new ProductRelationshipIdentifier();
+		assertNotEquals(id, other);
+		assertEquals(id, id);
+
+		// unsaved parts have no identifiers
+		id.setLeft(new Product());
+		id.setRight(new Product());
+		other.setLeft(new Product());
+		other.setRight(new Product());
+		assertNotEquals(id, other);
+		assertEquals(id, id);
+
+		// a single missing part is enough
+		id.init("a_b");
+		other.init("a_b");
+		other.setRight(new Product());
+		assertNotEquals(id, other);
+		assertNotEquals(other, id);
+	}
+}
@@ -0,0 +1,126 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityExistsException;
+import javax.persistence.EntityNotFoundException;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
+import com.github.manosbatsis.scrudbeans.error.ErrorReporter;
+import com.github.manosbatsis.scrudbeans.error.Util;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Verify error counts, log sampling and status resolution
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ErrorReporterIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private ErrorReporter errorReporter;
+
+	@Test
+	public void testCountsPerStatusAndModel() {
+		long notFound = this.errorReporter.getCounts().getOrDefault("404 Product", 0L);
+		for (int i = 0; i < 2; i++) {
+			given()
+					.spec(defaultSpec())
+					.get("/api/rest/products/invalid")
+					.then()
+					.statusCode(404);
+		}
+		assertEquals(notFound + 2, this.errorReporter.getCounts().get("404 Product").longValue());
+	}
+
+	@Test
+	public void testCountsWithoutModelOrError() {
+		ErrorReporter reporter = new ErrorReporter();
+		ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest());
+		reporter.report(request, null, 503);
+		reporter.report(request, null, 503);
+		reporter.report(request, new IllegalStateException("failed"), 500);
+		assertEquals(2L, reporter.getCounts().get("503 " + ErrorReporter.NO_MODEL).longValue());
+		assertEquals(1L, reporter.getCounts().get("500 " + ErrorReporter.NO_MODEL).longValue());
+		assertEquals(2, reporter.getCounts().size());
+	}
+
+	@Test
+	public void testSamplingLimit() {
+		SamplingErrorReporter reporter = new SamplingErrorReporter();
+		reporter.setLogLimit(2);
+		reporter.setLogInterval(60);
+		assertEquals(0, reporter.sample(NotFoundException.class, 404));
+		assertEquals(0, reporter.sample(NotFoundException.class, 404));
+		assertEquals(-1, reporter.sample(NotFoundException.class, 404));
+		// other types and statuses are sampled separately
+		assertEquals(0, reporter.sample(NotFoundException.class, 410));
+		assertEquals(0, reporter.sample(BadRequestException.class, 404));
+		assertEquals(0, reporter.sample(Void.class, 404));
+
+		reporter.setLogLimit(0);
+		assertEquals(0, reporter.sample(NotFoundException.class, 404));
+	}
+
+	@Test
+	public void testSamplingInterval() {
+		SamplingErrorReporter reporter = new SamplingErrorReporter();
+		reporter.setLogLimit(1);
+		reporter.setLogInterval(60);
+		assertEquals(0, reporter.sample(NotFoundException.class, 404));
+		assertEquals(-1, reporter.sample(NotFoundException.class, 404));
+		assertEquals(-1, reporter.sample(NotFoundException.class, 404));
+		// a new interval logs again, reporting the entries suppressed meanwhile
+		reporter.setLogInterval(0);
+		assertEquals(2, reporter.sample(NotFoundException.class, 404));
+		assertEquals(0, reporter.sample(NotFoundException.class, 404));
+	}
+
+	@Test
+	public void testStatusResolution() {
+		for (int i = 0; i < 2; i++) {
+			assertEquals(HttpStatus.NOT_FOUND, Util.getHttpStatus(new EntityNotFoundException()));
+			// resolved by superclass and cached per type
+			assertEquals(HttpStatus.NOT_FOUND, Util.getHttpStatus(new MissingEntityException()));
+			assertEquals(HttpStatus.CONFLICT, Util.getHttpStatus(new EntityExistsException()));
+			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, Util.getHttpStatus(new IllegalStateException()));
+		}
+		assertEquals(HttpStatus.NOT_FOUND, Util.getHttpStatus(new NotFoundException()));
+		assertEquals(HttpStatus.BAD_REQUEST, Util.getHttpStatus(new BadRequestException("invalid")));
+	}
+
+	@Test
+	public void testClientErrorsWithoutStackTrace() {
+		assertEquals(0, new NotFoundException().getStackTrace().length);
+		assertEquals(0, new BadRequestException("invalid").getStackTrace().length);
+		assertEquals(0, new BadRequestException("invalid", new IllegalStateException()).getStackTrace().length);
+		assertTrue(new IllegalStateException().getStackTrace().length > 0);
+	}
+
+	/** Exposes sampling for testing */
+	private static class SamplingErrorReporter extends ErrorReporter {
+
+		@Override
+		protected int sample(Class<?> errorType, int status) {
+			return super.sample(errorType, status);
+		}
+	}
+
+	private static class MissingEntityException extends EntityNotFoundException {
+	}
+}
@@ -0,0 +1,129 @@
+package myjavapackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+
+import javax.imageio.ImageIO;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistence;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistencePreview;
+import com.github.manosbatsis.scrudbeans.fs.DummyFilePersistenceServiceImpl;
+import com.github.manosbatsis.scrudbeans.fs.FileRenditionService;
+import com.github.manosbatsis.scrudbeans.util.WorkDirUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class FileRenditionServiceIT {
+
+	private File cacheDir;
+
+	private FileRenditionService renditionService;
+
+	private Field imageField;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		this.cacheDir = Files.createTempDirectory("renditionsIT").toFile();
+		ScrudBeansProperties properties = new ScrudBeansProperties();
+		properties.getFiles().setRenditionCacheDir(this.cacheDir.getAbsolutePath());
+		this.renditionService = new FileRenditionService();
+		this.renditionService.setScrudBeansProperties(properties);
+		this.renditionService.setFilePersistenceService(new ImageFilePersistenceService());
+		this.renditionService.afterPropertiesSet();
+		this.imageField = ImageHolder.class.getDeclaredField("image");
+	}
+
+	@AfterEach
+	public void tearDown() {
+		FileUtils.deleteQuietly(this.cacheDir);
+	}
+
+	@Test
+	public void testDefaultCacheDirIsPerApplication() {
+		File first = WorkDirUtils.getDefaultWorkDir("first", "renditions");
+		File second = WorkDirUtils.getDefaultWorkDir("second", "renditions");
+		assertNotEquals(first, second);
+		assertEquals(first, WorkDirUtils.getDefaultWorkDir("first", "renditions"));
+		assertEquals(first.getParentFile(), second.getParentFile());
+	}
+
+	@Test
+	public void testUndeclaredSizeIsBadRequest() {
+		assertThrows(BadRequestException.class,
+				() -> this.renditionService.getRendition(this.imageField, "Holder/1/image", 20, 20));
+	}
+
+	@Test
+	public void testEvictedRenditionIsKeptUntilStreamed() throws Exception {
+		FileRenditionService.Rendition rendition =
+				this.renditionService.getRendition(this.imageField, "Holder/1/image", 10, 10);
+		File file = new File(this.cacheDir, rendition.getFilename());
+		assertTrue(file.exists());
+
+		// Evicting while open must not delete the file being streamed
+		this.renditionService.evict("Holder/1/image");
+		assertTrue(file.exists());
+		InputStream in = rendition.getInputStream();
+		byte[] bytes = IOUtils.toByteArray(in);
+		assertEquals(rendition.contentLength(), bytes.length);
+		assertTrue(ImageIO.read(new ByteArrayInputStream(bytes)) != null);
+
+		// Closing the stream releases the file
+		in.close();
+		assertFalse(file.exists());
+	}
+
+	@Test
+	public void testReleasedRenditionIsCached() throws Exception {
+		FileRenditionService.Rendition first =
+				this.renditionService.getRendition(this.imageField, "Holder/2/image", 10, 10);
+		first.close();
+		FileRenditionService.Rendition second =
+				this.renditionService.getRendition(this.imageField, "Holder/2/image", 10, 10);
+		second.close();
+		assertEquals(first.lastModified(), second.lastModified());
+		assertTrue(new File(this.cacheDir, second.getFilename()).exists());
+	}
+
+	static class ImageHolder {
+
+		@FilePersistence
+		@FilePersistencePreview(maxWidth = 10, maxHeight = 10)
+		private String image;
+	}
+
+	/**
+	 * Serves the same generated image for any path
+	 */
+	static class ImageFilePersistenceService extends DummyFilePersistenceServiceImpl {
+
+		@Override
+		public InputStream readFile(String path) {
+			try {
+				BufferedImage img = new BufferedImage(40, 30, BufferedImage.TYPE_INT_RGB);
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				ImageIO.write(img, "png", out);
+				return new ByteArrayInputStream(out.toByteArray());
+			}
+			catch (Exception e) {
+				throw new RuntimeException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.manosbatsis.scrudbeans.binding.ScrudBeansJacksonModule;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify models are (de)serialized using the generated property accessors once enabled
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "scrudbeans.jackson.generated-accessors=true")
+public class GeneratedAccessorsIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	public void testModuleRegistered() {
+		assertTrue(this.objectMapper.getRegisteredModuleIds().contains(ScrudBeansJacksonModule.class.getName()));
+		given()
+				.spec(defaultSpec())
+				.queryParam("name", "Systemantics")
+				.queryParam("page", "no")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("[0].id", notNullValue())
+				.body("[0].name", equalTo("Systemantics"))
+				.body("[0].price", equalTo(126.95f));
+	}
+}
@@ -0,0 +1,77 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Category;
+import myjavapackage.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify materialized path queries and moves of hierarchical models
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class HierarchyIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Test
+	public void testSaveMovesDescendants() {
+		Category a = this.categoryRepository.save(new Category("a", null));
+		Category b = this.categoryRepository.save(new Category("b", a));
+		Category c = this.categoryRepository.save(new Category("c", b));
+		Category x = this.categoryRepository.save(new Category("x", null));
+		assertEquals("/a/b/c", c.getPath());
+
+		// A plain save of a detached node
+		b.setParent(x);
+		this.categoryRepository.save(b);
+
+		Category moved = this.categoryRepository.findById(c.getId()).get();
+		assertEquals("/x/b/c", moved.getPath());
+		assertEquals(Short.valueOf((short) 3), moved.getPathLevel());
+		assertEquals("/x/b", this.categoryRepository.findById(b.getId()).get().getPath());
+	}
+
+	@Test
+	public void testDescendantsEscapeWildcards() {
+		Category underscore = this.categoryRepository.save(new Category("r_1", null));
+		this.categoryRepository.save(new Category("k", underscore));
+		// Matched by an unescaped "/r_1/%" pattern
+		Category other = this.categoryRepository.save(new Category("rx1", null));
+		this.categoryRepository.save(new Category("k2", other));
+		Category bang = this.categoryRepository.save(new Category("r!%", null));
+		this.categoryRepository.save(new Category("k3", bang));
+		Category grandchild = this.categoryRepository.save(new Category("k4", this.categoryRepository.save(new Category("k5", bang))));
+
+		given()
+				.spec(defaultSpec())
+				.get("/api/rest/categories/{id}/descendants", underscore.getId())
+				.then()
+				.statusCode(200)
+				.body("content.name", equalTo(Collections.singletonList("k")));
+		given()
+				.spec(defaultSpec())
+				.queryParam("_maxDepth", 1)
+				.get("/api/rest/categories/{id}/descendants", bang.getId())
+				.then()
+				.statusCode(200)
+				.body("content.name", equalTo(Arrays.asList("k3", "k5")));
+		assertEquals("/r!%/k5/k4", grandchild.getPath());
+	}
+}
@@ -0,0 +1,96 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify IN clauses up to and over the parameter limit
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class InClauseIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testWithinLimit() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "name=in=(" + getNames(InClauseUtils.MAX_IN_PARAMETERS) + ")")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content", hasSize(3));
+	}
+
+	@Test
+	public void testOverLimit() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "name=in=(" + getNames(InClauseUtils.MAX_IN_PARAMETERS + 1) + ")")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content", hasSize(3));
+	}
+
+	@Test
+	public void testChunksOverLimit() {
+		// the LOTR products fall in the first chunk, add a match to the last one
+		List<String> names = new ArrayList<>(Arrays.asList(getNames(InClauseUtils.MAX_IN_PARAMETERS + 100).split(",")));
+		names.add("Systemantics");
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "name=in=(" + String.join(",", names) + ")")
+				.queryParam("sort", "name")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content.name", equalTo(Arrays.asList("LOTR 1", "LOTR 2", "LOTR 3", "Systemantics")));
+	}
+
+	@Test
+	public void testNotInOverLimit() {
+		int total = given()
+				.spec(defaultSpec())
+				.queryParam("page", "no")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.extract().jsonPath().getList("$").size();
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "name=out=(" + getNames(InClauseUtils.MAX_IN_PARAMETERS + 100) + ")")
+				.queryParam("page", "no")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("$", hasSize(total - 3))
+				.body("name", not(hasItem("LOTR 1")));
+	}
+
+	/** Get the given number of distinct names, including the LOTR products */
+	private static String getNames(int size) {
+		List<String> names = new ArrayList<>(size);
+		for (int i = 1; i <= size; i++) {
+			names.add(i <= 3 ? "'LOTR " + i + "'" : "n" + i);
+		}
+		return String.join(",", names);
+	}
+}
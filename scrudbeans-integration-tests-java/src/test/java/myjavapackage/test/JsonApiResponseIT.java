@@ -0,0 +1,74 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify responses are written as JSON API documents when requested via the Accept header
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class JsonApiResponseIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testFindByIdDocument() {
+		Product product = given()
+				.spec(defaultSpec())
+				.queryParam("page", "no")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200).extract().as(Product[].class)[0];
+
+		given()
+				.spec(jsonApiSpec())
+				.get("/api/rest/products/" + product.getId())
+				.then()
+				.statusCode(200)
+				.contentType(startsWith("application/vnd.api+json"))
+				.body("data.id", equalTo(product.getId()))
+				.body("data.type", equalTo("products"))
+				.body("data.attributes.name", equalTo(product.getName()))
+				.body("data.links.self", notNullValue());
+	}
+
+	@Test
+	public void testPageDocument() {
+		given()
+				.spec(jsonApiSpec())
+				.queryParam("name", "LOTR %")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("data", hasSize(3))
+				.body("data[0].type", equalTo("products"))
+				.body("meta.totalElements", equalTo(3))
+				.body("meta.number", equalTo(0));
+	}
+
+	@Test
+	public void testPlainJsonUnchanged() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("name", "LOTR %")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("data", nullValue())
+				.body("content", hasSize(3));
+	}
+}
@@ -0,0 +1,189 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.hypermedia.util.HypermediaUtils;
+import com.github.manosbatsis.scrudbeans.registry.JpaModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.OrderLine;
+import myjavapackage.model.Product;
+import myjavapackage.model.ProductRelationship;
+import myjavapackage.model.ProductRelationshipIdentifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.server.mvc.BasicLinkBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Verify precomputed link templates render the same links as building each link per request
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LinkRenderingIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private JpaModelInfoRegistry registry;
+
+	@AfterEach
+	public void resetRequest() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	public void testSimpleIdWithRelationships() {
+		bindRequest("a.example");
+		OrderLine orderLine = new OrderLine();
+		orderLine.setId("line1");
+		ModelInfo modelInfo = this.registry.getEntryFor(OrderLine.class);
+		Set<String> links = toStrings(HypermediaUtils.buileHateoasLinks(orderLine, modelInfo));
+		assertEquals(toStrings(buildLinksPerRequest(orderLine, modelInfo)), links);
+		assertTrue(links.contains("self http://a.example/api/rest/orderLines/line1"));
+		assertTrue(links.contains("product http://a.example/api/rest/orderLines/line1/relationships/product"));
+		assertTrue(links.contains("order http://a.example/api/rest/orderLines/line1/relationships/order"));
+	}
+
+	@Test
+	public void testCompositeId() {
+		bindRequest("a.example");
+		ProductRelationshipIdentifier id = new ProductRelationshipIdentifier();
+		id.init("left_right");
+		ProductRelationship relationship = new ProductRelationship();
+		relationship.setId(id);
+		ModelInfo modelInfo = this.registry.getEntryFor(ProductRelationship.class);
+		Set<String> links = toStrings(HypermediaUtils.buileHateoasLinks(relationship, modelInfo));
+		assertEquals(toStrings(buildLinksPerRequest(relationship, modelInfo)), links);
+		assertTrue(links.contains("self http://a.example/api/rest/productRelationships/left_right"));
+	}
+
+	@Test
+	public void testNoLinkableRelationships() {
+		bindRequest("a.example");
+		Product product = new Product();
+		product.setId("p1");
+		ModelInfo modelInfo = this.registry.getEntryFor(Product.class);
+		Set<String> links = toStrings(HypermediaUtils.buileHateoasLinks(product, modelInfo));
+		assertEquals(toStrings(buildLinksPerRequest(product, modelInfo)), links);
+		assertEquals(1, links.size());
+		assertTrue(links.contains("self http://a.example/api/rest/products/p1"));
+	}
+
+	@Test
+	public void testBaseUrlPerRequest() {
+		bindRequest("a.example");
+		assertEquals("http://a.example", HypermediaUtils.getBaseUrl());
+		bindRequest("b.example");
+		assertEquals("http://b.example", HypermediaUtils.getBaseUrl());
+
+		Product product = new Product();
+		product.setId("p1");
+		Set<String> links = toStrings(HypermediaUtils.buileHateoasLinks(product, this.registry.getEntryFor(Product.class)));
+		assertTrue(links.contains("self http://b.example/api/rest/products/p1"));
+		assertFalse(links.contains("self http://a.example/api/rest/products/p1"));
+	}
+
+	@Test
+	public void testBaseUrlPerHttpRequest() {
+		String id = given()
+				.spec(defaultSpec())
+				.queryParam("page", "no")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200).extract().as(Product[].class)[0].getId();
+		for (String host : new String[] {"a.example", "b.example", "a.example"}) {
+			given()
+					.spec(jsonApiSpec())
+					.header("Host", host)
+					.get("/api/rest/products/" + id)
+					.then()
+					.statusCode(200)
+					.body("data.links.self", equalTo("http://" + host + "/api/rest/products/" + id));
+		}
+	}
+
+	@Test
+	public void testDocumentRelationshipLinks() {
+		String id = given()
+				.spec(defaultSpec())
+				.queryParam("page", "no")
+				.get("/api/rest/orderLines")
+				.then()
+				.statusCode(200).extract().as(OrderLine[].class)[0].getId();
+		String self = "http://a.example/api/rest/orderLines/" + id;
+		given()
+				.spec(jsonApiSpec())
+				.header("Host", "a.example")
+				.get("/api/rest/orderLines/" + id)
+				.then()
+				.statusCode(200)
+				.body("data.links.self", equalTo(self))
+				.body("data.relationships.product.links.self", equalTo(self + "/relationships/product"))
+				.body("data.relationships.product.links.related", equalTo(self + "/product"))
+				.body("data.relationships.order.links.self", equalTo(self + "/relationships/order"))
+				.body("data.relationships.order.links.related", equalTo(self + "/order"));
+	}
+
+	private static void bindRequest(String host) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/rest/products");
+		request.setServerName(host);
+		request.setServerPort(80);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+
+	/**
+	 * Build links the way they were built before link templates, i.e. per link and request
+	 */
+	private static List<Link> buildLinksPerRequest(Object model, ModelInfo<?, ?> modelInfo) {
+		IdentifierAdapter identifierAdapter = IdentifierAdaptersRegistry.getAdapterForClass(model.getClass());
+		Object id = identifierAdapter.readId(model);
+		List<Link> links = new LinkedList<>();
+		links.add(BasicLinkBuilder.linkToCurrentMapping()
+				.slash(modelInfo.getRequestMapping())
+				.slash(id).withSelfRel());
+		Set<String> relationshipFields = new HashSet<>();
+		relationshipFields.addAll(modelInfo.getToOneFieldNames());
+		relationshipFields.addAll(modelInfo.getToManyFieldNames());
+		for (String fieldName : relationshipFields) {
+			FieldInfo fieldInfo = modelInfo.getField(fieldName);
+			if (fieldInfo.isLinkableResource()) {
+				links.add(BasicLinkBuilder.linkToCurrentMapping()
+						.slash(modelInfo.getRequestMapping())
+						.slash(id)
+						.slash("relationships")
+						.slash(fieldName).withRel(fieldName));
+			}
+		}
+		return links;
+	}
+
+	private static Set<String> toStrings(List<Link> links) {
+		Set<String> strings = new HashSet<>();
+		for (Link link : links) {
+			strings.add(link.getRel().value() + " " + link.getHref());
+		}
+		return strings;
+	}
+}
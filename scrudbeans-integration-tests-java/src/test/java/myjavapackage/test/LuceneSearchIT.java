@@ -0,0 +1,47 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify full-text search using the embedded Lucene index
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {"scrudbeans.search.provider=lucene", "scrudbeans.search.max-results=2", "spring.datasource.generate-unique-name=true"})
+public class LuceneSearchIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testSearch() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_all", "fellowship")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content", hasSize(1))
+				.body("content[0].name", equalTo("LOTR 1"))
+				.body("totalElements", equalTo(1));
+	}
+
+	@Test
+	public void testTooManyMatches() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_all", "lord rings")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(400);
+	}
+}
@@ -0,0 +1,137 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.metadata.MetadatumDTO;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Place;
+import myjavapackage.model.PlaceMetadatum;
+import myjavapackage.service.PlaceService;
+import myjavapackage.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verify metadata operations, and that pages carry initialized metadata
+ * without an open session in view
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.generate-unique-name=true",
+				"spring.jpa.open-in-view=false"})
+public class MetadataIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private PlaceService placeService;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	public void testMetadataEndpoints() {
+		Place place = this.createPlace("Athens");
+		given()
+				.spec(defaultSpec())
+				.body(metadatum("color", "blue"))
+				.put("/api/rest/places/{id}/metadata", place.getId())
+				.then()
+				.statusCode(200);
+		given()
+				.spec(defaultSpec())
+				.get("/api/rest/places/{id}/metadata", place.getId())
+				.then()
+				.statusCode(200)
+				.body("color", equalTo("blue"));
+		given()
+				.spec(defaultSpec())
+				.get("/api/rest/places/{id}/metadata/color", place.getId())
+				.then()
+				.statusCode(200)
+				.body("object", equalTo("blue"));
+
+		given()
+				.spec(defaultSpec())
+				.delete("/api/rest/places/{id}/metadata/color", place.getId())
+				.then()
+				.statusCode(200);
+		given()
+				.spec(defaultSpec())
+				.get("/api/rest/places/{id}/metadata/color", place.getId())
+				.then()
+				.statusCode(404);
+	}
+
+	@Test
+	public void testPageMetadataInitialized() {
+		for (String name : new String[] {"Lisbon", "Porto"}) {
+			Place place = this.createPlace(name);
+			this.placeService.addMetadatum(place.getId(), metadatum("country", "PT"));
+		}
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "name=in=(Lisbon,Porto)")
+				.queryParam("sort", "name")
+				.get("/api/rest/places")
+				.then()
+				.statusCode(200)
+				.body("content[0].metadata.country", equalTo("PT"))
+				.body("content[1].metadata.country", equalTo("PT"));
+	}
+
+	@Test
+	public void testAddUpdatesSubject() {
+		Place place = this.createPlace("Rome");
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			Place subject = this.placeService.findById(place.getId());
+			// load the metadata ahead of adding
+			assertEquals(0, subject.getMetadata().size());
+
+			this.placeService.addMetadatum(place.getId(), metadatum("color", "red"));
+			Map<String, PlaceMetadatum> metadata = this.placeService.findById(place.getId()).getMetadata();
+			assertEquals("red", metadata.get("color").getObject());
+
+			this.placeService.removeMetadatum(place.getId(), "color");
+			assertFalse(this.placeService.findById(place.getId()).getMetadata().containsKey("color"));
+			return null;
+		});
+	}
+
+	@Test
+	public void testUnsupportedModel() {
+		assertThrows(BadRequestException.class, () -> this.productService.findMetadatum("missing", "color"));
+		assertThrows(BadRequestException.class, () -> this.productService.removeMetadatum("missing", "color"));
+	}
+
+	private Place createPlace(String name) {
+		Place place = new Place();
+		place.setName(name);
+		return this.placeService.create(place);
+	}
+
+	private static MetadatumDTO metadatum(String predicate, String object) {
+		MetadatumDTO dto = new MetadatumDTO();
+		dto.setPredicate(predicate);
+		dto.setObject(object);
+		return dto;
+	}
+}
@@ -0,0 +1,120 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.github.manosbatsis.scrudbeans.registry.JpaModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.registry.ModelInfoSnapshot;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify the model registry snapshot is only used while current,
+ * and controllers initialize lazily under concurrent requests
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.generate-unique-name=true",
+				"scrudbeans.startup.snapshot=target/model-registry-it.snapshot",
+				"scrudbeans.startup.snapshot-key=it"})
+public class ModelInfoSnapshotIT extends AbstractRestAssuredIT {
+
+	private static final Set<String> PACKAGES = Collections.singleton("myjavapackage");
+
+	@Autowired
+	private JpaModelInfoRegistry registry;
+
+	@Test
+	public void testStartupWithSnapshot() {
+		assertTrue(this.registry.getStartupTimings().containsKey("snapshot"));
+		assertNotNull(this.registry.getEntryFor(Product.class));
+	}
+
+	@Test
+	public void testReadCurrent(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("registry.snapshot");
+		String fingerprint = ModelInfoSnapshot.fingerprint(PACKAGES);
+		assertEquals(fingerprint, ModelInfoSnapshot.fingerprint(PACKAGES));
+		new ModelInfoSnapshot(Collections.emptyList(), Arrays.asList(Product.class.getName()))
+				.write(file, "it", PACKAGES, fingerprint);
+
+		ModelInfoSnapshot snapshot = ModelInfoSnapshot.read(file, "it", PACKAGES, fingerprint);
+		assertNotNull(snapshot);
+		assertEquals(Arrays.asList(Product.class.getName()), snapshot.getModelClassNames());
+	}
+
+	@Test
+	public void testIgnoreStale(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("registry.snapshot");
+		String fingerprint = ModelInfoSnapshot.fingerprint(PACKAGES);
+		assertNotEquals(fingerprint, ModelInfoSnapshot.fingerprint(Collections.singleton("myjavapackage.model")));
+		new ModelInfoSnapshot(Collections.emptyList(), Arrays.asList(Product.class.getName()))
+				.write(file, "it", PACKAGES, fingerprint);
+
+		// changed class files
+		assertNull(ModelInfoSnapshot.read(file, "it", PACKAGES, "other"));
+		// different build
+		assertNull(ModelInfoSnapshot.read(file, "other", PACKAGES, fingerprint));
+	}
+
+	@Test
+	public void testIgnoreMissingClasses(@TempDir Path dir) throws Exception {
+		Path file = dir.resolve("registry.snapshot");
+		String fingerprint = ModelInfoSnapshot.fingerprint(PACKAGES);
+		new ModelInfoSnapshot(Collections.emptyList(), Arrays.asList(Product.class.getName(), "myjavapackage.model.Removed"))
+				.write(file, "it", PACKAGES, fingerprint);
+
+		assertNull(ModelInfoSnapshot.read(file, "it", PACKAGES, fingerprint));
+	}
+
+	@Test
+	public void testConcurrentFirstSearch() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Callable<Integer>> searches = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				searches.add(() -> given()
+						.spec(defaultSpec())
+						.queryParam("filter", "name==Systemantics")
+						.get("/api/rest/products")
+						.then()
+						.statusCode(200)
+						.body("content", hasSize(1))
+						.extract().statusCode());
+			}
+			for (Future<Integer> result : executor.invokeAll(searches)) {
+				assertEquals(200, result.get().intValue());
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify the default query limits
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class QueryGuardrailsIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testLargePageSizeAllowedByDefault() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_ps", 5000)
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("size", equalTo(5000));
+	}
+
+	@Test
+	public void testInvalidPageSize() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_ps", 0)
+				.get("/api/rest/products")
+				.then()
+				.statusCode(400);
+	}
+
+	@Test
+	public void testDefaultSortByCompositeId() {
+		// The implicit sort by an @EmbeddedId is always allowed
+		given()
+				.spec(defaultSpec())
+				.get("/api/rest/productRelationships")
+				.then()
+				.statusCode(200);
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "id")
+				.get("/api/rest/productRelationships")
+				.then()
+				.statusCode(200);
+	}
+
+	@Test
+	public void testSortByEmbeddedPath() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "id.left,desc")
+				.get("/api/rest/productRelationships")
+				.then()
+				.statusCode(200);
+	}
+}
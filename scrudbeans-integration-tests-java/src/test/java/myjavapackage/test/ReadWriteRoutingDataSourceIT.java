@@ -0,0 +1,91 @@
+package myjavapackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Collections;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.datasource.ReadWriteRoutingDataSource;
+import com.github.manosbatsis.scrudbeans.datasource.ReplicaRoutingContext;
+import lombok.extern.slf4j.Slf4j;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verify routing between a primary and a replica data source
+ */
+@Slf4j
+public class ReadWriteRoutingDataSourceIT {
+
+	private ReadWriteRoutingDataSource.LazyRoutingDataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate readOnly;
+
+	private TransactionTemplate readWrite;
+
+	@BeforeEach
+	public void setUp() {
+		ScrudBeansProperties.Replicas config = new ScrudBeansProperties.Replicas();
+		config.setStickiness(60000);
+		this.dataSource = ReadWriteRoutingDataSource.lazy(
+				createDataSource("primary"), Collections.singletonList(createDataSource("replica")), config);
+		this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(this.dataSource);
+		this.readOnly = new TransactionTemplate(transactionManager);
+		this.readOnly.setReadOnly(true);
+		this.readWrite = new TransactionTemplate(transactionManager);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		ReplicaRoutingContext.clear();
+		this.dataSource.close();
+	}
+
+	@Test
+	public void testReadOnlyTransactionUsesReplica() {
+		assertEquals("replica", this.readOnly.execute(status -> this.getDatabaseName()));
+	}
+
+	@Test
+	public void testReadWriteTransactionUsesPrimary() {
+		ReplicaRoutingContext.setPreferReplica(true);
+		assertEquals("primary", this.readWrite.execute(status -> this.getDatabaseName()));
+	}
+
+	@Test
+	public void testPreferReplicaOutsideTransaction() {
+		assertEquals("primary", this.getDatabaseName());
+		ReplicaRoutingContext.setPreferReplica(true);
+		assertEquals("replica", this.getDatabaseName());
+	}
+
+	@Test
+	public void testRecentWriteUsesPrimary() {
+		ReplicaRoutingContext.markWrite();
+		assertEquals("primary", this.readOnly.execute(status -> this.getDatabaseName()));
+	}
+
+	private String getDatabaseName() {
+		return this.jdbcTemplate.queryForObject("SELECT name FROM routing_target", String.class);
+	}
+
+	private static JdbcDataSource createDataSource(String name) {
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1");
+		dataSource.setUser("sa");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS routing_target (name VARCHAR(20))");
+		jdbcTemplate.update("DELETE FROM routing_target");
+		jdbcTemplate.update("INSERT INTO routing_target VALUES (?)", name);
+		return dataSource;
+	}
+}
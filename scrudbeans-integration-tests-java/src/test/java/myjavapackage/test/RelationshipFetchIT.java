@@ -0,0 +1,134 @@
+package myjavapackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import com.github.manosbatsis.scrudbeans.metadata.MetadatumDTO;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Order;
+import myjavapackage.model.OrderLine;
+import myjavapackage.model.Place;
+import myjavapackage.model.Product;
+import myjavapackage.repository.OrderLineRepository;
+import myjavapackage.repository.PlaceRepository;
+import myjavapackage.service.OrderLineService;
+import myjavapackage.service.OrderService;
+import myjavapackage.service.PlaceService;
+import myjavapackage.service.ProductService;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Verify relationships of a page of results are loaded in batches rather than one select per row
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.generate-unique-name=true",
+				"spring.jpa.properties.hibernate.generate_statistics=true"})
+public class RelationshipFetchIT extends AbstractRestAssuredIT {
+
+	private static final int PAGE_SIZE = 20;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderLineService orderLineService;
+
+	@Autowired
+	private OrderLineRepository orderLineRepository;
+
+	@Autowired
+	private PlaceService placeService;
+
+	@Autowired
+	private PlaceRepository placeRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	public void testToOneBatchFetching() {
+		SessionFactory sessionFactory = this.entityManagerFactory.unwrap(SessionFactory.class);
+		assertTrue(sessionFactory.unwrap(SessionFactoryImplementor.class).getMetamodel()
+				.entityPersister(Product.class).isBatchLoadable());
+
+		Order order = this.orderService.create(Order.builder().email("fetch@example.com").build());
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Product product = this.productService.create(Product.builder()
+					.name("Fetch " + i).description("Fetch " + i).price(BigDecimal.ONE).build());
+			this.orderLineService.create(OrderLine.builder().order(order).product(product).quantity(1).build());
+		}
+		Statistics statistics = sessionFactory.getStatistics();
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			statistics.clear();
+			List<OrderLine> lines = this.orderLineRepository.findAll(
+					(root, query, cb) -> cb.equal(root.get("order"), order),
+					PageRequest.of(0, PAGE_SIZE, Sort.by("id"))).getContent();
+			assertEquals(PAGE_SIZE, lines.size());
+			for (OrderLine line : lines) {
+				assertTrue(line.getProduct().getName().startsWith("Fetch "));
+			}
+			return null;
+		});
+		// i.e. the page, count and a few batches instead of a select per product
+		long statements = statistics.getPrepareStatementCount();
+		log.info("Loaded {} order lines and products with {} statements", PAGE_SIZE, statements);
+		assertTrue(statements < PAGE_SIZE / 2, "Too many statements: " + statements);
+	}
+
+	@Test
+	public void testToManyBatchFetching() {
+		SessionFactory sessionFactory = this.entityManagerFactory.unwrap(SessionFactory.class);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			Place place = new Place();
+			place.setName("Fetch " + i);
+			place = this.placeService.create(place);
+			MetadatumDTO metadatum = new MetadatumDTO();
+			metadatum.setPredicate("index");
+			metadatum.setObject(String.valueOf(i));
+			this.placeService.addMetadatum(place.getId(), metadatum);
+		}
+		Statistics statistics = sessionFactory.getStatistics();
+		new TransactionTemplate(this.transactionManager).execute(status -> {
+			statistics.clear();
+			List<Place> places = this.placeRepository.findAll(
+					(root, query, cb) -> cb.like(root.get("name"), "Fetch %"),
+					PageRequest.of(0, PAGE_SIZE, Sort.by("id"))).getContent();
+			assertEquals(PAGE_SIZE, places.size());
+			for (Place place : places) {
+				assertEquals(1, place.getMetadata().size());
+			}
+			return null;
+		});
+		long statements = statistics.getPrepareStatementCount();
+		log.info("Loaded {} places and metadata with {} statements", PAGE_SIZE, statements);
+		assertTrue(statements < PAGE_SIZE / 2, "Too many statements: " + statements);
+	}
+}
@@ -0,0 +1,167 @@
+package myjavapackage.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.CascadeType;
+import javax.persistence.Id;
+import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipGraph;
+import com.github.manosbatsis.scrudbeans.registry.JpaModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.registry.ModelInfoImpl;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Order;
+import myjavapackage.model.OrderLine;
+import myjavapackage.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify the relationship graph links bidirectional pairs by field name and type
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RelationshipGraphIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private JpaModelInfoRegistry registry;
+
+	@Test
+	public void testRegistryModelWithSeveralRelationships() {
+		RelationshipGraph graph = this.registry.getRelationshipGraph();
+		Map<String, RelationshipEdge> edges = graph.getEdges(OrderLine.class);
+		assertEquals(Product.class, edges.get("product").getRelatedModelType());
+		assertEquals(Order.class, edges.get("order").getRelatedModelType());
+		assertTrue(graph.getIncomingEdges(Product.class).contains(edges.get("product")));
+		assertTrue(graph.getIncomingEdges(Order.class).contains(edges.get("order")));
+	}
+
+	@Test
+	public void testBidirectionalPair() {
+		RelationshipGraph graph = buildGraph(Author.class, Publisher.class, Book.class);
+		RelationshipEdge written = graph.getEdge(Author.class, "written");
+		RelationshipEdge author = graph.getEdge(Book.class, "author");
+		assertTrue(written.isInverse());
+		assertFalse(author.isInverse());
+		assertSame(author, written.getReverse());
+		assertSame(written, author.getReverse());
+		assertEquals("written", author.getReverse().getFieldName());
+		assertEquals(1, graph.getCascadeRemoveEdges(Author.class).size());
+		assertSame(written, graph.getCascadeRemoveEdges(Author.class).get(0));
+	}
+
+	@Test
+	public void testSeveralRelationshipsOnOneModel() {
+		RelationshipGraph graph = buildGraph(Author.class, Publisher.class, Book.class);
+		assertEquals(2, graph.getEdges(Book.class).size());
+		assertEquals(2, graph.getEdges(Author.class).size());
+		assertSame(graph.getEdge(Publisher.class, "titles"), graph.getEdge(Book.class, "publisher").getReverse());
+		assertSame(graph.getEdge(Author.class, "written"), graph.getEdge(Book.class, "author").getReverse());
+
+		List<String> incoming = new ArrayList<>();
+		for (RelationshipEdge edge : graph.getIncomingEdges(Book.class)) {
+			incoming.add(edge.getFieldName());
+		}
+		assertEquals(3, incoming.size());
+		assertTrue(incoming.contains("books"));
+		assertTrue(incoming.contains("titles"));
+		assertTrue(incoming.contains("written"));
+	}
+
+	@Test
+	public void testMappedByWithMismatchedType() {
+		RelationshipGraph graph = buildGraph(Author.class, Publisher.class, Book.class);
+		// Book.publisher exists but targets Publisher, not Author
+		RelationshipEdge books = graph.getEdge(Author.class, "books");
+		assertNotNull(books);
+		assertNull(books.getReverse());
+		// the owning side stays linked to the inverse side of the right type
+		assertSame(graph.getEdge(Publisher.class, "titles"), graph.getEdge(Book.class, "publisher").getReverse());
+	}
+
+	/**
+	 * Build a graph for the given types, linking related models like the registry does
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static RelationshipGraph buildGraph(Class<?>... modelTypes) {
+		Map<Class<?>, ModelInfo> infos = new LinkedHashMap<>();
+		for (Class<?> modelType : modelTypes) {
+			infos.put(modelType, new ModelInfoImpl(modelType));
+		}
+		for (ModelInfo<?, ?> info : infos.values()) {
+			List<String> fieldNames = new ArrayList<>(info.getToOneFieldNames());
+			fieldNames.addAll(info.getToManyFieldNames());
+			for (String fieldName : fieldNames) {
+				FieldInfo field = info.getField(fieldName);
+				ModelInfo related = infos.get(field.getFieldModelType());
+				if (related != null) {
+					field.setRelatedModelInfo(related);
+				}
+			}
+		}
+		return new RelationshipGraph(infos.values());
+	}
+
+	@Getter
+	@Setter
+	public static class Author {
+
+		@Id
+		private String id;
+
+		@OneToMany(mappedBy = "author", cascade = CascadeType.REMOVE)
+		private List<Book> written;
+
+		/** Names a field of Book that targets another type */
+		@OneToMany(mappedBy = "publisher")
+		private List<Book> books;
+	}
+
+	@Getter
+	@Setter
+	public static class Publisher {
+
+		@Id
+		private String id;
+
+		@OneToMany(mappedBy = "publisher")
+		private List<Book> titles;
+	}
+
+	@Getter
+	@Setter
+	public static class Book {
+
+		@Id
+		private String id;
+
+		@ManyToOne
+		private Author author;
+
+		@ManyToOne
+		private Publisher publisher;
+	}
+}
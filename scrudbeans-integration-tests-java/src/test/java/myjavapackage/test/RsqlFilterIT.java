@@ -0,0 +1,61 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify RSQL filters combining comparisons
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RsqlFilterIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testMixedRelationSelectors() {
+		Product[] products = given()
+				.spec(defaultSpec())
+				.queryParam("page", "no")
+				.queryParam("name", "LOTR %")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200).extract().as(Product[].class);
+		String first = products[0].getId();
+		String second = products[1].getId();
+
+		// a.id== and a== comparisons are not merged, but still combine as expected
+		int mixed = countOrderLines("product.id==" + first + ",product==" + second);
+		int merged = countOrderLines("product=in=(" + first + "," + second + ")");
+		assertEquals(merged, mixed);
+		given()
+				.spec(defaultSpec())
+				.queryParam("filter", "product.id==" + first + ",product.id==" + second)
+				.get("/api/rest/orderLines/aggregate")
+				.then()
+				.statusCode(200)
+				.body("[0].count", equalTo(merged))
+				.body("[0].count", greaterThanOrEqualTo(2));
+	}
+
+	private int countOrderLines(String filter) {
+		return given()
+				.spec(defaultSpec())
+				.queryParam("filter", filter)
+				.get("/api/rest/orderLines/aggregate")
+				.then()
+				.statusCode(200)
+				.extract().path("[0].count");
+	}
+}
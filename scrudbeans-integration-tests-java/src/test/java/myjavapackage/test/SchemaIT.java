@@ -0,0 +1,77 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.manosbatsis.scrudbeans.controller.AbstractPersistableModelController;
+import com.github.manosbatsis.scrudbeans.domain.RawJson;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import com.github.manosbatsis.scrudbeans.uischema.model.UiSchema;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.OrderLine;
+import myjavapackage.service.OrderLineService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify JSON and UI schemas are served with an ETag and revalidated by default
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SchemaIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testJsonSchemaRevalidation() {
+		testRevalidation("/api/rest/products/jsonschema");
+	}
+
+	@Test
+	public void testUiSchemaRevalidation() {
+		testRevalidation("/api/rest/products/uischema");
+	}
+
+	@Test
+	public void testSchemaOverrideSignatures() throws Exception {
+		assertEquals(RawJson.class, CustomSchemaController.class.getMethod("getJsonSchema").getReturnType());
+		assertEquals(UiSchema.class, CustomSchemaController.class.getMethod("getUiSchema").getReturnType());
+	}
+
+	private void testRevalidation(String path) {
+		String eTag = given()
+				.spec(defaultSpec())
+				.get(path)
+				.then()
+				.statusCode(200)
+				.header("Cache-Control", containsString("no-cache"))
+				.header("ETag", notNullValue())
+				.extract().header("ETag");
+		given()
+				.spec(defaultSpec())
+				.header("If-None-Match", eTag)
+				.get(path)
+				.then()
+				.statusCode(304);
+	}
+
+	/** Overrides the schemas like subclasses written before schema caching did */
+	public static class CustomSchemaController extends AbstractPersistableModelController<OrderLine, String, OrderLineService> {
+
+		@Override
+		public RawJson getJsonSchema() throws JsonProcessingException {
+			return new RawJson("{\"title\":\"Order line\"}");
+		}
+
+		@Override
+		public UiSchema getUiSchema() {
+			return super.getUiSchema();
+		}
+	}
+}
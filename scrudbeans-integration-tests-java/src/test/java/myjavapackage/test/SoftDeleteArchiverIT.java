@@ -0,0 +1,79 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.repository.SoftDeleteArchiver;
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import myjavapackage.model.Bookmark;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify soft-deleted rows are moved to archive tables once
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = {
+				"spring.datasource.generate-unique-name=true",
+				"scrudbeans.soft-delete.archive-after=1",
+				"scrudbeans.soft-delete.archive-interval=3600000"
+		})
+public class SoftDeleteArchiverIT extends AbstractRestAssuredIT {
+
+	@Autowired
+	private SoftDeleteArchiver softDeleteArchiver;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	public void testArchiveOnce() {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+		String first = this.createAndDelete("https://example.com/1");
+		assertEquals(1, this.softDeleteArchiver.archive(Bookmark.class, LocalDateTime.now().plusMinutes(1)));
+		assertEquals(0, this.softDeleteArchiver.archive(Bookmark.class, LocalDateTime.now().plusMinutes(1)));
+		assertEquals(1, this.count(jdbcTemplate, "bookmarks_archive", first));
+		assertEquals(0, this.count(jdbcTemplate, "bookmarks", first));
+
+		// A row already archived, e.g. by another node, is not copied again
+		String second = this.createAndDelete("https://example.com/2");
+		jdbcTemplate.update("INSERT INTO bookmarks_archive SELECT * FROM bookmarks WHERE id = ?", second);
+		assertEquals(1, this.softDeleteArchiver.archive(Bookmark.class, LocalDateTime.now().plusMinutes(1)));
+		assertEquals(1, this.count(jdbcTemplate, "bookmarks_archive", second));
+		assertEquals(0, this.count(jdbcTemplate, "bookmarks", second));
+	}
+
+	private String createAndDelete(String url) {
+		String id = given()
+				.spec(defaultSpec())
+				.body(Collections.singletonMap("url", url))
+				.post("/api/rest/bookmarks")
+				.then()
+				.statusCode(201)
+				.extract().path("id");
+		given()
+				.spec(defaultSpec())
+				.delete("/api/rest/bookmarks/{id}", id)
+				.then()
+				.statusCode(204);
+		return id;
+	}
+
+	private int count(JdbcTemplate jdbcTemplate, String table, String id) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE id = ?", Integer.class, id);
+	}
+}
@@ -0,0 +1,58 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+/**
+ * Verify sorting is restricted to the attributes found by the annotation processor when enabled
+ */
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "scrudbeans.query.restrict-sortable-fields=true")
+public class SortableFieldsIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testSortByBasicAttribute() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "name")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200);
+	}
+
+	@Test
+	public void testSortByEmbeddedPath() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "id.left,desc")
+				.get("/api/rest/productRelationships")
+				.then()
+				.statusCode(200);
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "id")
+				.get("/api/rest/productRelationships")
+				.then()
+				.statusCode(200);
+	}
+
+	@Test
+	public void testSortByUnknownAttribute() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("sort", "missing")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(400);
+	}
+}
@@ -0,0 +1,60 @@
+package myjavapackage.test;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+import com.github.manosbatsis.scrudbeans.test.AbstractRestAssuredIT;
+import lombok.extern.slf4j.Slf4j;
+import myjavapackage.ScrudBeansSampleApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+@Slf4j
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(classes = ScrudBeansSampleApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class SparseFieldsetIT extends AbstractRestAssuredIT {
+
+	@Test
+	public void testFieldsParam() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("name", "LOTR %")
+				.queryParam("_fields", "name")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content", hasSize(3))
+				.body("content", everyItem(hasKey("id")))
+				.body("content", everyItem(hasKey("name")))
+				.body("content", everyItem(not(hasKey("description"))));
+	}
+
+	@Test
+	public void testJsonApiFieldsParam() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("name", "LOTR %")
+				.queryParam("fields[products]", "price")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(200)
+				.body("content", everyItem(hasKey("price")))
+				.body("content", everyItem(not(hasKey("name"))));
+	}
+
+	@Test
+	public void testInvalidField() {
+		given()
+				.spec(defaultSpec())
+				.queryParam("_fields", "nope")
+				.get("/api/rest/products")
+				.then()
+				.statusCode(400);
+	}
+}
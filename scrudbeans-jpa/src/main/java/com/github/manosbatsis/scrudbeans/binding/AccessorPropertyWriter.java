@@ -0,0 +1,147 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.binding;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
+import org.hibernate.Hibernate;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.proxy.LazyInitializer;
+
+/**
+ * A {@link BeanPropertyWriter} that reads the property value using a generated {@link PropertyAccessor}
+ * instead of reflection. Simple values are written directly to the {@link JsonGenerator} when
+ * the property uses the standard Jackson serializer. Uninitialized lazy associations are never
+ * initialized: a proxy is written as an identifier-only reference while a collection is omitted.
+ */
+public class AccessorPropertyWriter extends BeanPropertyWriter {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final transient PropertyAccessor<Object> accessor;
+
+	protected final int index;
+
+	protected final boolean simple;
+
+	/** Whether simple values can be written directly, resolved on first use */
+	protected transient Boolean direct;
+
+	@SuppressWarnings("unchecked")
+	public AccessorPropertyWriter(BeanPropertyWriter base, PropertyAccessor<?> accessor, int index) {
+		super(base);
+		this.accessor = (PropertyAccessor<Object>) accessor;
+		this.index = index;
+		this.simple = accessor.isSimple(index)
+				&& !base.hasSerializer()
+				&& _suppressableValue == null
+				&& base.getAnnotation(JsonFormat.class) == null;
+	}
+
+	@Override
+	public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+		if (simple && _typeSerializer == null && isDirect(prov)) {
+			if (!accessor.writeValue(bean, index, _name, gen)) {
+				serializeNull(gen, prov);
+			}
+			return;
+		}
+		final Object value = accessor.getValue(bean, index);
+		if (value == null) {
+			serializeNull(gen, prov);
+			return;
+		}
+		if (!Hibernate.isInitialized(value)) {
+			if (value instanceof HibernateProxy) {
+				serializeReference(((HibernateProxy) value).getHibernateLazyInitializer(), gen, prov);
+			}
+			return;
+		}
+		// same as BeanPropertyWriter from here on
+		JsonSerializer<Object> ser = _serializer;
+		if (ser == null) {
+			Class<?> cls = value.getClass();
+			PropertySerializerMap m = _dynamicSerializers;
+			ser = m.serializerFor(cls);
+			if (ser == null) {
+				ser = _findAndAddDynamic(m, cls, prov);
+			}
+		}
+		if (_suppressableValue != null) {
+			if (MARKER_FOR_EMPTY == _suppressableValue) {
+				if (ser.isEmpty(prov, value)) {
+					return;
+				}
+			}
+			else if (_suppressableValue.equals(value)) {
+				return;
+			}
+		}
+		if (value == bean && _handleSelfReference(bean, gen, prov, ser)) {
+			return;
+		}
+		gen.writeFieldName(_name);
+		if (_typeSerializer == null) {
+			ser.serialize(value, gen, prov);
+		}
+		else {
+			ser.serializeWithType(value, gen, prov, _typeSerializer);
+		}
+	}
+
+	/** Only write directly if Jackson would use one of its own serializers for the property type */
+	protected boolean isDirect(SerializerProvider prov) throws Exception {
+		Boolean isDirect = this.direct;
+		if (isDirect == null) {
+			JsonSerializer<?> ser = _serializer != null ? _serializer : prov.findValueSerializer(getType());
+			isDirect = ClassUtil.isJacksonStdImpl(ser);
+			this.direct = isDirect;
+		}
+		return isDirect;
+	}
+
+	protected void serializeNull(JsonGenerator gen, SerializerProvider prov) throws Exception {
+		if (_nullSerializer != null) {
+			gen.writeFieldName(_name);
+			_nullSerializer.serialize(null, gen, prov);
+		}
+	}
+
+	/** Write an object containing only the identifier of the given uninitialized proxy */
+	@SuppressWarnings("unchecked")
+	protected void serializeReference(LazyInitializer initializer, JsonGenerator gen, SerializerProvider prov) throws Exception {
+		IdentifierAdapter<Object, ?> adapter = (IdentifierAdapter<Object, ?>)
+				IdentifierAdaptersRegistry.getAdapterForClass(initializer.getPersistentClass());
+		String idName = adapter != null ? adapter.getIdName(null) : null;
+		gen.writeFieldName(_name);
+		gen.writeStartObject();
+		prov.defaultSerializeField(idName != null ? idName : "id", initializer.getIdentifier(), gen);
+		gen.writeEndObject();
+	}
+}
@@ -0,0 +1,86 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.binding;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
+
+import java.io.IOException;
+
+/**
+ * A {@link SettableBeanProperty} that delegates value deserialization to the original
+ * property but sets the result using a generated {@link PropertyAccessor} instead of reflection.
+ */
+public class AccessorSettableProperty extends SettableBeanProperty.Delegating {
+
+	private static final long serialVersionUID = 1L;
+
+	protected final transient PropertyAccessor<Object> accessor;
+
+	protected final int index;
+
+	@SuppressWarnings("unchecked")
+	public AccessorSettableProperty(SettableBeanProperty delegate, PropertyAccessor<?> accessor, int index) {
+		super(delegate);
+		this.accessor = (PropertyAccessor<Object>) accessor;
+		this.index = index;
+	}
+
+	@Override
+	protected SettableBeanProperty withDelegate(SettableBeanProperty d) {
+		return new AccessorSettableProperty(d, accessor, index);
+	}
+
+	@Override
+	public void deserializeAndSet(JsonParser p, DeserializationContext ctxt, Object instance) throws IOException {
+		if (p.hasToken(JsonToken.VALUE_NULL) && NullsConstantProvider.isSkipper(_nullProvider)) {
+			return;
+		}
+		Object value = deserialize(p, ctxt);
+		try {
+			accessor.setValue(instance, index, value);
+		}
+		catch (Exception e) {
+			_throwAsIOE(p, e, value);
+		}
+	}
+
+	@Override
+	public Object deserializeSetAndReturn(JsonParser p, DeserializationContext ctxt, Object instance) throws IOException {
+		deserializeAndSet(p, ctxt, instance);
+		return instance;
+	}
+
+	@Override
+	public void set(Object instance, Object value) throws IOException {
+		accessor.setValue(instance, index, value);
+	}
+
+	@Override
+	public Object setAndReturn(Object instance, Object value) throws IOException {
+		set(instance, value);
+		return instance;
+	}
+}
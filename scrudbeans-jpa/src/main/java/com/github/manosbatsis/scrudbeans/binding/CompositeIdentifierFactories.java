@@ -0,0 +1,120 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.model.CompositeIdentifierFactory;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdentifier;
+import lombok.NonNull;
+
+/**
+ * Registry of {@link CompositeIdentifierFactory} instances per identifier type. Types without
+ * a registered (typically generated) factory fall back to a no-arguments constructor resolved once per type.
+ */
+public class CompositeIdentifierFactories {
+
+	private static final ConcurrentHashMap<Class<?>, CompositeIdentifierFactory<?>> registered = new ConcurrentHashMap<>();
+
+	private static final ClassValue<CompositeIdentifierFactory<?>> factories = new ClassValue<CompositeIdentifierFactory<?>>() {
+		@Override
+		protected CompositeIdentifierFactory<?> computeValue(Class<?> type) {
+			CompositeIdentifierFactory<?> factory = registered.get(type);
+			return factory != null ? factory : new ConstructorCompositeIdentifierFactory(type);
+		}
+	};
+
+	private CompositeIdentifierFactories() {
+	}
+
+	/**
+	 * Register the given factory for its identifier type
+	 * @param factory the factory to register
+	 */
+	public static void addFactory(@NonNull CompositeIdentifierFactory<?> factory) {
+		registered.put(factory.getIdentifierType(), factory);
+		factories.remove(factory.getIdentifierType());
+	}
+
+	/**
+	 * Get the factory for the given identifier type
+	 * @param type the identifier type
+	 * @param <T> the identifier type
+	 * @return the factory
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T extends EmbeddableCompositeIdentifier> CompositeIdentifierFactory<T> getFactory(@NonNull Class<T> type) {
+		return (CompositeIdentifierFactory<T>) factories.get(type);
+	}
+
+	/**
+	 * Create an identifier of the given type using the given string representation
+	 * @param type the identifier type
+	 * @param value the string representation
+	 * @param <T> the identifier type
+	 * @return the identifier
+	 */
+	public static <T extends EmbeddableCompositeIdentifier> T create(@NonNull Class<T> type, String value) {
+		return getFactory(type).createIdentifier(value);
+	}
+
+	/**
+	 * Fallback factory using the no-arguments constructor of the identifier type
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static final class ConstructorCompositeIdentifierFactory implements CompositeIdentifierFactory {
+
+		private final Class type;
+
+		private final MethodHandle constructor;
+
+		private ConstructorCompositeIdentifierFactory(Class<?> type) {
+			this.type = type;
+			try {
+				this.constructor = MethodHandles.publicLookup().findConstructor(type, MethodType.methodType(void.class));
+			}
+			catch (NoSuchMethodException | IllegalAccessException e) {
+				throw new IllegalArgumentException("No accessible no-arguments constructor found for " + type.getName(), e);
+			}
+		}
+
+		@Override
+		public Class getIdentifierType() {
+			return this.type;
+		}
+
+		@Override
+		public EmbeddableCompositeIdentifier createIdentifier(String value) {
+			EmbeddableCompositeIdentifier id;
+			try {
+				id = (EmbeddableCompositeIdentifier) this.constructor.invoke();
+			}
+			catch (Throwable e) {
+				throw new RuntimeException(new StringBuffer("Failed to create identifier with id: ").append(value).append(", class: ").append(this.type.toString()).toString(), e);
+			}
+			id.init(value);
+			return id;
+		}
+	}
+}
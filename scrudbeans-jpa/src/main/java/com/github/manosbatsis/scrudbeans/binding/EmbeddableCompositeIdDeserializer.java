@@ -65,31 +65,15 @@ public class EmbeddableCompositeIdDeserializer<T extends EmbeddableCompositeIden
 
 		ObjectCodec oc = p.getCodec();
 		String id = oc.readValue(p, String.class);
-		T object;
-		try {
-			object = (T) targetType.newInstance();
-			object.init(id);
-		}
-		catch (InstantiationException | IllegalAccessException e) {
-			throw new RuntimeException(new StringBuffer("Failed to deserialize with id: ").append(id).append(", class: ").append(targetType.toString()).toString(), e);
-		}
-		return object;
+		return (T) CompositeIdentifierFactories.create(targetType, id);
 	}
 
 
 	@Override
 	public JsonDeserializer<T> createContextual(DeserializationContext deserializationContext, BeanProperty beanProperty) throws JsonMappingException {
 
-		// get deserializer for target type if available
+		// get or create a deserializer for the target type
 		Class<?> targetClass = beanProperty.getType().getRawClass();
-		JsonDeserializer<T> deserializer = typeSerializers.get(targetClass);
-
-		// otherwise create and configure a new instance for the target type
-		if (deserializer == null) {
-			deserializer = new EmbeddableCompositeIdDeserializer<T>(targetClass);
-			typeSerializers.put(targetClass, deserializer);
-		}
-
-		return deserializer;
+		return typeSerializers.computeIfAbsent(targetClass, EmbeddableCompositeIdDeserializer::new);
 	}
 }
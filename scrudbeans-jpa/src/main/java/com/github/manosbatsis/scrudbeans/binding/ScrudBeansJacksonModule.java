@@ -0,0 +1,110 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.binding;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.impl.MethodProperty;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.PropertyAccessorsRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jackson module that swaps the reflective property writers and setters of models
+ * for ones backed by the {@link PropertyAccessor} generated for each model.
+ * Property discovery, naming, inclusion and views are still decided by Jackson,
+ * so annotated or otherwise customized properties keep their configured serializers.
+ */
+public class ScrudBeansJacksonModule extends SimpleModule {
+
+	private static final long serialVersionUID = 1L;
+
+	public ScrudBeansJacksonModule() {
+		super(ScrudBeansJacksonModule.class.getSimpleName());
+		setSerializerModifier(new AccessorSerializerModifier());
+		setDeserializerModifier(new AccessorDeserializerModifier());
+	}
+
+	/** Get the index of the given accessor method name in the given array, -1 if not found */
+	protected static int indexOf(String[] methodNames, AnnotatedMember member) {
+		if (member instanceof AnnotatedMethod) {
+			String name = member.getName();
+			for (int i = 0; i < methodNames.length; i++) {
+				if (name.equals(methodNames[i])) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
+	static class AccessorSerializerModifier extends BeanSerializerModifier {
+
+		@Override
+		public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc, List<BeanPropertyWriter> beanProperties) {
+			PropertyAccessor<?> accessor = PropertyAccessorsRegistry.getAccessorForClass(beanDesc.getBeanClass());
+			if (accessor == null) {
+				return beanProperties;
+			}
+			String[] getterNames = accessor.getGetterNames();
+			List<BeanPropertyWriter> properties = new ArrayList<>(beanProperties.size());
+			for (BeanPropertyWriter writer : beanProperties) {
+				int index = writer.getClass() == BeanPropertyWriter.class ? indexOf(getterNames, writer.getMember()) : -1;
+				properties.add(index < 0 ? writer : new AccessorPropertyWriter(writer, accessor, index));
+			}
+			return properties;
+		}
+	}
+
+	static class AccessorDeserializerModifier extends BeanDeserializerModifier {
+
+		@Override
+		public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc, BeanDeserializerBuilder builder) {
+			PropertyAccessor<?> accessor = PropertyAccessorsRegistry.getAccessorForClass(beanDesc.getBeanClass());
+			if (accessor == null) {
+				return builder;
+			}
+			String[] setterNames = accessor.getSetterNames();
+			List<SettableBeanProperty> replacements = new ArrayList<>();
+			builder.getProperties().forEachRemaining(property -> {
+				int index = property.getClass() == MethodProperty.class ? indexOf(setterNames, property.getMember()) : -1;
+				if (index >= 0) {
+					replacements.add(new AccessorSettableProperty(property, accessor, index));
+				}
+			});
+			for (SettableBeanProperty property : replacements) {
+				builder.addOrReplaceProperty(property, true);
+			}
+			return builder;
+		}
+	}
+}
@@ -20,19 +20,25 @@
  */
 package com.github.manosbatsis.scrudbeans.binding;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdentifier;
 
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.core.convert.converter.ConverterFactory;
 
 /**
- * Converter factory targeting {@link EmbeddableCompositeIdentifier} instances
+ * Converter factory targeting {@link EmbeddableCompositeIdentifier} instances.
+ * Converters are cached per target type.
  */
 public class StringToEmbeddableCompositeIdConverterFactory implements ConverterFactory<String, EmbeddableCompositeIdentifier> {
 
+	private final ConcurrentHashMap<Class<?>, Converter<String, ?>> converters = new ConcurrentHashMap<>();
+
 	@Override
+	@SuppressWarnings("unchecked")
 	public <T extends EmbeddableCompositeIdentifier> Converter<String, T> getConverter(Class<T> targetType) {
-		return new StringToEmbeddableManyToManyIdConverter<T>(targetType);
+		return (Converter<String, T>) converters.computeIfAbsent(targetType, StringToEmbeddableManyToManyIdConverter::new);
 	}
 
 
@@ -40,26 +46,18 @@ public class StringToEmbeddableCompositeIdConverterFactory implements ConverterF
 	 * Converter for {@link EmbeddableCompositeIdentifier} identifier instances
 	 * @param <T> the identifier implementation type
 	 */
-	@SuppressWarnings("rawtypes")
-	private final class StringToEmbeddableManyToManyIdConverter<T extends EmbeddableCompositeIdentifier> implements Converter<String, T> {
+	private static final class StringToEmbeddableManyToManyIdConverter<T extends EmbeddableCompositeIdentifier> implements Converter<String, T> {
 
-		private Class targetType;
+		private final Class<T> targetType;
 
+		@SuppressWarnings("unchecked")
 		public StringToEmbeddableManyToManyIdConverter(Class<?> targetType) {
-			this.targetType = targetType;
+			this.targetType = (Class<T>) targetType;
 		}
 
 		@Override
 		public T convert(String id) {
-			T object;
-			try {
-				object = (T) targetType.newInstance();
-				object.init(id);
-			}
-			catch (InstantiationException | IllegalAccessException e) {
-				throw new RuntimeException(new StringBuffer("Failed to deserialize with id: ").append(id).append(", class: ").append(targetType.toString()).toString(), e);
-			}
-			return object;
+			return CompositeIdentifierFactories.create(this.targetType, id);
 		}
 	}
 }
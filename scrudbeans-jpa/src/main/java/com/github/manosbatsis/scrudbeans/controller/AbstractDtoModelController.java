@@ -30,6 +30,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
 import com.github.manosbatsis.scrudbeans.domain.RawJson;
 import com.github.manosbatsis.scrudbeans.hypermedia.util.HypermediaUtils;
 import com.github.manosbatsis.scrudbeans.rsql.RsqlUtils;
@@ -94,12 +95,24 @@ public class AbstractDtoModelController<
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(AbstractDtoModelController.class);
 
-	private SpecificationsBuilder<T, PK> specificationsBuilder;
+	private volatile SpecificationsBuilder<T, PK> specificationsBuilder;
 
-	@Override
-	public void afterPropertiesSet() throws Exception {
-		super.afterPropertiesSet();
-		this.specificationsBuilder = new SpecificationsBuilder<T, PK>(this.modelType, this.service.getConversionService());
+	/**
+	 * Get the specifications builder for this Controller's Model type, created on first use
+	 */
+	protected SpecificationsBuilder<T, PK> getSpecificationsBuilder() {
+		SpecificationsBuilder<T, PK> builder = this.specificationsBuilder;
+		if (builder == null) {
+			// concurrent first requests must share a fully constructed builder
+			synchronized (this) {
+				builder = this.specificationsBuilder;
+				if (builder == null) {
+					builder = new SpecificationsBuilder<T, PK>(this.modelType, this.service.getConversionService(), this.fullTextSearchProvider);
+					this.specificationsBuilder = builder;
+				}
+			}
+		}
+		return builder;
 	}
 
 	// Create
@@ -173,7 +186,7 @@ public class AbstractDtoModelController<
 			@Parameter(name = SpecificationsBuilder.PARAM_SORT, description = "Comma separated list of attribute names, descending for each one prefixed with a dash, ascending otherwise")
 			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "id") String sort
 	) {
-		Pageable pageable = PageableUtil.buildPageable(page, size, sort);
+		Pageable pageable = PageableUtil.buildPageable(page, size, sort, this.getQueryGuardrails());
 		return this.<T>findPaginated(pageable, null);
 	}
 
@@ -206,13 +219,14 @@ public class AbstractDtoModelController<
 			@Parameter(name = SpecificationsBuilder.PARAM_SORT, description = "Comma separated list of attribute names, descending for each one prefixed with a dash, ascending otherwise")
 			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "id") String sort) {
 
-		// get the field info for the relation, if any
-		FieldInfo fieldInfo = this.getModelInfo().getField(relationName);
+		// get the relationship, if any
+		RelationshipEdge relationship = this.getRelationship(relationName);
 
 		// throw error if not valid or linkable relationship
-		if (fieldInfo == null || !fieldInfo.isLinkableResource()) {
+		if (relationship == null || !relationship.isLinkable()) {
 			throw new IllegalArgumentException("Invalid relationship: " + relationName);
 		}
+		FieldInfo fieldInfo = relationship.getFieldInfo();
 
 		// use response entity to accommodate different return types
 		ResponseEntity responseEntity = null;
@@ -221,10 +235,10 @@ public class AbstractDtoModelController<
 		if (fieldInfo.isToOne()) {
             Object related = this.findRelatedSingle(id, fieldInfo);
             // if found
-            EntityModel res = HypermediaUtils.toHateoasResource(related, fieldInfo.getRelatedModelInfo());
+            EntityModel res = HypermediaUtils.toHateoasResource(related, relationship.getRelatedModelInfo());
             responseEntity = new ResponseEntity(res, HttpStatus.OK);
         } else if (fieldInfo.isOneToMany()) {
-			Pageable pageable = PageableUtil.buildPageable(page, size, sort);
+			Pageable pageable = PageableUtil.buildPageable(page, size, sort, this.getQueryGuardrails(relationship.getRelatedModelInfo()));
 			ParamsAwarePageImpl resultsPage = this.findRelatedPaginated(id, pageable, fieldInfo);
 			responseEntity = new ResponseEntity(resultsPage, HttpStatus.OK);
 
@@ -251,6 +265,14 @@ public class AbstractDtoModelController<
 
 	@RequestMapping(value = "jsonschema", method = RequestMethod.GET, consumes = MimeTypeUtils.APPLICATION_JSON_VALUE, produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get JSON Schema", description = "Get the JSON Schema for the controller entity type")
+	public ResponseEntity<byte[]> getJsonSchemaResponse() throws JsonProcessingException {
+		return this.toSchemaResponse(this.getCachedJsonSchema());
+	}
+
+	/**
+	 * Get the JSON Schema served by {@link #getJsonSchemaResponse()}, override to customize
+	 */
+	@Override
 	public RawJson getJsonSchema() throws JsonProcessingException {
 		return super.getJsonSchema();
 	}
@@ -258,6 +280,15 @@ public class AbstractDtoModelController<
 	@RequestMapping(value = "uischema", method = RequestMethod.GET, consumes = MimeTypeUtils.APPLICATION_JSON_VALUE, produces = MimeTypeUtils.APPLICATION_JSON_VALUE)
 	@Operation(summary = "Get UI schema", description = "Get the UI achema for the controller entity type, including fields, use-cases etc.")
 	@Deprecated
+	public ResponseEntity<byte[]> getUiSchemaResponse() throws JsonProcessingException {
+		return this.toSchemaResponse(this.getCachedUiSchema());
+	}
+
+	/**
+	 * Get the UI schema served by {@link #getUiSchemaResponse()}, override to customize
+	 */
+	@Override
+	@Deprecated
 	public UiSchema getUiSchema() {
 		return super.getUiSchema();
 	}
@@ -287,15 +318,17 @@ public class AbstractDtoModelController<
      */
     protected <M> ParamsAwarePageImpl<M> findRelatedPaginated(PK id, Pageable pageable, FieldInfo fieldInfo) {
         ParamsAwarePageImpl<M> page = null;
-        Optional<String> reverseFieldName = fieldInfo.getReverseFieldName();
+        RelationshipEdge relationship = this.getRelationship(fieldInfo.getFieldName());
+        Optional<String> reverseFieldName = relationship != null ? relationship.getReverseFieldName() : Optional.empty();
         if (reverseFieldName.isPresent()) {
             Map<String, String[]> params = request.getParameterMap();
             Map<String, String[]> implicitCriteria = new HashMap<>();
             implicitCriteria.put(reverseFieldName.get(), new String[]{id.toString()});
 
-            ModelInfo relatedModelInfo = fieldInfo.getRelatedModelInfo();
+            ModelInfo relatedModelInfo = relationship.getRelatedModelInfo();
             // optionally create a query specification
-            Specification<M> spec = RsqlUtils.buildSpecification(relatedModelInfo, this.service.getConversionService(), params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+            Specification<M> spec = RsqlUtils.buildSpecification(relatedModelInfo, this.service.getConversionService(), params, implicitCriteria,
+					SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA, this.getQueryGuardrails(relatedModelInfo));
 			// get the page of related children
 			Page<M> tmp = this.service.findRelatedPaginated(relatedModelInfo.getModelType(), spec, pageable);
 			page = new ParamsAwarePageImpl<M>(params, tmp.getContent(), pageable, tmp.getTotalElements());
@@ -313,14 +346,15 @@ public class AbstractDtoModelController<
 		Specification<T> spec;
 		// Construct the specification manually if no RSQL "filter" param is present
 		if (Objects.isNull(params.get("filter"))) {
-			spec = this.specificationsBuilder.build(params);
+			this.getQueryGuardrails().checkFilterParams(params, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+			spec = this.getSpecificationsBuilder().build(params);
 		}
 		// else use the RSQL-based specification builder
 		else {
 			spec = RsqlUtils.buildSpecification(
 					this.getModelInfo(),
 					this.service.getConversionService(),
-					params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+					params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA, this.getQueryGuardrails());
 		}
 		Page<T> page = this.service.findPaginated(spec, pageable);
 		// Return a page with the appropriate meta
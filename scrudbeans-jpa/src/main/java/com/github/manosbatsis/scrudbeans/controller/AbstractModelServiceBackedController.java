@@ -21,17 +21,24 @@
 package com.github.manosbatsis.scrudbeans.controller;
 
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.search.FullTextSearchProvider;
+import com.github.manosbatsis.scrudbeans.specification.QueryGuardrails;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
 import com.github.manosbatsis.scrudbeans.api.mdd.service.ModelService;
 import com.github.manosbatsis.scrudbeans.domain.RawJson;
+import com.github.manosbatsis.scrudbeans.uischema.model.CachedSchema;
 import com.github.manosbatsis.scrudbeans.uischema.model.UiSchema;
 import com.github.manotbatsis.kotlin.utils.api.Dto;
 import com.kjetland.jackson.jsonSchema.JsonSchemaConfig;
@@ -43,6 +50,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.hateoas.RepresentationModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 
 
@@ -82,6 +92,12 @@ public class AbstractModelServiceBackedController<
 
 	private ModelInfo modelInfo;
 
+	private volatile QueryGuardrails queryGuardrails;
+
+	private volatile CachedSchema jsonSchema;
+
+	private volatile CachedSchema uiSchema;
+
 	@Autowired
 	private ObjectMapper objectMapper;
 
@@ -91,6 +107,12 @@ public class AbstractModelServiceBackedController<
 	@Autowired
 	protected ModelInfoRegistry mmdelInfoRegistry;
 
+	@Autowired
+	protected ScrudBeansProperties scrudBeansProperties;
+
+	@Autowired(required = false)
+	protected FullTextSearchProvider fullTextSearchProvider;
+
 	//@Autowired
 	//protected EntityLinks entityLinks;
 
@@ -111,6 +133,10 @@ public class AbstractModelServiceBackedController<
 		return this.service;
 	}
 
+	protected ObjectMapper getObjectMapper() {
+		return this.objectMapper;
+	}
+
 	@Override
 	public void afterPropertiesSet() throws Exception {
         this.modelType = this.service.getDomainClass();
@@ -128,6 +154,36 @@ public class AbstractModelServiceBackedController<
 		return this.modelInfo;
 	}
 
+	/**
+	 * Get the relationship of this Controller's Model type with the given field name
+	 * @return the relationship, null if none exists
+	 */
+	protected RelationshipEdge getRelationship(@NonNull String fieldName) {
+		return this.mmdelInfoRegistry.getRelationshipGraph().getEdge(this.modelType, fieldName);
+	}
+
+	/**
+	 * Get the query limits for this Controller's Model type
+	 */
+	protected QueryGuardrails getQueryGuardrails() {
+		// immutable and idempotent, so concurrent initialization is harmless
+		QueryGuardrails guardrails = this.queryGuardrails;
+		if (guardrails == null) {
+			guardrails = QueryGuardrails.of(this.getModelInfo(), this.scrudBeansProperties.getQuery());
+			this.queryGuardrails = guardrails;
+		}
+		return guardrails;
+	}
+
+	/**
+	 * Get the query limits for the given, typically related, Model type
+	 */
+	protected QueryGuardrails getQueryGuardrails(@NonNull ModelInfo<?, ?> modelInfo) {
+		return modelInfo.getModelType().equals(this.modelType)
+				? this.getQueryGuardrails()
+				: QueryGuardrails.of(modelInfo, this.scrudBeansProperties.getQuery());
+	}
+
 	protected T create(@NonNull T resource) {
 		applyCurrentPrincipal(resource);
 		return this.service.create(resource);
@@ -205,6 +261,46 @@ public class AbstractModelServiceBackedController<
 		return schema;
 	}
 
+	/**
+	 * Get the result of {@link #getJsonSchema()}, serialized on first request and cached
+	 * for the lifetime of the controller.
+	 */
+	protected CachedSchema getCachedJsonSchema() throws JsonProcessingException {
+		CachedSchema schema = this.jsonSchema;
+		if (schema == null) {
+			schema = CachedSchema.of(this.getJsonSchema().value().getBytes(StandardCharsets.UTF_8));
+			this.jsonSchema = schema;
+		}
+		return schema;
+	}
+
+	/**
+	 * Get the result of {@link #getUiSchema()}, serialized on first request and cached
+	 * for the lifetime of the controller.
+	 */
+	protected CachedSchema getCachedUiSchema() throws JsonProcessingException {
+		CachedSchema schema = this.uiSchema;
+		if (schema == null) {
+			schema = CachedSchema.of(objectMapper.writeValueAsBytes(this.getUiSchema()));
+			this.uiSchema = schema;
+		}
+		return schema;
+	}
+
+	/**
+	 * Wrap the given schema in a response with a strong ETag. Clients revalidate on every use
+	 * unless <code>scrudbeans.schemas.max-age</code> is set, conditional requests are handled
+	 * by Spring MVC based on the ETag.
+	 */
+	protected ResponseEntity<byte[]> toSchemaResponse(CachedSchema schema) {
+		long maxAge = this.scrudBeansProperties.getSchemas().getMaxAge();
+		return ResponseEntity.ok()
+				.contentType(MediaType.APPLICATION_JSON)
+				.cacheControl(maxAge > 0 ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic() : CacheControl.noCache())
+				.eTag(schema.getETag())
+				.body(schema.getBytes());
+	}
+
 	protected void applyCurrentPrincipal(Object resource) {
 		// TODO
 //        Field[] fields = FieldUtils.getFieldsWithAnnotation(this.service.getDomainClass(), CurrentPrincipal.class);
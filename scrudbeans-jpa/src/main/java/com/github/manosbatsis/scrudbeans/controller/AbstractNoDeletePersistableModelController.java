@@ -26,6 +26,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -53,6 +54,11 @@ public abstract class AbstractNoDeletePersistableModelController<T, PK extends S
 		throw new NotImplementedException("Method is unsupported.");
 	}
 
+	@Override
+	public ResponseEntity<Void> deleteMatching(String filter) {
+		throw new NotImplementedException("Method is unsupported.");
+	}
+
 	// TODO
 	@Operation(hidden = true, description = "Delete an uploaded file")
 	@RequestMapping(value = "{subjectId}/uploads/{propertyName}/{id}", method = RequestMethod.DELETE)
@@ -20,44 +20,67 @@
  */
 package com.github.manosbatsis.scrudbeans.controller;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.Serializable;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
 import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
+import com.github.manosbatsis.scrudbeans.api.specification.AggregateMetric;
 import com.github.manosbatsis.scrudbeans.domain.RawJson;
+import com.github.manosbatsis.scrudbeans.fs.FileRenditionService;
 import com.github.manosbatsis.scrudbeans.hypermedia.util.HypermediaUtils;
+import com.github.manosbatsis.scrudbeans.model.AbstractPersistableHierarchicalModel;
 import com.github.manosbatsis.scrudbeans.rsql.RsqlUtils;
 import com.github.manosbatsis.scrudbeans.service.PersistableModelService;
+import com.github.manosbatsis.scrudbeans.specification.QueryGuardrails;
 import com.github.manosbatsis.scrudbeans.specification.SpecificationsBuilder;
 import com.github.manosbatsis.scrudbeans.uischema.model.UiSchema;
+import com.github.manosbatsis.scrudbeans.util.ChangesFeedPage;
 import com.github.manosbatsis.scrudbeans.util.ParamsAwarePageImpl;
 import com.github.manotbatsis.kotlin.utils.api.Dto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 /**
@@ -91,12 +114,34 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractPersistableModelController.class);
 
-    private SpecificationsBuilder<T, PK> specificationsBuilder;
+    /** The changes feed position parameter */
+    public static final String PARAM_SINCE = "since";
 
-    @Override
-    public void afterPropertiesSet() throws Exception {
-        super.afterPropertiesSet();
-        this.specificationsBuilder = new SpecificationsBuilder<T, PK>(this.modelType, this.service.getConversionService());
+    public static final String HEADER_LAST_EVENT_ID = "Last-Event-ID";
+
+    public static final String HEADER_DELETED_COUNT = "X-Deleted-Count";
+
+    /** The max depth parameter of hierarchy queries */
+    public static final String PARAM_MAX_DEPTH = "_maxDepth";
+
+    private volatile SpecificationsBuilder<T, PK> specificationsBuilder;
+
+	/**
+	 * Get the specifications builder for this Controller's Model type, created on first use
+	 */
+	protected SpecificationsBuilder<T, PK> getSpecificationsBuilder() {
+		SpecificationsBuilder<T, PK> builder = this.specificationsBuilder;
+		if (builder == null) {
+			// concurrent first requests must share a fully constructed builder
+			synchronized (this) {
+				builder = this.specificationsBuilder;
+				if (builder == null) {
+					builder = new SpecificationsBuilder<T, PK>(this.modelType, this.service.getConversionService(), this.fullTextSearchProvider);
+					this.specificationsBuilder = builder;
+				}
+			}
+		}
+		return builder;
 	}
 
 	// Create
@@ -178,6 +223,10 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 	// Search
 	// ========================
 
+	/**
+	 * Search for resources. When a sparse fieldset is requested, the page content
+	 * consists of partial representations as maps, serialized the same way.
+	 */
 	//@Override
 	@RequestMapping(method = RequestMethod.GET)
 	@Operation(summary = "Search for resources (paginated).", description = "Find all resources matching the given criteria and return a paginated collection."
@@ -189,6 +238,7 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 					@ApiResponse(responseCode = "401", description = "Unauthorized"),
 					@ApiResponse(responseCode = "404", description = "Not found")
 			})
+	@SuppressWarnings({"unchecked", "rawtypes"})
 	public ParamsAwarePageImpl<T> findPaginated(
 			@Parameter(name = SpecificationsBuilder.PARAM_FILTER, description = "The RSQL/FIQL query to use. Simply URL param based search will be used if missing.")
 			@RequestParam(value = SpecificationsBuilder.PARAM_FILTER, required = false) String filter,
@@ -197,10 +247,83 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 			@Parameter(name = SpecificationsBuilder.PARAM_PAGE_SIZE, description = "The page size")
 			@RequestParam(value = SpecificationsBuilder.PARAM_PAGE_SIZE, required = false, defaultValue = "10") Integer size,
 			@Parameter(name = SpecificationsBuilder.PARAM_SORT, description = "Comma separated list of attribute names, descending for each one prefixed with a dash, ascending otherwise")
-			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "id") String sort
+			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "id") String sort,
+			@Parameter(name = SpecificationsBuilder.PARAM_FIELDS, description = "Comma separated list of attribute names to include, "
+					+ "same as the JSON API fields[type] parameter. Full resources are returned if missing.")
+			@RequestParam(value = SpecificationsBuilder.PARAM_FIELDS, required = false) String fields
 	) {
-		Pageable pageable = PageableUtil.buildPageable(page, size, sort);
-		return this.<T>findPaginated(pageable, null);
+		Pageable pageable = PageableUtil.buildPageable(page, size, sort, this.getQueryGuardrails());
+		Set<String> fieldNames = FieldsetUtil.getRequestedFields(request.getParameterMap(), this.getModelInfo());
+		return fieldNames != null
+				? (ParamsAwarePageImpl) this.findProjectedPaginated(pageable, null, fieldNames)
+				: this.<T>findPaginated(pageable, null);
+	}
+
+	// Aggregate
+	// ========================
+
+	@RequestMapping(value = "aggregate", method = RequestMethod.GET)
+	@Operation(summary = "Aggregate resources", description = "Compute count, sum, avg, min or max metrics of the resources matching "
+			+ "the given criteria, optionally grouped by one or more attributes. Criteria are the same as in search.",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized")
+			})
+	public List<Map<String, Object>> aggregate(
+			@Parameter(name = SpecificationsBuilder.PARAM_FILTER, description = "The RSQL/FIQL query to use. Simply URL param based search will be used if missing.")
+			@RequestParam(value = SpecificationsBuilder.PARAM_FILTER, required = false) String filter,
+			@Parameter(name = SpecificationsBuilder.PARAM_GROUP_BY, description = "Comma separated list of attribute names to group by")
+			@RequestParam(value = SpecificationsBuilder.PARAM_GROUP_BY, required = false) String groupBy,
+			@Parameter(name = SpecificationsBuilder.PARAM_METRICS, description = "Comma separated list of metrics, e.g. count,sum(total),max(date)")
+			@RequestParam(value = SpecificationsBuilder.PARAM_METRICS, required = false, defaultValue = "count") String metrics) {
+		ModelInfo<T, PK> modelInfo = this.getModelInfo();
+		QueryGuardrails guardrails = this.getQueryGuardrails();
+		List<String> groupByNames = new ArrayList<>();
+		for (String fieldName : StringUtils.split(StringUtils.defaultString(groupBy), ',')) {
+			String groupByName = this.getAggregateField(modelInfo, fieldName.trim()).getFieldName();
+			guardrails.checkGroupBy(groupByName);
+			groupByNames.add(groupByName);
+		}
+		List<AggregateMetric> aggregateMetrics = new ArrayList<>();
+		for (String expression : StringUtils.split(metrics, ',')) {
+			AggregateMetric metric = AggregateMetric.parse(expression);
+			if (metric.getFieldName() != null) {
+				Class<?> fieldType = ClassUtils.resolvePrimitiveIfNecessary(this.getAggregateField(modelInfo, metric.getFieldName()).getFieldType());
+				boolean numeric = Number.class.isAssignableFrom(fieldType);
+				if ((metric.getFunction() == AggregateMetric.Function.SUM || metric.getFunction() == AggregateMetric.Function.AVG) && !numeric) {
+					throw new BadRequestException("Metric requires a numeric attribute: " + metric);
+				}
+				if (!numeric && !Comparable.class.isAssignableFrom(fieldType) && metric.getFunction() != AggregateMetric.Function.COUNT) {
+					throw new BadRequestException("Metric requires a comparable attribute: " + metric);
+				}
+			}
+			aggregateMetrics.add(metric);
+		}
+		if (aggregateMetrics.isEmpty()) {
+			throw new BadRequestException("At least one metric is required");
+		}
+		// exclude aggregation params from criteria
+		Map<String, String[]> params = new HashMap<>(request.getParameterMap());
+		params.remove(SpecificationsBuilder.PARAM_GROUP_BY);
+		params.remove(SpecificationsBuilder.PARAM_METRICS);
+		// fetch one more group than allowed to detect overflows VS silently truncating
+		int maxGroups = guardrails.getMaxAggregateGroups();
+		List<Map<String, Object>> groups = this.service.aggregate(
+				this.buildSpecification(params, null), groupByNames, aggregateMetrics, maxGroups > 0 ? maxGroups + 1 : 0);
+		guardrails.checkAggregateGroups(groups.size());
+		return groups;
+	}
+
+	/**
+	 * Get the field to group by or aggregate, ensuring it is a simple attribute of the model
+	 */
+	protected FieldInfo getAggregateField(ModelInfo<T, PK> modelInfo, String fieldName) {
+		FieldInfo fieldInfo = modelInfo.getField(fieldName);
+		if (fieldInfo == null || !fieldInfo.getFieldMappingType().isSimple()) {
+			throw new BadRequestException("Invalid attribute name: " + fieldName);
+		}
+		return fieldInfo;
 	}
 
 	// Read
@@ -244,13 +367,14 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 			@Parameter(name = SpecificationsBuilder.PARAM_SORT, description = "Comma separated list of attribute names, descending for each one prefixed with a dash, ascending otherwise")
 			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "id") String sort) {
 
-		// get the field info for the relation, if any
-		FieldInfo fieldInfo = this.getModelInfo().getField(relationName);
+		// get the relationship, if any
+		RelationshipEdge relationship = this.getRelationship(relationName);
 
 		// throw error if not valid or linkable relationship
-		if (fieldInfo == null || !fieldInfo.isLinkableResource()) {
+		if (relationship == null || !relationship.isLinkable()) {
 			throw new IllegalArgumentException("Invalid relationship: " + relationName);
 		}
+		FieldInfo fieldInfo = relationship.getFieldInfo();
 
 		// use response entity to accommodate different return types
 		ResponseEntity responseEntity = null;
@@ -259,11 +383,11 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 		if (fieldInfo.isToOne()) {
             Object related = this.findRelatedSingle(id, fieldInfo);
             // if found
-			EntityModel res = HypermediaUtils.toHateoasResource(related, fieldInfo.getRelatedModelInfo());
+			EntityModel res = HypermediaUtils.toHateoasResource(related, relationship.getRelatedModelInfo());
             responseEntity = new ResponseEntity(res, HttpStatus.OK);
         }
 		else if (fieldInfo.isOneToMany()) {
-			Pageable pageable = PageableUtil.buildPageable(page, size, sort);
+			Pageable pageable = PageableUtil.buildPageable(page, size, sort, this.getQueryGuardrails(relationship.getRelatedModelInfo()));
 			ParamsAwarePageImpl resultsPage = this.findRelatedPaginated(id, pageable, fieldInfo);
 			responseEntity = new ResponseEntity(resultsPage, HttpStatus.OK);
 
@@ -273,6 +397,101 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 		return responseEntity;
 	}
 
+	// Hierarchy
+	// ========================
+
+	@RequestMapping(value = "{id}/descendants", method = RequestMethod.GET)
+	@Operation(summary = "Find descendants", description = "Find the descendants of a hierarchical resource matching the given criteria, "
+			+ "optionally limited to a max depth, i.e. 1 for children only. Criteria are the same as in search.",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized"),
+					@ApiResponse(responseCode = "404", description = "Not found")
+			})
+	public ParamsAwarePageImpl<T> findDescendants(
+			@Parameter(name = "id", required = true) @PathVariable PK id,
+			@Parameter(name = PARAM_MAX_DEPTH, description = "The max number of levels to include, all if missing")
+			@RequestParam(value = PARAM_MAX_DEPTH, required = false) Integer maxDepth,
+			@Parameter(name = SpecificationsBuilder.PARAM_FILTER, description = "The RSQL/FIQL query to use. Simply URL param based search will be used if missing.")
+			@RequestParam(value = SpecificationsBuilder.PARAM_FILTER, required = false) String filter,
+			@Parameter(name = SpecificationsBuilder.PARAM_PAGE_NUMBER, description = "The page number")
+			@RequestParam(value = SpecificationsBuilder.PARAM_PAGE_NUMBER, required = false, defaultValue = "0") Integer page,
+			@Parameter(name = SpecificationsBuilder.PARAM_PAGE_SIZE, description = "The page size")
+			@RequestParam(value = SpecificationsBuilder.PARAM_PAGE_SIZE, required = false, defaultValue = "10") Integer size,
+			@Parameter(name = SpecificationsBuilder.PARAM_SORT, description = "Comma separated list of attribute names, descending for each one prefixed with a dash, ascending otherwise")
+			@RequestParam(value = SpecificationsBuilder.PARAM_SORT, required = false, defaultValue = "path") String sort) {
+		this.assertHierarchical();
+		if (maxDepth != null && maxDepth < 1) {
+			throw new BadRequestException("Max depth must be positive: " + maxDepth);
+		}
+		Pageable pageable = PageableUtil.buildPageable(page, size, sort, this.getQueryGuardrails());
+		// exclude hierarchy params from criteria
+		Map<String, String[]> params = new HashMap<>(request.getParameterMap());
+		params.remove(PARAM_MAX_DEPTH);
+		Page<T> results = this.service.findDescendants(id, maxDepth, this.buildSpecification(params, null), pageable);
+		return new ParamsAwarePageImpl<T>(params, results.getContent(), pageable, results.getTotalElements());
+	}
+
+	@RequestMapping(value = "{id}/ancestors", method = RequestMethod.GET)
+	@Operation(summary = "Find ancestors", description = "Find the ancestors of a hierarchical resource, starting from the root",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized"),
+					@ApiResponse(responseCode = "404", description = "Not found")
+			})
+	public List<T> findAncestors(@Parameter(name = "id", required = true) @PathVariable PK id) {
+		this.assertHierarchical();
+		return this.service.findAncestors(id);
+	}
+
+	protected void assertHierarchical() {
+		if (!AbstractPersistableHierarchicalModel.class.isAssignableFrom(this.modelType)) {
+			throw new BadRequestException("Not a hierarchical type: " + this.modelType.getSimpleName());
+		}
+	}
+
+	/**
+	 * Serve a preview of an uploaded file, rendered on first request. Responses carry
+	 * a strong ETag and public caching headers to allow CDN caching.
+	 */
+	@RequestMapping(value = "{id}/files/{propertyName}", method = RequestMethod.GET)
+	@Operation(summary = "Get file preview", description = "Get a preview rendition of the file stored for the given property. "
+			+ "The requested width and height must match a preview configured for the property.",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "304", description = "Not modified"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized"),
+					@ApiResponse(responseCode = "404", description = "Not found")
+			})
+	public ResponseEntity<Resource> getFileRendition(
+			@Parameter(name = "id", required = true) @PathVariable PK id,
+			@Parameter(name = "propertyName", required = true) @PathVariable String propertyName,
+			@Parameter(name = "w", required = true, description = "The preview width")
+			@RequestParam(value = "w") Integer width,
+			@Parameter(name = "h", required = true, description = "The preview height")
+			@RequestParam(value = "h") Integer height,
+			@Parameter(hidden = true) WebRequest webRequest) throws IOException {
+		// The rendition stays on disk until its stream is closed
+		Resource rendition = this.service.getFileRendition(id, propertyName, width, height);
+		long lastModified = rendition.lastModified();
+		String eTag = FileRenditionService.getETag(rendition.getFilename(), lastModified);
+		if (webRequest.checkNotModified(eTag, lastModified)) {
+			rendition.getInputStream().close();
+			return null;
+		}
+		// The stream is closed by the message converter once written
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(FileRenditionService.RENDITION_CONTENT_TYPE))
+				.contentLength(rendition.contentLength())
+				.cacheControl(CacheControl.maxAge(this.scrudBeansProperties.getFiles().getRenditionMaxAge(), TimeUnit.SECONDS).cachePublic())
+				.eTag(eTag)
+				.lastModified(lastModified)
+				.body(rendition);
+	}
+
 	@RequestMapping(params = "ids", method = RequestMethod.GET)
 	@Operation(summary = "Search by ids", description = "Find the set of resources matching the given identifiers.",
 			responses = {
@@ -300,14 +519,130 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 		super.delete(id);
 	}
 
+	@RequestMapping(method = RequestMethod.DELETE, params = SpecificationsBuilder.PARAM_FILTER)
+	@Operation(summary = "Delete matching resources", description = "Delete all resources matching the given RSQL/FIQL filter "
+			+ "using set-based statements, applying cascades. The number of deleted resources is returned in the "
+			+ HEADER_DELETED_COUNT + " header.",
+			responses = {
+					@ApiResponse(responseCode = "204", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized")
+			})
+	public ResponseEntity<Void> deleteMatching(
+			@Parameter(name = SpecificationsBuilder.PARAM_FILTER, required = true, description = "The RSQL/FIQL query to use")
+			@RequestParam(value = SpecificationsBuilder.PARAM_FILTER) String filter) {
+		if (StringUtils.isBlank(filter)) {
+			throw new BadRequestException("A non-empty filter is required");
+		}
+		int count = this.service.deleteAll(this.buildSpecification(request.getParameterMap(), null), true);
+		return ResponseEntity.noContent().header(HEADER_DELETED_COUNT, String.valueOf(count)).build();
+	}
+
+	// Changes feed
+	// ========================
+
+	@RequestMapping(value = "changes", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+	@Operation(summary = "Get changes", description = "Get the resources created, updated or deleted after the position given by "
+			+ "the since token, in order of modification. Use the next token of the response as the since parameter "
+			+ "of the following request to fetch subsequent changes only.",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized")
+			})
+	public ChangesFeedPage<T> findChanges(
+			@Parameter(name = PARAM_SINCE, description = "The token to continue from, all changes are returned if missing")
+			@RequestParam(value = PARAM_SINCE, required = false) String since,
+			@Parameter(name = SpecificationsBuilder.PARAM_PAGE_SIZE, description = "The max number of changes")
+			@RequestParam(value = SpecificationsBuilder.PARAM_PAGE_SIZE, required = false, defaultValue = "100") Integer size) {
+		return this.findChangesPage(since, size);
+	}
+
+	@RequestMapping(value = "changes", method = RequestMethod.GET, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	@Operation(summary = "Stream changes", description = "Stream the changes after the position given by the since token or "
+			+ "Last-Event-ID header as server-sent events, then end the stream with a reconnection delay. "
+			+ "Streams end when no more changes are available or the configured duration or event count is reached. "
+			+ "Each event ID is the token of the change.",
+			responses = {
+					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "400", description = "Invalid"),
+					@ApiResponse(responseCode = "401", description = "Unauthorized")
+			})
+	public ResponseEntity<StreamingResponseBody> streamChanges(
+			@Parameter(name = PARAM_SINCE, description = "The token to continue from, the Last-Event-ID header is used if missing")
+			@RequestParam(value = PARAM_SINCE, required = false) String since,
+			@Parameter(name = SpecificationsBuilder.PARAM_PAGE_SIZE, description = "The number of changes to load per query")
+			@RequestParam(value = SpecificationsBuilder.PARAM_PAGE_SIZE, required = false, defaultValue = "100") Integer size) {
+		String start = StringUtils.isNotBlank(since) ? since : this.request.getHeader(HEADER_LAST_EVENT_ID);
+		// Validate eagerly, i.e. before the response is committed
+		ChangesFeedPage<T> first = this.findChangesPage(start, size);
+		ObjectWriter writer = this.getObjectMapper().writer();
+		ScrudBeansProperties.Changes settings = this.scrudBeansProperties.getChanges();
+		long retry = settings.getRetry();
+		long deadline = System.currentTimeMillis() + settings.getStreamMaxDuration();
+		int maxEvents = settings.getStreamMaxEvents();
+		StreamingResponseBody body = out -> {
+			Writer sse = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			ChangesFeedPage<T> current = first;
+			int count = 0;
+			while (true) {
+				for (ChangesFeedPage.Change<T> change : current.getChanges()) {
+					if (count == maxEvents) {
+						break;
+					}
+					sse.write("id: ");
+					sse.write(change.getToken());
+					sse.write("\nevent: change\ndata: ");
+					sse.write(writer.writeValueAsString(change));
+					sse.write("\n\n");
+					count++;
+				}
+				sse.flush();
+				// Bound the response, clients reconnect with the last event ID
+				if (!current.isHasMore() || count >= maxEvents || System.currentTimeMillis() >= deadline) {
+					break;
+				}
+				current = this.findChangesPage(current.getNext(), Math.min(size, maxEvents - count));
+			}
+			sse.write("retry: " + retry + "\n\n");
+			sse.flush();
+		};
+		return ResponseEntity.ok()
+				.contentType(MediaType.TEXT_EVENT_STREAM)
+				.cacheControl(CacheControl.noCache())
+				.body(body);
+	}
+
+	/**
+	 * Get the changes after the position of the given token
+	 *
+	 * @param since the token of the last known change, null to start from the beginning
+	 * @param size  the max number of changes
+	 * @return the changes page
+	 * @see PersistableModelService#findChanges(String, int)
+	 */
+	protected ChangesFeedPage<T> findChangesPage(String since, int size) {
+		this.getQueryGuardrails().checkPageSize(size);
+		return this.service.findChanges(since, size);
+	}
+
 	@RequestMapping(value = "jsonschema", method = RequestMethod.GET)
 	@Operation(summary = "Get JSON Schema", description = "Get the JSON Schema for the controller entity type",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "304", description = "Not modified"),
 					@ApiResponse(responseCode = "400", description = "Invalid"),
 					@ApiResponse(responseCode = "401", description = "Unauthorized"),
 					@ApiResponse(responseCode = "404", description = "Not found")
 			})
+	public ResponseEntity<byte[]> getJsonSchemaResponse() throws JsonProcessingException {
+		return this.toSchemaResponse(this.getCachedJsonSchema());
+	}
+
+	/**
+	 * Get the JSON Schema served by {@link #getJsonSchemaResponse()}, override to customize
+	 */
+	@Override
 	public RawJson getJsonSchema() throws JsonProcessingException {
 		return super.getJsonSchema();
 	}
@@ -316,11 +651,21 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 	@Operation(summary = "Get UI schema", description = "Get the UI achema for the controller entity type, including fields, use-cases etc.",
 			responses = {
 					@ApiResponse(responseCode = "200", description = "OK"),
+					@ApiResponse(responseCode = "304", description = "Not modified"),
 					@ApiResponse(responseCode = "400", description = "Invalid"),
 					@ApiResponse(responseCode = "401", description = "Unauthorized"),
 					@ApiResponse(responseCode = "404", description = "Not found")
 			})
 	@Deprecated
+	public ResponseEntity<byte[]> getUiSchemaResponse() throws JsonProcessingException {
+		return this.toSchemaResponse(this.getCachedUiSchema());
+	}
+
+	/**
+	 * Get the UI schema served by {@link #getUiSchemaResponse()}, override to customize
+	 */
+	@Override
+	@Deprecated
 	public UiSchema getUiSchema() {
 		return super.getUiSchema();
 	}
@@ -350,15 +695,17 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
      */
     protected <M> ParamsAwarePageImpl<M> findRelatedPaginated(PK id, Pageable pageable, FieldInfo fieldInfo) {
         ParamsAwarePageImpl<M> page = null;
-        Optional<String> reverseFieldName = fieldInfo.getReverseFieldName();
+        RelationshipEdge relationship = this.getRelationship(fieldInfo.getFieldName());
+        Optional<String> reverseFieldName = relationship != null ? relationship.getReverseFieldName() : Optional.empty();
         if (reverseFieldName.isPresent()) {
             Map<String, String[]> params = request.getParameterMap();
             Map<String, String[]> implicitCriteria = new HashMap<>();
             implicitCriteria.put(reverseFieldName.get(), new String[]{id.toString()});
 
-            ModelInfo relatedModelInfo = fieldInfo.getRelatedModelInfo();
+            ModelInfo relatedModelInfo = relationship.getRelatedModelInfo();
             // optionally create a query specification
-            Specification<M> spec = RsqlUtils.buildSpecification(relatedModelInfo, this.service.getConversionService(), params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+            Specification<M> spec = RsqlUtils.buildSpecification(relatedModelInfo, this.service.getConversionService(), params, implicitCriteria,
+					SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA, this.getQueryGuardrails(relatedModelInfo));
 			// get the page of related children
 			Page<M> tmp = this.service.findRelatedPaginated(relatedModelInfo.getModelType(), spec, pageable);
 			page = new ParamsAwarePageImpl<M>(params, tmp.getContent(), pageable, tmp.getTotalElements());
@@ -372,22 +719,37 @@ public class AbstractPersistableModelController<T, PK extends Serializable, S ex
 	protected ParamsAwarePageImpl<T> findPaginated(Pageable pageable, Map<String, String[]> implicitCriteria) {
 		// Get URL query string parameters
 		Map<String, String[]> params = request.getParameterMap();
+		Specification<T> spec = this.buildSpecification(params, implicitCriteria);
+		Page<T> page = this.service.findPaginated(spec, pageable);
+		// Return a page with the appropriate meta
+		return new ParamsAwarePageImpl<T>(params, page.getContent(), pageable, page.getTotalElements());
+	}
+
+	/**
+	 * Find a page of sparse fieldset projections, selecting only the given fields VS loading entities
+	 */
+	protected ParamsAwarePageImpl<Map<String, Object>> findProjectedPaginated(Pageable pageable, Map<String, String[]> implicitCriteria, Set<String> fieldNames) {
+		Map<String, String[]> params = request.getParameterMap();
+		Specification<T> spec = this.buildSpecification(params, implicitCriteria);
+		Page<Map<String, Object>> page = this.service.findProjectedPaginated(spec, pageable, fieldNames);
+		return new ParamsAwarePageImpl<Map<String, Object>>(params, page.getContent(), pageable, page.getTotalElements());
+	}
 
+	protected Specification<T> buildSpecification(Map<String, String[]> params, Map<String, String[]> implicitCriteria) {
 		// Create a JPA query specifications
 		Specification<T> spec;
 		// Construct the specification manually if no RSQL "filter" param is present
 		if (Objects.isNull(params.get("filter"))) {
-			spec = this.specificationsBuilder.build(params);
+			this.getQueryGuardrails().checkFilterParams(params, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+			spec = this.getSpecificationsBuilder().build(params);
 		}
 		// else use the RSQL-based specification builder
 		else {
 			spec = RsqlUtils.buildSpecification(
 					this.getModelInfo(),
 					this.service.getConversionService(),
-					params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA);
+					params, implicitCriteria, SpecificationsBuilder.PARAMS_IGNORE_FOR_CRITERIA, this.getQueryGuardrails());
 		}
-		Page<T> page = this.service.findPaginated(spec, pageable);
-		// Return a page with the appropriate meta
-		return new ParamsAwarePageImpl<T>(params, page.getContent(), pageable, page.getTotalElements());
+		return spec;
 	}
 }
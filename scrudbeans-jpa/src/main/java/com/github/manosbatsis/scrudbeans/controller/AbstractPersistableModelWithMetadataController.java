@@ -21,6 +21,8 @@
 package com.github.manosbatsis.scrudbeans.controller;
 
 
+import com.github.manosbatsis.scrudbeans.api.domain.MetadatumModel;
+import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.metadata.MetadatumDTO;
 import com.github.manosbatsis.scrudbeans.service.PersistableModelService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,6 +34,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 import java.io.Serializable;
+import java.util.Map;
 
 public abstract class AbstractPersistableModelWithMetadataController<T, PK extends Serializable, S extends PersistableModelService<T, PK>>
         extends AbstractPersistableModelController<T, PK, S> {
@@ -46,6 +49,26 @@ public abstract class AbstractPersistableModelWithMetadataController<T, PK exten
         service.addMetadatum(subjectId, dto);
 	}
 
+	@RequestMapping(value = "{subjectId}/metadata", method = RequestMethod.GET)
+	@Operation(summary = "Get metadata", description = "Get the resource metadata as predicate/object pairs")
+	public Map<String, String> getMetadata(@PathVariable PK subjectId) {
+		return service.getMetadata(subjectId);
+	}
+
+	@RequestMapping(value = "{subjectId}/metadata/{predicate}", method = RequestMethod.GET)
+	@Operation(summary = "Get metadatum", description = "Get a resource metadatum by predicate")
+	public MetadatumDTO findMetadatum(@PathVariable PK subjectId,
+			@PathVariable String predicate) {
+		MetadatumModel metadatum = service.findMetadatum(subjectId, predicate);
+		if (metadatum == null) {
+			throw new NotFoundException("Metadatum not found: " + predicate);
+		}
+		MetadatumDTO dto = new MetadatumDTO();
+		dto.setPredicate(metadatum.getPredicate());
+		dto.setObject(metadatum.getObject());
+		return dto;
+	}
+
 	@RequestMapping(value = "{subjectId}/metadata/{predicate}", method = RequestMethod.DELETE)
 	@Operation(summary = "Remove metadatum", description = "Remove a resource metadatum if it exists")
 	public void removeMetadatum(@PathVariable PK subjectId,
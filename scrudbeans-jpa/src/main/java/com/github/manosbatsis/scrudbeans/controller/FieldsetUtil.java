@@ -0,0 +1,80 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.controller;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.specification.SpecificationsBuilder;
+import lombok.NonNull;
+import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Resolves sparse fieldsets requested via a JSON API <code>fields[type]</code>
+ * or a plain <code>_fields</code> parameter
+ *
+ * @see <a href="http://jsonapi.org/format/upcoming/#fetching-sparse-fieldsets">JSON API 1.x, Sparse Fieldsets</a>
+ */
+public class FieldsetUtil {
+
+	/**
+	 * Get the fields requested for the given model type, if any. The JSON API parameter
+	 * takes precedence. The identifier is always included.
+	 *
+	 * @param params    the HTTP URL parameters
+	 * @param modelInfo the model metadata
+	 * @return the requested field names in request order, or null if no fieldset was requested
+	 * @throws BadRequestException if a requested field is not a simple field of the model
+	 */
+	public static Set<String> getRequestedFields(@NonNull Map<String, String[]> params, @NonNull ModelInfo<?, ?> modelInfo) {
+		String[] values = params.get(SpecificationsBuilder.PARAM_JSONAPI_FIELDS_PREFIX + modelInfo.getUriComponent() + "]");
+		if (ArrayUtils.isEmpty(values)) {
+			values = params.get(SpecificationsBuilder.PARAM_FIELDS);
+		}
+		Set<String> fields = null;
+		if (ArrayUtils.isNotEmpty(values)) {
+			fields = new LinkedHashSet<>();
+			FieldInfo idField = modelInfo.getIdField();
+			if (idField != null) {
+				fields.add(idField.getFieldName());
+			}
+			Set<String> allowed = modelInfo.getSimpleFieldNames();
+			for (String value : values) {
+				for (String fieldName : StringUtils.split(value, ',')) {
+					fieldName = fieldName.trim();
+					if (fieldName.isEmpty() || fields.contains(fieldName)) {
+						continue;
+					}
+					if (!allowed.contains(fieldName)) {
+						throw new BadRequestException("Invalid field name: " + fieldName);
+					}
+					fields.add(fieldName);
+				}
+			}
+		}
+		return fields;
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.controller;
+
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.util.Mimes;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support.JsonApiModelDocumentWriter;
+import com.github.manosbatsis.scrudbeans.hypermedia.jsonapi.support.StreamingModelResourceDocument;
+import com.github.manosbatsis.scrudbeans.hypermedia.util.HypermediaUtils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Writes model controller responses as JSON API documents when the client accepts
+ * <code>application/vnd.api+json</code>, using a {@link JsonApiModelDocumentWriter}.
+ * Responses other than models, collections or pages of the controller's model type,
+ * i.e. projections or errors, are written as-is.
+ */
+@ControllerAdvice
+public class JsonApiResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+	public static final MediaType APPLICATION_VND_API_PLUS_JSON = MediaType.valueOf(Mimes.APPLICATION_VND_API_PLUS_JSON_VALUE);
+
+	private ModelInfoRegistry modelInfoRegistry;
+
+	private JsonApiModelDocumentWriter writer;
+
+	@Autowired
+	public void setModelInfoRegistry(ModelInfoRegistry modelInfoRegistry) {
+		this.modelInfoRegistry = modelInfoRegistry;
+	}
+
+	@Autowired
+	public void setObjectMapper(ObjectMapper objectMapper) {
+		this.writer = new JsonApiModelDocumentWriter(objectMapper);
+	}
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType)
+				&& this.modelInfoRegistry.getHandlerModelType(returnType.getContainingClass()) != null;
+	}
+
+	@Override
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+		if (body == null || body instanceof JsonSerializable || !APPLICATION_VND_API_PLUS_JSON.includes(selectedContentType)) {
+			return body;
+		}
+		Class<?> modelType = this.modelInfoRegistry.getHandlerModelType(returnType.getContainingClass());
+		ModelInfo modelInfo = this.modelInfoRegistry.getEntryFor(modelType);
+		if (modelInfo == null) {
+			return body;
+		}
+		StreamingModelResourceDocument document = HypermediaUtils.toStreamingDocument(this.writer, modelInfo);
+		if (body instanceof Page) {
+			return containsOnly((Page) body, modelType) ? document.withData((Page) body) : body;
+		}
+		else if (body instanceof Iterable) {
+			return containsOnly((Iterable) body, modelType) ? document.withData((Iterable) body) : body;
+		}
+		else if (modelType.isInstance(body)) {
+			return document.withData(body);
+		}
+		return body;
+	}
+
+	private static boolean containsOnly(Iterable<?> models, Class<?> modelType) {
+		for (Object model : models) {
+			if (!modelType.isInstance(model)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
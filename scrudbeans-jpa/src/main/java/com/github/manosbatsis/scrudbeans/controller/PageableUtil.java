@@ -22,7 +22,11 @@ package com.github.manosbatsis.scrudbeans.controller;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.specification.QueryGuardrails;
+import lombok.NonNull;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
@@ -44,6 +48,16 @@ public class PageableUtil {
 		return pageable;
 	}
 
+	/**
+	 * Build a pageable, ensuring page size and sort are within the given limits
+	 * @throws com.github.manosbatsis.scrudbeans.api.exception.BadRequestException if a limit is violated
+	 */
+	public static Pageable buildPageable(Integer page, Integer size, String sort, @NonNull QueryGuardrails guardrails) {
+		Assert.isTrue(page >= 0, "Page index must be greater than, or equal to, 0");
+		guardrails.checkPageSize(size);
+		return PageRequest.of(page, size, PageableUtil.buildSort(sort, guardrails.getSortableFields()));
+	}
+
 	/**
 	 * Handles a <code>sort</code> parameter value as defined in JSON API
 	 * @param sort
@@ -71,6 +85,26 @@ public class PageableUtil {
 		return pageableSort;
 	}
 
+	/**
+	 * Handles a <code>sort</code> parameter value as defined in JSON API, ensuring
+	 * only the given attributes are used
+	 * @param sort the sort parameter value
+	 * @param sortableFields the allowed attributes, null for any
+	 * @return the sort
+	 * @throws BadRequestException if a disallowed attribute is used
+	 */
+	public static Sort buildSort(String sort, Set<String> sortableFields) {
+		Sort pageableSort = buildSort(sort);
+		if (pageableSort != null && sortableFields != null) {
+			for (Order order : pageableSort) {
+				if (!QueryGuardrails.isAllowed(sortableFields, order.getProperty())) {
+					throw new BadRequestException("Sorting by " + order.getProperty() + " is not allowed");
+				}
+			}
+		}
+		return pageableSort;
+	}
+
 	public static Sort buildSort(String sort, String direction) {
 		Sort pageableSort = null;
 		if (sort != null && direction != null) {
@@ -0,0 +1,222 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.datasource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes connections to the primary or a read replica. Read-only transactions use a replica; outside
+ * a transaction, so do threads marked via {@link ReplicaRoutingContext#setPreferReplica(boolean)}. Read-write
+ * transactions always use the primary, as do reads of a client that wrote within the configured stickiness window. Replicas are checked periodically and
+ * skipped while unreachable or lagging behind more than allowed; reads fall back to the primary
+ * if no replica is available.
+ *
+ * Use {@link #lazy(DataSource, List, ScrudBeansProperties.Replicas)} to obtain an instance wrapped in a
+ * {@link LazyConnectionDataSourceProxy}, so that routing happens after the transaction read-only flag is set.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+	public static final String KEY_PRIMARY = "primary";
+
+	public static final String KEY_REPLICA_PREFIX = "replica-";
+
+	private final DataSource primary;
+
+	private final List<DataSource> replicas;
+
+	private final ScrudBeansProperties.Replicas config;
+
+	/** Availability per replica, replaced by each periodic check */
+	private volatile boolean[] available;
+
+	private final AtomicInteger counter = new AtomicInteger();
+
+	private final ScheduledExecutorService scheduler;
+
+	public ReadWriteRoutingDataSource(@NonNull DataSource primary, @NonNull List<DataSource> replicas, @NonNull ScrudBeansProperties.Replicas config) {
+		this.primary = primary;
+		this.replicas = replicas;
+		this.config = config;
+		boolean[] available = new boolean[replicas.size()];
+		Map<Object, Object> targets = new HashMap<>();
+		targets.put(KEY_PRIMARY, primary);
+		for (int i = 0; i < replicas.size(); i++) {
+			targets.put(KEY_REPLICA_PREFIX + i, replicas.get(i));
+			available[i] = true;
+		}
+		this.available = available;
+		this.setTargetDataSources(targets);
+		this.setDefaultTargetDataSource(primary);
+		this.afterPropertiesSet();
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scrudbeans-replica-check");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::checkReplicas, 0, config.getCheckInterval(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Create a routing data source wrapped in a {@link LazyConnectionDataSourceProxy}
+	 */
+	public static LazyRoutingDataSource lazy(@NonNull DataSource primary, @NonNull List<DataSource> replicas, @NonNull ScrudBeansProperties.Replicas config) {
+		return new LazyRoutingDataSource(new ReadWriteRoutingDataSource(primary, replicas, config));
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		// the hint only applies outside transactions, which may write regardless of the request method
+		boolean read = TransactionSynchronizationManager.isActualTransactionActive()
+				? TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+				: ReplicaRoutingContext.isPreferReplica();
+		if (!read || ReplicaRoutingContext.isRecentWrite(this.config.getStickiness())) {
+			return KEY_PRIMARY;
+		}
+		// Round-robin over available replicas
+		boolean[] available = this.available;
+		int size = available.length;
+		int start = Math.floorMod(this.counter.getAndIncrement(), Math.max(size, 1));
+		for (int i = 0; i < size; i++) {
+			int index = (start + i) % size;
+			if (available[index]) {
+				return KEY_REPLICA_PREFIX + index;
+			}
+		}
+		LOGGER.debug("No replica available, falling back to primary");
+		return KEY_PRIMARY;
+	}
+
+	/**
+	 * Update the availability of each replica based on connectivity and lag
+	 */
+	protected void checkReplicas() {
+		boolean[] available = new boolean[this.replicas.size()];
+		for (int i = 0; i < this.replicas.size(); i++) {
+			boolean ok;
+			try (Connection connection = this.replicas.get(i).getConnection()) {
+				long lag = this.getLag(connection);
+				ok = lag <= this.config.getMaxLag();
+				if (!ok) {
+					LOGGER.warn("Skipping replica {}, lag: {}ms", i, lag);
+				}
+			}
+			catch (Exception e) {
+				LOGGER.warn("Skipping unavailable replica {}: {}", i, e.getMessage());
+				ok = false;
+			}
+			available[i] = ok;
+		}
+		this.available = available;
+	}
+
+	/**
+	 * Get the replica lag in milliseconds using the configured lag query, if any
+	 */
+	protected long getLag(Connection connection) throws Exception {
+		long lag = 0;
+		if (StringUtils.isNotBlank(this.config.getLagQuery())) {
+			try (Statement statement = connection.createStatement();
+				 ResultSet resultSet = statement.executeQuery(this.config.getLagQuery())) {
+				if (resultSet.next()) {
+					lag = Math.round(resultSet.getDouble(1) * 1000);
+				}
+			}
+		}
+		else if (!connection.isValid((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(this.config.getCheckInterval())))) {
+			lag = Long.MAX_VALUE;
+		}
+		return lag;
+	}
+
+	@Override
+	public void close() {
+		this.scheduler.shutdownNow();
+		closeQuietly(this.primary);
+		for (DataSource replica : this.replicas) {
+			closeQuietly(replica);
+		}
+	}
+
+	private static void closeQuietly(DataSource dataSource) {
+		if (dataSource instanceof AutoCloseable) {
+			try {
+				((AutoCloseable) dataSource).close();
+			}
+			catch (Exception e) {
+				LOGGER.warn("Failed closing data source: {}", e.getMessage());
+			}
+		}
+	}
+
+	public DataSource getPrimary() {
+		return this.primary;
+	}
+
+	public List<DataSource> getReplicas() {
+		return this.replicas;
+	}
+
+	/**
+	 * A {@link LazyConnectionDataSourceProxy} over a {@link ReadWriteRoutingDataSource} that closes the latter
+	 */
+	public static class LazyRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+		private final ReadWriteRoutingDataSource router;
+
+		public LazyRoutingDataSource(@NonNull ReadWriteRoutingDataSource router) {
+			super(router);
+			this.router = router;
+		}
+
+		public ReadWriteRoutingDataSource getRouter() {
+			return this.router;
+		}
+
+		@Override
+		public void close() {
+			this.router.close();
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Holds the routing state used by {@link ReadWriteRoutingDataSource}, i.e. whether the current thread
+ * prefers replicas and when the current client last wrote to the primary. The last write is kept
+ * as a request attribute when available, in the current thread otherwise. Across requests, it is
+ * carried by a client cookie, see {@link ReplicaRoutingInterceptor}.
+ */
+public class ReplicaRoutingContext {
+
+	public static final String ATTR_LAST_WRITE = ReplicaRoutingContext.class.getName() + ".lastWrite";
+
+	private static final ThreadLocal<Boolean> PREFER_REPLICA = new ThreadLocal<>();
+
+	private static final ThreadLocal<Long> LAST_WRITE = new ThreadLocal<>();
+
+	private ReplicaRoutingContext() {
+	}
+
+	/**
+	 * Prefer replicas for the current thread when outside a transaction, e.g. for a GET request
+	 */
+	public static void setPreferReplica(boolean preferReplica) {
+		if (preferReplica) {
+			PREFER_REPLICA.set(Boolean.TRUE);
+		}
+		else {
+			PREFER_REPLICA.remove();
+		}
+	}
+
+	public static boolean isPreferReplica() {
+		return PREFER_REPLICA.get() != null;
+	}
+
+	/**
+	 * Record a write, so that subsequent reads stick to the primary for a while
+	 */
+	public static void markWrite() {
+		setLastWrite(System.currentTimeMillis());
+	}
+
+	/**
+	 * Set the time of the last write in milliseconds, e.g. as reported by the client
+	 */
+	public static void setLastWrite(long lastWrite) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(ATTR_LAST_WRITE, lastWrite, RequestAttributes.SCOPE_REQUEST);
+		}
+		else {
+			LAST_WRITE.set(lastWrite);
+		}
+	}
+
+	/**
+	 * Get the time of the last write in milliseconds, null if unknown
+	 */
+	public static Long getLastWrite() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes != null
+				? (Long) attributes.getAttribute(ATTR_LAST_WRITE, RequestAttributes.SCOPE_REQUEST)
+				: LAST_WRITE.get();
+	}
+
+	/**
+	 * Check whether the current client wrote within the given time window
+	 *
+	 * @param window the time window in milliseconds
+	 */
+	public static boolean isRecentWrite(long window) {
+		Long lastWrite = getLastWrite();
+		return lastWrite != null && System.currentTimeMillis() - lastWrite < window;
+	}
+
+	/**
+	 * Clear the state of the current thread
+	 */
+	public static void clear() {
+		PREFER_REPLICA.remove();
+		LAST_WRITE.remove();
+	}
+}
@@ -0,0 +1,122 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.datasource;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntitiesDeletedEvent;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntityEvent;
+import com.github.manosbatsis.scrudbeans.controller.AbstractModelServiceBackedController;
+import org.apache.commons.lang3.math.NumberUtils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Marks GET/HEAD requests handled by model controllers as preferring replicas and
+ * records entity writes, so that subsequent reads of the same client stick to the primary.
+ * The time of the last write is sent to clients as a cookie expiring with the stickiness
+ * window, keeping the server stateless.
+ *
+ * @see ReadWriteRoutingDataSource
+ */
+public class ReplicaRoutingInterceptor implements HandlerInterceptor {
+
+	public static final String COOKIE_LAST_WRITE = "scrudbeans-last-write";
+
+	private static final String ATTR_COOKIE_SENT = ReplicaRoutingInterceptor.class.getName() + ".cookieSent";
+
+	private ScrudBeansProperties scrudBeansProperties;
+
+	@Autowired
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Cookie cookie = WebUtils.getCookie(request, COOKIE_LAST_WRITE);
+		if (cookie != null) {
+			long lastWrite = NumberUtils.toLong(cookie.getValue(), 0);
+			// ignore times in the future, they would pin the client to the primary
+			if (lastWrite > 0 && lastWrite <= System.currentTimeMillis()) {
+				ReplicaRoutingContext.setLastWrite(lastWrite);
+			}
+		}
+		if (handler instanceof HandlerMethod
+				&& AbstractModelServiceBackedController.class.isAssignableFrom(((HandlerMethod) handler).getBeanType())
+				&& (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+			ReplicaRoutingContext.setPreferReplica(true);
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		ReplicaRoutingContext.clear();
+	}
+
+	/**
+	 * Record committed entity writes
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntityEvent(EntityEvent<?> event) {
+		this.markWrite();
+	}
+
+	/**
+	 * Record committed bulk deletions
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntitiesDeleted(EntitiesDeletedEvent<?> event) {
+		this.markWrite();
+	}
+
+	/**
+	 * Record a write and, within a request, send its time to the client once
+	 */
+	protected void markWrite() {
+		ReplicaRoutingContext.markWrite();
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes instanceof ServletRequestAttributes
+				&& attributes.getAttribute(ATTR_COOKIE_SENT, RequestAttributes.SCOPE_REQUEST) == null) {
+			HttpServletResponse response = ((ServletRequestAttributes) attributes).getResponse();
+			if (response != null && !response.isCommitted()) {
+				Cookie cookie = new Cookie(COOKIE_LAST_WRITE, String.valueOf(ReplicaRoutingContext.getLastWrite()));
+				cookie.setPath("/");
+				cookie.setHttpOnly(true);
+				cookie.setMaxAge((int) Math.max(1, (this.scrudBeansProperties.getReplicas().getStickiness() + 999) / 1000));
+				response.addCookie(cookie);
+				attributes.setAttribute(ATTR_COOKIE_SENT, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+			}
+		}
+	}
+}
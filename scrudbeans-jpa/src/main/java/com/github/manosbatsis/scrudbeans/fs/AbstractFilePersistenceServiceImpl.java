@@ -29,8 +29,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 
 import javax.imageio.ImageIO;
@@ -40,9 +38,6 @@ import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistenc
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistencePreview;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistencePreviews;
 import com.github.manosbatsis.scrudbeans.api.mdd.service.FilePersistenceService;
-import com.github.manosbatsis.scrudbeans.fs.converter.ImageConverterRegistry;
-import com.github.manosbatsis.scrudbeans.fs.converter.ToImageConverter;
-import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.io.IOUtils;
 import org.imgscalr.Scalr;
 import org.slf4j.Logger;
@@ -138,46 +133,18 @@ public abstract class AbstractFilePersistenceServiceImpl implements FilePersiste
 			FilePersistence config = fileField.getAnnotation(FilePersistence.class);
 			// Ensure accepted content type
 			FilePersistenceService.validateContentType(file.getContentType(), config);
-			// Get intented previews
-			Map<String, FilePersistencePreview> previews = getPreviews(fileField);
-			// Base for previews
-			BufferedImage img = null;
-			// Is it an image?
-			if (FilePersistenceService.isImage(file.getContentType())) {
+			// Is it an image that needs scaling?
+			// Note: previews are no longer generated here but rendered lazily,
+			// see FileRenditionService
+			if (FilePersistenceService.isImage(file.getContentType()) && (config.maxHeight() > 0 || config.maxWidth() > 0)) {
 				in = new FileInputStream(file.getIn());
-				img = ImageIO.read(in);
+				BufferedImage img = ImageIO.read(in);
 				IOUtils.closeQuietly(in);
-				// iNeeds scaling?
-				if (FilePersistenceService.isImage(file.getContentType()) && (config.maxHeight() > 0 || config.maxWidth() > 0)) {
-					url = saveScaledImage(img, file.getContentType(), config.maxWidth(), config.maxHeight(), file.getPath());
-				}
-				else {
-					url = saveImageFile(img, file.getContentLength(), file.getContentType(), file.getPath());
-				}
+				url = saveScaledImage(img, file.getContentType(), config.maxWidth(), config.maxHeight(), file.getPath());
 			}
-			// Other file types
+			// Save the original as-is
 			else {
-				// Converter?
-				ToImageConverter converter = ImageConverterRegistry.converters.get(file.getContentType());
-				if (converter != null) {
-					try {
-						img = converter.toImageFile(file);
-					}
-					catch (Exception e) {
-						LOGGER.error("Failed converting file to image", e);
-					}
-				}
-				// Save actual file
 				url = saveFile(file.getIn(), file.getContentLength(), file.getContentType(), file.getPath());
-
-			}
-
-			// Generate previews?
-			if (img != null && MapUtils.isNotEmpty(previews)) {
-				for (String key : previews.keySet()) {
-					FilePersistencePreview previewConfig = previews.get(key);
-					saveScaledImage(img, "image/png", previewConfig.maxWidth(), previewConfig.maxHeight(), file.getPath() + "_" + key);
-				}
 			}
 
 		}
@@ -235,21 +202,8 @@ public abstract class AbstractFilePersistenceServiceImpl implements FilePersiste
 	 */
 	public void deleteFile(Field fileField, FileDTO file) {
 
-		FilePersistence config = fileField.getAnnotation(FilePersistence.class);
-
-		// delete file
-		List<String> keys = new LinkedList<String>();
-		keys.add(file.getPath());
-
-		// generate previews?
-		Map<String, FilePersistencePreview> previews = getPreviews(fileField);
-		if (FilePersistenceService.isImage(file.getContentType()) && MapUtils.isNotEmpty(previews)) {
-			for (String key : previews.keySet()) {
-				keys.add(file.getPath() + "_" + key);
-			}
-		}
-
-		deleteFiles(keys.toArray(new String[keys.size()]));
+		// delete file, previews are only kept in the rendition cache
+		deleteFiles(file.getPath());
 
 	}
 
@@ -21,7 +21,9 @@
 package com.github.manosbatsis.scrudbeans.fs;
 
 import java.io.File;
+import java.io.InputStream;
 
+import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.api.mdd.service.FilePersistenceService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,4 +67,13 @@ public class DummyFilePersistenceServiceImpl extends AbstractFilePersistenceServ
 		LOGGER.warn("File not deleted, please configure another bean for id FilePersistenceService to delete: " + path);
 	}
 
+	/**
+	 * Non-action implementation, files are never persisted so none can be found
+	 * @see FilePersistenceService#readFile(String)
+	 */
+	@Override
+	public InputStream readFile(String path) {
+		throw new NotFoundException("File not found, please configure another bean for id FilePersistenceService to read: " + path);
+	}
+
 }
@@ -0,0 +1,471 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.fs;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.FileDTO;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistencePreview;
+import com.github.manosbatsis.scrudbeans.api.mdd.service.FilePersistenceService;
+import com.github.manosbatsis.scrudbeans.fs.converter.ImageConverterRegistry;
+import com.github.manosbatsis.scrudbeans.fs.converter.ToImageConverter;
+import com.github.manosbatsis.scrudbeans.util.WorkDirUtils;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.imgscalr.Scalr;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Renders file previews on demand, i.e. on first request VS upload time, for the sizes
+ * declared via {@link FilePersistencePreview}. Renditions are kept in a size-bounded,
+ * least-recently-used disk cache and concurrent requests for the same rendition
+ * share a single render. Renditions being streamed are only deleted from disk once
+ * their stream is closed.
+ */
+public class FileRenditionService implements InitializingBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(FileRenditionService.class);
+
+	public static final String RENDITION_CONTENT_TYPE = FilePersistenceService.IMAGE_PNG;
+
+	private static final String RENDITION_EXTENSION = ".png";
+
+	private ScrudBeansProperties scrudBeansProperties;
+
+	private FilePersistenceService filePersistenceService;
+
+	private String applicationName;
+
+	private File cacheDir;
+
+	private long maxCacheSize;
+
+	/** Cached rendition sizes by key in access order, guarded by this */
+	private final LinkedHashMap<String, Long> renditions = new LinkedHashMap<>(64, 0.75f, true);
+
+	private long cacheSize = 0;
+
+	/** Open stream counts by key, guarded by this */
+	private final Map<String, Integer> pins = new HashMap<>();
+
+	/** Keys removed from the cache while pinned, to delete once released, guarded by this */
+	private final Set<String> pendingDeletes = new HashSet<>();
+
+	/** Renders in progress, used to collapse identical concurrent requests */
+	private final ConcurrentHashMap<String, CompletableFuture<File>> inFlight = new ConcurrentHashMap<>();
+
+	@Autowired
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Autowired
+	@Qualifier(FilePersistenceService.BEAN_ID)
+	public void setFilePersistenceService(FilePersistenceService filePersistenceService) {
+		this.filePersistenceService = filePersistenceService;
+	}
+
+	@Value("${spring.application.name:}")
+	public void setApplicationName(String applicationName) {
+		this.applicationName = applicationName;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		ScrudBeansProperties.Files config = this.scrudBeansProperties.getFiles();
+		this.maxCacheSize = config.getRenditionCacheMaxSize();
+		this.cacheDir = StringUtils.isNotBlank(config.getRenditionCacheDir())
+				? new File(config.getRenditionCacheDir())
+				: WorkDirUtils.getDefaultWorkDir(this.applicationName, "renditions");
+		FileUtils.forceMkdir(this.cacheDir);
+		this.loadCache();
+		LOGGER.debug("Using rendition cache dir: {}, size: {}/{} bytes", this.cacheDir, this.cacheSize, this.maxCacheSize);
+	}
+
+	/**
+	 * Open the preview rendition of the file saved in the given path, rendering it if not already cached.
+	 * The rendition stays on disk until the returned resource's stream is closed.
+	 *
+	 * @param fileField the entity member annotated with {@link FilePersistencePreview}
+	 * @param path      the path the original file was saved to
+	 * @param width     the preview width
+	 * @param height    the preview height
+	 * @return the opened rendition
+	 */
+	public Rendition getRendition(Field fileField, String path, int width, int height) {
+		// Only render declared sizes
+		FilePersistencePreview preview = this.filePersistenceService.getPreviews(fileField).get(width + "x" + height);
+		if (preview == null) {
+			throw new BadRequestException("No preview of size " + width + "x" + height + " is configured for member: " + fileField.getName());
+		}
+		String key = getKey(path, width, height);
+		Rendition rendition = this.open(key);
+		// Render once more if evicted between rendering and opening
+		for (int attempt = 0; rendition == null && attempt < 2; attempt++) {
+			this.getOrRender(key, path, preview);
+			rendition = this.open(key);
+		}
+		if (rendition == null) {
+			throw new IllegalStateException("Rendition was evicted before it could be opened: " + path);
+		}
+		return rendition;
+	}
+
+	protected File getOrRender(String key, String path, FilePersistencePreview preview) {
+		File rendition = this.getCached(key);
+		if (rendition == null) {
+			// Join a render in progress, or start a new one
+			CompletableFuture<File> future = new CompletableFuture<>();
+			CompletableFuture<File> existing = this.inFlight.putIfAbsent(key, future);
+			if (existing != null) {
+				rendition = join(existing);
+			}
+			else {
+				try {
+					// Check again as a render may have completed in the meantime
+					rendition = this.getCached(key);
+					if (rendition == null) {
+						rendition = this.render(key, path, preview);
+					}
+					future.complete(rendition);
+				}
+				catch (RuntimeException e) {
+					future.completeExceptionally(e);
+					throw e;
+				}
+				finally {
+					this.inFlight.remove(key, future);
+				}
+			}
+		}
+		return rendition;
+	}
+
+	/**
+	 * Evict any cached renditions of the file saved in the given path, typically
+	 * after the file is replaced or deleted
+	 *
+	 * @param path the path the original file was saved to
+	 */
+	public synchronized void evict(String path) {
+		String prefix = getKeyPrefix(path);
+		for (Iterator<Map.Entry<String, Long>> it = this.renditions.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<String, Long> entry = it.next();
+			if (entry.getKey().startsWith(prefix)) {
+				this.cacheSize -= entry.getValue();
+				it.remove();
+				this.delete(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Build a strong ETag for the given rendition
+	 */
+	public static String getETag(File rendition) {
+		return getETag(rendition.getName(), rendition.lastModified());
+	}
+
+	/**
+	 * Build a strong ETag for the rendition with the given file name and modification time
+	 */
+	public static String getETag(String filename, long lastModified) {
+		return "\"" + filename.replace(RENDITION_EXTENSION, "") + "-" + lastModified + "\"";
+	}
+
+	/**
+	 * Open the cached rendition for the given key and pin it until its stream is closed
+	 *
+	 * @return the opened rendition or null if not cached
+	 */
+	protected synchronized Rendition open(String key) {
+		File file = this.getCached(key);
+		if (file == null) {
+			return null;
+		}
+		InputStream in;
+		try {
+			in = new FileInputStream(file);
+		}
+		catch (IOException e) {
+			LOGGER.debug("Failed opening rendition: {}", file, e);
+			return null;
+		}
+		this.pins.merge(key, 1, Integer::sum);
+		InputStream pinned = new FilterInputStream(in) {
+
+			private boolean closed = false;
+
+			@Override
+			public void close() throws IOException {
+				try {
+					super.close();
+				}
+				finally {
+					if (!this.closed) {
+						this.closed = true;
+						release(key);
+					}
+				}
+			}
+		};
+		return new Rendition(file, pinned);
+	}
+
+	protected synchronized void release(String key) {
+		Integer count = this.pins.get(key);
+		if (count != null && count > 1) {
+			this.pins.put(key, count - 1);
+		}
+		else {
+			this.pins.remove(key);
+			if (this.pendingDeletes.remove(key) && !this.renditions.containsKey(key)) {
+				FileUtils.deleteQuietly(new File(this.cacheDir, key));
+			}
+		}
+	}
+
+	/**
+	 * Delete the rendition file of a key already removed from the cache, or defer if pinned
+	 */
+	private void delete(String key) {
+		if (this.pins.containsKey(key)) {
+			this.pendingDeletes.add(key);
+		}
+		else {
+			FileUtils.deleteQuietly(new File(this.cacheDir, key));
+		}
+	}
+
+	protected File render(String key, String path, FilePersistencePreview preview) {
+		File original = null;
+		File tmp = null;
+		try {
+			original = this.readOriginal(path);
+			BufferedImage img = this.toImage(original);
+			if (img == null) {
+				throw new BadRequestException("No preview can be rendered for file: " + path);
+			}
+			BufferedImage scaled = Scalr.resize(img,
+					Scalr.Method.QUALITY,
+					preview.preserveRatio() ? Scalr.Mode.AUTOMATIC : Scalr.Mode.FIT_EXACT,
+					preview.maxWidth(),
+					preview.maxHeight(),
+					Scalr.OP_ANTIALIAS);
+			// Write to a temp file first so readers never see partial renditions
+			tmp = File.createTempFile("scrudBeansRendition", ".tmp", this.cacheDir);
+			ImageIO.write(scaled, FilePersistenceService.getImageIoFormat(RENDITION_CONTENT_TYPE), tmp);
+			File rendition = new File(this.cacheDir, key);
+			Files.move(tmp.toPath(), rendition.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			this.putCached(key, rendition);
+			LOGGER.debug("Rendered preview: {}", rendition);
+			return rendition;
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Failed rendering preview for file: " + path, e);
+		}
+		finally {
+			FileUtils.deleteQuietly(original);
+			FileUtils.deleteQuietly(tmp);
+		}
+	}
+
+	protected File readOriginal(String path) throws IOException {
+		File original = File.createTempFile("scrudBeansOriginal", ".tmp");
+		InputStream in = null;
+		try {
+			in = this.filePersistenceService.readFile(path);
+			FileUtils.copyInputStreamToFile(in, original);
+		}
+		finally {
+			IOUtils.closeQuietly(in);
+		}
+		return original;
+	}
+
+	protected BufferedImage toImage(File original) throws IOException {
+		BufferedImage img = ImageIO.read(original);
+		// Try converters for other file types
+		if (img == null) {
+			for (Map.Entry<String, ToImageConverter> entry : ImageConverterRegistry.converters.entrySet()) {
+				try {
+					img = entry.getValue().toImageFile(new FileDTO.Builder()
+							.contentLength(original.length())
+							.contentType(entry.getKey())
+							.in(original)
+							.build());
+				}
+				catch (Exception e) {
+					LOGGER.debug("Failed converting file to image using: {}", entry.getKey());
+				}
+				if (img != null) {
+					break;
+				}
+			}
+		}
+		return img;
+	}
+
+	protected synchronized File getCached(String key) {
+		File rendition = null;
+		Long size = this.renditions.get(key);
+		if (size != null) {
+			rendition = new File(this.cacheDir, key);
+			// Drop entries removed from disk externally
+			if (!rendition.exists()) {
+				this.renditions.remove(key);
+				this.cacheSize -= size;
+				rendition = null;
+			}
+		}
+		return rendition;
+	}
+
+	protected synchronized void putCached(String key, File rendition) {
+		this.pendingDeletes.remove(key);
+		Long previous = this.renditions.put(key, rendition.length());
+		if (previous != null) {
+			this.cacheSize -= previous;
+		}
+		this.cacheSize += rendition.length();
+		// Evict least recently used, keeping at least the new entry
+		for (Iterator<Map.Entry<String, Long>> it = this.renditions.entrySet().iterator();
+			 this.cacheSize > this.maxCacheSize && it.hasNext(); ) {
+			Map.Entry<String, Long> eldest = it.next();
+			if (eldest.getKey().equals(key)) {
+				continue;
+			}
+			this.cacheSize -= eldest.getValue();
+			it.remove();
+			this.delete(eldest.getKey());
+		}
+	}
+
+	/**
+	 * Pick up renditions from previous runs, oldest first
+	 */
+	protected synchronized void loadCache() {
+		File[] files = this.cacheDir.listFiles((dir, name) -> name.endsWith(RENDITION_EXTENSION));
+		if (files != null) {
+			Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+			for (File file : files) {
+				this.putCached(file.getName(), file);
+			}
+		}
+	}
+
+	protected static String getKeyPrefix(String path) {
+		return DigestUtils.md5DigestAsHex(path.getBytes(StandardCharsets.UTF_8)) + "_";
+	}
+
+	protected static String getKey(String path, int width, int height) {
+		return getKeyPrefix(path) + width + "x" + height + RENDITION_EXTENSION;
+	}
+
+	/**
+	 * An opened rendition, pinned in the cache until its stream is closed
+	 */
+	public static class Rendition extends InputStreamResource {
+
+		private final File file;
+
+		private final InputStream in;
+
+		private final long contentLength;
+
+		private final long lastModified;
+
+		private Rendition(File file, InputStream in) {
+			super(in, file.getName());
+			this.file = file;
+			this.in = in;
+			this.contentLength = file.length();
+			this.lastModified = file.lastModified();
+		}
+
+		@Override
+		public long contentLength() {
+			return this.contentLength;
+		}
+
+		@Override
+		public long lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public String getFilename() {
+			return this.file.getName();
+		}
+
+		/**
+		 * Release the rendition without reading it, i.e. when answering a conditional request
+		 */
+		public void close() {
+			IOUtils.closeQuietly(this.in);
+		}
+	}
+
+	private static File join(CompletableFuture<File> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+}
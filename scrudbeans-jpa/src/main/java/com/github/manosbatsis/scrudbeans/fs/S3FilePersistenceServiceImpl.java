@@ -130,4 +130,14 @@ public class S3FilePersistenceServiceImpl extends AbstractFilePersistenceService
 		s3Client.deleteObjects(new DeleteObjectsRequest(nameCardBucket).withKeys(paths));
 	}
 
+	/**
+	 * Read a file from S3
+	 *
+	 * @see FilePersistenceService#readFile(String)
+	 */
+	@Override
+	public InputStream readFile(String path) {
+		return s3Client.getObject(nameCardBucket, path).getObjectContent();
+	}
+
 }
@@ -0,0 +1,63 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.metadata;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.MappedSuperclass;
+
+import com.github.manosbatsis.scrudbeans.api.domain.JsonMetadataSubjectModel;
+import com.github.manosbatsis.scrudbeans.model.AbstractBasicAuditedModel;
+
+/**
+ * Abstract base persistent class for read-heavy metadata bearing classes. Metadata
+ * are stored as a single JSON column and loaded with the subject, without joins or
+ * secondary selects. Implementations can override the column via
+ * javax.persistence.AttributeOverride annotations. Filtering by metadata predicates
+ * is only supported by {@link AbstractMetadataSubjectModel}.
+ */
+@MappedSuperclass
+public abstract class AbstractJsonMetadataSubjectModel extends AbstractBasicAuditedModel
+		implements JsonMetadataSubjectModel {
+
+	private static final long serialVersionUID = 6327185447403298641L;
+
+	@Convert(converter = MetadataMapJsonConverter.class)
+	@Column(name = "metadata", length = 8192)
+	private Map<String, String> metadata = new LinkedHashMap<>();
+
+	public AbstractJsonMetadataSubjectModel() {
+		super();
+	}
+
+	@Override
+	public Map<String, String> getMetadata() {
+		return metadata;
+	}
+
+	@Override
+	public void setMetadata(Map<String, String> metadata) {
+		this.metadata = metadata;
+	}
+}
@@ -35,14 +35,15 @@ import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.github.manosbatsis.scrudbeans.api.domain.MetadataSubjectModel;
 import com.github.manosbatsis.scrudbeans.api.domain.MetadatumModel;
 import com.github.manosbatsis.scrudbeans.model.AbstractBasicAuditedModel;
-import net.jodah.typetools.TypeResolver;
+import org.hibernate.annotations.BatchSize;
 
 import org.springframework.util.CollectionUtils;
 
 /**
  * Abstract base persistent class for metadata bearing classes. Implementations
  * can override relational specifics via javax.persistence.AssociationOverride
- * annotations
+ * annotations. Metadata are loaded lazily, in batches covering multiple subjects,
+ * i.e. a page of search results.
  */
 @MappedSuperclass
 public abstract class AbstractMetadataSubjectModel<M extends MetadatumModel>
@@ -50,8 +51,12 @@ public abstract class AbstractMetadataSubjectModel<M extends MetadatumModel>
 
 	private static final long serialVersionUID = -1468517690700208260L;
 
-	@OneToMany(mappedBy = "subject", fetch = FetchType.EAGER)
+	/** The number of subjects to initialize metadata for in a single select */
+	public static final int METADATA_BATCH_SIZE = 50;
+
+	@OneToMany(mappedBy = "subject", fetch = FetchType.LAZY)
 	@MapKey(name = "predicate")
+	@BatchSize(size = METADATA_BATCH_SIZE)
 	@JsonDeserialize(using = MetadataMapDeserializer.class)
 	@JsonSerialize(contentUsing = MetadatumToStringValueSerializer.class)
 	private Map<String, M> metadata;
@@ -95,17 +100,7 @@ public abstract class AbstractMetadataSubjectModel<M extends MetadatumModel>
 	@Override
 	@SuppressWarnings("unchecked")
 	public M addMetadatum(String predicate, String object) {
-		Class<?> metadatumClass = TypeResolver.resolveRawArgument(
-				AbstractMetadataSubjectModel.class, getClass());
-		M metadatum = null;
-		try {
-			metadatum = (M) metadatumClass.getConstructor(String.class,
-					String.class).newInstance(predicate, object);
-		}
-		catch (Exception e) {
-			throw new RuntimeException("Failed adding metadatum", e);
-		}
-		return this.addMetadatum(metadatum);
+		return this.addMetadatum((M) MetadataUtils.newMetadatum(getClass(), predicate, object));
 	}
 
 }
\ No newline at end of file
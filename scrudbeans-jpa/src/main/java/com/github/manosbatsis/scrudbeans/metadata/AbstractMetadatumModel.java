@@ -37,7 +37,9 @@ import org.apache.commons.lang3.builder.EqualsBuilder;
 /**
  * Abstract base persistent class for metadata entries. Implementations can
  * override relational specifics via javax.persistence.AssociationOverride
- * annotations
+ * annotations. Since table annotations are not inherited from mapped superclasses,
+ * entities should repeat the (subject, predicate) unique constraint; it doubles as
+ * the composite index used by metadatum lookups and metadata filters.
  */
 @MappedSuperclass
 @Table(uniqueConstraints = {
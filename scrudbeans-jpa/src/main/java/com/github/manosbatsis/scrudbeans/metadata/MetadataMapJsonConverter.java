@@ -0,0 +1,70 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.metadata;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Converts a metadata map of predicate/object pairs to and from a JSON string column.
+ * Empty maps are stored as <code>null</code>.
+ */
+@Converter
+public class MetadataMapJsonConverter implements AttributeConverter<Map<String, String>, String> {
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final TypeReference<LinkedHashMap<String, String>> MAP_TYPE = new TypeReference<LinkedHashMap<String, String>>() {
+	};
+
+	@Override
+	public String convertToDatabaseColumn(Map<String, String> metadata) {
+		if (metadata == null || metadata.isEmpty()) {
+			return null;
+		}
+		try {
+			return MAPPER.writeValueAsString(metadata);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Failed writing metadata as JSON", e);
+		}
+	}
+
+	@Override
+	public Map<String, String> convertToEntityAttribute(String json) {
+		if (json == null || json.isEmpty()) {
+			return new LinkedHashMap<>();
+		}
+		try {
+			return MAPPER.readValue(json, MAP_TYPE);
+		}
+		catch (IOException e) {
+			throw new IllegalArgumentException("Failed reading metadata JSON", e);
+		}
+	}
+}
@@ -0,0 +1,73 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.metadata;
+
+import com.github.manosbatsis.scrudbeans.api.domain.MetadataSubjectModel;
+import com.github.manosbatsis.scrudbeans.api.domain.MetadatumModel;
+import lombok.NonNull;
+import net.jodah.typetools.TypeResolver;
+
+/**
+ * Metadata utilities
+ */
+public final class MetadataUtils {
+
+	/** The attribute path prefix used to filter by metadata predicates, i.e. <code>metadata.color==red</code> */
+	public static final String PATH_PREFIX = "metadata.";
+
+	private MetadataUtils() {
+	}
+
+	/**
+	 * Whether the given model type stores metadata in a separate metadatum table
+	 */
+	public static boolean isMetadataSubject(@NonNull Class<?> modelType) {
+		return MetadataSubjectModel.class.isAssignableFrom(modelType);
+	}
+
+	/**
+	 * Resolve the metadatum type of the given metadata subject type
+	 */
+	@SuppressWarnings("unchecked")
+	public static Class<? extends MetadatumModel> getMetadatumType(@NonNull Class<?> subjectType) {
+		Class<?> metadatumType = TypeResolver.resolveRawArgument(MetadataSubjectModel.class, subjectType);
+		if (metadatumType == null || metadatumType == TypeResolver.Unknown.class) {
+			throw new IllegalArgumentException("Cannot resolve the metadatum type of " + subjectType.getName());
+		}
+		return (Class<? extends MetadatumModel>) metadatumType;
+	}
+
+	/**
+	 * Create a new metadatum instance for the given metadata subject type
+	 */
+	public static MetadatumModel newMetadatum(@NonNull Class<?> subjectType, String predicate, String object) {
+		MetadatumModel metadatum;
+		try {
+			metadatum = getMetadatumType(subjectType).getConstructor().newInstance();
+		}
+		catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Failed creating metadatum for " + subjectType.getName(), e);
+		}
+		metadatum.setPredicate(predicate);
+		metadatum.setObject(object);
+		return metadatum;
+	}
+}
@@ -27,10 +27,9 @@ import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdenti
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdDeserializer;
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdSerializer;
 import com.github.manosbatsis.scrudbeans.binding.StringToEmbeddableCompositeIdConverterFactory;
+import com.github.manosbatsis.scrudbeans.util.CompositeIdUtils;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -97,6 +96,9 @@ public abstract class AbstractEmbeddableManyToManyIdentifier<L, LPK extends Seri
     @ManyToOne(optional = false)
     private R right;
 
+	/** Cached hash code, zero if not yet computed */
+	private transient int hashCode;
+
 	public AbstractEmbeddableManyToManyIdentifier() {
 	}
 
@@ -111,19 +113,29 @@ public abstract class AbstractEmbeddableManyToManyIdentifier<L, LPK extends Seri
 
 	@Override
 	public int hashCode() {
-        return new HashCodeBuilder().append(EntityUtil.idOrNEmpty(this.getLeft())).append(EntityUtil.idOrNEmpty(this.getRight())).toHashCode();
-    }
+		int hash = this.hashCode;
+		if (hash == 0) {
+			hash = CompositeIdUtils.hash(1, this.getLeft());
+			hash = CompositeIdUtils.hash(hash, this.getRight());
+			// only cache once all parts are identified
+			if (CompositeIdUtils.isIdentified(this.getLeft())
+					&& CompositeIdUtils.isIdentified(this.getRight())) {
+				this.hashCode = hash;
+			}
+		}
+		return hash;
+	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		if (obj == null) {
-			return false;
+		if (obj == this) {
+			return true;
+		}
+		if (obj instanceof AbstractEmbeddableManyToManyIdentifier) {
+			final AbstractEmbeddableManyToManyIdentifier other = (AbstractEmbeddableManyToManyIdentifier) obj;
+			return CompositeIdUtils.idEquals(this.getLeft(), other.getLeft())
+					&& CompositeIdUtils.idEquals(this.getRight(), other.getRight());
 		}
-		if (AbstractEmbeddableManyToManyIdentifier.class.isAssignableFrom(obj.getClass())) {
-            final AbstractEmbeddableManyToManyIdentifier other = (AbstractEmbeddableManyToManyIdentifier) obj;
-            return new EqualsBuilder().append(EntityUtil.idOrNEmpty(this.getLeft()), EntityUtil.idOrNull(other.getLeft()))
-                    .append(EntityUtil.idOrNEmpty(this.getRight()), EntityUtil.idOrNull(other.getRight())).isEquals();
-        }
 		else {
 			return false;
 		}
@@ -131,7 +143,8 @@ public abstract class AbstractEmbeddableManyToManyIdentifier<L, LPK extends Seri
 
 	@Override
 	public void init(@NotNull String value) {
-		String[] parts = value.split(SPLIT_CHAR);
+		this.hashCode = 0;
+		String[] parts = CompositeIdUtils.split(value);
 		if (parts.length == 2) {
 			this.left = this.buildLeft(parts[0]);
 			this.right = this.buildRight(parts[1]);
@@ -169,6 +182,7 @@ public abstract class AbstractEmbeddableManyToManyIdentifier<L, LPK extends Seri
 	}
 
 	public void setLeft(L left) {
+		this.hashCode = 0;
 		this.left = left;
 	}
 
@@ -177,6 +191,7 @@ public abstract class AbstractEmbeddableManyToManyIdentifier<L, LPK extends Seri
 	}
 
 	public void setRight(R right) {
+		this.hashCode = 0;
 		this.right = right;
 	}
 
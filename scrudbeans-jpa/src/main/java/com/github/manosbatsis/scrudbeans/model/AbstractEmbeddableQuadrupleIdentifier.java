@@ -27,10 +27,9 @@ import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdenti
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdDeserializer;
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdSerializer;
 import com.github.manosbatsis.scrudbeans.binding.StringToEmbeddableCompositeIdConverterFactory;
+import com.github.manosbatsis.scrudbeans.util.CompositeIdUtils;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -131,6 +130,9 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 	@ManyToOne(optional = false)
 	private R right;
 
+	/** Cached hash code, zero if not yet computed */
+	private transient int hashCode;
+
 	public AbstractEmbeddableQuadrupleIdentifier() {
 	}
 
@@ -149,25 +151,34 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 
 	@Override
 	public int hashCode() {
-        return new HashCodeBuilder()
-                .append(EntityUtil.idOrNEmpty(this.getLeft()))
-                .append(EntityUtil.idOrNEmpty(this.getInnerLeft()))
-                .append(EntityUtil.idOrNEmpty(this.getInnerRight()))
-                .append(EntityUtil.idOrNEmpty(this.getRight())).toHashCode();
+		int hash = this.hashCode;
+		if (hash == 0) {
+			hash = CompositeIdUtils.hash(1, this.getLeft());
+			hash = CompositeIdUtils.hash(hash, this.getInnerLeft());
+			hash = CompositeIdUtils.hash(hash, this.getInnerRight());
+			hash = CompositeIdUtils.hash(hash, this.getRight());
+			// only cache once all parts are identified
+			if (CompositeIdUtils.isIdentified(this.getLeft())
+					&& CompositeIdUtils.isIdentified(this.getInnerLeft())
+					&& CompositeIdUtils.isIdentified(this.getInnerRight())
+					&& CompositeIdUtils.isIdentified(this.getRight())) {
+				this.hashCode = hash;
+			}
+		}
+		return hash;
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		if (obj == null) {
-			return false;
+		if (obj == this) {
+			return true;
 		}
-		if (AbstractEmbeddableQuadrupleIdentifier.class.isAssignableFrom(obj.getClass())) {
+		if (obj instanceof AbstractEmbeddableQuadrupleIdentifier) {
 			final AbstractEmbeddableQuadrupleIdentifier other = (AbstractEmbeddableQuadrupleIdentifier) obj;
-            return new EqualsBuilder()
-                    .append(EntityUtil.idOrNEmpty(this.getLeft()), EntityUtil.idOrNull(other.getLeft()))
-                    .append(EntityUtil.idOrNEmpty(this.getInnerLeft()), EntityUtil.idOrNull(other.getInnerLeft()))
-                    .append(EntityUtil.idOrNEmpty(this.getInnerRight()), EntityUtil.idOrNull(other.getInnerRight()))
-                    .append(EntityUtil.idOrNEmpty(this.getRight()), EntityUtil.idOrNull(other.getRight())).isEquals();
+			return CompositeIdUtils.idEquals(this.getLeft(), other.getLeft())
+					&& CompositeIdUtils.idEquals(this.getInnerLeft(), other.getInnerLeft())
+					&& CompositeIdUtils.idEquals(this.getInnerRight(), other.getInnerRight())
+					&& CompositeIdUtils.idEquals(this.getRight(), other.getRight());
 		}
 		else {
 			return false;
@@ -176,7 +187,8 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 
 	@Override
 	public void init(@NotNull String value) {
-		String[] parts = value.split(SPLIT_CHAR);
+		this.hashCode = 0;
+		String[] parts = CompositeIdUtils.split(value);
 		if (parts.length == 4 && StringUtils.isNoneBlank(parts[0], parts[1], parts[2], parts[3])) {
 			this.left = this.buildLeft(parts[0]);
 			this.innerLeft = this.buildInnerLeft(parts[1]);
@@ -228,6 +240,7 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 	}
 
 	public void setLeft(L left) {
+		this.hashCode = 0;
 		this.left = left;
 	}
 
@@ -236,6 +249,7 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 	}
 
 	public void setInnerLeft(IL innerLeft) {
+		this.hashCode = 0;
 		this.innerLeft = innerLeft;
 	}
 
@@ -244,6 +258,7 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 	}
 
 	public void setInnerRight(IR innerRight) {
+		this.hashCode = 0;
 		this.innerRight = innerRight;
 	}
 
@@ -252,6 +267,7 @@ public abstract class AbstractEmbeddableQuadrupleIdentifier<
 	}
 
 	public void setRight(R right) {
+		this.hashCode = 0;
 		this.right = right;
 	}
 
@@ -27,10 +27,9 @@ import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdenti
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdDeserializer;
 import com.github.manosbatsis.scrudbeans.binding.EmbeddableCompositeIdSerializer;
 import com.github.manosbatsis.scrudbeans.binding.StringToEmbeddableCompositeIdConverterFactory;
+import com.github.manosbatsis.scrudbeans.util.CompositeIdUtils;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -113,6 +112,9 @@ public abstract class AbstractEmbeddableTripleIdentifier<
     @ManyToOne(optional = false)
     private R right;
 
+	/** Cached hash code, zero if not yet computed */
+	private transient int hashCode;
+
 	public AbstractEmbeddableTripleIdentifier() {
 	}
 
@@ -129,23 +131,31 @@ public abstract class AbstractEmbeddableTripleIdentifier<
 
 	@Override
 	public int hashCode() {
-        return new HashCodeBuilder()
-                .append(EntityUtil.idOrNEmpty(this.getLeft()))
-                .append(EntityUtil.idOrNEmpty(this.getMiddle()))
-                .append(EntityUtil.idOrNEmpty(this.getRight())).toHashCode();
+		int hash = this.hashCode;
+		if (hash == 0) {
+			hash = CompositeIdUtils.hash(1, this.getLeft());
+			hash = CompositeIdUtils.hash(hash, this.getMiddle());
+			hash = CompositeIdUtils.hash(hash, this.getRight());
+			// only cache once all parts are identified
+			if (CompositeIdUtils.isIdentified(this.getLeft())
+					&& CompositeIdUtils.isIdentified(this.getMiddle())
+					&& CompositeIdUtils.isIdentified(this.getRight())) {
+				this.hashCode = hash;
+			}
+		}
+		return hash;
 	}
 
 	@Override
 	public boolean equals(final Object obj) {
-		if (obj == null) {
-			return false;
+		if (obj == this) {
+			return true;
 		}
-		if (AbstractEmbeddableTripleIdentifier.class.isAssignableFrom(obj.getClass())) {
+		if (obj instanceof AbstractEmbeddableTripleIdentifier) {
 			final AbstractEmbeddableTripleIdentifier other = (AbstractEmbeddableTripleIdentifier) obj;
-            return new EqualsBuilder()
-                    .append(EntityUtil.idOrNEmpty(this.getLeft()), EntityUtil.idOrNull(other.getLeft()))
-                    .append(EntityUtil.idOrNEmpty(this.getMiddle()), EntityUtil.idOrNull(other.getMiddle()))
-                    .append(EntityUtil.idOrNEmpty(this.getRight()), EntityUtil.idOrNull(other.getRight())).isEquals();
+			return CompositeIdUtils.idEquals(this.getLeft(), other.getLeft())
+					&& CompositeIdUtils.idEquals(this.getMiddle(), other.getMiddle())
+					&& CompositeIdUtils.idEquals(this.getRight(), other.getRight());
 		}
 		else {
 			return false;
@@ -154,7 +164,8 @@ public abstract class AbstractEmbeddableTripleIdentifier<
 
 	@Override
 	public void init(@NotNull String value) {
-		String[] parts = value.split(SPLIT_CHAR);
+		this.hashCode = 0;
+		String[] parts = CompositeIdUtils.split(value);
 		if (parts.length == 3 && StringUtils.isNoneBlank(parts[0], parts[1], parts[2])) {
 			this.left = this.buildLeft(parts[0]);
 			this.middle = this.buildMiddle(parts[1]);
@@ -200,6 +211,7 @@ public abstract class AbstractEmbeddableTripleIdentifier<
 	}
 
 	public void setLeft(L left) {
+		this.hashCode = 0;
 		this.left = left;
 	}
 
@@ -208,6 +220,7 @@ public abstract class AbstractEmbeddableTripleIdentifier<
 	}
 
 	public void setMiddle(M middle) {
+		this.hashCode = 0;
 		this.middle = middle;
 	}
 
@@ -216,6 +229,7 @@ public abstract class AbstractEmbeddableTripleIdentifier<
 	}
 
 	public void setRight(R right) {
+		this.hashCode = 0;
 		this.right = right;
 	}
 
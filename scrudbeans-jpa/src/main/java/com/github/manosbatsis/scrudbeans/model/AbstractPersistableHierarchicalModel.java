@@ -20,6 +20,8 @@
  */
 package com.github.manosbatsis.scrudbeans.model;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 import javax.persistence.Column;
@@ -109,21 +111,51 @@ public abstract class AbstractPersistableHierarchicalModel<P extends AbstractPer
 		return PATH_SEPARATOR;
 	}
 
+	/**
+	 * Get the path prefix of all descendants, i.e. the path followed by the separator
+	 */
+	@JsonIgnore
+	@Transient
+	public String getDescendantPathPrefix() {
+		return this.getPath() + getPathSeparator();
+	}
+
+	/**
+	 * Get the paths of all ancestors, starting from the root
+	 */
+	@JsonIgnore
+	@Transient
+	public List<String> getAncestorPaths() {
+		List<String> paths = new ArrayList<>();
+		String path = this.getPath();
+		if (path != null) {
+			String separator = getPathSeparator();
+			int index = path.indexOf(separator, separator.length());
+			while (index > 0) {
+				paths.add(path.substring(0, index));
+				index = path.indexOf(separator, index + separator.length());
+			}
+		}
+		return paths;
+	}
+
 	@PrePersist
 	@PreUpdate
 	public void preSave() {
 		// update path if needed
 		log.debug("preSave, name: {}, path: {}", this.getName(), this.getPath());
-		// if new or name does not match path
-		if (Objects.isNull(this.getPath())
-				|| (Objects.nonNull(this.getPath()) && Objects.nonNull(this.getName()) && !this.getPath().endsWith(this.getName()))) {
-
-			StringBuffer path = new StringBuffer();
-			if (Objects.nonNull(this.getParent())) {
-				path.append(this.getParent().getPath());
-			}
-			path.append(getPathSeparator());
-			path.append(this.getName());
+		// parent path unknown, e.g. an unresolved reference
+		if (Objects.nonNull(this.getPath()) && Objects.nonNull(this.getParent()) && Objects.isNull(this.getParent().getPath())) {
+			return;
+		}
+		StringBuffer path = new StringBuffer();
+		if (Objects.nonNull(this.getParent())) {
+			path.append(this.getParent().getPath());
+		}
+		path.append(getPathSeparator());
+		path.append(this.getName());
+		// if new, renamed or moved
+		if (!path.toString().equals(this.getPath())) {
 			this.setPath(path.toString());
 
 			// set pathFragment level
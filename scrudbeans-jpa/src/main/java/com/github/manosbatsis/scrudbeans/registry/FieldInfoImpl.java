@@ -125,14 +125,14 @@ public class FieldInfoImpl implements FieldInfo {
 
         scanMappings(field, getter, setter);
 
-        // set the Modelnfo for a relationship
-        if (this.isLinkableResource()) {//if(this.isRelationship()){
+        // set the model type of a relationship, the related ModelInfo is set by the registry
+        if (this.isRelationship()) {
             // If not a collection
-            if (Collection.class.isAssignableFrom(this.fieldType)) {
+            if (!Collection.class.isAssignableFrom(this.fieldType) && !Map.class.isAssignableFrom(this.fieldType)) {
                 this.fieldModelType = this.fieldType;
             }
             // if collection but not a Map
-            else if (!Map.class.isAssignableFrom(this.fieldType)) {
+            else if (!Map.class.isAssignableFrom(this.fieldType) && field.getGenericType() instanceof ParameterizedType) {
                 ParameterizedType pType = (ParameterizedType) field.getGenericType();
                 log.debug("FieldInfoImpl, fieldType: {}, pType: {}", fieldType, pType);
                 Map<TypeVariable<?>, Type> types = TypeUtils.getTypeArguments(pType);
@@ -292,7 +292,7 @@ public class FieldInfoImpl implements FieldInfo {
 	 */
 	@Override
 	public Optional<String> getReverseFieldName() {
-		return Optional.ofNullable(this.reverseFieldName);
+		return StringUtils.isNotEmpty(this.reverseFieldName) ? Optional.of(this.reverseFieldName) : Optional.empty();
 	}
 
 }
@@ -21,18 +21,29 @@
 package com.github.manosbatsis.scrudbeans.registry;
 
 import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityFilterCompiler;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityPredicateFactory;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.IdentifierAdapterBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.PropertyAccessorBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.CompositeIdentifierFactory;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.PropertyAccessor;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelLinkTemplate;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.PropertyAccessorsRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipGraph;
+import com.github.manosbatsis.scrudbeans.binding.CompositeIdentifierFactories;
+import com.github.manosbatsis.scrudbeans.specification.AbstractEntityFilterCompiler;
 import com.github.manosbatsis.scrudbeans.specification.SpecificationUtils;
 import com.github.manosbatsis.scrudbeans.specification.factory.AnyToOnePredicateFactory;
 import com.github.manosbatsis.scrudbeans.util.ClassUtils;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
@@ -45,9 +56,13 @@ import org.springframework.context.EnvironmentAware;
 import org.springframework.core.env.ConfigurableEnvironment;
 import org.springframework.core.env.Environment;
 import org.springframework.util.Assert;
+import org.springframework.util.StopWatch;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Modifier;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 
 /**
@@ -67,6 +82,10 @@ public class JpaModelInfoRegistry implements BeanDefinitionRegistryPostProcessor
 
 	private Map<Class<?>, Class<?>> handlerModelTypes = new HashMap<>();
 
+	private Map<String, Long> startupTimings = new LinkedHashMap<>();
+
+	private RelationshipGraph relationshipGraph = new RelationshipGraph(Collections.emptyList());
+
 
 	@Override
 	public ModelInfo getEntryFor(Class<?> modelClass) {
@@ -88,49 +107,107 @@ public class JpaModelInfoRegistry implements BeanDefinitionRegistryPostProcessor
         return entries;
     }
 
-    protected void scanPackages(Iterable<String> basePackages) {
-        // scan for models
-        for (String basePackage : basePackages) {
-            log.trace("scanPackages " + basePackage);
-            Set<BeanDefinition> entityBeanDefs = EntityUtil.findAllModels(basePackage);
-            for (BeanDefinition beanDef : entityBeanDefs) {
-                Class<?> modelType = ClassUtils.getClass(beanDef.getBeanClassName());
-				this.addEntryFor(modelType);
-            }
-        }
-        for (ModelInfo modelInfo : this.getEntries()) {
+	/**
+	 * Scan the given packages for model classes
+	 * @param basePackages the packages to scan
+	 * @return the names of the model classes found
+	 */
+	protected List<String> findModelClassNames(Iterable<String> basePackages) {
+		List<String> classNames = new LinkedList<>();
+		for (String basePackage : basePackages) {
+			log.trace("scanPackages " + basePackage);
+			for (BeanDefinition beanDef : EntityUtil.findAllModels(basePackage)) {
+				classNames.add(beanDef.getBeanClassName());
+			}
+		}
+		return classNames;
+	}
+
+	/**
+	 * Add entries for the given model classes and link their relationship fields
+	 * @param modelClassNames the names of the model classes
+	 */
+	protected void addEntries(Iterable<String> modelClassNames) {
+		for (String modelClassName : modelClassNames) {
+			this.addEntryFor(ClassUtils.getClass(modelClassName));
+		}
+		for (ModelInfo modelInfo : this.getEntries()) {
 			setRelatedFieldsModelInfo(modelInfo, modelInfo.getToOneFieldNames());
 			setRelatedFieldsModelInfo(modelInfo, modelInfo.getToManyFieldNames());
 		}
 	}
 
-	protected void scanForHelpers(Iterable<String> basePackages) {
-		// scan for models
+	/**
+	 * Scan the given packages for generated or custom model helpers
+	 * @param basePackages the packages to scan
+	 * @return the names of the helper classes found
+	 */
+	protected List<String> findHelperClassNames(Iterable<String> basePackages) {
+		List<String> classNames = new LinkedList<>();
 		for (String basePackage : basePackages) {
-			Set<BeanDefinition> entityBeanDefs = EntityUtil.findAllHelpers(basePackage);
-			for (BeanDefinition beanDef : entityBeanDefs) {
-				Class<?> beanType = ClassUtils.getClass(beanDef.getBeanClassName());
-				EntityPredicateFactory predicateFactoryAnnotation = beanType.getAnnotation(EntityPredicateFactory.class);
-				if (predicateFactoryAnnotation != null) {
-					try {
-						Class entityClass = Class.forName(predicateFactoryAnnotation.entityClass());
-						SpecificationUtils.addFactoryForClass(entityClass, (AnyToOnePredicateFactory) ClassUtils.newInstance(beanType));
-					} catch (ClassNotFoundException e) {
-						log.error("Failed registering AnyToOnePredicateFactory type {}, target class not found: {}",
-								beanType, predicateFactoryAnnotation.entityClass());
-					}
+			for (BeanDefinition beanDef : EntityUtil.findAllHelpers(basePackage)) {
+				classNames.add(beanDef.getBeanClassName());
+			}
+		}
+		return classNames;
+	}
+
+	/**
+	 * Register the given model helpers, i.e. predicate factories, filter compilers,
+	 * identifier adapters and property accessors
+	 * @param helperClassNames the names of the helper classes
+	 */
+	protected void registerHelpers(Iterable<String> helperClassNames) {
+		for (String helperClassName : helperClassNames) {
+			Class<?> beanType = ClassUtils.getClass(helperClassName);
+			EntityPredicateFactory predicateFactoryAnnotation = beanType.getAnnotation(EntityPredicateFactory.class);
+			if (predicateFactoryAnnotation != null) {
+				try {
+					Class entityClass = Class.forName(predicateFactoryAnnotation.entityClass());
+					SpecificationUtils.addFactoryForClass(entityClass, (AnyToOnePredicateFactory) ClassUtils.newInstance(beanType));
+				} catch (ClassNotFoundException e) {
+					log.error("Failed registering AnyToOnePredicateFactory type {}, target class not found: {}",
+							beanType, predicateFactoryAnnotation.entityClass());
+				}
+			}
+			EntityFilterCompiler filterCompilerAnnotation = beanType.getAnnotation(EntityFilterCompiler.class);
+			if (filterCompilerAnnotation != null) {
+				try {
+					Class entityClass = Class.forName(filterCompilerAnnotation.entityClass());
+					SpecificationUtils.addFilterCompilerForClass(entityClass,
+							(AbstractEntityFilterCompiler) ClassUtils.newInstance(beanType));
+				} catch (ClassNotFoundException e) {
+					log.error("Failed registering EntityFilterCompiler type {}, target class not found: {}",
+							beanType, filterCompilerAnnotation.entityClass());
 				}
-				IdentifierAdapterBean identifierAdapterAnnotation = beanType.getAnnotation(IdentifierAdapterBean.class);
-				if (identifierAdapterAnnotation != null) {
-					String className = identifierAdapterAnnotation.className();
-					try {
-						Class modelClass = Class.forName(className);
-						IdentifierAdaptersRegistry.addAdapterForClass(modelClass,
-								(com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter) ClassUtils.newInstance(beanType));
-					} catch (ClassNotFoundException e) {
-						log.error("Failed registering IdentifierAdapterBean type {}, target class not found: {}",
-								beanType, className);
+			}
+			IdentifierAdapterBean identifierAdapterAnnotation = beanType.getAnnotation(IdentifierAdapterBean.class);
+			if (identifierAdapterAnnotation != null) {
+				String className = identifierAdapterAnnotation.className();
+				try {
+					Class modelClass = Class.forName(className);
+					Object adapter = ClassUtils.newInstance(beanType);
+					IdentifierAdaptersRegistry.addAdapterForClass(modelClass,
+							(com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter) adapter);
+					// generated adapters of composite-id models also act as identifier factories
+					if (adapter instanceof CompositeIdentifierFactory) {
+						CompositeIdentifierFactories.addFactory((CompositeIdentifierFactory) adapter);
 					}
+				} catch (ClassNotFoundException e) {
+					log.error("Failed registering IdentifierAdapterBean type {}, target class not found: {}",
+							beanType, className);
+				}
+			}
+			PropertyAccessorBean propertyAccessorAnnotation = beanType.getAnnotation(PropertyAccessorBean.class);
+			if (propertyAccessorAnnotation != null) {
+				String className = propertyAccessorAnnotation.className();
+				try {
+					Class modelClass = Class.forName(className);
+					PropertyAccessorsRegistry.addAccessorForClass(modelClass,
+							(PropertyAccessor) ClassUtils.newInstance(beanType));
+				} catch (ClassNotFoundException e) {
+					log.error("Failed registering PropertyAccessorBean type {}, target class not found: {}",
+							beanType, className);
 				}
 			}
 		}
@@ -184,13 +261,48 @@ public class JpaModelInfoRegistry implements BeanDefinitionRegistryPostProcessor
 	public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
 		log.debug("postProcessBeanDefinitionRegistry, ScrudBeansProperties: {}", this.scrudBeansProperties);
 		Set<String> packagesToScan = scrudBeansProperties.getPackagesToScanAsSet();
-		// register predicate factories
-		this.scanForHelpers(packagesToScan);
-		// scan for and create the rest
-		this.scanPackages(packagesToScan);
+		ScrudBeansProperties.Startup startup = this.scrudBeansProperties.getStartup();
+		Path snapshotFile = StringUtils.isNotBlank(startup.getSnapshot()) ? Paths.get(startup.getSnapshot()) : null;
+		StopWatch stopWatch = new StopWatch("ScrudBeans model registry");
+
+		// load the registry snapshot if available and current
+		ModelInfoSnapshot snapshot = null;
+		String fingerprint = null;
+		if (snapshotFile != null) {
+			stopWatch.start("snapshot");
+			try {
+				fingerprint = ModelInfoSnapshot.fingerprint(packagesToScan);
+				snapshot = ModelInfoSnapshot.read(snapshotFile, startup.getSnapshotKey(), packagesToScan, fingerprint);
+			}
+			catch (IOException e) {
+				log.warn("Failed fingerprinting packages, ignoring model registry snapshot: {}", snapshotFile, e);
+			}
+			stopWatch.stop();
+		}
 
+		// register predicate factories and other helpers
+		stopWatch.start("helpers");
+		List<String> helperClassNames = snapshot != null
+				? snapshot.getHelperClassNames() : this.findHelperClassNames(packagesToScan);
+		this.registerHelpers(helperClassNames);
+		stopWatch.stop();
+
+		// scan for and create the rest
+		stopWatch.start("models");
+		List<String> modelClassNames = snapshot != null
+				? snapshot.getModelClassNames() : this.findModelClassNames(packagesToScan);
+		this.addEntries(modelClassNames);
+		stopWatch.stop();
+
+		// index relationships and set the reverse field of owning sides
+		stopWatch.start("relationships");
+		this.relationshipGraph = new RelationshipGraph(this.modelEntries.values());
 		for (ModelInfo info : this.getEntries()) {
-			this.resolveInverseFields(info);
+			for (RelationshipEdge edge : this.relationshipGraph.getEdges(info.getModelType()).values()) {
+				if (!edge.isInverse() && edge.getReverse() != null) {
+					edge.getFieldInfo().setReverseFieldName(edge.getReverse().getFieldName());
+				}
+			}
 			if (!this.handlerModelTypes.containsKey(info.getModelControllerType())) {
 				if (info.getModelControllerType() != null && info.getModelType() != null) {
 					log.debug("postProcessBeanDefinitionRegistry, adding handlerModelType entry: {}:{}, linkable: {}", info.getModelControllerType(), info.getModelType(), info.isLinkableResource());
@@ -198,53 +310,53 @@ public class JpaModelInfoRegistry implements BeanDefinitionRegistryPostProcessor
 				}
 			}
 		}
+		stopWatch.stop();
 
-	}
+		// precompute link paths now that relationships are resolved
+		stopWatch.start("links");
+		for (ModelInfo info : this.getEntries()) {
+			info.setLinkTemplate(new ModelLinkTemplate(info, this.relationshipGraph));
+			// resolve the model's helpers ahead of the first request
+			Class<?> modelType = info.getModelType();
+			IdentifierAdaptersRegistry.getAdapterForClass(modelType);
+			PropertyAccessorsRegistry.getAccessorForClass(modelType);
+			SpecificationUtils.getPredicateFactoryForClass(modelType);
+			SpecificationUtils.getFilterCompilerForClass(modelType);
+		}
+		stopWatch.stop();
 
-	protected void resolveInverseFields(ModelInfo modelInfo) {
-		resolveInverseFields(modelInfo, modelInfo.getToOneFieldNames());
-		resolveInverseFields(modelInfo, modelInfo.getToManyFieldNames());
+		// write a snapshot for the next startup if missing or stale
+		if (fingerprint != null && snapshot == null) {
+			stopWatch.start("snapshot write");
+			new ModelInfoSnapshot(helperClassNames, modelClassNames).write(snapshotFile, startup.getSnapshotKey(), packagesToScan, fingerprint);
+			stopWatch.stop();
+		}
+		this.reportStartupTimings(stopWatch, snapshot != null);
 	}
 
-	protected void resolveInverseFields(ModelInfo modelInfo, Set<String> fieldNames) {
-		for (String fieldName : fieldNames) {
-			FieldInfo field = modelInfo.getField(fieldName);
-			if (!field.isInverse()) {
-				if (field.getFieldModelType() != null) {
-
-					// scan ModelInfo on the other side to find an inverse JPA mapping, if any
-					ModelInfo inverseModelInfo = this.getEntryFor(field.getFieldModelType());
-
-					// warn if the inverse field type model info does not exist
-					if (inverseModelInfo == null) {
-						log.warn("resolveInverseFields: No model info entry found for type: {}", field.getFieldModelType());
-					}
-					else {
-						Set<String> inversePropertyNames = inverseModelInfo.getInverseFieldNames();
-
-						// go over inverse fields to find a match, if any
-						for (String inversePropertyName : inversePropertyNames) {
-							FieldInfo inverseField = inverseModelInfo.getField(inversePropertyName);
-							if (inverseField != null && fieldName.equals(inverseField.getReverseFieldName())) {
-								field.setReverseFieldName(inverseField.getFieldName());
-								break;
-							}
-						}
-					}
-				}
-				else {
-
-					log.debug("resolveInverseFields, not fieldModelType found for model: {}, field: {}", modelInfo.getModelType(), fieldName);
-				}
+	/**
+	 * Get the duration in milliseconds of each startup phase
+	 */
+	public Map<String, Long> getStartupTimings() {
+		return Collections.unmodifiableMap(this.startupTimings);
+	}
 
+	private void reportStartupTimings(StopWatch stopWatch, boolean fromSnapshot) {
+		StringBuilder phases = new StringBuilder();
+		for (StopWatch.TaskInfo task : stopWatch.getTaskInfo()) {
+			this.startupTimings.put(task.getTaskName(), task.getTimeMillis());
+			if (phases.length() > 0) {
+				phases.append(", ");
 			}
-			// break if found
-			Optional<String> reverseFieldName = field.getReverseFieldName();
-			if (reverseFieldName.isPresent()) {
-				log.debug("resolveInverseFields, resolved field: {}, reverse: {}", field.getFieldName(), reverseFieldName.get());
-				break;
-			}
+			phases.append(task.getTaskName()).append(": ").append(task.getTimeMillis()).append(" ms");
 		}
+		log.info("Initialized {} models {} in {} ms ({})", this.modelEntries.size(),
+				fromSnapshot ? "from snapshot" : "by scanning", stopWatch.getTotalTimeMillis(), phases);
+	}
+
+	@Override
+	public RelationshipGraph getRelationshipGraph() {
+		return this.relationshipGraph;
 	}
 
 	@Override
@@ -23,6 +23,7 @@ package com.github.manosbatsis.scrudbeans.registry;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelLinkTemplate;
 import com.github.manosbatsis.scrudbeans.api.specification.IPredicateFactory;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import lombok.Getter;
@@ -92,6 +93,9 @@ public class ModelInfoImpl<T, PK extends Serializable> implements ModelInfo<T, P
 	@Getter @Setter
 	private String requestMapping;
 
+	@Setter
+	private volatile ModelLinkTemplate linkTemplate;
+
 
 	public ModelInfoImpl(@NonNull Class<T> modelType) {
 
@@ -183,6 +187,19 @@ public class ModelInfoImpl<T, PK extends Serializable> implements ModelInfo<T, P
 		return this.fields.get(fieldName);
 	}
 
+	/**
+	 * Get the link template set by the registry once relationships are resolved,
+	 * or build one if missing
+	 */
+	@Override
+	public ModelLinkTemplate getLinkTemplate() {
+		ModelLinkTemplate template = this.linkTemplate;
+		if (template == null) {
+			this.linkTemplate = template = new ModelLinkTemplate(this);
+		}
+		return template;
+	}
+
 	@Override
 	public Boolean isLinkableResource() {
 		return this.linkableResource && this.modelControllerType != null;
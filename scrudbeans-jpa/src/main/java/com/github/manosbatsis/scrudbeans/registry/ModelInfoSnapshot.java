@@ -0,0 +1,223 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.registry;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.ClassUtils;
+
+/**
+ * A compact binary snapshot of the model registry, i.e. the helper and model classes
+ * found by classpath scanning. Loading a snapshot avoids the classpath scans on startup.
+ * Snapshots are only used if all their classes exist and the class files of the scanned
+ * packages match the {@link #fingerprint(Set) fingerprint} they were written with.
+ */
+@Slf4j
+public class ModelInfoSnapshot {
+
+	private static final int MAGIC = 0x53425253;
+
+	private static final int VERSION = 3;
+
+	private final List<String> helperClassNames;
+
+	private final List<String> modelClassNames;
+
+	public ModelInfoSnapshot(@NonNull Collection<String> helperClassNames, @NonNull Collection<String> modelClassNames) {
+		this.helperClassNames = new ArrayList<>(helperClassNames);
+		this.modelClassNames = new ArrayList<>(modelClassNames);
+	}
+
+	public List<String> getHelperClassNames() {
+		return Collections.unmodifiableList(this.helperClassNames);
+	}
+
+	public List<String> getModelClassNames() {
+		return Collections.unmodifiableList(this.modelClassNames);
+	}
+
+	/**
+	 * Compute a fingerprint of the class files in the given packages, i.e. a hash of their
+	 * locations, sizes and modification times. Listing the class files is much cheaper
+	 * than the scans a snapshot replaces, as these also read each file.
+	 * @param packages the packages to scan
+	 * @return the fingerprint as a hex string
+	 */
+	public static String fingerprint(@NonNull Set<String> packages) throws IOException {
+		ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		TreeMap<String, Resource> resources = new TreeMap<>();
+		for (String basePackage : new TreeSet<>(packages)) {
+			String pattern = ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+					+ ClassUtils.convertClassNameToResourcePath(basePackage) + "/**/*.class";
+			for (Resource resource : resolver.getResources(pattern)) {
+				resources.put(resource.getURL().toString(), resource);
+			}
+		}
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		StringBuilder entry = new StringBuilder();
+		for (Resource resource : resources.values()) {
+			entry.setLength(0);
+			entry.append(resource.getURL()).append('|').append(resource.contentLength())
+					.append('|').append(resource.lastModified()).append('\n');
+			digest.update(entry.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		StringBuilder hex = new StringBuilder();
+		for (byte b : digest.digest()) {
+			hex.append(String.format("%02x", b));
+		}
+		return hex.toString();
+	}
+
+	/**
+	 * Read a snapshot from the given file
+	 * @param file the snapshot file
+	 * @param key the expected build key
+	 * @param packages the expected packages to scan
+	 * @param fingerprint the current {@link #fingerprint(Set) fingerprint} of the packages to scan
+	 * @return the snapshot, or null if missing, unreadable, written for a different key, packages
+	 * or fingerprint, or referring to classes that no longer exist
+	 */
+	public static ModelInfoSnapshot read(@NonNull Path file, @NonNull String key, @NonNull Set<String> packages,
+			@NonNull String fingerprint) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF())
+					|| !new ArrayList<>(new TreeSet<>(packages)).equals(readStrings(in))
+					|| !fingerprint.equals(in.readUTF())) {
+				log.info("Ignoring stale model registry snapshot: {}", file);
+				return null;
+			}
+			List<String> helperClassNames = readStrings(in);
+			List<String> modelClassNames = readStrings(in);
+			if (!allPresent(helperClassNames) || !allPresent(modelClassNames)) {
+				log.info("Ignoring model registry snapshot with missing classes: {}", file);
+				return null;
+			}
+			return new ModelInfoSnapshot(helperClassNames, modelClassNames);
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Failed reading model registry snapshot: {}", file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Write this snapshot to the given file, replacing any existing one
+	 * @param file the snapshot file
+	 * @param key the build key
+	 * @param packages the packages to scan
+	 * @param fingerprint the {@link #fingerprint(Set) fingerprint} of the packages to scan
+	 */
+	public void write(@NonNull Path file, @NonNull String key, @NonNull Set<String> packages, @NonNull String fingerprint) {
+		Path tmp = null;
+		try {
+			Path dir = file.toAbsolutePath().getParent();
+			Files.createDirectories(dir);
+			tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeUTF(key);
+				writeStrings(out, new TreeSet<>(packages));
+				out.writeUTF(fingerprint);
+				writeStrings(out, this.helperClassNames);
+				writeStrings(out, this.modelClassNames);
+			}
+			// replace atomically so that concurrent readers never see a partial snapshot
+			try {
+				Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			}
+			catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+			}
+			log.info("Wrote model registry snapshot: {}", file);
+		}
+		catch (IOException e) {
+			log.warn("Failed writing model registry snapshot: {}", file, e);
+			if (tmp != null) {
+				try {
+					Files.deleteIfExists(tmp);
+				}
+				catch (IOException ex) {
+					log.debug("Failed deleting temporary snapshot file: {}", tmp, ex);
+				}
+			}
+		}
+	}
+
+	private static boolean allPresent(List<String> classNames) {
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		for (String className : classNames) {
+			if (!ClassUtils.isPresent(className, classLoader)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static List<String> readStrings(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		List<String> values = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(in.readUTF());
+		}
+		return values;
+	}
+
+	private static void writeStrings(DataOutputStream out, Collection<String> values) throws IOException {
+		out.writeInt(values.size());
+		for (String value : values) {
+			out.writeUTF(value);
+		}
+	}
+}
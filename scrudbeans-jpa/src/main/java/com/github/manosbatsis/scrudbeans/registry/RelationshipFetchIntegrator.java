@@ -0,0 +1,162 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.registry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.FetchMode;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.mapping.Collection;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+
+/**
+ * Applies batch or subselect fetching to the relationships indexed by the {@link ModelInfoRegistry},
+ * so that navigating the relationships of a page of results takes a handful of selects instead of one
+ * per proxy or collection. Integrators run before entity and collection persisters are built, so
+ * changes to the boot-time mappings take effect as if declared with <code>@BatchSize</code> or
+ * <code>@Fetch(FetchMode.SUBSELECT)</code>. Mappings with explicit settings are left as-is.
+ */
+@Slf4j
+public class RelationshipFetchIntegrator implements Integrator {
+
+	/** The JPA bootstrap property used to register additional integrators */
+	public static final String INTEGRATOR_PROVIDER = "hibernate.integrator_provider";
+
+	private final ModelInfoRegistry modelInfoRegistry;
+
+	private final ScrudBeansProperties.Fetch settings;
+
+	public RelationshipFetchIntegrator(@NonNull ModelInfoRegistry modelInfoRegistry, @NonNull ScrudBeansProperties.Fetch settings) {
+		this.modelInfoRegistry = modelInfoRegistry;
+		this.settings = settings;
+	}
+
+	/**
+	 * Create an {@link IntegratorProvider} adding the given integrator to those of the given provider, if any
+	 */
+	public static IntegratorProvider addTo(Object existing, @NonNull Integrator integrator) {
+		List<Integrator> integrators = new ArrayList<>();
+		if (existing instanceof IntegratorProvider) {
+			integrators.addAll(((IntegratorProvider) existing).getIntegrators());
+		}
+		integrators.add(integrator);
+		return () -> integrators;
+	}
+
+	@Override
+	public void integrate(Metadata metadata, SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		if (!this.settings.isEnabled()) {
+			return;
+		}
+		int entities = 0;
+		int collections = 0;
+		for (ModelInfo<?, ?> modelInfo : this.modelInfoRegistry.getEntries()) {
+			Class<?> modelType = modelInfo.getModelType();
+			for (RelationshipEdge edge : this.modelInfoRegistry.getRelationshipGraph().getEdges(modelType).values()) {
+				if (edge.getFieldInfo().isToMany()) {
+					Collection collection = findCollectionBinding(metadata, modelType, edge.getFieldName());
+					if (collection == null) {
+						log.debug("Skipping {}.{}, no collection mapping found", modelType.getName(), edge.getFieldName());
+					}
+					else if (this.tuneCollection(collection)) {
+						collections++;
+					}
+				}
+				else if (edge.getFieldInfo().isToOne()) {
+					// to-one proxies are batch loaded as per the target entity
+					PersistentClass target = metadata.getEntityBinding(edge.getRelatedModelType().getName());
+					if (target != null && this.tuneEntity(target)) {
+						entities++;
+					}
+				}
+			}
+		}
+		log.info("Tuned fetching of {} entity types and {} collections", entities, collections);
+	}
+
+	/**
+	 * Find the mapping of the given collection, i.e. of the role named after the entity declaring it,
+	 * either the given model type or an entity superclass. Fields of mapped superclasses belong to the entity.
+	 *
+	 * @return the collection mapping, null if not found
+	 */
+	protected static Collection findCollectionBinding(Metadata metadata, Class<?> modelType, String fieldName) {
+		PersistentClass owner = metadata.getEntityBinding(modelType.getName());
+		while (owner != null) {
+			Collection collection = metadata.getCollectionBinding(owner.getEntityName() + "." + fieldName);
+			if (collection != null) {
+				return collection;
+			}
+			owner = owner.getSuperclass();
+		}
+		return null;
+	}
+
+	/**
+	 * Apply the configured batch size to the given entity type unless already set
+	 * @return whether the entity mapping was changed
+	 */
+	protected boolean tuneEntity(PersistentClass entity) {
+		if (entity.getBatchSize() > 1 || this.settings.getEntityBatchSize() <= 1) {
+			return false;
+		}
+		entity.setBatchSize(this.settings.getEntityBatchSize());
+		return true;
+	}
+
+	/**
+	 * Apply subselect or batch fetching to the given collection unless join-fetched or already tuned
+	 * @return whether the collection mapping was changed
+	 */
+	protected boolean tuneCollection(Collection collection) {
+		if (collection.getBatchSize() > 1 || collection.isSubselectLoadable()
+				|| FetchMode.JOIN.equals(collection.getFetchMode())) {
+			return false;
+		}
+		if (this.settings.isSubselectCollections()) {
+			collection.setSubselectLoadable(true);
+			collection.getOwner().setSubselectLoadableCollections(true);
+		}
+		else if (this.settings.getCollectionBatchSize() > 1) {
+			collection.setBatchSize(this.settings.getCollectionBatchSize());
+		}
+		else {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+		// nothing to release
+	}
+}
@@ -0,0 +1,213 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.BasicAuditedModel;
+import com.github.manosbatsis.scrudbeans.api.domain.DisableableModel;
+import lombok.Getter;
+import lombok.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.lang.Nullable;
+
+/**
+ * Records the identifiers of hard-deleted {@link BasicAuditedModel} entities, so that changes feeds
+ * can report deletions of rows that no longer exist. Soft-deleted, i.e. {@link DisableableModel}
+ * entities remain in their table and need no tombstones. Tombstones are written by
+ * {@link ModelRepositoryImpl} within the deleting transaction to the {@link #TABLE_NAME} table,
+ * created if missing, and purged after <code>scrudbeans.changes.tombstone-retention</code> days.
+ * Deletions cascaded by the persistence provider are not recorded.
+ */
+public class ChangeTombstones implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ChangeTombstones.class);
+
+	public static final String TABLE_NAME = "scrudbeans_tombstones";
+
+	private static final String INSERT = "INSERT INTO " + TABLE_NAME + " (model_type, model_id, deleted) VALUES (?, ?, ?)";
+
+	private static final String SELECT = "SELECT model_id, deleted FROM " + TABLE_NAME + " WHERE model_type = ? AND deleted <= ?";
+
+	private JdbcTemplate jdbcTemplate;
+
+	private ScrudBeansProperties scrudBeansProperties;
+
+	private ScheduledExecutorService scheduler;
+
+	private volatile boolean tableExists;
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@Autowired
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.scrudBeansProperties.getChanges().getTombstoneRetention() > 0) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "scrudbeans-tombstones");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.scheduler.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.HOURS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Whether deletions of the given model type are recorded
+	 */
+	public static boolean isTracked(@NonNull Class<?> modelType) {
+		return BasicAuditedModel.class.isAssignableFrom(modelType) && !DisableableModel.class.isAssignableFrom(modelType);
+	}
+
+	/**
+	 * Record the deletion of the given identifiers, using the transaction of the caller if any
+	 */
+	public void record(@NonNull Class<?> modelType, @NonNull Collection<?> ids) {
+		if (ids.isEmpty() || !isTracked(modelType)) {
+			return;
+		}
+		this.ensureTable();
+		ChangesWatermark.enlist();
+		Timestamp deleted = Timestamp.valueOf(LocalDateTime.now());
+		List<Object[]> rows = new ArrayList<>(ids.size());
+		for (Object id : ids) {
+			rows.add(new Object[]{modelType.getName(), id.toString(), deleted});
+		}
+		this.jdbcTemplate.batchUpdate(INSERT, rows);
+	}
+
+	/**
+	 * Find the tombstones of the given type after the given keyset position, ordered by deletion date and identifier
+	 *
+	 * @param modelType  the model type
+	 * @param since      the date of the keyset position, null to start from the beginning
+	 * @param sinceId    the identifier of the keyset position if a tombstone, null to include tombstones of the same date
+	 * @param until      the max deletion date to include
+	 * @param maxResults the max number of results
+	 * @return the matching tombstones
+	 */
+	public List<Tombstone> findAfter(@NonNull Class<?> modelType, @Nullable LocalDateTime since, @Nullable String sinceId,
+			@NonNull LocalDateTime until, int maxResults) {
+		this.ensureTable();
+		StringBuilder sql = new StringBuilder(SELECT);
+		List<Object> args = new ArrayList<>(5);
+		args.add(modelType.getName());
+		args.add(Timestamp.valueOf(until));
+		if (since != null) {
+			Timestamp sinceTimestamp = Timestamp.valueOf(since);
+			if (sinceId != null) {
+				sql.append(" AND (deleted > ? OR (deleted = ? AND model_id > ?))");
+				args.add(sinceTimestamp);
+				args.add(sinceTimestamp);
+				args.add(sinceId);
+			}
+			else {
+				sql.append(" AND deleted >= ?");
+				args.add(sinceTimestamp);
+			}
+		}
+		sql.append(" ORDER BY deleted, model_id");
+		JdbcTemplate select = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+		select.setMaxRows(maxResults);
+		return select.query(sql.toString(),
+				(rs, rowNum) -> new Tombstone(rs.getString(1), rs.getTimestamp(2).toLocalDateTime()), args.toArray());
+	}
+
+	/**
+	 * Delete tombstones older than the configured retention
+	 */
+	public void purge() {
+		int days = this.scrudBeansProperties.getChanges().getTombstoneRetention();
+		if (days > 0) {
+			try {
+				this.ensureTable();
+				int count = this.jdbcTemplate.update("DELETE FROM " + TABLE_NAME + " WHERE deleted < ?",
+						Timestamp.valueOf(LocalDateTime.now().minusDays(days)));
+				LOGGER.debug("purge, deleted: {}", count);
+			}
+			catch (RuntimeException e) {
+				LOGGER.error("Failed purging tombstones", e);
+			}
+		}
+	}
+
+	protected void ensureTable() {
+		if (!this.tableExists) {
+			try {
+				this.jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE_NAME + " WHERE 1 = 0");
+			}
+			catch (DataAccessException e) {
+				LOGGER.info("Creating tombstones table: {}", TABLE_NAME);
+				this.jdbcTemplate.execute("CREATE TABLE " + TABLE_NAME
+						+ " (model_type VARCHAR(255) NOT NULL, model_id VARCHAR(255) NOT NULL, deleted TIMESTAMP NOT NULL)");
+				this.jdbcTemplate.execute("CREATE INDEX " + TABLE_NAME + "_idx ON " + TABLE_NAME + " (model_type, deleted, model_id)");
+			}
+			this.tableExists = true;
+		}
+	}
+
+	/**
+	 * The identifier and deletion date of a hard-deleted entity
+	 */
+	@Getter
+	public static class Tombstone {
+
+		private final String id;
+
+		private final LocalDateTime deleted;
+
+		public Tombstone(@NonNull String id, @NonNull LocalDateTime deleted) {
+			this.id = id;
+			this.deleted = deleted;
+		}
+	}
+}
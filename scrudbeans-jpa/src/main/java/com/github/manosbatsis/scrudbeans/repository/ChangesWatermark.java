@@ -0,0 +1,81 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tracks the local transactions writing changes of audited models, so that changes feeds only read up to
+ * the start of the oldest one. Modification dates are assigned on flush, i.e. before commit, so changes
+ * of a transaction may become visible after later ones; reading below the watermark ensures no change
+ * is skipped. The settle time is subtracted as well, covering clock differences between nodes and
+ * the precision of timestamp columns.
+ */
+public class ChangesWatermark {
+
+	private static final Object KEY = ChangesWatermark.class.getName() + ".transaction";
+
+	/** Start times of in-flight writing transactions */
+	private static final ConcurrentHashMap<Object, Long> IN_FLIGHT = new ConcurrentHashMap<>();
+
+	private ChangesWatermark() {
+	}
+
+	/**
+	 * Record the current transaction as writing changes, unless already recorded.
+	 * Has no effect outside a transaction.
+	 */
+	public static void enlist() {
+		if (!TransactionSynchronizationManager.isSynchronizationActive() || TransactionSynchronizationManager.hasResource(KEY)) {
+			return;
+		}
+		Object transaction = new Object();
+		IN_FLIGHT.put(transaction, System.currentTimeMillis());
+		TransactionSynchronizationManager.bindResource(KEY, transaction);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+			@Override
+			public void afterCompletion(int status) {
+				IN_FLIGHT.remove(transaction);
+				TransactionSynchronizationManager.unbindResourceIfPossible(KEY);
+			}
+		});
+	}
+
+	/**
+	 * Get the max modification date changes feeds may read up to, i.e. the earliest of the current time and
+	 * the start of the oldest in-flight writing transaction, minus the given settle time
+	 *
+	 * @param settleTime the settle time in milliseconds
+	 */
+	public static LocalDateTime getUntil(long settleTime) {
+		long now = System.currentTimeMillis();
+		long oldest = now;
+		for (Long start : IN_FLIGHT.values()) {
+			oldest = Math.min(oldest, start);
+		}
+		return LocalDateTime.now().minus(now - oldest + settleTime, ChronoUnit.MILLIS);
+	}
+}
@@ -20,6 +20,7 @@
  */
 package com.github.manosbatsis.scrudbeans.repository;
 
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
 import com.github.manosbatsis.scrudbeans.api.domain.KPersistable;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import org.slf4j.Logger;
@@ -47,6 +48,10 @@ public class ModelRepositoryFactoryBean<R extends Repository<T, PK>, T, PK>
 
     private Validator validator;
 
+    private ScrudBeansProperties scrudBeansProperties;
+
+    private ChangeTombstones changeTombstones;
+
     private @Nullable
     EntityManager entityManager;
 
@@ -68,10 +73,25 @@ public class ModelRepositoryFactoryBean<R extends Repository<T, PK>, T, PK>
         this.validator = validator;
     }
 
+    @Autowired(required = false)
+    public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+        this.scrudBeansProperties = scrudBeansProperties;
+    }
+
+    @Autowired(required = false)
+    public void setChangeTombstones(ChangeTombstones changeTombstones) {
+        this.changeTombstones = changeTombstones;
+    }
+
     @Override
     protected RepositoryFactorySupport createRepositoryFactory(EntityManager entityManager) {
         ModelRepositoryFactory<T, PK> repositoryFactorySupport = new ModelRepositoryFactory<>(entityManager);
         repositoryFactorySupport.setValidator(this.validator);
+        repositoryFactorySupport.setChangeTombstones(this.changeTombstones);
+        if (this.scrudBeansProperties != null) {
+            repositoryFactorySupport.setDefaultQueryTimeout(this.scrudBeansProperties.getQuery().getTimeout());
+            repositoryFactorySupport.setScheduledDisabling(this.scrudBeansProperties.getSoftDelete().isScheduled());
+        }
         return repositoryFactorySupport;
     }
 
@@ -79,6 +99,9 @@ public class ModelRepositoryFactoryBean<R extends Repository<T, PK>, T, PK>
 
         private EntityManager entityManager;
         private Validator validator;
+        private int defaultQueryTimeout;
+        private boolean scheduledDisabling;
+        private ChangeTombstones changeTombstones;
 
         public ModelRepositoryFactory(EntityManager entityManager) {
             super(entityManager);
@@ -114,6 +137,9 @@ public class ModelRepositoryFactoryBean<R extends Repository<T, PK>, T, PK>
             if (EntityUtil.isScrudBean(domainType)) {
                 ModelRepositoryImpl repository = new ModelRepositoryImpl(getEntityInformation(domainType), entityManager);
                 repository.setValidator(this.validator);
+                repository.setDefaultQueryTimeout(this.defaultQueryTimeout);
+                repository.setScheduledDisabling(this.scheduledDisabling);
+                repository.setChangeTombstones(this.changeTombstones);
                 result = repository;
             } else {
                 result = super.getTargetRepository(information, entityManager);
@@ -145,5 +171,17 @@ public class ModelRepositoryFactoryBean<R extends Repository<T, PK>, T, PK>
         public void setValidator(Validator validator) {
             this.validator = validator;
         }
+
+        public void setDefaultQueryTimeout(int defaultQueryTimeout) {
+            this.defaultQueryTimeout = defaultQueryTimeout;
+        }
+
+        public void setScheduledDisabling(boolean scheduledDisabling) {
+            this.scheduledDisabling = scheduledDisabling;
+        }
+
+        public void setChangeTombstones(ChangeTombstones changeTombstones) {
+            this.changeTombstones = changeTombstones;
+        }
     }
 }
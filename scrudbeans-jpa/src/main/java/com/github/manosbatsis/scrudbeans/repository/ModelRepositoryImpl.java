@@ -20,25 +20,37 @@
  */
 package com.github.manosbatsis.scrudbeans.repository;
 
+import com.github.manosbatsis.scrudbeans.api.domain.BasicAuditedModel;
 import com.github.manosbatsis.scrudbeans.api.domain.DisableableModel;
 import com.github.manosbatsis.scrudbeans.api.domain.KPersistable;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
 import com.github.manosbatsis.scrudbeans.api.exception.BeanValidationException;
+import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
+import com.github.manosbatsis.scrudbeans.api.specification.AggregateMetric;
+import com.github.manosbatsis.scrudbeans.model.AbstractPersistableHierarchicalModel;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
+import com.github.manosbatsis.scrudbeans.specification.QueryGuardrails;
 import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import com.github.manotbatsis.kotlin.utils.api.Dto;
 import lombok.NonNull;
 import org.apache.commons.beanutils.PropertyUtils;
+import org.hibernate.engine.spi.EntityEntry;
 import org.hibernate.engine.spi.SessionImplementor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanUtils;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.repository.support.PageableExecutionUtils;
 import org.springframework.lang.Nullable;
 import org.springframework.security.access.method.P;
 import org.springframework.transaction.annotation.Transactional;
@@ -48,11 +60,15 @@ import org.springframework.util.StringUtils;
 
 import javax.persistence.*;
 import javax.persistence.criteria.*;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
 import javax.persistence.metamodel.SingularAttribute;
 import javax.validation.ConstraintViolation;
 import javax.validation.Validator;
 import javax.validation.constraints.NotNull;
 import java.io.Serializable;
+import java.lang.reflect.AnnotatedElement;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -85,6 +101,25 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 
 	protected final boolean disableableDomainClass;
 
+	protected final boolean auditedDomainClass;
+
+	protected final boolean hierarchicalDomainClass;
+
+	/**
+	 * Whether hard deletions may bypass the persistence context, i.e. the domain class
+	 * has no cascaded removals, element collections or join tables
+	 */
+	protected final boolean bulkDeletable;
+
+	/** The query timeout in milliseconds, zero or negative for none */
+	private int queryTimeout;
+
+	/** Whether disabled dates in the future are supported */
+	private boolean scheduledDisabling;
+
+	/** Records hard deletions for changes feeds, if any */
+	private ChangeTombstones changeTombstones;
+
 	/**
 	 * Creates a new {@link ModelRepositoryImpl} to manage objects of the given domain type.
 	 *
@@ -110,6 +145,10 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 		this.entityInformation = entityInformation;
 		this.domainClass = entityInformation.getJavaType();
 		this.disableableDomainClass = DisableableModel.class.isAssignableFrom(this.domainClass);
+		this.auditedDomainClass = BasicAuditedModel.class.isAssignableFrom(this.domainClass);
+		this.hierarchicalDomainClass = AbstractPersistableHierarchicalModel.class.isAssignableFrom(this.domainClass);
+		this.bulkDeletable = isBulkDeletable(entityManager.getMetamodel(), this.domainClass);
+		this.queryTimeout = QueryGuardrails.getQueryTimeout(this.domainClass, 0);
 		selfValidate();
 		// TODO  Configuration config = ConfigurationFactory.getConfiguration();
 		//String[] validatorExcludeClasses = config.getStringArray(ConfigurationFactory.VALIDATOR_EXCLUDES_CLASSESS);
@@ -148,6 +187,29 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 		this.validator = validator;
 	}
 
+	/**
+	 * Set the default query timeout in milliseconds, used unless overridden by the domain class
+	 * @see QueryGuardrails#getQueryTimeout(Class, int)
+	 */
+	public void setDefaultQueryTimeout(int defaultQueryTimeout) {
+		this.queryTimeout = QueryGuardrails.getQueryTimeout(this.domainClass, defaultQueryTimeout);
+	}
+
+	/**
+	 * Set whether disabled dates in the future are supported, at the cost of
+	 * a soft-delete filter that cannot fully use a partial index on active rows
+	 */
+	public void setScheduledDisabling(boolean scheduledDisabling) {
+		this.scheduledDisabling = scheduledDisabling;
+	}
+
+	/**
+	 * Set the store recording hard deletions of audited entities
+	 */
+	public void setChangeTombstones(ChangeTombstones changeTombstones) {
+		this.changeTombstones = changeTombstones;
+	}
+
     @Override
     public EntityManager getEntityManager() {
         return em;
@@ -163,7 +225,35 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 		this.validate(entity);
 		boolean isNew = this.entityInformation.isNew(entity);
 		LOGGER.debug("ModelRepositoryImpl.save: entity {} as {}, is new: {}", entity, getDomainClass().getSimpleName(), isNew);
-		return super.save(entity);
+		this.enlistChanges();
+		Object[] oldPath = this.hierarchicalDomainClass && !isNew ? this.findPersistedPath(entity) : null;
+		S saved = super.save(entity);
+		if (oldPath != null) {
+			this.updateDescendants(saved, (String) oldPath[0], (Short) oldPath[1]);
+		}
+		return saved;
+	}
+
+	/**
+	 * Get the persisted path and path level of the given hierarchical entity, null if not persisted
+	 */
+	@Nullable
+	protected Object[] findPersistedPath(T entity) {
+		// Paths of managed entities are only recomputed on flush
+		if (this.em.contains(entity)) {
+			AbstractPersistableHierarchicalModel node = (AbstractPersistableHierarchicalModel) entity;
+			return new Object[]{node.getPath(), node.getPathLevel()};
+		}
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+		Root<T> root = query.from(this.domainClass);
+		query.multiselect(root.get(FIELD_PATH), root.get(FIELD_PATH_LEVEL))
+				.where(cb.equal(root.get(this.getIdAttributeName()), this.entityInformation.getId(entity)));
+		List<Object[]> results = applyQueryTimeout(this.em.createQuery(query))
+				// i.e. without flushing pending changes of the entity
+				.setFlushMode(FlushModeType.COMMIT)
+				.getResultList();
+		return results.isEmpty() ? null : results.get(0);
 	}
 
 	/***
@@ -233,9 +323,14 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 
 		// load existing
 		T entity = this.getOne(getIdAttribute(delta));
+		String oldPath = this.hierarchicalDomainClass ? ((AbstractPersistableHierarchicalModel) entity).getPath() : null;
+		Short oldLevel = this.hierarchicalDomainClass ? ((AbstractPersistableHierarchicalModel) entity).getPathLevel() : null;
 		entity = delta.toPatched(entity);
 		// validate
 		this.validate(entity);
+		if (this.hierarchicalDomainClass) {
+			this.updateDescendants(entity, oldPath, oldLevel);
+		}
 		// persist changes
 		return this.em.merge(entity);
 	}
@@ -275,9 +370,15 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	private T patch(@NonNull @P("resource") T delta, @NonNull String[] ignoredPropertyNames) {
 		// load existing
 		T persisted = this.getOne(entityInformation.getId(delta));
+		// read before copying, i.e. overwriting the persisted path and level
+		String oldPath = this.hierarchicalDomainClass ? ((AbstractPersistableHierarchicalModel) persisted).getPath() : null;
+		Short oldLevel = this.hierarchicalDomainClass ? ((AbstractPersistableHierarchicalModel) persisted).getPathLevel() : null;
 		BeanUtils.copyProperties(delta, persisted, ignoredPropertyNames);
 		// validate
 		this.validate(persisted);
+		if (this.hierarchicalDomainClass) {
+			this.updateDescendants(persisted, oldPath, oldLevel);
+		}
 		// persist changes
 		return this.em.merge(persisted);
 	}
@@ -398,6 +499,159 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 		}
 	}
 
+	/**
+	 * Find the entities matching the given IDs, in the iteration order of the latter.
+	 * IDs are queried in chunks of up to {@link InClauseUtils#MAX_IN_PARAMETERS}, with
+	 * each chunk padded to limit the number of distinct statements.
+	 */
+	@Override
+	public List<T> findAllById(Iterable<PK> ids) {
+		Assert.notNull(ids, "The given Iterable of Id's must not be null!");
+		if (this.entityInformation.hasCompositeId()) {
+			return super.findAllById(ids);
+		}
+		LinkedHashSet<PK> distinctIds = new LinkedHashSet<>();
+		ids.forEach(distinctIds::add);
+		if (distinctIds.isEmpty()) {
+			return Collections.emptyList();
+		}
+		String idAttributeName = this.getIdAttributeName();
+		Map<PK, T> found = new HashMap<>(distinctIds.size() * 2);
+		for (List<PK> chunk : InClauseUtils.partition(distinctIds)) {
+			List<PK> padded = InClauseUtils.pad(chunk);
+			for (T entity : this.findAll((root, query, cb) -> root.get(idAttributeName).in(padded))) {
+				found.put(this.entityInformation.getId(entity), entity);
+			}
+		}
+		// Merge in requested order
+		List<T> results = new ArrayList<>(found.size());
+		for (PK id : distinctIds) {
+			T entity = found.get(id);
+			if (entity != null) {
+				results.add(entity);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Map<String, Object>> findAllProjected(@Nullable Specification<T> spec, @NonNull Pageable pageable, @NonNull Collection<String> fieldNames) {
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(this.domainClass);
+		List<Selection<?>> selections = new ArrayList<>(fieldNames.size());
+		for (String fieldName : fieldNames) {
+			selections.add(root.get(fieldName).alias(fieldName));
+		}
+		query.multiselect(selections);
+		Specification<T> filter = applyDisabledFilter(spec);
+		if (filter != null) {
+			Predicate predicate = filter.toPredicate(root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		if (pageable.getSort().isSorted()) {
+			query.orderBy(toOrders(pageable.getSort(), root, cb));
+		}
+		TypedQuery<Tuple> typedQuery = applyQueryTimeout(this.em.createQuery(query));
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+		}
+		List<Tuple> tuples = typedQuery.getResultList();
+		List<Map<String, Object>> content = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (TupleElement<?> element : tuple.getElements()) {
+				row.put(element.getAlias(), tuple.get(element));
+			}
+			content.add(row);
+		}
+		return PageableExecutionUtils.getPage(content, pageable, () -> {
+			long total = 0;
+			for (Long count : getCountQuery(spec, this.domainClass).getResultList()) {
+				total += count != null ? count : 0;
+			}
+			return total;
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Map<String, Object>> aggregate(@Nullable Specification<T> spec, @NonNull List<String> groupBy, @NonNull List<AggregateMetric> metrics, int maxResults) {
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(this.domainClass);
+		// use positional aliases as metric expressions are not valid JPQL identifiers
+		List<Selection<?>> selections = new ArrayList<>(groupBy.size() + metrics.size());
+		List<Expression<?>> grouping = new ArrayList<>(groupBy.size());
+		for (int i = 0; i < groupBy.size(); i++) {
+			Path<?> path = root.get(groupBy.get(i));
+			grouping.add(path);
+			selections.add(path.alias("g" + i));
+		}
+		for (int i = 0; i < metrics.size(); i++) {
+			selections.add(this.toAggregateExpression(cb, root, metrics.get(i)).alias("m" + i));
+		}
+		query.multiselect(selections);
+		Specification<T> filter = applyDisabledFilter(spec);
+		if (filter != null) {
+			Predicate predicate = filter.toPredicate(root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		if (!grouping.isEmpty()) {
+			query.groupBy(grouping);
+			List<javax.persistence.criteria.Order> orders = new ArrayList<>(grouping.size());
+			for (Expression<?> expression : grouping) {
+				orders.add(cb.asc(expression));
+			}
+			query.orderBy(orders);
+		}
+		TypedQuery<Tuple> typedQuery = applyQueryTimeout(this.em.createQuery(query));
+		if (maxResults > 0) {
+			typedQuery.setMaxResults(maxResults);
+		}
+		List<Tuple> tuples = typedQuery.getResultList();
+		List<Map<String, Object>> results = new ArrayList<>(tuples.size());
+		for (Tuple tuple : tuples) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			for (int i = 0; i < groupBy.size(); i++) {
+				row.put(groupBy.get(i), tuple.get(i));
+			}
+			for (int i = 0; i < metrics.size(); i++) {
+				row.put(metrics.get(i).getAlias(), tuple.get(groupBy.size() + i));
+			}
+			results.add(row);
+		}
+		return results;
+	}
+
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	protected Expression<?> toAggregateExpression(CriteriaBuilder cb, Root<T> root, AggregateMetric metric) {
+		switch (metric.getFunction()) {
+			case COUNT:
+				return metric.getFieldName() != null ? cb.count(root.get(metric.getFieldName())) : cb.count(root);
+			case SUM:
+				return cb.sum(root.<Number>get(metric.getFieldName()));
+			case AVG:
+				return cb.avg(root.<Number>get(metric.getFieldName()));
+			case MIN:
+				return cb.least((Expression) root.get(metric.getFieldName()));
+			case MAX:
+				return cb.greatest((Expression) root.get(metric.getFieldName()));
+			default:
+				throw new IllegalArgumentException("Unsupported aggregate function: " + metric.getFunction());
+		}
+	}
+
 	/**
 	 * Creates a {@link TypedQuery} for the given {@link Specification} and {@link Sort}.
 	 *
@@ -408,9 +662,116 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	 */
 	@Override
 	protected <S extends T> TypedQuery<S> getQuery(@Nullable Specification<S> spec, Class<S> domainClass, Sort sort) {
-		return super.getQuery(applyDisabledFilter(spec), domainClass, sort);
+		return applyQueryTimeout(super.getQuery(applyDisabledFilter(spec), domainClass, sort));
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<T> findModifiedAfter(@Nullable LocalDateTime lastModifiedDate, @Nullable PK id, @NonNull LocalDateTime until, int maxResults) {
+		Assert.state(this.auditedDomainClass, "Changes are only tracked for BasicAuditedModel types");
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaQuery<T> query = cb.createQuery(this.domainClass);
+		Root<T> root = query.from(this.domainClass);
+		Path<LocalDateTime> modified = root.get(FIELD_LAST_MODIFIED_DATE);
+		Path<Comparable> idPath = root.get(this.getIdAttributeName());
+		// Keyset: (modified, id) > (lastModifiedDate, id)
+		Predicate predicate = cb.lessThanOrEqualTo(modified, until);
+		if (lastModifiedDate != null) {
+			Predicate after = cb.greaterThan(modified, lastModifiedDate);
+			if (id != null) {
+				after = cb.or(after, cb.and(cb.equal(modified, lastModifiedDate), cb.greaterThan(idPath, (Comparable) id)));
+			}
+			predicate = cb.and(predicate, after);
+		}
+		query.where(predicate).orderBy(cb.asc(modified), cb.asc(idPath));
+		// Soft-deleted entities are included on purpose
+		return applyQueryTimeout(this.em.createQuery(query))
+				.setMaxResults(maxResults)
+				.getResultList();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<T> findDescendants(@NonNull PK id, @Nullable Integer maxDepth, @Nullable Specification<T> spec, @NonNull Pageable pageable) {
+		AbstractPersistableHierarchicalModel node = this.getHierarchyNode(id);
+		// A prefix pattern, i.e. able to use an index on the path
+		String pattern = escapeLike(node.getDescendantPathPrefix()) + '%';
+		Integer maxLevel = maxDepth != null ? node.getPathLevel() + maxDepth : null;
+		Specification<T> descendants = (root, query, cb) -> {
+			Predicate like = cb.like(root.get(FIELD_PATH), pattern, LIKE_ESCAPE);
+			return maxLevel != null ? cb.and(like, cb.le(root.get(FIELD_PATH_LEVEL), maxLevel)) : like;
+		};
+		return this.findAll(spec != null ? descendants.and(spec) : descendants, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<T> findAncestors(@NonNull PK id) {
+		List<String> paths = this.getHierarchyNode(id).getAncestorPaths();
+		if (paths.isEmpty()) {
+			return Collections.emptyList();
+		}
+		Specification<T> ancestors = (root, query, cb) -> InClauseUtils.in(cb, root.get(FIELD_PATH), paths);
+		return this.findAll(ancestors, Sort.by(FIELD_PATH_LEVEL));
+	}
+
+	protected AbstractPersistableHierarchicalModel getHierarchyNode(PK id) {
+		Assert.state(this.hierarchicalDomainClass, "Hierarchy queries require an AbstractPersistableHierarchicalModel type");
+		return (AbstractPersistableHierarchicalModel) this.findById(id)
+				.orElseThrow(() -> new NotFoundException("Could not find a resource with id: " + id));
+	}
+
+	/**
+	 * Recompute the path of the given hierarchical entity and, if it was renamed or moved,
+	 * rewrite the paths and levels of all descendants with a single <code>UPDATE</code>
+	 *
+	 * @param entity   the entity being updated
+	 * @param oldPath  the persisted path of the entity
+	 * @param oldLevel the persisted path level of the entity
+	 */
+	protected void updateDescendants(T entity, @Nullable String oldPath, @Nullable Short oldLevel) {
+		AbstractPersistableHierarchicalModel node = (AbstractPersistableHierarchicalModel) entity;
+		node.preSave();
+		String newPath = node.getPath();
+		if (oldPath == null || oldPath.equals(newPath)) {
+			return;
+		}
+		String separator = node.getDescendantPathPrefix().substring(newPath.length());
+		String oldPrefix = oldPath + separator;
+		if (newPath.startsWith(oldPrefix)) {
+			throw new BadRequestException("Cannot move a resource under its own descendant: " + oldPath);
+		}
+		int levelDelta = oldLevel != null ? node.getPathLevel() - oldLevel : 0;
+		this.enlistChanges();
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaUpdate<T> update = cb.createCriteriaUpdate(this.domainClass);
+		Root<T> root = update.from(this.domainClass);
+		Path<String> path = root.get(FIELD_PATH);
+		Path<Short> level = root.get(FIELD_PATH_LEVEL);
+		// i.e. the new path followed by the path remainder after the old path
+		update.set(path, cb.concat(newPath, cb.substring(path, oldPath.length() + 1)));
+		if (levelDelta != 0) {
+			update.set(level, cb.sum(level, (short) levelDelta));
+		}
+		if (this.auditedDomainClass) {
+			update.set(root.<LocalDateTime>get(FIELD_LAST_MODIFIED_DATE), LocalDateTime.now());
+		}
+		update.where(cb.like(path, escapeLike(oldPrefix) + '%', LIKE_ESCAPE));
+		int count = applyQueryTimeout(this.em.createQuery(update)).executeUpdate();
+		LOGGER.debug("updateDescendants, old path: {}, new path: {}, descendants: {}", oldPath, newPath, count);
+	}
+
+	/** Escape the wildcards of the given <code>LIKE</code> pattern literal using {@link #LIKE_ESCAPE} */
+	protected static String escapeLike(String value) {
+		return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -419,10 +780,16 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	@Transactional(readOnly = false)
 	@Override
 	public void deleteById(PK id) {
+		this.enlistChanges();
 		if (this.disableableDomainClass) {
 			this.softDelete(id);
 		}
-		else super.deleteById(id);
+		else {
+			T entity = this.findById(id).orElseThrow(() -> new EmptyResultDataAccessException(
+					String.format("No %s entity with id %s exists!", this.domainClass, id), 1));
+			super.delete(entity);
+			this.recordDeletions(Collections.singletonList(id));
+		}
     }
 
     /**
@@ -445,14 +812,127 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	@Transactional(readOnly = false)
 	@Override
 	public void deleteAll(@NotNull Iterable<? extends T> entities) {
+		this.enlistChanges();
 		if (this.disableableDomainClass) {
-			IdentifierAdapter<T, PK> idAdapter =
-					(IdentifierAdapter<T, PK>) IdentifierAdaptersRegistry.getAdapterForClass(getDomainClass());
+			this.deleteAllByIdInBatch(this.readIds(entities));
+		}
+		else {
+			List<PK> ids = this.changeTombstones != null ? this.readIds(entities) : Collections.emptyList();
+			// Not super.deleteAll, i.e. bypass the unsupported delete(T)
 			for (T entity : entities) {
-				this.softDelete(idAdapter.readId(entity));
+				super.delete(entity);
+			}
+			this.recordDeletions(ids);
+		}
+	}
+
+	private List<PK> readIds(Iterable<? extends T> entities) {
+		IdentifierAdapter<T, PK> idAdapter =
+				(IdentifierAdapter<T, PK>) IdentifierAdaptersRegistry.getAdapterForClass(getDomainClass());
+		List<PK> ids = new ArrayList<>();
+		for (T entity : entities) {
+			ids.add(idAdapter.readId(entity));
+		}
+		return ids;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PK> findAllIds(@Nullable Specification<T> spec) {
+		return this.findAllIds(spec, 0);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PK> findAllIds(@Nullable Specification<T> spec, int maxResults) {
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		CriteriaQuery<Object> query = cb.createQuery(Object.class);
+		Root<T> root = query.from(this.domainClass);
+		query.select(root.get(this.getIdAttributeName()));
+		Specification<T> filtered = applyDisabledFilter(spec);
+		if (filtered != null) {
+			Predicate predicate = filtered.toPredicate(root, query, cb);
+			if (predicate != null) {
+				query.where(predicate);
+			}
+		}
+		TypedQuery<Object> typedQuery = applyQueryTimeout(this.em.createQuery(query));
+		if (maxResults > 0) {
+			typedQuery.setMaxResults(maxResults);
+		}
+		return (List<PK>) typedQuery.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Transactional(readOnly = false)
+	@Override
+	public int deleteAllByIdInBatch(@NonNull Collection<PK> ids) {
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		this.enlistChanges();
+		// Composite identifiers are not supported in IN lists by all providers
+		if (this.entityInformation.hasCompositeId() && this.disableableDomainClass) {
+			for (PK id : ids) {
+				this.softDelete(id);
+			}
+			return ids.size();
+		}
+		// Cascades, element collections and join tables require removing entities one by one
+		if (!this.disableableDomainClass && (this.entityInformation.hasCompositeId() || !this.bulkDeletable)) {
+			return this.deleteEntities(ids);
+		}
+		// Write pending changes before bypassing the persistence context
+		this.em.flush();
+		CriteriaBuilder cb = this.em.getCriteriaBuilder();
+		int count = 0;
+		for (List<PK> chunk : InClauseUtils.partition(ids)) {
+			if (this.disableableDomainClass) {
+				CriteriaUpdate<T> update = cb.createCriteriaUpdate(this.domainClass);
+				Root<T> root = update.from(this.domainClass);
+				LocalDateTime now = LocalDateTime.now();
+				update.set(root.<LocalDateTime>get(FIELD_DISABLED), now);
+				if (this.auditedDomainClass) {
+					update.set(root.<LocalDateTime>get(FIELD_LAST_MODIFIED_DATE), now);
+				}
+				update.where(InClauseUtils.in(cb, root.get(this.getIdAttributeName()), chunk));
+				count += applyQueryTimeout(this.em.createQuery(update)).executeUpdate();
+			}
+			else {
+				CriteriaDelete<T> delete = cb.createCriteriaDelete(this.domainClass);
+				Root<T> root = delete.from(this.domainClass);
+				delete.where(InClauseUtils.in(cb, root.get(this.getIdAttributeName()), chunk));
+				count += applyQueryTimeout(this.em.createQuery(delete)).executeUpdate();
+				this.recordDeletions(chunk);
+			}
+		}
+		// Detach entities made stale by the statements
+		this.detachManaged(ids);
+		return count;
+	}
+
+	/**
+	 * Remove the entities with the given identifiers one by one, i.e. applying cascades, ignoring missing ones
+	 *
+	 * @return the number of deleted entities
+	 */
+	protected int deleteEntities(Collection<PK> ids) {
+		List<PK> deleted = new ArrayList<>(ids.size());
+		for (PK id : ids) {
+			Optional<T> entity = this.findById(id);
+			if (entity.isPresent()) {
+				super.delete(entity.get());
+				deleted.add(id);
 			}
 		}
-		else super.deleteAll(entities);
+		this.recordDeletions(deleted);
+		return deleted.size();
 	}
 
 	/*
@@ -462,16 +942,22 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	@Transactional(readOnly = false)
 	@Override
 	public void deleteInBatch(Iterable<T> entities) {
+		this.enlistChanges();
 		if (this.disableableDomainClass) {
-            if (!entities.iterator().hasNext()) {
-                return;
-            }
-            applyAndBind(
-                    getQueryString(SOFT_DELETE_ALL_QUERY_STRING, entityInformation.getEntityName()),
-					entities, em
-			).executeUpdate();
+			// By id, i.e. using the application clock for the disabled and modification dates
+			this.deleteAllByIdInBatch(this.readIds(entities));
+		}
+		else if (!this.bulkDeletable) {
+			this.deleteAll(entities);
+		}
+		else {
+			List<PK> ids = this.readIds(entities);
+			// Write pending changes before bypassing the persistence context
+			this.em.flush();
+			super.deleteInBatch(entities);
+			this.recordDeletions(ids);
+			this.detachManaged(ids);
 		}
-		else super.deleteInBatch(entities);
 	}
 
 	/*
@@ -481,8 +967,29 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	@Transactional(readOnly = false)
 	@Override
 	public void deleteAll() {
-		for (T element : findAll()) {
-			delete(element);
+		this.enlistChanges();
+		if (this.disableableDomainClass) {
+			// Single statement, skipping already disabled entities
+			CriteriaBuilder cb = this.em.getCriteriaBuilder();
+			CriteriaUpdate<T> update = cb.createCriteriaUpdate(this.domainClass);
+			Root<T> root = update.from(this.domainClass);
+			LocalDateTime now = LocalDateTime.now();
+			update.set(root.<LocalDateTime>get(FIELD_DISABLED), now);
+			if (this.auditedDomainClass) {
+				update.set(root.<LocalDateTime>get(FIELD_LAST_MODIFIED_DATE), now);
+			}
+			update.where(this.scheduledDisabling
+					? cb.or(cb.isNull(root.get(FIELD_DISABLED)), cb.greaterThan(root.get(FIELD_DISABLED), now))
+					: cb.isNull(root.get(FIELD_DISABLED)));
+			this.em.flush();
+			applyQueryTimeout(this.em.createQuery(update)).executeUpdate();
+			this.detachManaged(null);
+		}
+		else if (!this.bulkDeletable) {
+			this.deleteAll(this.findAll());
+		}
+		else {
+			this.deleteAllInBatch();
 		}
 	}
 
@@ -493,9 +1000,97 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	@Transactional(readOnly = false)
 	@Override
     public void deleteAllInBatch() {
+		this.enlistChanges();
+		List<PK> ids = this.changeTombstones != null && ChangeTombstones.isTracked(this.domainClass)
+				? this.findAllIds(null) : Collections.emptyList();
+		this.em.flush();
         em.createQuery(
                 getQueryString(DELETE_ALL_QUERY_STRING, entityInformation.getEntityName()))
 				.executeUpdate();
+		this.recordDeletions(ids);
+		this.detachManaged(null);
+	}
+
+	/**
+	 * Detach managed instances of the domain class made stale by a bulk statement, keeping
+	 * other entities of the persistence context and their pending changes.
+	 *
+	 * @param ids the identifiers of the affected entities, null for all instances
+	 */
+	protected void detachManaged(@Nullable Collection<PK> ids) {
+		Set<PK> affected = ids != null ? new HashSet<>(ids) : null;
+		SessionImplementor session = this.em.unwrap(SessionImplementor.class);
+		for (Map.Entry<Object, EntityEntry> entry : session.getPersistenceContext().reentrantSafeEntityEntries()) {
+			if (this.domainClass.isInstance(entry.getKey())
+					&& (affected == null || affected.contains(entry.getValue().getId()))) {
+				session.detach(entry.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Whether entities of the given type can be deleted with bulk statements, i.e. without cascaded
+	 * removals, element collections or join tables that only the persistence context would handle
+	 */
+	protected static boolean isBulkDeletable(Metamodel metamodel, Class<?> domainClass) {
+		EntityType<?> entityType;
+		try {
+			entityType = metamodel.entity(domainClass);
+		}
+		catch (IllegalArgumentException e) {
+			return false;
+		}
+		for (Attribute<?, ?> attribute : entityType.getAttributes()) {
+			Attribute.PersistentAttributeType type = attribute.getPersistentAttributeType();
+			if (type == Attribute.PersistentAttributeType.ELEMENT_COLLECTION
+					|| type == Attribute.PersistentAttributeType.MANY_TO_MANY) {
+				return false;
+			}
+			if (attribute.isAssociation() && attribute.getJavaMember() instanceof AnnotatedElement) {
+				AnnotatedElement member = (AnnotatedElement) attribute.getJavaMember();
+				OneToMany oneToMany = member.getAnnotation(OneToMany.class);
+				OneToOne oneToOne = member.getAnnotation(OneToOne.class);
+				ManyToOne manyToOne = member.getAnnotation(ManyToOne.class);
+				if (member.isAnnotationPresent(JoinTable.class)
+						// i.e. a unidirectional one-to-many using a join table
+						|| (oneToMany != null && oneToMany.mappedBy().isEmpty() && !member.isAnnotationPresent(JoinColumn.class))
+						|| (oneToMany != null && (oneToMany.orphanRemoval() || isRemoveCascade(oneToMany.cascade())))
+						|| (oneToOne != null && (oneToOne.orphanRemoval() || isRemoveCascade(oneToOne.cascade())))
+						|| (manyToOne != null && isRemoveCascade(manyToOne.cascade()))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	private static boolean isRemoveCascade(CascadeType[] cascadeTypes) {
+		for (CascadeType cascadeType : cascadeTypes) {
+			if (cascadeType == CascadeType.REMOVE || cascadeType == CascadeType.ALL) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Record the current transaction as writing changes of an audited type
+	 * @see ChangesWatermark
+	 */
+	protected void enlistChanges() {
+		if (this.auditedDomainClass) {
+			ChangesWatermark.enlist();
+		}
+	}
+
+	/**
+	 * Record the given hard-deleted identifiers for changes feeds, if tracked for the domain class
+	 * @see ChangeTombstones
+	 */
+	protected void recordDeletions(Collection<PK> ids) {
+		if (this.changeTombstones != null) {
+			this.changeTombstones.record(this.domainClass, ids);
+		}
 	}
 
 	/**
@@ -507,15 +1102,27 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 	 */
 	@Override
 	protected <S extends T> TypedQuery<Long> getCountQuery(@Nullable Specification<S> spec, Class<S> domainClass) {
-		return super.getCountQuery(applyDisabledFilter(spec), domainClass);
+		return applyQueryTimeout(super.getCountQuery(applyDisabledFilter(spec), domainClass));
 	}
 
 
-	/** Applies a soft-delete filter */
+	/** Applies the query timeout hint, if any */
+	protected <Q extends Query> Q applyQueryTimeout(Q query) {
+		if (this.queryTimeout > 0) {
+			query.setHint(QueryGuardrails.HINT_QUERY_TIMEOUT, this.queryTimeout);
+		}
+		return query;
+	}
+
+	/**
+	 * Applies a soft-delete filter. Unless scheduled disabling is enabled, this is a single
+	 * <code>disabled IS NULL</code> predicate, matching a partial index on active rows.
+	 */
 	private <S extends T> Specification<S> applyDisabledFilter(@Nullable Specification<S> spec) {
 		if (this.disableableDomainClass) {
-			if (spec == null) spec = notDisabled();
-			else spec = spec.and(notDisabled());
+			Specification<S> notDisabled = this.scheduledDisabling ? notDisabled() : new DisabledIsNull<S>();
+			if (spec == null) spec = notDisabled;
+			else spec = spec.and(notDisabled);
 		}
 		return spec;
     }
@@ -530,7 +1137,13 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
         // set the root class
         Root e = update.from(this.domainClass);
         // set update and where clause
-        update.set("disabled", LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        update.set("disabled", now);
+        // make the deletion visible to change tracking
+        if (this.auditedDomainClass) {
+            update.set(FIELD_LAST_MODIFIED_DATE, now);
+        }
+        this.enlistChanges();
         update.where(cb.equal(e.get("id"), id));
 		// perform update
 		this.em.createQuery(update).executeUpdate();
@@ -538,6 +1151,14 @@ public class ModelRepositoryImpl<T, PK extends Serializable>
 
 	private static final String FIELD_DISABLED = "disabled";
 
+	private static final String FIELD_PATH = "path";
+
+	private static final String FIELD_PATH_LEVEL = "pathLevel";
+
+	private static final char LIKE_ESCAPE = '!';
+
+	private static final String FIELD_LAST_MODIFIED_DATE = "lastModifiedDate";
+
 	public static final String SOFT_DELETE_ALL_QUERY_STRING = "update %s x set disabled = NOW()";
 
 	private static final class DisabledIsNull<T> implements Specification<T> {
@@ -0,0 +1,284 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.repository;
+
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.DisableableModel;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.hibernate.persister.entity.SingleTableEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Periodically moves rows of {@link DisableableModel} entities disabled more than
+ * <code>scrudbeans.soft-delete.archive-after</code> days ago to an archive table, i.e. the
+ * entity table name suffixed with {@link #ARCHIVE_TABLE_SUFFIX}, keeping entity tables small.
+ * Rows are copied and deleted in batches, one transaction per batch. Missing archive tables
+ * are created as per {@link #getArchiveTableDdl(Class)}. Batches lock their rows and skip rows
+ * already archived, so that concurrent runs on multiple nodes do not duplicate archived rows.
+ * Only columns present in both tables are copied.
+ *
+ * Only root entities mapped to a single table with a single identifier column are archived.
+ * Rows still referenced by foreign keys fail to delete, in which case archiving the type is
+ * skipped until the next run.
+ */
+public class SoftDeleteArchiver implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(SoftDeleteArchiver.class);
+
+	public static final String ARCHIVE_TABLE_SUFFIX = "_archive";
+
+	private EntityManagerFactory entityManagerFactory;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionTemplate transactionTemplate;
+
+	private ScrudBeansProperties scrudBeansProperties;
+
+	private ScheduledExecutorService scheduler;
+
+	/** The columns copied per type with an existing archive table */
+	private final Map<Class<?>, String> archiveColumns = new ConcurrentHashMap<>();
+
+	@PersistenceUnit
+	public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	@Autowired
+	public void setTransactionManager(PlatformTransactionManager transactionManager) {
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	@Autowired
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		ScrudBeansProperties.SoftDelete config = this.scrudBeansProperties.getSoftDelete();
+		if (config.getArchiveAfter() > 0) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "scrudbeans-archiver");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.scheduler.scheduleWithFixedDelay(this::archive, config.getArchiveInterval(), config.getArchiveInterval(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+		}
+	}
+
+	/**
+	 * Archive rows of all eligible entity types
+	 */
+	public void archive() {
+		int days = this.scrudBeansProperties.getSoftDelete().getArchiveAfter();
+		if (days <= 0) {
+			return;
+		}
+		LocalDateTime before = LocalDateTime.now().minusDays(days);
+		for (EntityType<?> entityType : this.entityManagerFactory.getMetamodel().getEntities()) {
+			Class<?> modelType = entityType.getJavaType();
+			if (DisableableModel.class.isAssignableFrom(modelType)) {
+				try {
+					this.archive(modelType, before);
+				}
+				catch (RuntimeException e) {
+					LOGGER.error("Failed archiving disabled rows of type: " + modelType.getName(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Archive rows of the given type disabled before the given date
+	 *
+	 * @return the number of archived rows
+	 */
+	public int archive(Class<?> modelType, LocalDateTime before) {
+		AbstractEntityPersister persister = this.getPersister(modelType);
+		if (!this.isArchivable(persister)) {
+			LOGGER.debug("archive, skipping unsupported type: {}", modelType);
+			return 0;
+		}
+		String columns = this.ensureArchiveTable(modelType, persister);
+		String table = persister.getTableName();
+		String archiveTable = getArchiveTableName(table);
+		String idColumn = persister.getIdentifierColumnNames()[0];
+		String disabledColumn = persister.getPropertyColumnNames("disabled")[0];
+		int batchSize = Math.min(this.scrudBeansProperties.getSoftDelete().getArchiveBatchSize(), InClauseUtils.MAX_IN_PARAMETERS);
+		JdbcTemplate select = new JdbcTemplate(this.jdbcTemplate.getDataSource());
+		select.setMaxRows(batchSize);
+		// Lock the batch, i.e. concurrent runs wait and then find the rows deleted
+		String selectSql = "SELECT " + idColumn + " FROM " + table + " WHERE " + disabledColumn + " < ?"
+				+ persister.getFactory().getJdbcServices().getDialect().getForUpdateString();
+		int total = 0;
+		while (true) {
+			Integer count = this.transactionTemplate.execute(status -> {
+				List<Object> ids = select.queryForList(selectSql, Object.class, before);
+				if (ids.isEmpty()) {
+					return 0;
+				}
+				List<Object> padded = InClauseUtils.pad(ids);
+				String in = " WHERE " + idColumn + " IN (" + StringUtils.repeat("?", ",", padded.size()) + ")";
+				Object[] args = padded.toArray();
+				// Skip rows already archived, e.g. by a run whose deletion failed to commit
+				this.jdbcTemplate.update("INSERT INTO " + archiveTable + " (" + columns + ") SELECT " + columns + " FROM " + table + in
+						+ " AND NOT EXISTS (SELECT 1 FROM " + archiveTable + " a WHERE a." + idColumn + " = " + table + "." + idColumn + ")", args);
+				this.jdbcTemplate.update("DELETE FROM " + table + in, args);
+				return ids.size();
+			});
+			total += count;
+			if (count < batchSize) {
+				break;
+			}
+		}
+		LOGGER.debug("archive, type: {}, rows: {}", modelType, total);
+		return total;
+	}
+
+	/**
+	 * Get the DDL creating the archive table of the given model type, with the same columns as the entity table
+	 */
+	public String getArchiveTableDdl(Class<?> modelType) {
+		String table = this.getPersister(modelType).getTableName();
+		return "CREATE TABLE " + getArchiveTableName(table) + " AS SELECT * FROM " + table + " WHERE 1 = 0";
+	}
+
+	/**
+	 * Get the DDL creating a partial index on the active rows of the given model type,
+	 * i.e. the rows matched by the default soft-delete filter. Supported by e.g. PostgreSQL and SQLite.
+	 *
+	 * @param modelType  the model type
+	 * @param properties the indexed properties, typically the ones used for filtering and sorting
+	 */
+	public String getActiveRowsIndexDdl(Class<?> modelType, String... properties) {
+		AbstractEntityPersister persister = this.getPersister(modelType);
+		List<String> columns = new ArrayList<>();
+		for (String property : properties) {
+			Collections.addAll(columns, persister.getPropertyColumnNames(property));
+		}
+		if (columns.isEmpty()) {
+			Collections.addAll(columns, persister.getIdentifierColumnNames());
+		}
+		String table = persister.getTableName();
+		return "CREATE INDEX " + table.replace('.', '_') + "_" + String.join("_", columns) + "_active_idx ON " + table
+				+ " (" + String.join(", ", columns) + ") WHERE " + persister.getPropertyColumnNames("disabled")[0] + " IS NULL";
+	}
+
+	protected boolean isArchivable(AbstractEntityPersister persister) {
+		return persister instanceof SingleTableEntityPersister
+				&& persister.getEntityName().equals(persister.getRootEntityName())
+				&& persister.getIdentifierColumnNames().length == 1;
+	}
+
+	/**
+	 * Create the archive table of the given type if missing
+	 *
+	 * @return the comma-separated columns present in both the entity and archive tables
+	 */
+	protected String ensureArchiveTable(Class<?> modelType, AbstractEntityPersister persister) {
+		return this.archiveColumns.computeIfAbsent(modelType, type -> {
+			String table = persister.getTableName();
+			String archiveTable = getArchiveTableName(table);
+			List<String> archived;
+			try {
+				archived = this.getColumnNames(archiveTable);
+			}
+			catch (DataAccessException e) {
+				String ddl = this.getArchiveTableDdl(modelType);
+				LOGGER.info("Creating archive table: {}", ddl);
+				this.jdbcTemplate.execute(ddl);
+				archived = this.getColumnNames(archiveTable);
+			}
+			List<String> columns = new ArrayList<>();
+			for (String column : this.getColumnNames(table)) {
+				if (archived.contains(column)) {
+					columns.add(column);
+				}
+				else {
+					LOGGER.warn("Column {} is missing from archive table {} and will not be archived", column, archiveTable);
+				}
+			}
+			return String.join(", ", columns);
+		});
+	}
+
+	private List<String> getColumnNames(String table) {
+		return this.jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+			ResultSetMetaData metaData = rs.getMetaData();
+			List<String> names = new ArrayList<>(metaData.getColumnCount());
+			for (int i = 1; i <= metaData.getColumnCount(); i++) {
+				names.add(metaData.getColumnName(i));
+			}
+			return names;
+		});
+	}
+
+	protected AbstractEntityPersister getPersister(Class<?> modelType) {
+		return (AbstractEntityPersister) this.entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+				.getMetamodel().entityPersister(modelType);
+	}
+
+	protected static String getArchiveTableName(String tableName) {
+		return tableName + ARCHIVE_TABLE_SUFFIX;
+	}
+}
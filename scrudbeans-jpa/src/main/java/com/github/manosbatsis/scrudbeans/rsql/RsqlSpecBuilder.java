@@ -21,18 +21,31 @@
 package com.github.manosbatsis.scrudbeans.rsql;
 
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.metadata.MetadataUtils;
+import com.github.manosbatsis.scrudbeans.specification.JunctionSpecification;
+import com.github.manosbatsis.scrudbeans.specification.MetadataPredicateSpecification;
 import com.github.manosbatsis.scrudbeans.specification.PredicateFactorySpecification;
 import cz.jirutka.rsql.parser.ast.ComparisonNode;
 import cz.jirutka.rsql.parser.ast.LogicalNode;
 import cz.jirutka.rsql.parser.ast.LogicalOperator;
 import cz.jirutka.rsql.parser.ast.Node;
+import cz.jirutka.rsql.parser.ast.RSQLOperators;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Used by {@link RsqlSpecVisitor} to generate {@link Specification}-based predicates from individual RSQL {@link Node}s
@@ -40,6 +53,9 @@ import java.util.List;
 @Slf4j
 public class RsqlSpecBuilder<T> {
 
+    /** Arguments with special meaning that prevent merging comparisons */
+    private static final Set<String> NON_MERGEABLE_ARGUMENTS = new HashSet<>(Arrays.asList("null", "IS_NULL", "IS_NOT_NULL"));
+
     private final ModelInfo modelInfo;
 
     private final ConversionService conversionService;
@@ -60,40 +76,134 @@ public class RsqlSpecBuilder<T> {
         return null;
     }
 
+    /**
+     * Create a single, flat junction for the given node, inlining nested nodes of the same operator.
+     * Within OR nodes, equality comparisons on the same selector are merged into a single IN comparison.
+     */
     public Specification<T> createSpecification(LogicalNode logicalNode) {
-        List<Specification<T>> specs = new ArrayList<>();
+        boolean disjunction = logicalNode.getOperator() == LogicalOperator.OR;
+        List<Node> children = flatten(logicalNode);
+        if (disjunction) {
+            children = mergeEqualityComparisons(children);
+        }
+        List<Specification<T>> specs = new ArrayList<>(children.size());
         Specification<T> temp;
-        for (Node node : logicalNode.getChildren()) {
+        for (Node node : children) {
             temp = createSpecification(node);
             if (temp != null) {
                 specs.add(temp);
             }
         }
-
-        Specification<T> result = specs.get(0);
-        if (logicalNode.getOperator() == LogicalOperator.AND) {
-            for (int i = 1; i < specs.size(); i++) {
-                result = Specification.where(result).and(specs.get(i));
-            }
-        } else if (logicalNode.getOperator() == LogicalOperator.OR) {
-            for (int i = 1; i < specs.size(); i++) {
-                result = Specification.where(result).or(specs.get(i));
-            }
+        Specification<T> result;
+        if (specs.isEmpty()) {
+            result = null;
+        } else if (specs.size() == 1) {
+            result = specs.get(0);
+        } else {
+            result = new JunctionSpecification<T>(disjunction, specs);
         }
-
         return result;
     }
 
     public Specification<T> createSpecification(ComparisonNode comparisonNode) {
-        Specification<T> result = Specification.where(
-                new PredicateFactorySpecification<T>(
-                        this.conversionService,
-                        this.modelInfo,
-                        comparisonNode.getSelector(),
-                        RsqlUtils.toPredicateOperator(comparisonNode.getOperator()),
-                        comparisonNode.getArguments()
-                )
+        String selector = comparisonNode.getSelector();
+        if (selector.startsWith(MetadataUtils.PATH_PREFIX)
+                && MetadataUtils.isMetadataSubject(this.modelInfo.getModelType())) {
+            return new MetadataPredicateSpecification<T>(
+                    this.conversionService,
+                    this.modelInfo.getModelType(),
+                    selector.substring(MetadataUtils.PATH_PREFIX.length()),
+                    RsqlUtils.toPredicateOperator(comparisonNode.getOperator()),
+                    comparisonNode.getArguments()
+            );
+        }
+        return new PredicateFactorySpecification<T>(
+                this.conversionService,
+                this.modelInfo,
+                comparisonNode.getSelector(),
+                RsqlUtils.toPredicateOperator(comparisonNode.getOperator()),
+                comparisonNode.getArguments()
         );
-        return result;
+    }
+
+    /**
+     * Get the children of the given node, replacing any child of the same operator with its own children
+     */
+    protected List<Node> flatten(LogicalNode logicalNode) {
+        List<Node> children = new ArrayList<>(logicalNode.getChildren().size());
+        Deque<Node> pending = new ArrayDeque<>(logicalNode.getChildren());
+        while (!pending.isEmpty()) {
+            Node node = pending.pollFirst();
+            if (node instanceof LogicalNode && ((LogicalNode) node).getOperator() == logicalNode.getOperator()) {
+                List<Node> nested = ((LogicalNode) node).getChildren();
+                for (int i = nested.size() - 1; i >= 0; i--) {
+                    pending.addFirst(nested.get(i));
+                }
+            } else {
+                children.add(node);
+            }
+        }
+        return children;
+    }
+
+    /**
+     * Merge equality comparisons on the same selector into a single IN comparison, i.e.
+     * <code>a==1,a==2</code> into <code>a=in=(1,2)</code>. Other nodes are kept as they are.
+     * Selectors are compared as-is, e.g. <code>a.id</code> and <code>a</code> are distinct
+     * as they may resolve to different predicates.
+     */
+    protected List<Node> mergeEqualityComparisons(List<Node> children) {
+        Map<String, List<ComparisonNode>> bySelector = new LinkedHashMap<>();
+        for (Node node : children) {
+            if (isMergeableEquality(node)) {
+                ComparisonNode comparison = (ComparisonNode) node;
+                bySelector.computeIfAbsent(comparison.getSelector(), key -> new ArrayList<>(2)).add(comparison);
+            }
+        }
+        List<Node> merged = new ArrayList<>(children.size());
+        for (Node node : children) {
+            if (!isMergeableEquality(node)) {
+                merged.add(node);
+                continue;
+            }
+            ComparisonNode comparison = (ComparisonNode) node;
+            List<ComparisonNode> group = bySelector.remove(comparison.getSelector());
+            if (group == null) {
+                // already merged
+                continue;
+            }
+            if (group.size() == 1) {
+                merged.add(comparison);
+            } else {
+                Set<String> arguments = new LinkedHashSet<>();
+                for (ComparisonNode member : group) {
+                    arguments.addAll(member.getArguments());
+                }
+                merged.add(new ComparisonNode(RSQLOperators.IN, comparison.getSelector(), new ArrayList<>(arguments)));
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Whether the node is a plain equality/membership comparison, i.e. without null or wildcard arguments
+     */
+    protected boolean isMergeableEquality(Node node) {
+        if (!(node instanceof ComparisonNode)) {
+            return false;
+        }
+        ComparisonNode comparison = (ComparisonNode) node;
+        PredicateOperator operator = RsqlUtils.toPredicateOperator(comparison.getOperator());
+        if (operator != PredicateOperator.EQUAL && operator != PredicateOperator.IN && operator != PredicateOperator.AUTO) {
+            return false;
+        }
+        for (String argument : comparison.getArguments()) {
+            if (argument == null || NON_MERGEABLE_ARGUMENTS.contains(argument)
+                    || argument.startsWith("*") || argument.endsWith("*")
+                    || argument.startsWith("%") || argument.endsWith("%")) {
+                return false;
+            }
+        }
+        return true;
     }
 }
@@ -20,9 +20,14 @@
  */
 package com.github.manosbatsis.scrudbeans.rsql;
 
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
 import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.specification.QueryGuardrails;
+import com.github.manosbatsis.scrudbeans.specification.SpecificationsBuilder;
 import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.RSQLParserException;
+import cz.jirutka.rsql.parser.ast.AndNode;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import cz.jirutka.rsql.parser.ast.Node;
 import cz.jirutka.rsql.parser.ast.RSQLOperators;
@@ -91,34 +96,51 @@ public class RsqlUtils {
 			Map<String, String[]> paramsMap,
 			Map<String, String[]> implicitCriteria,
 			String[] ignoreNamesForSpecification) {
+		return buildSpecification(modelInfo, conversionService, paramsMap, implicitCriteria, ignoreNamesForSpecification, null);
+	}
+
+	/**
+	 * Parse  the given (request URL) parameters map into RSQL (NOTE that if RSQL is present under the "filter" key,
+	 * all other <code>paramsMap</code> entries will be ignored
+	 * @param modelInfo the root model info
+	 * @param conversionService the conversion service to use for values
+	 * @param paramsMap the (request URL) parameters map
+	 * @param implicitCriteria
+	 * @param <M>
+	 * @param <MID>
+	 * @param ignoreNamesForSpecification the URL parameter names to ignore if no <code>filter</code>> param is present
+	 * @param guardrails the limits to check the requested criteria against before building, implicit criteria excluded. May be null.
+	 * @return the resulting specification
+	 */
+	public static <M, MID extends Serializable> Specification<M>
+	buildSpecification(
+			ModelInfo<M, MID> modelInfo,
+			ConversionService conversionService,
+			Map<String, String[]> paramsMap,
+			Map<String, String[]> implicitCriteria,
+			String[] ignoreNamesForSpecification,
+			QueryGuardrails guardrails) {
 
 		Specification<M> spec = null;
 
 		// check for RSQL in JSON API "filter" parameter,
 		// convert simple URL params to RSQL if missing
 		String rsql = ArrayUtils.isNotEmpty(paramsMap.get("filter")) ? paramsMap.get("filter")[0] : RsqlUtils.toRsql(paramsMap, ignoreNamesForSpecification);
+		Node rootNode = RsqlUtils.parse(rsql);
+		if (guardrails != null) {
+			guardrails.checkFilter(rootNode);
+		}
 
 		// if any, append implicit params as mandatory
 		if (MapUtils.isNotEmpty(implicitCriteria)) {
-			StringBuffer b = new StringBuffer();
-
-			// if we have a "base" RSQL string
-			if (StringUtils.isNotBlank(rsql)) {
-				// (baseRsql) and ...
-				b.append("(").append(rsql).append(");");
-			}
-
-			// add implicit RSQL
-			b.append("(").append(RsqlUtils.toRsql(implicitCriteria)).append(")");
-
-			// replace
-			rsql = b.toString();
+			Node implicitNode = RsqlUtils.parse(RsqlUtils.toRsql(implicitCriteria));
+			rootNode = rootNode != null
+					? new AndNode(Arrays.asList(rootNode, implicitNode))
+					: implicitNode;
 		}
 
-		// if resulting string is not empty,
-		// build specification
-		if (StringUtils.isNotBlank(rsql)) {
-			Node rootNode = RsqlUtils.parse(rsql);
+		// if any criteria, build specification
+		if (rootNode != null) {
 			spec = rootNode.accept(new RsqlSpecVisitor<M>(modelInfo, conversionService));
 		}
 		return spec;
@@ -131,7 +153,12 @@ public class RsqlUtils {
 	public static Node parse(String rsql) {
 		Node node = null;
 		if (StringUtils.isNotBlank(rsql)) {
-			node = new RSQLParser(RsqlUtils.OPERATORS).parse(rsql);
+			try {
+				node = new RSQLParser(RsqlUtils.OPERATORS).parse(rsql);
+			}
+			catch (RSQLParserException e) {
+				throw new BadRequestException("Invalid filter: " + rsql, e);
+			}
 		}
 		return node;
 	}
@@ -164,7 +191,7 @@ public class RsqlUtils {
 		// iterate parameters
 		for (String paramName : urlParams.keySet()) {
 			// if not reserved name
-			if (!ignoredNames.contains(paramName)) {
+			if (!ignoredNames.contains(paramName) && !SpecificationsBuilder.isJsonApiFieldsParam(paramName)) {
 				// get val;ues
 				String[] values = urlParams.get(paramName);
 				// ensure non-null values
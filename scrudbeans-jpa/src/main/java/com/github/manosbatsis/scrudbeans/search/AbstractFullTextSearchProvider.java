@@ -0,0 +1,128 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.search;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
+import com.github.manosbatsis.scrudbeans.specification.SpecificationUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Base {@link FullTextSearchProvider} implementation for providers that
+ * resolve matching identifiers, used to build an <code>IN</code> predicate
+ */
+public abstract class AbstractFullTextSearchProvider implements FullTextSearchProvider {
+
+	protected ScrudBeansProperties scrudBeansProperties;
+
+	protected ModelInfoRegistry modelInfoRegistry;
+
+	protected ConversionService conversionService;
+
+	@Autowired
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Autowired
+	public void setModelInfoRegistry(ModelInfoRegistry modelInfoRegistry) {
+		this.modelInfoRegistry = modelInfoRegistry;
+	}
+
+	@Autowired
+	@Qualifier("mvcConversionService")
+	public void setConversionService(ConversionService conversionService) {
+		this.conversionService = conversionService;
+	}
+
+	/**
+	 * Find the identifiers of matching models, best matches first
+	 *
+	 * @param modelInfo  the model type metadata
+	 * @param fields     the searchable members of the model type
+	 * @param text       the text to search for
+	 * @param maxResults the maximum number of identifiers to return
+	 * @return the matching identifiers, converted to the model identifier type
+	 */
+	protected abstract List<Object> findIds(ModelInfo<?, ?> modelInfo, List<Field> fields, String text, int maxResults);
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Predicate buildPredicate(Root<?> root, CriteriaBuilder cb, String text) {
+		Class<?> modelType = root.getJavaType();
+		List<Field> fields = SpecificationUtils.getSimpleSearchFields(modelType);
+		ModelInfo<?, ?> modelInfo = this.modelInfoRegistry.getEntryFor(modelType);
+		if (fields.isEmpty() || modelInfo == null || modelInfo.getIdField() == null) {
+			throw new BadRequestException("Full-text search is not supported for type: " + modelType.getSimpleName());
+		}
+		// matching identifiers are bound to a single IN predicate
+		int maxResults = Math.min(this.scrudBeansProperties.getSearch().getMaxResults(), InClauseUtils.MAX_IN_PARAMETERS);
+		List<Object> ids = this.findIds(modelInfo, fields, text.trim(), maxResults);
+		return ids.isEmpty()
+				? cb.disjunction()
+				: InClauseUtils.in(cb, root.get(modelInfo.getIdField().getFieldName()), ids);
+	}
+
+	/**
+	 * Convert the given value to the identifier type of the model
+	 */
+	protected Object toId(ModelInfo<?, ?> modelInfo, Object value) {
+		Class<?> idType = modelInfo.getIdField().getFieldType();
+		return value == null || idType.isInstance(value) ? value : this.conversionService.convert(value, idType);
+	}
+
+	/**
+	 * Get the text to index for the given model, i.e. its non-null searchable member values
+	 */
+	protected static String getSearchableText(Object model, List<Field> fields) {
+		StringBuilder text = new StringBuilder();
+		for (Field field : fields) {
+			Object value = ReflectionUtils.getField(field, model);
+			if (value != null) {
+				String stringValue = value.toString();
+				if (StringUtils.isNotBlank(stringValue)) {
+					if (text.length() > 0) {
+						text.append(' ');
+					}
+					text.append(stringValue);
+				}
+			}
+		}
+		return text.toString();
+	}
+}
@@ -0,0 +1,200 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.search;
+
+import java.lang.reflect.Field;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnit;
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.specification.SpecificationUtils;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * {@link FullTextSearchProvider} using the full-text search of the database, i.e.
+ * <code>tsvector</code> for PostgreSQL and the native full-text search of H2. The
+ * required index must exist, see {@link #getIndexDdl(Class)}. For PostgreSQL this is
+ * a GIN expression index, matched by the search query as long as the text search
+ * configuration (<code>scrudbeans.search.text-search-config</code>) is the same.
+ */
+public class DatabaseFullTextSearchProvider extends AbstractFullTextSearchProvider {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(DatabaseFullTextSearchProvider.class);
+
+	private static final String H2_SEARCH = "SELECT \"KEYS\" FROM FT_SEARCH_DATA(?, 0, 0) WHERE \"SCHEMA\" = ? AND \"TABLE\" = ?";
+
+	private EntityManagerFactory entityManagerFactory;
+
+	private JdbcTemplate jdbcTemplate;
+
+	/** Per type SQL, i.e. the search query for PostgreSQL or the schema and table names for H2 */
+	private final ConcurrentHashMap<Class<?>, String[]> statements = new ConcurrentHashMap<>();
+
+	@PersistenceUnit
+	public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+		this.entityManagerFactory = entityManagerFactory;
+	}
+
+	@Autowired
+	public void setDataSource(DataSource dataSource) {
+		this.jdbcTemplate = new JdbcTemplate(dataSource);
+	}
+
+	/**
+	 * Get the DDL creating the full-text index required for the given model type
+	 */
+	public String getIndexDdl(Class<?> modelType) {
+		AbstractEntityPersister persister = this.getPersister(modelType);
+		List<String> columns = this.getSearchableColumns(persister, SpecificationUtils.getSimpleSearchFields(modelType));
+		String table = persister.getTableName();
+		if (this.isPostgreSql()) {
+			return "CREATE INDEX " + table.replace('.', '_') + "_fts_idx ON " + table
+					+ " USING GIN (" + this.getTsVector(columns) + ")";
+		}
+		String[] schemaAndTable = getH2SchemaAndTable(table);
+		return "CREATE ALIAS IF NOT EXISTS FT_INIT FOR \"org.h2.fulltext.FullText.init\"; CALL FT_INIT(); "
+				+ "CALL FT_CREATE_INDEX('" + schemaAndTable[0] + "', '" + schemaAndTable[1] + "', '"
+				+ String.join(",", columns).toUpperCase(Locale.ROOT) + "');";
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Searches matching more than the given maximum are rejected.
+	 */
+	@Override
+	protected List<Object> findIds(ModelInfo<?, ?> modelInfo, List<Field> fields, String text, int maxResults) {
+		String[] statement = this.statements.computeIfAbsent(modelInfo.getModelType(), modelType -> this.buildStatement(modelType, fields));
+		List<Object> ids = new ArrayList<>();
+		// fetch one more match than allowed to detect overflows
+		if (this.isPostgreSql()) {
+			for (Object id : this.jdbcTemplate.queryForList(statement[0], Object.class, text, text, maxResults + 1)) {
+				ids.add(this.toId(modelInfo, id));
+			}
+		}
+		else {
+			this.jdbcTemplate.query(H2_SEARCH, rs -> {
+				if (ids.size() <= maxResults) {
+					Object keys = rs.getObject(1);
+					Object[] values = keys instanceof Array ? (Object[]) ((Array) keys).getArray() : (Object[]) keys;
+					ids.add(this.toId(modelInfo, values[0]));
+				}
+			}, text, statement[0], statement[1]);
+		}
+		if (ids.size() > maxResults) {
+			throw new BadRequestException("Too many full-text search matches, the maximum is " + maxResults + ". Please refine the search");
+		}
+		return ids;
+	}
+
+	protected String[] buildStatement(Class<?> modelType, List<Field> fields) {
+		AbstractEntityPersister persister = this.getPersister(modelType);
+		String[] idColumns = persister.getIdentifierColumnNames();
+		if (idColumns.length != 1) {
+			throw new IllegalStateException("Full-text search requires a single identifier column, type: " + modelType);
+		}
+		String[] statement;
+		if (this.isPostgreSql()) {
+			String config = this.getTextSearchConfig();
+			String tsVector = this.getTsVector(this.getSearchableColumns(persister, fields));
+			String tsQuery = "plainto_tsquery('" + config + "', ?)";
+			// parameters are text, text, limit
+			statement = new String[] {"SELECT " + idColumns[0] + " FROM " + persister.getTableName()
+					+ " WHERE " + tsVector + " @@ " + tsQuery
+					+ " ORDER BY ts_rank(" + tsVector + ", " + tsQuery + ") DESC LIMIT ?"};
+		}
+		else if (this.getDialect() instanceof H2Dialect) {
+			statement = getH2SchemaAndTable(persister.getTableName());
+		}
+		else {
+			throw new IllegalStateException("Full-text search is not supported for dialect: " + this.getDialect());
+		}
+		LOGGER.debug("buildStatement, type: {}, statement: {}", modelType, statement);
+		return statement;
+	}
+
+	protected String getTsVector(List<String> columns) {
+		StringBuilder document = new StringBuilder();
+		for (String column : columns) {
+			if (document.length() > 0) {
+				document.append(" || ' ' || ");
+			}
+			document.append("coalesce(cast(").append(column).append(" as text), '')");
+		}
+		return "to_tsvector('" + this.getTextSearchConfig() + "', " + document + ")";
+	}
+
+	protected List<String> getSearchableColumns(AbstractEntityPersister persister, List<Field> fields) {
+		List<String> columns = new ArrayList<>(fields.size());
+		for (Field field : fields) {
+			columns.add(persister.getPropertyColumnNames(field.getName())[0]);
+		}
+		return columns;
+	}
+
+	protected String getTextSearchConfig() {
+		String config = this.scrudBeansProperties.getSearch().getTextSearchConfig();
+		if (!config.matches("[A-Za-z_]+")) {
+			throw new IllegalStateException("Invalid text search config: " + config);
+		}
+		return config;
+	}
+
+	protected boolean isPostgreSql() {
+		return this.getDialect() instanceof PostgreSQL81Dialect;
+	}
+
+	protected Dialect getDialect() {
+		return this.getSessionFactory().getJdbcServices().getDialect();
+	}
+
+	protected AbstractEntityPersister getPersister(Class<?> modelType) {
+		return (AbstractEntityPersister) this.getSessionFactory().getMetamodel().entityPersister(modelType);
+	}
+
+	protected SessionFactoryImplementor getSessionFactory() {
+		return this.entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+	}
+
+	protected static String[] getH2SchemaAndTable(String tableName) {
+		int dot = tableName.lastIndexOf('.');
+		return new String[] {
+				dot > 0 ? tableName.substring(0, dot).toUpperCase(Locale.ROOT) : "PUBLIC",
+				tableName.substring(dot + 1).toUpperCase(Locale.ROOT)};
+	}
+}
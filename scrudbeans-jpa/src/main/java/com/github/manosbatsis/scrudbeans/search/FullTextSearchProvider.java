@@ -0,0 +1,44 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.search;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FullTextSearchable;
+
+/**
+ * Implements full-text search for the <code>_all</code> search parameter, matching
+ * model members annotated with {@link FullTextSearchable}
+ */
+public interface FullTextSearchProvider {
+
+	/**
+	 * Build a predicate matching models of the root type with searchable members matching the given text
+	 *
+	 * @param root the criteria root
+	 * @param cb   the criteria builder
+	 * @param text the text to search for
+	 * @return the predicate
+	 */
+	Predicate buildPredicate(Root<?> root, CriteriaBuilder cb, String text);
+}
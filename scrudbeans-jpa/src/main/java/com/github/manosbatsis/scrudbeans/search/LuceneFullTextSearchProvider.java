@@ -0,0 +1,444 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Root;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntityCreatedEvent;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntitiesDeletedEvent;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntityDeletedEvent;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntityEvent;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntityUpdatedEvent;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.specification.SpecificationUtils;
+import com.github.manosbatsis.scrudbeans.util.WorkDirUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * {@link FullTextSearchProvider} backed by an embedded Lucene index. The index is maintained
+ * from entity events after each transaction commits. Changes are committed to disk and made
+ * visible to searches in batches, either periodically or when enough changes are pending.
+ * On application startup, the entries of a model type are rebuilt from the database if the index
+ * is stale, i.e. missing, not closed cleanly, built for other searchable members or holding
+ * a different number of entries than the table.
+ */
+public class LuceneFullTextSearchProvider extends AbstractFullTextSearchProvider implements InitializingBean, DisposableBean {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LuceneFullTextSearchProvider.class);
+
+	/** Unique document key, i.e. model type and identifier */
+	protected static final String FIELD_KEY = "_key";
+
+	protected static final String FIELD_TYPE = "_type";
+
+	protected static final String FIELD_ID = "_id";
+
+	protected static final String FIELD_ALL = SpecificationUtils.SIMPLE_SEARCH_PARAM_NAME;
+
+	/** Commit data key, present if the index was closed cleanly */
+	protected static final String COMMIT_CLOSED = "_closed";
+
+	/** Commit data key prefix for the indexed members of each model type */
+	protected static final String COMMIT_FIELDS_PREFIX = "_fields#";
+
+	private static final Set<String> FIELDS_TO_LOAD = Collections.singleton(FIELD_ID);
+
+	private static final int REINDEX_PAGE_SIZE = 500;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	private final Analyzer analyzer = new StandardAnalyzer();
+
+	private final AtomicInteger pendingChanges = new AtomicInteger();
+
+	private Directory directory;
+
+	private IndexWriter indexWriter;
+
+	private SearcherManager searcherManager;
+
+	private ScheduledExecutorService scheduler;
+
+	private String applicationName;
+
+	/** The commit data of the existing index, empty if missing */
+	private Map<String, String> previousCommitData = Collections.emptyMap();
+
+	/** The commit data stored with each commit */
+	private final Map<String, String> commitData = new ConcurrentHashMap<>();
+
+	@Value("${spring.application.name:}")
+	public void setApplicationName(String applicationName) {
+		this.applicationName = applicationName;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		ScrudBeansProperties.Search config = this.scrudBeansProperties.getSearch();
+		File indexDir = StringUtils.isNotBlank(config.getIndexDir())
+				? new File(config.getIndexDir())
+				: WorkDirUtils.getDefaultWorkDir(this.applicationName, "index");
+		this.directory = FSDirectory.open(indexDir.toPath());
+		if (DirectoryReader.indexExists(this.directory)) {
+			this.previousCommitData = SegmentInfos.readLatestCommit(this.directory).getUserData();
+		}
+		this.indexWriter = new IndexWriter(this.directory, new IndexWriterConfig(this.analyzer)
+				.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+		this.indexWriter.setLiveCommitData(this.commitData.entrySet());
+		this.searcherManager = new SearcherManager(this.indexWriter, null);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "scrudbeans-index-commit");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::commit, config.getCommitInterval(), config.getCommitInterval(), TimeUnit.MILLISECONDS);
+		LOGGER.debug("Using index dir: {}, previous commit data: {}", indexDir, this.previousCommitData);
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		this.scheduler.shutdown();
+		this.commitData.put(COMMIT_CLOSED, "true");
+		this.pendingChanges.incrementAndGet();
+		this.commit();
+		this.searcherManager.close();
+		this.indexWriter.close();
+		this.directory.close();
+	}
+
+	/**
+	 * Rebuild the index entries of searchable models if stale
+	 */
+	@EventListener
+	public void onApplicationReady(ApplicationReadyEvent event) {
+		boolean closed = this.previousCommitData.containsKey(COMMIT_CLOSED);
+		Map<String, String> fieldSignatures = new HashMap<>();
+		for (ModelInfo<?, ?> modelInfo : this.modelInfoRegistry.getEntries()) {
+			Class<?> modelType = modelInfo.getModelType();
+			List<Field> fields = SpecificationUtils.getSimpleSearchFields(modelType);
+			if (modelInfo.isJpaEntity() && !fields.isEmpty()) {
+				String key = COMMIT_FIELDS_PREFIX + modelType.getName();
+				String signature = getFieldsSignature(fields);
+				fieldSignatures.put(key, signature);
+				if (!closed || !signature.equals(this.previousCommitData.get(key)) || this.isCountStale(modelType)) {
+					this.reindex(modelType);
+				}
+			}
+		}
+		// mark the index as open until closed cleanly
+		this.commitData.putAll(fieldSignatures);
+		this.pendingChanges.incrementAndGet();
+		this.commit();
+	}
+
+	/**
+	 * Whether the number of index entries for the given type differs from the number of rows
+	 */
+	protected boolean isCountStale(Class<?> modelType) {
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> criteria = cb.createQuery(Long.class);
+		criteria.select(cb.count(criteria.from(modelType)));
+		long rows = this.entityManager.createQuery(criteria).getSingleResult();
+		IndexSearcher searcher = null;
+		try {
+			searcher = this.searcherManager.acquire();
+			int entries = searcher.count(new TermQuery(new Term(FIELD_TYPE, modelType.getName())));
+			LOGGER.debug("isCountStale, modelType: {}, rows: {}, entries: {}", modelType, rows, entries);
+			return rows != entries;
+		}
+		catch (IOException e) {
+			LOGGER.warn("Failed counting index entries, type: " + modelType.getName(), e);
+			return true;
+		}
+		finally {
+			release(searcher);
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntityCreated(EntityCreatedEvent<?> event) {
+		this.index(event);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntityUpdated(EntityUpdatedEvent<?> event) {
+		this.index(event);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntityDeleted(EntityDeletedEvent<?> event) {
+		Object model = event.getModel();
+		if (model != null && !SpecificationUtils.getSimpleSearchFields(model.getClass()).isEmpty()) {
+			Object id = this.readId(model);
+			if (id != null) {
+				try {
+					this.indexWriter.deleteDocuments(new Term(FIELD_KEY, getKey(model.getClass(), id)));
+					this.onChange();
+				}
+				catch (IOException e) {
+					LOGGER.error("Failed removing model from index: " + model, e);
+				}
+			}
+		}
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onEntitiesDeleted(EntitiesDeletedEvent<?> event) {
+		Class<?> modelType = event.getModelType();
+		if (!SpecificationUtils.getSimpleSearchFields(modelType).isEmpty() && !event.getIds().isEmpty()) {
+			Term[] terms = new Term[event.getIds().size()];
+			for (int i = 0; i < terms.length; i++) {
+				terms[i] = new Term(FIELD_KEY, getKey(modelType, event.getIds().get(i)));
+			}
+			try {
+				this.indexWriter.deleteDocuments(terms);
+				this.onChange();
+			}
+			catch (IOException e) {
+				LOGGER.error("Failed removing models from index: " + modelType.getName(), e);
+			}
+		}
+	}
+
+	/**
+	 * Rebuild the index entries of the given model type from the database
+	 */
+	public <T> void reindex(Class<T> modelType) {
+		LOGGER.debug("reindex, modelType: {}", modelType);
+		List<Field> fields = SpecificationUtils.getSimpleSearchFields(modelType);
+		ModelInfo<?, ?> modelInfo = this.modelInfoRegistry.getEntryFor(modelType);
+		CriteriaBuilder cb = this.entityManager.getCriteriaBuilder();
+		CriteriaQuery<T> criteria = cb.createQuery(modelType);
+		Root<T> root = criteria.from(modelType);
+		criteria.select(root).orderBy(cb.asc(root.get(modelInfo.getIdField().getFieldName())));
+		try {
+			this.indexWriter.deleteDocuments(new Term(FIELD_TYPE, modelType.getName()));
+			List<T> models;
+			int first = 0;
+			do {
+				models = this.entityManager.createQuery(criteria)
+						.setFirstResult(first)
+						.setMaxResults(REINDEX_PAGE_SIZE)
+						.getResultList();
+				for (T model : models) {
+					Object id = this.readId(model);
+					if (id != null) {
+						this.indexWriter.updateDocument(new Term(FIELD_KEY, getKey(modelType, id)), toDocument(modelType, id, model, fields));
+					}
+				}
+				first += models.size();
+				this.entityManager.clear();
+			} while (models.size() == REINDEX_PAGE_SIZE);
+			this.onChange();
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Failed reindexing type: " + modelType, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Searches matching more than the given maximum are rejected with the actual number of matches.
+	 */
+	@Override
+	protected List<Object> findIds(ModelInfo<?, ?> modelInfo, List<Field> fields, String text, int maxResults) {
+		List<Object> ids = new ArrayList<>();
+		Query textQuery = newQueryParser().parse(text);
+		if (textQuery != null) {
+			Query query = new BooleanQuery.Builder()
+					.add(new TermQuery(new Term(FIELD_TYPE, modelInfo.getModelType().getName())), BooleanClause.Occur.FILTER)
+					.add(textQuery, BooleanClause.Occur.MUST)
+					.build();
+			IndexSearcher searcher = null;
+			try {
+				searcher = this.searcherManager.acquire();
+				int total = searcher.count(query);
+				if (total > maxResults) {
+					throw new BadRequestException("Too many full-text search matches: " + total
+							+ ", the maximum is " + maxResults + ". Please refine the search");
+				}
+				TopDocs topDocs = searcher.search(query, Math.max(total, 1));
+				for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+					ids.add(this.toId(modelInfo, searcher.doc(scoreDoc.doc, FIELDS_TO_LOAD).get(FIELD_ID)));
+				}
+			}
+			catch (IOException e) {
+				throw new RuntimeException("Failed searching index", e);
+			}
+			finally {
+				release(searcher);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Commit pending changes and make them visible to searches
+	 */
+	public void commit() {
+		if (this.pendingChanges.getAndSet(0) > 0) {
+			try {
+				this.indexWriter.commit();
+				this.searcherManager.maybeRefresh();
+			}
+			catch (IOException e) {
+				LOGGER.error("Failed committing index changes", e);
+			}
+		}
+	}
+
+	protected void index(EntityEvent<?> event) {
+		Object model = event.getModel();
+		if (model != null) {
+			List<Field> fields = SpecificationUtils.getSimpleSearchFields(model.getClass());
+			Object id = fields.isEmpty() ? null : this.readId(model);
+			if (id != null) {
+				try {
+					this.indexWriter.updateDocument(new Term(FIELD_KEY, getKey(model.getClass(), id)), toDocument(model.getClass(), id, model, fields));
+					this.onChange();
+				}
+				catch (IOException e) {
+					LOGGER.error("Failed indexing model: " + model, e);
+				}
+			}
+		}
+	}
+
+	protected SimpleQueryParser newQueryParser() {
+		SimpleQueryParser parser = new SimpleQueryParser(this.analyzer, FIELD_ALL);
+		parser.setDefaultOperator(BooleanClause.Occur.MUST);
+		return parser;
+	}
+
+	/**
+	 * Commit early if the batch size is reached
+	 */
+	private void onChange() {
+		if (this.pendingChanges.incrementAndGet() >= this.scrudBeansProperties.getSearch().getCommitBatchSize()) {
+			this.commit();
+		}
+	}
+
+	private void release(IndexSearcher searcher) {
+		if (searcher != null) {
+			try {
+				this.searcherManager.release(searcher);
+			}
+			catch (IOException e) {
+				LOGGER.warn("Failed releasing index searcher", e);
+			}
+		}
+	}
+
+	protected static Document toDocument(Class<?> modelType, Object id, Object model, List<Field> fields) {
+		Document document = new Document();
+		document.add(new StringField(FIELD_KEY, getKey(modelType, id), org.apache.lucene.document.Field.Store.NO));
+		document.add(new StringField(FIELD_TYPE, modelType.getName(), org.apache.lucene.document.Field.Store.NO));
+		document.add(new StoredField(FIELD_ID, id.toString()));
+		document.add(new TextField(FIELD_ALL, getSearchableText(model, fields), org.apache.lucene.document.Field.Store.NO));
+		return document;
+	}
+
+	protected static String getKey(Class<?> modelType, Object id) {
+		return modelType.getName() + "#" + id;
+	}
+
+	/**
+	 * Get the signature of the given searchable members, used to detect mapping changes
+	 */
+	protected static String getFieldsSignature(List<Field> fields) {
+		StringBuilder signature = new StringBuilder();
+		for (Field field : fields) {
+			if (signature.length() > 0) {
+				signature.append(',');
+			}
+			signature.append(field.getName());
+		}
+		return signature.toString();
+	}
+
+	/**
+	 * Read the identifier of the given model using its adapter if available, the persistence unit otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	protected Object readId(Object model) {
+		IdentifierAdapter adapter = IdentifierAdaptersRegistry.getAdapterForClass(model.getClass());
+		return adapter != null
+				? adapter.readId(model)
+				: this.entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(model);
+	}
+}
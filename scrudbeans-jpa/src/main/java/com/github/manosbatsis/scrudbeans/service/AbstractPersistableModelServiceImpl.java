@@ -22,28 +22,62 @@ package com.github.manosbatsis.scrudbeans.service;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.ConstraintViolation;
 
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.domain.BasicAuditedModel;
+import com.github.manosbatsis.scrudbeans.api.domain.DisableableModel;
+import com.github.manosbatsis.scrudbeans.api.domain.JsonMetadataSubjectModel;
+import com.github.manosbatsis.scrudbeans.api.domain.MetadataSubjectModel;
 import com.github.manosbatsis.scrudbeans.api.domain.MetadatumModel;
 import com.github.manosbatsis.scrudbeans.api.domain.UploadedFileModel;
+import com.github.manosbatsis.scrudbeans.api.domain.event.EntitiesDeletedEvent;
 import com.github.manosbatsis.scrudbeans.api.domain.event.EntityCreatedEvent;
 import com.github.manosbatsis.scrudbeans.api.domain.event.EntityDeletedEvent;
 import com.github.manosbatsis.scrudbeans.api.domain.event.EntityUpdatedEvent;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.exception.NotFoundException;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FilePersistence;
 import com.github.manosbatsis.scrudbeans.api.mdd.registry.FieldInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.RelationshipEdge;
+import com.github.manosbatsis.scrudbeans.api.specification.AggregateMetric;
+import com.github.manosbatsis.scrudbeans.fs.FileRenditionService;
+import com.github.manosbatsis.scrudbeans.metadata.AbstractMetadataSubjectModel;
+import com.github.manosbatsis.scrudbeans.metadata.MetadataUtils;
+import com.github.manosbatsis.scrudbeans.metadata.MetadatumDTO;
+import com.github.manosbatsis.scrudbeans.repository.ChangeTombstones;
+import com.github.manosbatsis.scrudbeans.repository.ChangesWatermark;
 import com.github.manosbatsis.scrudbeans.repository.ModelRepository;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
 import com.github.manosbatsis.scrudbeans.specification.SpecificationUtils;
+import com.github.manosbatsis.scrudbeans.util.ChangesFeedPage;
+import com.github.manosbatsis.scrudbeans.util.EntityUtil;
 import com.github.manotbatsis.kotlin.utils.api.Dto;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.beanutils.BeanUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -76,6 +110,14 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 
 	protected R repository;
 
+	protected FileRenditionService fileRenditionService;
+
+	protected ModelInfoRegistry modelInfoRegistry;
+
+	protected ScrudBeansProperties scrudBeansProperties;
+
+	protected ChangeTombstones changeTombstones;
+
 	@SuppressWarnings("SpringJavaAutowiringInspection")
 
 	@Autowired
@@ -83,6 +125,26 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 		this.repository = repository;
 	}
 
+	@Autowired(required = false)
+	public void setModelInfoRegistry(ModelInfoRegistry modelInfoRegistry) {
+		this.modelInfoRegistry = modelInfoRegistry;
+	}
+
+	@Autowired(required = false)
+	public void setScrudBeansProperties(ScrudBeansProperties scrudBeansProperties) {
+		this.scrudBeansProperties = scrudBeansProperties;
+	}
+
+	@Autowired(required = false)
+	public void setFileRenditionService(FileRenditionService fileRenditionService) {
+		this.fileRenditionService = fileRenditionService;
+	}
+
+	@Autowired(required = false)
+	public void setChangeTombstones(ChangeTombstones changeTombstones) {
+		this.changeTombstones = changeTombstones;
+	}
+
 
 	/**
 	 * {@inheritDoc}
@@ -270,9 +332,78 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 	@Override
 	@Transactional(readOnly = false)
 	public void deleteAllWithCascade() {
-		Iterable<T> list = repository.findAll();
-		for (T entity : list) {
-			repository.delete(entity);
+		this.deleteAll(null, true);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = false)
+	public int deleteAll(Specification<T> spec, boolean cascade) {
+		if (cascade && this.modelInfoRegistry == null) {
+			throw new IllegalStateException("A ModelInfoRegistry is required to apply cascades");
+		}
+		return this.deleteAll(this.repository, spec, cascade, new HashMap<>());
+	}
+
+	/**
+	 * Delete the matching entities of the given repository page by page, after recursively deleting
+	 * cascaded children by parent identifiers. Children that are not soft-deletable are kept when
+	 * their parents are soft-deleted, unless <code>scrudbeans.soft-delete.cascade-hard-delete</code> is set.
+	 *
+	 * @param inProgress the identifiers being deleted per type, used to stop on cyclic data
+	 */
+	protected <M, MID extends Serializable> int deleteAll(ModelRepository<M, MID> repo, Specification<M> spec,
+			boolean cascade, Map<Class<?>, Set<Object>> inProgress) {
+		Class<M> modelType = repo.getDomainClass();
+		boolean softDeleted = DisableableModel.class.isAssignableFrom(modelType);
+		Set<Object> inProgressOfType = inProgress.computeIfAbsent(modelType, type -> new HashSet<>());
+		int count = 0;
+		// Deleted entities no longer match, i.e. always read the first page
+		while (true) {
+			List<MID> ids = new ArrayList<>(repo.findAllIds(spec, InClauseUtils.MAX_IN_PARAMETERS + inProgressOfType.size()));
+			ids.removeIf(inProgressOfType::contains);
+			if (ids.isEmpty()) {
+				return count;
+			}
+			if (ids.size() > InClauseUtils.MAX_IN_PARAMETERS) {
+				ids = ids.subList(0, InClauseUtils.MAX_IN_PARAMETERS);
+			}
+			inProgressOfType.addAll(ids);
+			if (cascade) {
+				this.deleteChildren(modelType, softDeleted, ids, inProgress);
+			}
+			int deleted = repo.deleteAllByIdInBatch(ids);
+			this.applicationEventPublisher.publishEvent(new EntitiesDeletedEvent<>(modelType, ids));
+			inProgressOfType.removeAll(ids);
+			count += deleted;
+			if (deleted == 0) {
+				return count;
+			}
+		}
+	}
+
+	/**
+	 * Delete the cascaded children of the given parents
+	 */
+	private <M, MID extends Serializable> void deleteChildren(Class<M> modelType, boolean softDeleted, List<MID> ids,
+			Map<Class<?>, Set<Object>> inProgress) {
+		ModelInfo<M, MID> modelInfo = this.modelInfoRegistry.getEntryFor(modelType);
+		String idName = modelInfo.getIdField().getFieldName();
+		boolean cascadeHardDelete = this.scrudBeansProperties != null && this.scrudBeansProperties.getSoftDelete().isCascadeHardDelete();
+		for (RelationshipEdge relationship : this.modelInfoRegistry.getRelationshipGraph().getCascadeRemoveEdges(modelType)) {
+			if (softDeleted && !cascadeHardDelete && !DisableableModel.class.isAssignableFrom(relationship.getRelatedModelType())) {
+				continue;
+			}
+			ModelRepository childRepo = (ModelRepository) this.repositoryRegistryService.getRepositoryFor(relationship.getRelatedModelType());
+			if (childRepo == null) {
+				throw new IllegalArgumentException("Could not find a repository for model type: " + relationship.getRelatedModelType());
+			}
+			String parentName = relationship.getReverseFieldName().get();
+			Specification<Object> childSpec = (root, query, cb) ->
+					InClauseUtils.in(cb, root.get(parentName).get(idName), ids);
+			this.deleteAll(childRepo, childSpec, true, inProgress);
 		}
 	}
 
@@ -345,9 +476,140 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 			page = this.repository.findAll(pageable);
 		}
 		LOGGER.debug("findPaginated, page result count: {}", page.getTotalElements());
+		this.initializeMetadata(page.getContent());
 		return page;
 	}
 
+	/**
+	 * Initialize the metadata of the given subjects, if any, so that they can be
+	 * serialized outside the transaction. Metadata are batch fetched, so this takes
+	 * one select per {@link AbstractMetadataSubjectModel#METADATA_BATCH_SIZE} subjects.
+	 */
+	protected void initializeMetadata(Iterable<T> subjects) {
+		if (MetadataUtils.isMetadataSubject(this.getDomainClass())) {
+			for (T subject : subjects) {
+				Hibernate.initialize(((MetadataSubjectModel<?>) subject).getMetadata());
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Page<Map<String, Object>> findProjectedPaginated(Specification<T> spec, @NonNull Pageable pageable, @NonNull Collection<String> fieldNames) {
+		LOGGER.debug("findProjectedPaginated, pageable: {}, fieldNames: {}", pageable, fieldNames);
+		return this.repository.findAllProjected(spec, pageable, fieldNames);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<Map<String, Object>> aggregate(Specification<T> spec, @NonNull List<String> groupBy, @NonNull List<AggregateMetric> metrics, int maxResults) {
+		LOGGER.debug("aggregate, groupBy: {}, metrics: {}, maxResults: {}", groupBy, metrics, maxResults);
+		return this.repository.aggregate(spec, groupBy, metrics, maxResults);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<T> findModifiedAfter(LocalDateTime lastModifiedDate, PK id, @NonNull LocalDateTime until, int maxResults) {
+		LOGGER.debug("findModifiedAfter, lastModifiedDate: {}, id: {}, until: {}", lastModifiedDate, id, until);
+		return this.repository.findModifiedAfter(lastModifiedDate, id, until, maxResults);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public ChangesFeedPage<T> findChanges(String since, int size) {
+		Class<T> modelType = this.getDomainClass();
+		if (!BasicAuditedModel.class.isAssignableFrom(modelType)) {
+			throw new BadRequestException("Changes are not tracked for type: " + modelType.getSimpleName());
+		}
+		LocalDateTime lastModifiedDate = null;
+		String lastId = null;
+		boolean tombstone = false;
+		if (StringUtils.isNotBlank(since)) {
+			Object[] position = ChangesFeedPage.fromToken(since);
+			lastModifiedDate = (LocalDateTime) position[0];
+			lastId = (String) position[1];
+			tombstone = (Boolean) position[2];
+		}
+		LocalDateTime now = LocalDateTime.now();
+		ScrudBeansProperties.Changes settings = this.scrudBeansProperties != null
+				? this.scrudBeansProperties.getChanges() : new ScrudBeansProperties.Changes();
+		LocalDateTime until = ChangesWatermark.getUntil(settings.getSettleTime());
+		// Entities sort before tombstones of the same date, i.e. none are after a tombstone position of that date
+		List<T> models = this.findModifiedAfter(lastModifiedDate,
+				tombstone ? null : this.convertChangesId(lastId), until, size + 1);
+		List<ChangeTombstones.Tombstone> tombstones = this.changeTombstones != null && ChangeTombstones.isTracked(modelType)
+				? this.changeTombstones.findAfter(modelType, lastModifiedDate, tombstone ? lastId : null, until, size + 1)
+				: Collections.emptyList();
+		// Merge both sources by date
+		List<ChangesFeedPage.Change<T>> changes = new ArrayList<>(Math.min(models.size() + tombstones.size(), size + 1));
+		int m = 0;
+		int t = 0;
+		while (changes.size() <= size && (m < models.size() || t < tombstones.size())) {
+			T model = m < models.size() ? models.get(m) : null;
+			LocalDateTime modified = model != null ? ((BasicAuditedModel<?, ?>) model).getLastModifiedDate() : null;
+			if (model != null && (t == tombstones.size() || !modified.isAfter(tombstones.get(t).getDeleted()))) {
+				Object id = EntityUtil.idOrNull(model);
+				LocalDateTime disabled = model instanceof DisableableModel ? ((DisableableModel) model).getDisabled() : null;
+				changes.add(disabled != null && !disabled.isAfter(now)
+						? new ChangesFeedPage.Change<>(ChangesFeedPage.OP_DELETE, id, modified, null)
+						: new ChangesFeedPage.Change<>(ChangesFeedPage.OP_UPSERT, id, modified, model));
+				m++;
+			}
+			else {
+				ChangeTombstones.Tombstone deleted = tombstones.get(t++);
+				changes.add(new ChangesFeedPage.Change<>(ChangesFeedPage.OP_DELETE,
+						this.convertChangesId(deleted.getId()), deleted.getDeleted(), null, true));
+			}
+		}
+		boolean hasMore = changes.size() > size;
+		if (hasMore) {
+			changes.remove(size);
+		}
+		String next = changes.isEmpty() ? since : changes.get(changes.size() - 1).getToken();
+		return new ChangesFeedPage<>(changes, next, hasMore);
+	}
+
+	private PK convertChangesId(String id) {
+		if (id == null) {
+			return null;
+		}
+		Class<?> idType = this.repository.getEntityManager().getMetamodel().entity(this.getDomainClass()).getIdType().getJavaType();
+		try {
+			return (PK) this.getConversionService().convert(id, idType);
+		}
+		catch (RuntimeException e) {
+			throw new BadRequestException("Invalid changes token id: " + id, e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Page<T> findDescendants(@NonNull PK id, Integer maxDepth, Specification<T> spec, @NonNull Pageable pageable) {
+		return this.repository.findDescendants(id, maxDepth, spec, pageable);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public List<T> findAncestors(@NonNull PK id) {
+		return this.repository.findAncestors(id);
+	}
+
 
 	/**
 	 * {@inheritDoc}
@@ -368,18 +630,38 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 	/**
 	 * {@inheritDoc}
 	 */
+	@Override
 	@Transactional(readOnly = false)
 	public void addMetadatum(PK subjectId, MetadatumModel dto) {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("addMetadatum subjectId: " + subjectId + ", metadatum: " + dto);
 		}
-		//TODO
-		//this.repository.addMetadatum(subjectId, dto.getPredicate(),dto.getObject());
+		T subject = this.findMetadataSubject(subjectId);
+		if (subject instanceof JsonMetadataSubjectModel) {
+			Map<String, String> metadata = this.copyMetadata((JsonMetadataSubjectModel) subject);
+			metadata.put(dto.getPredicate(), dto.getObject());
+			// replace rather than modify to ensure an update
+			((JsonMetadataSubjectModel) subject).setMetadata(metadata);
+		}
+		else {
+			MetadatumModel metadatum = this.findSubjectMetadatum(subject, dto.getPredicate());
+			if (metadatum != null) {
+				metadatum.setObject(dto.getObject());
+			}
+			else {
+				metadatum = MetadataUtils.newMetadatum(this.getDomainClass(), dto.getPredicate(), dto.getObject());
+				metadatum.setSubject((MetadataSubjectModel) subject);
+				this.repository.getEntityManager().persist(metadatum);
+			}
+			// keep the subject's metadata in sync for the rest of the transaction
+			((MetadataSubjectModel) subject).addMetadatum(metadatum);
+		}
 	}
 
 	/**
 	 * {@inheritDoc}
 	 */
+	@Override
 	@Transactional(readOnly = false)
 	public void addMetadata(PK subjectId, Collection<MetadatumModel> dtos) {
 		if (!CollectionUtils.isEmpty(dtos)) {
@@ -389,14 +671,122 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
 	@Transactional(readOnly = false)
 	public void removeMetadatum(PK subjectId, String predicate) {
 		if (LOGGER.isDebugEnabled()) {
 			LOGGER.debug("removeMetadatum subjectId: " + subjectId + ", predicate: "
 					+ predicate);
 		}
-		// TODO
-		//this.repository.removeMetadatum(subjectId, predicate);
+		T subject = this.findMetadataSubject(subjectId);
+		if (subject instanceof JsonMetadataSubjectModel) {
+			Map<String, String> metadata = this.copyMetadata((JsonMetadataSubjectModel) subject);
+			if (metadata.remove(predicate) != null) {
+				((JsonMetadataSubjectModel) subject).setMetadata(metadata);
+			}
+		}
+		else {
+			MetadatumModel metadatum = this.findSubjectMetadatum(subject, predicate);
+			if (metadatum != null) {
+				Map<String, ?> metadata = ((MetadataSubjectModel<?>) subject).getMetadata();
+				if (metadata != null) {
+					metadata.remove(predicate);
+				}
+				this.repository.getEntityManager().remove(metadatum);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public MetadatumModel findMetadatum(PK subjectId, String predicate) {
+		return this.findSubjectMetadatum(this.findMetadataSubject(subjectId), predicate);
+	}
+
+	/**
+	 * Get the metadatum of the given subject and predicate
+	 * @return the metadatum, null if not found
+	 */
+	protected MetadatumModel findSubjectMetadatum(T subject, String predicate) {
+		MetadatumModel metadatum = null;
+		if (subject instanceof JsonMetadataSubjectModel) {
+			Map<String, String> metadata = ((JsonMetadataSubjectModel) subject).getMetadata();
+			if (metadata != null && metadata.containsKey(predicate)) {
+				metadatum = new MetadatumDTO();
+				metadatum.setPredicate(predicate);
+				metadatum.setObject(metadata.get(predicate));
+			}
+		}
+		else {
+			List<? extends MetadatumModel> results = this.findMetadata(
+					MetadataUtils.getMetadatumType(this.getDomainClass()), subject, predicate);
+			metadatum = results.isEmpty() ? null : results.get(0);
+		}
+		return metadatum;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, String> getMetadata(PK subjectId) {
+		T subject = this.findMetadataSubject(subjectId);
+		Map<String, String> metadata;
+		if (subject instanceof JsonMetadataSubjectModel) {
+			metadata = this.copyMetadata((JsonMetadataSubjectModel) subject);
+		}
+		else {
+			metadata = new LinkedHashMap<>();
+			for (MetadatumModel metadatum : this.findMetadata(MetadataUtils.getMetadatumType(this.getDomainClass()), subject, null)) {
+				metadata.put(metadatum.getPredicate(), metadatum.getObject());
+			}
+		}
+		return metadata;
+	}
+
+	/**
+	 * Get the metadata subject with the given id
+	 *
+	 * @throws NotFoundException   if no subject was found
+	 * @throws BadRequestException if the model type does not support metadata
+	 */
+	protected T findMetadataSubject(PK subjectId) {
+		if (!MetadataUtils.isMetadataSubject(this.getDomainClass())
+				&& !JsonMetadataSubjectModel.class.isAssignableFrom(this.getDomainClass())) {
+			throw new BadRequestException("Metadata are not supported by " + this.getDomainClass().getSimpleName());
+		}
+		T subject = this.findById(subjectId);
+		if (subject == null) {
+			throw new NotFoundException("Subject not found: " + subjectId);
+		}
+		return subject;
+	}
+
+	/**
+	 * Query the metadata of the given subject using the (subject, predicate) index,
+	 * optionally limited to the given predicate
+	 */
+	protected <M extends MetadatumModel> List<M> findMetadata(Class<M> metadatumType, Object subject, String predicate) {
+		CriteriaBuilder cb = this.repository.getEntityManager().getCriteriaBuilder();
+		CriteriaQuery<M> query = cb.createQuery(metadatumType);
+		Root<M> root = query.from(metadatumType);
+		Predicate criteria = cb.equal(root.get("subject"), subject);
+		if (predicate != null) {
+			criteria = cb.and(criteria, cb.equal(root.get("predicate"), predicate));
+		}
+		query.select(root).where(criteria).orderBy(cb.asc(root.get("predicate")));
+		return this.repository.getEntityManager().createQuery(query).getResultList();
+	}
+
+	private Map<String, String> copyMetadata(JsonMetadataSubjectModel subject) {
+		return subject.getMetadata() != null ? new LinkedHashMap<>(subject.getMetadata()) : new LinkedHashMap<>();
 	}
 
 
@@ -427,13 +817,16 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 				// verify the property exists
 				Field fileField = SpecificationUtils.getField(this.getDomainClass(), propertyName);
 				if (fileField == null || !fileField.isAnnotationPresent(FilePersistence.class)) {
-					throw new IllegalArgumentException("No FilePersistence annotation found for member: " + propertyName);
+					throw new BadRequestException("No FilePersistence annotation found for member: " + propertyName);
 				}
 
 				// store the file and update the property URL
 				String url = this.filePersistenceService.saveFile(fileField, request.getFile(propertyName), basePath + propertyName);
 				BeanUtils.setProperty(entity, propertyName, url);
 
+				// drop stale previews
+				this.evictFileRenditions(basePath + propertyName);
+
 			}
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to update files", e);
@@ -463,7 +856,7 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 			// verify the property exists
 			Field fileField = SpecificationUtils.getField(this.getDomainClass(), propertyName);
 			if (fileField == null || !fileField.isAnnotationPresent(FilePersistence.class)) {
-				throw new IllegalArgumentException("No FilePersistence annotation found for member: " + propertyName);
+				throw new BadRequestException("No FilePersistence annotation found for member: " + propertyName);
 			}
 
 			// store the file key
@@ -472,6 +865,37 @@ public class AbstractPersistableModelServiceImpl<T, PK extends Serializable, R e
 
 		// delete files
 		this.filePersistenceService.deleteFiles(keys.toArray(new String[keys.size()]));
+		for (String key : keys) {
+			this.evictFileRenditions(key);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FileRenditionService.Rendition getFileRendition(PK id, String propertyName, int width, int height) {
+		if (this.fileRenditionService == null) {
+			throw new NotFoundException("File previews are not enabled");
+		}
+		// verify the property exists
+		Field fileField = SpecificationUtils.getField(this.getDomainClass(), propertyName);
+		if (fileField == null || !fileField.isAnnotationPresent(FilePersistence.class)) {
+			throw new BadRequestException("No FilePersistence annotation found for member: " + propertyName);
+		}
+		// verify the entity exists
+		if (this.findById(id) == null) {
+			throw new NotFoundException();
+		}
+		String path = new StringBuffer(this.getDomainClass().getSimpleName())
+				.append('/').append(id).append('/').append(propertyName).toString();
+		return this.fileRenditionService.getRendition(fileField, path, width, height);
+	}
+
+	protected void evictFileRenditions(String path) {
+		if (this.fileRenditionService != null) {
+			this.fileRenditionService.evict(path);
+		}
 	}
 
 }
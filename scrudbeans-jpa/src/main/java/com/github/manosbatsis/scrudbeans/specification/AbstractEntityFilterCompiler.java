@@ -0,0 +1,216 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.specification;
+
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityFilterCompiler;
+import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import lombok.NonNull;
+import org.springframework.core.convert.ConversionService;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Base class for the per-entity filter compilers generated by the annotation processors and
+ * marked with {@link EntityFilterCompiler}. Subclasses provide one typed method per filterable
+ * attribute, with the value conversion, allowed operators and JPA path known at compile time,
+ * along with the whitelist of sortable attributes.
+ *
+ * @param <T> the entity type
+ */
+public abstract class AbstractEntityFilterCompiler<T> {
+
+	/** Operators supported by attributes that only have a meaningful equality, i.e. booleans and enums */
+	protected static final Set<PredicateOperator> EQUALITY_OPERATORS = Collections.unmodifiableSet(EnumSet.of(
+			PredicateOperator.EQUAL, PredicateOperator.NOT_EQUAL, PredicateOperator.IN, PredicateOperator.NOT_IN,
+			PredicateOperator.IS_NULL, PredicateOperator.IS_NOT_NULL));
+
+	/** Operators supported by comparable attributes */
+	protected static final Set<PredicateOperator> ALL_OPERATORS = Collections.unmodifiableSet(
+			EnumSet.complementOf(EnumSet.of(PredicateOperator.AUTO)));
+
+	private static final String WILDCARD = "*";
+
+	private static final String WILDCARD_JPA = "%";
+
+	private static final Set<String> NULL_VALUES = new HashSet<>(Arrays.asList("IS_NULL", "IS_NOT_NULL"));
+
+	private final String modelName;
+
+	private final Set<String> sortableFields;
+
+	protected AbstractEntityFilterCompiler(@NonNull String modelName, String... sortableFields) {
+		this.modelName = modelName;
+		this.sortableFields = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(sortableFields)));
+	}
+
+	/**
+	 * Build a predicate for the given attribute path
+	 *
+	 * @return the predicate, or null if the attribute is not handled by this compiler, e.g. a nested path
+	 * @throws BadRequestException if the operator is not supported or a value cannot be converted
+	 */
+	public abstract Predicate buildPredicate(
+			Root<?> root, CriteriaBuilder cb, String propertyPath, PredicateOperator operator,
+			List<String> values, ConversionService conversionService);
+
+	/**
+	 * Get the attributes the entity can be sorted by
+	 */
+	public Set<String> getSortableFields() {
+		return this.sortableFields;
+	}
+
+	protected void checkOperator(String fieldName, PredicateOperator operator, Set<PredicateOperator> allowed) {
+		if (!allowed.contains(operator)) {
+			throw new BadRequestException("Operator " + operator + " is not supported for " + this.modelName + "." + fieldName);
+		}
+	}
+
+	/**
+	 * Convert the given values using the given parser. Null markers are converted to null.
+	 */
+	protected <V> List<V> convert(String fieldName, List<String> values, Function<String, V> parser) {
+		List<V> converted = new ArrayList<>(values.size());
+		for (String value : values) {
+			if (value == null || NULL_VALUES.contains(value)) {
+				converted.add(null);
+			}
+			else {
+				try {
+					converted.add(parser.apply(value));
+				}
+				catch (RuntimeException e) {
+					throw new BadRequestException("Invalid value for " + this.modelName + "." + fieldName + ": " + value, e);
+				}
+			}
+		}
+		return converted;
+	}
+
+	protected <V> List<V> convert(String fieldName, List<String> values, Class<V> type, ConversionService conversionService) {
+		return this.convert(fieldName, values, value -> conversionService.convert(value, type));
+	}
+
+	protected List<String> toStrings(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Function.identity());
+	}
+
+	protected List<Integer> toIntegers(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Integer::valueOf);
+	}
+
+	protected List<Long> toLongs(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Long::valueOf);
+	}
+
+	protected List<Short> toShorts(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Short::valueOf);
+	}
+
+	protected List<Byte> toBytes(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Byte::valueOf);
+	}
+
+	protected List<Double> toDoubles(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Double::valueOf);
+	}
+
+	protected List<Float> toFloats(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, Float::valueOf);
+	}
+
+	protected List<BigDecimal> toBigDecimals(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, BigDecimal::new);
+	}
+
+	protected List<BigInteger> toBigIntegers(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, BigInteger::new);
+	}
+
+	protected List<UUID> toUuids(String fieldName, List<String> values) {
+		return this.convert(fieldName, values, UUID::fromString);
+	}
+
+	/**
+	 * Build a predicate for a string attribute, using <code>LIKE</code> if the (first) value
+	 * starts or ends with a wildcard
+	 */
+	protected Predicate stringPredicate(CriteriaBuilder cb, Path<String> path, PredicateOperator operator, List<String> values) {
+		String argument = values.isEmpty() ? null : values.get(0);
+		if (argument != null && (operator == PredicateOperator.EQUAL || operator == PredicateOperator.NOT_EQUAL)) {
+			if (argument.startsWith(WILDCARD)) {
+				argument = WILDCARD_JPA + argument.substring(1);
+			}
+			if (argument.endsWith(WILDCARD)) {
+				argument = argument.substring(0, argument.length() - 1) + WILDCARD_JPA;
+			}
+			if (argument.startsWith(WILDCARD_JPA) || argument.endsWith(WILDCARD_JPA)) {
+				return operator == PredicateOperator.EQUAL ? cb.like(path, argument) : cb.notLike(path, argument);
+			}
+		}
+		return this.comparablePredicate(cb, path, operator, values);
+	}
+
+	protected <V extends Comparable<? super V>> Predicate comparablePredicate(
+			CriteriaBuilder cb, Path<V> path, PredicateOperator operator, List<V> values) {
+		V argument = values.isEmpty() ? null : values.get(0);
+		switch (operator) {
+			case GREATER_THAN:
+				return cb.greaterThan(path, argument);
+			case GREATER_THAN_OR_EQUAL:
+				return cb.greaterThanOrEqualTo(path, argument);
+			case LESS_THAN:
+				return cb.lessThan(path, argument);
+			case LESS_THAN_OR_EQUAL:
+				return cb.lessThanOrEqualTo(path, argument);
+			default:
+				return this.equalityPredicate(cb, path, operator, values);
+		}
+	}
+
+	protected <V> Predicate equalityPredicate(CriteriaBuilder cb, Path<V> path, PredicateOperator operator, List<V> values) {
+		V argument = values.isEmpty() ? null : values.get(0);
+		switch (operator) {
+			case EQUAL:
+				return argument == null ? cb.isNull(path) : cb.equal(path, argument);
+			case NOT_EQUAL:
+				return argument == null ? cb.isNotNull(path) : cb.notEqual(path, argument);
+			case IN:
+				return InClauseUtils.in(cb, path, values);
+			case NOT_IN:
+				return InClauseUtils.notIn(cb, path, values);
+			case IS_NULL:
+				return cb.isNull(path);
+			case IS_NOT_NULL:
+				return cb.isNotNull(path);
+			default:
+				throw new IllegalArgumentException("Unknown predicate operator: " + operator);
+		}
+	}
+}
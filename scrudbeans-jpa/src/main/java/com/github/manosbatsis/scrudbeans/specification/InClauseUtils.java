@@ -0,0 +1,130 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.specification;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+
+import lombok.NonNull;
+
+/**
+ * Utilities for building <code>IN</code> clauses that keep the number of distinct SQL statements low
+ * and stay within driver parameter limits. Value lists are de-duplicated and padded to the next
+ * power of two by repeating the last value, so that e.g. lists of 5 to 8 values share a single
+ * statement (and cached plan). Larger lists become an <code>OR</code> of padded chunks of up to
+ * {@link #MAX_IN_PARAMETERS} values each. Callers that control their statements, e.g. bulk updates,
+ * can instead {@link #partition(Collection)} the values and run one statement per chunk.
+ */
+public class InClauseUtils {
+
+	/**
+	 * The maximum number of parameters per <code>IN</code> list, a power of two
+	 * within the limits of common databases, e.g. 1000 for Oracle
+	 */
+	public static final int MAX_IN_PARAMETERS = 512;
+
+	private InClauseUtils() {
+	}
+
+	/**
+	 * Get the smallest power of two that is greater or equal to the given size,
+	 * or {@link #MAX_IN_PARAMETERS} if greater
+	 */
+	public static int getPaddedSize(int size) {
+		if (size <= 1) {
+			return size;
+		}
+		int padded = Integer.highestOneBit(size - 1) << 1;
+		return Math.min(padded, MAX_IN_PARAMETERS);
+	}
+
+	/**
+	 * Pad the given values to {@link #getPaddedSize(int)} by repeating the last value.
+	 * Duplicate values do not affect the result of an <code>IN</code> predicate.
+	 */
+	public static <V> List<V> pad(@NonNull List<V> values) {
+		int size = values.size();
+		int paddedSize = getPaddedSize(size);
+		if (paddedSize <= size) {
+			return values;
+		}
+		List<V> padded = new ArrayList<>(paddedSize);
+		padded.addAll(values);
+		V last = values.get(size - 1);
+		while (padded.size() < paddedSize) {
+			padded.add(last);
+		}
+		return padded;
+	}
+
+	/**
+	 * Split the given values to chunks of up to {@link #MAX_IN_PARAMETERS}, removing duplicates
+	 * while preserving the original order
+	 */
+	public static <V> List<List<V>> partition(@NonNull Collection<V> values) {
+		List<V> distinct = values instanceof LinkedHashSet
+				? new ArrayList<>(values)
+				: new ArrayList<>(new LinkedHashSet<>(values));
+		if (distinct.size() <= MAX_IN_PARAMETERS) {
+			return Collections.singletonList(distinct);
+		}
+		List<List<V>> chunks = new ArrayList<>((distinct.size() / MAX_IN_PARAMETERS) + 1);
+		for (int i = 0; i < distinct.size(); i += MAX_IN_PARAMETERS) {
+			chunks.add(distinct.subList(i, Math.min(i + MAX_IN_PARAMETERS, distinct.size())));
+		}
+		return chunks;
+	}
+
+	/**
+	 * Build a padded <code>IN</code> predicate for the given values. An empty value list matches nothing.
+	 * More than {@link #MAX_IN_PARAMETERS} distinct values result in an <code>OR</code> of padded
+	 * <code>IN</code> predicates, one per {@link #partition(Collection) chunk}.
+	 */
+	public static Predicate in(@NonNull CriteriaBuilder cb, @NonNull Expression<?> expression, @NonNull Collection<?> values) {
+		if (values.isEmpty()) {
+			return cb.disjunction();
+		}
+		List<? extends List<?>> chunks = partition(values);
+		if (chunks.size() == 1) {
+			return expression.in(pad(chunks.get(0)));
+		}
+		Predicate[] predicates = new Predicate[chunks.size()];
+		for (int i = 0; i < predicates.length; i++) {
+			predicates[i] = expression.in(pad(chunks.get(i)));
+		}
+		return cb.or(predicates);
+	}
+
+	/**
+	 * Build a <code>NOT IN</code> predicate for the given values, i.e. the negation of
+	 * {@link #in(CriteriaBuilder, Expression, Collection)}. An empty value list matches everything.
+	 */
+	public static Predicate notIn(@NonNull CriteriaBuilder cb, @NonNull Expression<?> expression, @NonNull Collection<?> values) {
+		return values.isEmpty() ? cb.conjunction() : cb.not(in(cb, expression, values));
+	}
+}
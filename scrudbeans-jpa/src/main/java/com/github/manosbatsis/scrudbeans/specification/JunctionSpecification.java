@@ -0,0 +1,110 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import lombok.NonNull;
+
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A {@link Specification} that combines any number of child specifications into a single,
+ * flat AND/OR predicate, i.e. VS a nested chain of {@link Specification#and(Specification)}
+ * or {@link Specification#or(Specification)} compositions. Constant children, i.e. empty
+ * conjunctions/disjunctions, are folded: they are either dropped or short-circuit the junction.
+ *
+ * @param <T> the {@link Root} entity model type
+ */
+public class JunctionSpecification<T> implements Specification<T> {
+
+	private final boolean disjunction;
+
+	private final List<Specification<T>> children;
+
+	/**
+	 * @param disjunction whether to combine children with OR VS AND
+	 * @param children    the child specifications
+	 */
+	public JunctionSpecification(boolean disjunction, @NonNull List<Specification<T>> children) {
+		this.disjunction = disjunction;
+		this.children = children;
+	}
+
+	@Override
+	public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+		List<Predicate> predicates = new ArrayList<>(this.children.size());
+		boolean folded = false;
+		for (Specification<T> child : this.children) {
+			Predicate predicate = child.toPredicate(root, query, cb);
+			if (predicate == null) {
+				continue;
+			}
+			// true for OR, false for AND decides the junction
+			if (isConstant(cb, predicate, this.disjunction)) {
+				return predicate;
+			}
+			// false for OR, true for AND is redundant
+			if (isConstant(cb, predicate, !this.disjunction)) {
+				folded = true;
+				continue;
+			}
+			predicates.add(predicate);
+		}
+		Predicate result;
+		if (predicates.isEmpty()) {
+			result = folded ? (this.disjunction ? cb.disjunction() : cb.conjunction()) : null;
+		}
+		else if (predicates.size() == 1) {
+			result = predicates.get(0);
+		}
+		else {
+			Predicate[] array = predicates.toArray(new Predicate[predicates.size()]);
+			result = this.disjunction ? cb.or(array) : cb.and(array);
+		}
+		return result;
+	}
+
+	/**
+	 * Check whether the given predicate is a constant, i.e. an empty conjunction (true) or disjunction (false).
+	 * Simple predicates may also report no expressions, so only instances of the provider's junction type qualify.
+	 */
+	public static boolean isConstant(CriteriaBuilder cb, Predicate predicate, boolean value) {
+		return predicate.getClass() == cb.conjunction().getClass()
+				&& !predicate.isNegated()
+				&& predicate.getExpressions().isEmpty()
+				&& predicate.getOperator() == (value ? Predicate.BooleanOperator.AND : Predicate.BooleanOperator.OR);
+	}
+
+	public boolean isDisjunction() {
+		return this.disjunction;
+	}
+
+	public List<Specification<T>> getChildren() {
+		return this.children;
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.specification;
+
+import java.util.List;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
+import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.metadata.MetadataUtils;
+import com.github.manosbatsis.scrudbeans.specification.factory.StringPredicateFactory;
+import lombok.NonNull;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A {@link Specification} matching metadata subjects by the object of a metadatum predicate.
+ * Uses an <code>EXISTS</code> subquery on the (subject, predicate) index, with
+ * {@link PredicateOperator#IS_NULL} matching subjects without the predicate.
+ *
+ * @param <T> the {@link Root} metadata subject type
+ */
+public class MetadataPredicateSpecification<T> implements Specification<T> {
+
+	private static final StringPredicateFactory OBJECT_PREDICATE_FACTORY = new StringPredicateFactory();
+
+	private final ConversionService conversionService;
+
+	private final Class<?> metadatumType;
+
+	private final String predicate;
+
+	private final PredicateOperator operator;
+
+	private final List<String> objects;
+
+	public MetadataPredicateSpecification(
+			@NonNull ConversionService conversionService, @NonNull Class<?> subjectType, @NonNull String predicate,
+			@NonNull PredicateOperator operator, @NonNull List<String> objects) {
+		this.conversionService = conversionService;
+		this.metadatumType = MetadataUtils.getMetadatumType(subjectType);
+		this.predicate = predicate;
+		this.operator = operator.equals(PredicateOperator.AUTO)
+				? PredicateFactorySpecification.toDefaultOperator(objects)
+				: operator;
+		this.objects = objects;
+	}
+
+	@Override
+	public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+		Subquery<String> subquery = query.subquery(String.class);
+		Root<?> metadatum = subquery.from(this.metadatumType);
+		subquery.select(metadatum.<String>get("predicate"));
+		Predicate matches = cb.and(
+				cb.equal(metadatum.get("subject"), root),
+				cb.equal(metadatum.get("predicate"), this.predicate));
+		if (PredicateOperator.IS_NULL.equals(this.operator)) {
+			return cb.not(cb.exists(subquery.where(matches)));
+		}
+		if (!PredicateOperator.IS_NOT_NULL.equals(this.operator)) {
+			matches = cb.and(matches, OBJECT_PREDICATE_FACTORY.buildPredicate(
+					metadatum, cb, "object", String.class, this.conversionService, this.operator, this.objects));
+		}
+		return cb.exists(subquery.where(matches));
+	}
+}
@@ -70,6 +70,13 @@ public class PredicateFactorySpecification<T> implements Specification<T> {
 	}
 
 	protected PredicateOperator getDefaultOperator(List<String> propertyValues) {
+		return toDefaultOperator(propertyValues);
+	}
+
+	/**
+	 * Resolve the operator implied by the given values, used in place of {@link PredicateOperator#AUTO}
+	 */
+	public static PredicateOperator toDefaultOperator(List<String> propertyValues) {
 		PredicateOperator op = PredicateOperator.EQUAL;
 		if (propertyValues != null) {
 			if (propertyValues.size() == 1) {
@@ -90,7 +97,14 @@ public class PredicateFactorySpecification<T> implements Specification<T> {
 	@Override
 	public Predicate toPredicate(
 			Root<T> root, CriteriaQuery<?> query, CriteriaBuilder builder) {
-		Predicate predicate = null;
+		// use the generated filter compiler if available
+		AbstractEntityFilterCompiler filterCompiler = SpecificationUtils.getFilterCompilerForClass(this.modelInfo.getModelType());
+		Predicate predicate = filterCompiler != null
+				? filterCompiler.buildPredicate(root, builder, this.propertyPath, this.operator, this.propertyValues, conversionService)
+				: null;
+		if (predicate != null) {
+			return predicate;
+		}
 		IPredicateFactory predicateFactory = null;
 		Class fieldType = SpecificationUtils.getMemberType(this.modelInfo.getModelType(), this.propertyPath);
 		if (fieldType != null) {
@@ -0,0 +1,269 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.specification;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ModelInfo;
+import cz.jirutka.rsql.parser.ast.ComparisonNode;
+import cz.jirutka.rsql.parser.ast.LogicalNode;
+import cz.jirutka.rsql.parser.ast.Node;
+import lombok.NonNull;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Per-model query limits, i.e. max page size, filter complexity, aggregate groups and allowed filter/sort attributes.
+ * Defaults are taken from {@link ScrudBeansProperties.Query} and may be overridden per model
+ * using {@link ScrudBean}. Violations are reported as a {@link BadRequestException}.
+ */
+public class QueryGuardrails {
+
+	/** The standard JPA query timeout hint, in milliseconds */
+	public static final String HINT_QUERY_TIMEOUT = "javax.persistence.query.timeout";
+
+	private final String modelName;
+
+	private final int maxPageSize;
+
+	private final int maxFilterNodes;
+
+	private final int maxFilterDepth;
+
+	private final int maxAggregateGroups;
+
+	/** Allowed filter attributes, null for any */
+	private final Set<String> filterableFields;
+
+	/** Allowed sort attributes, null for any */
+	private final Set<String> sortableFields;
+
+	protected QueryGuardrails(String modelName, int maxPageSize, int maxFilterNodes, int maxFilterDepth,
+			int maxAggregateGroups, Set<String> filterableFields, Set<String> sortableFields) {
+		this.modelName = modelName;
+		this.maxPageSize = maxPageSize;
+		this.maxFilterNodes = maxFilterNodes;
+		this.maxFilterDepth = maxFilterDepth;
+		this.maxAggregateGroups = maxAggregateGroups;
+		this.filterableFields = filterableFields;
+		this.sortableFields = sortableFields;
+	}
+
+	/**
+	 * Create the query limits for the given model
+	 *
+	 * @param modelInfo the model metadata
+	 * @param defaults  the default limits
+	 * @return the limits for the model
+	 */
+	public static QueryGuardrails of(@NonNull ModelInfo<?, ?> modelInfo, @NonNull ScrudBeansProperties.Query defaults) {
+		Class<?> modelType = modelInfo.getModelType();
+		ScrudBean scrudBean = modelType.getAnnotation(ScrudBean.class);
+		int maxPageSize = defaults.getMaxPageSize();
+		int maxFilterNodes = defaults.getMaxFilterNodes();
+		int maxFilterDepth = defaults.getMaxFilterDepth();
+		Set<String> filterableFields = null;
+		Set<String> sortableFields = null;
+		String idFieldName = modelInfo.getIdField() != null ? modelInfo.getIdField().getFieldName() : null;
+		if (scrudBean != null) {
+			maxPageSize = scrudBean.maxPageSize() > 0 ? scrudBean.maxPageSize() : maxPageSize;
+			maxFilterNodes = scrudBean.maxFilterNodes() > 0 ? scrudBean.maxFilterNodes() : maxFilterNodes;
+			maxFilterDepth = scrudBean.maxFilterDepth() > 0 ? scrudBean.maxFilterDepth() : maxFilterDepth;
+			filterableFields = toSet(scrudBean.filterableFields(), null);
+			sortableFields = toSet(scrudBean.sortableFields(), idFieldName);
+		}
+		// optionally fall back to the whitelist of the generated filter compiler, if any,
+		// i.e. an empty one does not forbid sorting, e.g. by a composite id
+		if (sortableFields == null && defaults.isRestrictSortableFields()) {
+			AbstractEntityFilterCompiler<?> filterCompiler = SpecificationUtils.getFilterCompilerForClass(modelType);
+			if (filterCompiler != null && !filterCompiler.getSortableFields().isEmpty()) {
+				sortableFields = toSet(filterCompiler.getSortableFields().toArray(new String[0]), idFieldName);
+			}
+		}
+		return new QueryGuardrails(modelType.getSimpleName(), maxPageSize, maxFilterNodes, maxFilterDepth,
+				defaults.getMaxAggregateGroups(), filterableFields, sortableFields);
+	}
+
+	/**
+	 * Resolve the query timeout in milliseconds for the given model type
+	 *
+	 * @param modelType      the model type
+	 * @param defaultTimeout the default timeout, used unless overridden by {@link ScrudBean#queryTimeout()}
+	 * @return the timeout, zero or negative for none
+	 */
+	public static int getQueryTimeout(@NonNull Class<?> modelType, int defaultTimeout) {
+		ScrudBean scrudBean = modelType.getAnnotation(ScrudBean.class);
+		return scrudBean != null && scrudBean.queryTimeout() >= 0 ? scrudBean.queryTimeout() : defaultTimeout;
+	}
+
+	private static Set<String> toSet(String[] names, String alwaysAllowed) {
+		Set<String> set = null;
+		if (names.length > 0) {
+			set = new HashSet<>(Arrays.asList(names));
+			if (alwaysAllowed != null) {
+				set.add(alwaysAllowed);
+			}
+			set = Collections.unmodifiableSet(set);
+		}
+		return set;
+	}
+
+	/**
+	 * Ensure the given page size is within limits
+	 */
+	public void checkPageSize(int pageSize) {
+		if (pageSize < 1) {
+			throw new BadRequestException("Page size must be positive for " + this.modelName);
+		}
+		if (this.maxPageSize > 0 && pageSize > this.maxPageSize) {
+			throw new BadRequestException("Page size must be between 1 and " + this.maxPageSize + " for " + this.modelName);
+		}
+	}
+
+	/**
+	 * Ensure the given sort only uses allowed attributes
+	 */
+	public void checkSort(Sort sort) {
+		if (sort != null && this.sortableFields != null) {
+			for (Sort.Order order : sort) {
+				if (!isAllowed(this.sortableFields, order.getProperty())) {
+					throw new BadRequestException("Sorting by " + order.getProperty() + " is not allowed for " + this.modelName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Ensure the given attribute can be used to group aggregates by. Groups are also
+	 * ordered by their attributes, so both the filter and sort whitelists apply.
+	 */
+	public void checkGroupBy(@NonNull String name) {
+		if ((this.filterableFields != null && !isAllowed(this.filterableFields, name))
+				|| (this.sortableFields != null && !isAllowed(this.sortableFields, name))) {
+			throw new BadRequestException("Grouping by " + name + " is not allowed for " + this.modelName);
+		}
+	}
+
+	/**
+	 * Ensure the given number of aggregate groups is within limits
+	 */
+	public void checkAggregateGroups(int groups) {
+		if (this.maxAggregateGroups > 0 && groups > this.maxAggregateGroups) {
+			throw new BadRequestException("Aggregate exceeds the maximum of " + this.maxAggregateGroups
+					+ " groups for " + this.modelName + ", please narrow the criteria");
+		}
+	}
+
+	/**
+	 * Ensure the given URL parameter criteria are within limits. Reserved, underscore-prefixed parameters are ignored.
+	 *
+	 * @param params       the URL parameters
+	 * @param ignoredNames the names of non-criteria parameters
+	 */
+	public void checkFilterParams(@NonNull Map<String, String[]> params, @NonNull String[] ignoredNames) {
+		Set<String> ignored = new HashSet<>(Arrays.asList(ignoredNames));
+		int count = 0;
+		for (Map.Entry<String, String[]> entry : params.entrySet()) {
+			String name = entry.getKey();
+			if (!ignored.contains(name) && !name.startsWith("_") && !SpecificationsBuilder.isJsonApiFieldsParam(name)) {
+				this.checkFilterField(name);
+				count += entry.getValue() != null ? Math.max(entry.getValue().length, 1) : 1;
+			}
+		}
+		this.checkFilterNodes(count);
+	}
+
+	/**
+	 * Ensure the given RSQL filter is within limits and only uses allowed attributes
+	 */
+	public void checkFilter(Node root) {
+		if (root != null) {
+			int[] count = new int[1];
+			this.checkFilter(root, 1, count);
+		}
+	}
+
+	private void checkFilter(Node node, int depth, int[] count) {
+		if (this.maxFilterDepth > 0 && depth > this.maxFilterDepth) {
+			throw new BadRequestException("Filter exceeds the maximum depth of " + this.maxFilterDepth + " for " + this.modelName);
+		}
+		this.checkFilterNodes(++count[0]);
+		if (node instanceof LogicalNode) {
+			for (Node child : ((LogicalNode) node).getChildren()) {
+				this.checkFilter(child, depth + 1, count);
+			}
+		}
+		else if (node instanceof ComparisonNode) {
+			this.checkFilterField(((ComparisonNode) node).getSelector());
+		}
+	}
+
+	private void checkFilterNodes(int count) {
+		if (this.maxFilterNodes > 0 && count > this.maxFilterNodes) {
+			throw new BadRequestException("Filter exceeds the maximum of " + this.maxFilterNodes + " criteria for " + this.modelName);
+		}
+	}
+
+	private void checkFilterField(String name) {
+		if (this.filterableFields != null && !isAllowed(this.filterableFields, name)) {
+			throw new BadRequestException("Filtering by " + name + " is not allowed for " + this.modelName);
+		}
+	}
+
+	/**
+	 * Check whether the given attribute path is allowed, matching either the full path
+	 * or its first step, i.e. <code>owner.id</code> is allowed if <code>owner</code> is
+	 */
+	public static boolean isAllowed(@NonNull Set<String> allowed, @NonNull String path) {
+		int dot = path.indexOf('.');
+		return allowed.contains(path) || (dot > 0 && allowed.contains(path.substring(0, dot)));
+	}
+
+	/**
+	 * Get the allowed sort attributes, null for any
+	 */
+	public Set<String> getSortableFields() {
+		return this.sortableFields;
+	}
+
+	public int getMaxPageSize() {
+		return this.maxPageSize;
+	}
+
+	public int getMaxFilterNodes() {
+		return this.maxFilterNodes;
+	}
+
+	public int getMaxFilterDepth() {
+		return this.maxFilterDepth;
+	}
+
+	public int getMaxAggregateGroups() {
+		return this.maxAggregateGroups;
+	}
+}
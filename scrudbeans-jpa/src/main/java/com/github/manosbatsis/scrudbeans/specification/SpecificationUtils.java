@@ -20,6 +20,8 @@
  */
 package com.github.manosbatsis.scrudbeans.specification;
 
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.FullTextSearchable;
+import com.github.manosbatsis.scrudbeans.api.mdd.registry.ClassRegistry;
 import com.github.manosbatsis.scrudbeans.api.specification.IPredicateFactory;
 import com.github.manosbatsis.scrudbeans.specification.factory.*;
 import com.github.manosbatsis.scrudbeans.util.ClassUtils;
@@ -36,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A generic specifications class that builds model predicates
@@ -47,9 +50,9 @@ public class SpecificationUtils<T, PK extends Serializable> {
 
 	private static final HashMap<String, Field> FIELD_CACHE = new HashMap<String, Field>();
 
-	protected static final HashMap<Class, List<Field>> SIMPLE_SEARCH_FIELDs_CACHE = new HashMap<Class, List<Field>>();
+	protected static final ConcurrentHashMap<Class, List<Field>> SIMPLE_SEARCH_FIELDs_CACHE = new ConcurrentHashMap<Class, List<Field>>();
 
-	protected static final String SIMPLE_SEARCH_PARAM_NAME = "_all";
+	public static final String SIMPLE_SEARCH_PARAM_NAME = "_all";
 
 	protected static final String SEARCH_MODE = "_searchmode";
 
@@ -81,7 +84,20 @@ public class SpecificationUtils<T, PK extends Serializable> {
 
 	protected static final NumberPredicateFactory<BigDecimal> bigDecimalPredicateFactory = new NumberPredicateFactory<BigDecimal>(BigDecimal.class);
 
-	protected static final HashMap<String, IPredicateFactory> factoryForClassMap = new HashMap<String, IPredicateFactory>();
+	protected static final ClassRegistry<IPredicateFactory> factoryForClassMap = new ClassRegistry<>();
+
+	protected static final ClassRegistry<AbstractEntityFilterCompiler> filterCompilerForClassMap = new ClassRegistry<>();
+
+	/**
+	 * Enum factories created on first use, kept apart from {@link #factoryForClassMap}
+	 * as registering them there would invalidate every class resolved so far
+	 */
+	protected static final ClassValue<IPredicateFactory> enumFactoryForClassMap = new ClassValue<IPredicateFactory>() {
+		@Override
+		protected IPredicateFactory computeValue(Class<?> type) {
+			return new EnumStringPredicateFactory(type);
+		}
+	};
 
 	protected static final String OR = "OR";
 
@@ -90,20 +106,20 @@ public class SpecificationUtils<T, PK extends Serializable> {
 	protected static List<String> IGNORED_FIELD_NAMES;
 
 	static {
-		factoryForClassMap.put(String.class.getCanonicalName(), stringPredicateFactory);
-		factoryForClassMap.put(Boolean.class.getCanonicalName(), booleanPredicateFactory);
-		factoryForClassMap.put(Date.class.getCanonicalName(), datePredicateFactory);
-		factoryForClassMap.put(LocalDate.class.getCanonicalName(), localDatePredicateFactory);
-		factoryForClassMap.put(LocalDateTime.class.getCanonicalName(), localDateTimePredicateFactory);
-
-		factoryForClassMap.put(Byte.class.getCanonicalName(), bytePredicateFactory);
-		factoryForClassMap.put(Short.class.getCanonicalName(), shortPredicateFactory);
-		factoryForClassMap.put(Integer.class.getCanonicalName(), integerPredicateFactory);
-		factoryForClassMap.put(Long.class.getCanonicalName(), longPredicateFactory);
-		factoryForClassMap.put(BigInteger.class.getCanonicalName(), bigIntegerPredicateFactory);
-		factoryForClassMap.put(Float.class.getCanonicalName(), floatPredicateFactory);
-		factoryForClassMap.put(Double.class.getCanonicalName(), doublePredicateFactory);
-		factoryForClassMap.put(BigDecimal.class.getCanonicalName(), bigDecimalPredicateFactory);
+		factoryForClassMap.put(String.class, stringPredicateFactory);
+		factoryForClassMap.put(Boolean.class, booleanPredicateFactory);
+		factoryForClassMap.put(Date.class, datePredicateFactory);
+		factoryForClassMap.put(LocalDate.class, localDatePredicateFactory);
+		factoryForClassMap.put(LocalDateTime.class, localDateTimePredicateFactory);
+
+		factoryForClassMap.put(Byte.class, bytePredicateFactory);
+		factoryForClassMap.put(Short.class, shortPredicateFactory);
+		factoryForClassMap.put(Integer.class, integerPredicateFactory);
+		factoryForClassMap.put(Long.class, longPredicateFactory);
+		factoryForClassMap.put(BigInteger.class, bigIntegerPredicateFactory);
+		factoryForClassMap.put(Float.class, floatPredicateFactory);
+		factoryForClassMap.put(Double.class, doublePredicateFactory);
+		factoryForClassMap.put(BigDecimal.class, bigDecimalPredicateFactory);
 
 		// init ignore list
 		// TODO: pick model-specific excludes from annotation
@@ -124,22 +140,45 @@ public class SpecificationUtils<T, PK extends Serializable> {
 		Assert.notNull(clazz, "clazz cannot be null");
 		Assert.notNull(factory, "factory cannot be null");
 		log.debug("Registering entity predicate factory {} for entity type {}", factory, clazz);
-		factoryForClassMap.put(clazz.getCanonicalName(), factory);
+		factoryForClassMap.put(clazz, factory);
 	}
 
 	/**
-	 * Get an appropriate predicate factory for the given class
+	 * Register the generated filter compiler for the given entity class
+	 *
+	 * @param clazz
+	 * @param compiler
+	 */
+	public static void addFilterCompilerForClass(Class clazz, AbstractEntityFilterCompiler compiler) {
+		Assert.notNull(clazz, "clazz cannot be null");
+		Assert.notNull(compiler, "compiler cannot be null");
+		log.debug("Registering entity filter compiler {} for entity type {}", compiler, clazz);
+		filterCompilerForClassMap.put(clazz, compiler);
+	}
+
+	/**
+	 * Get the generated filter compiler for the given entity class, if any
+	 * @param clazz
+	 * @return the compiler or null if none was registered
+	 */
+	public static AbstractEntityFilterCompiler getFilterCompilerForClass(Class clazz) {
+		return filterCompilerForClassMap.get(clazz);
+	}
+
+	/**
+	 * Get an appropriate predicate factory for the given class. Classes with no factory of their own
+	 * use the one of their closest registered superclass, e.g. <code>java.sql.Timestamp</code> and
+	 * <code>java.sql.Date</code> use the {@link Date} factory.
 	 * @param clazz
 	 * @return
 	 */
 
 	public static IPredicateFactory<?> getPredicateFactoryForClass(Class clazz) {
-		IPredicateFactory factory = factoryForClassMap.get(clazz.getCanonicalName());
+		IPredicateFactory factory = factoryForClassMap.get(clazz);
 
-		// lazily add enum factory to cache as needed
+		// lazily create the enum factory as needed
 		if (factory == null && clazz.isEnum()) {
-			factory = new EnumStringPredicateFactory(clazz);
-			addFactoryForClass(clazz, factory);
+			factory = enumFactoryForClassMap.get(clazz);
 		}
 		log.debug("getPredicateFactoryForClass, clazz: {}, factory: {}", clazz, factory);
 		return factory;
@@ -233,4 +272,29 @@ public class SpecificationUtils<T, PK extends Serializable> {
 		return field;
 	}
 
+	/**
+	 * Get the (cached) members of the given class annotated with {@link FullTextSearchable},
+	 * i.e. the ones matched by the <code>_all</code> search parameter
+	 *
+	 * @param clazz the model type
+	 * @return the accessible searchable fields, empty if none
+	 */
+	public static List<Field> getSimpleSearchFields(Class<?> clazz) {
+		return SIMPLE_SEARCH_FIELDs_CACHE.computeIfAbsent(clazz, key -> {
+			List<Field> fields = new ArrayList<>();
+			Class<?> tmpClass = key;
+			while (tmpClass != null && !Object.class.equals(tmpClass)) {
+				for (Field field : tmpClass.getDeclaredFields()) {
+					if (field.isAnnotationPresent(FullTextSearchable.class)) {
+						field.setAccessible(true);
+						fields.add(field);
+					}
+				}
+				tmpClass = tmpClass.getSuperclass();
+			}
+			log.debug("getSimpleSearchFields: class: {}, fields: {}", key, fields);
+			return fields;
+		});
+	}
+
 }
@@ -20,10 +20,13 @@
  */
 package com.github.manosbatsis.scrudbeans.specification;
 
+import com.github.manosbatsis.scrudbeans.api.exception.BadRequestException;
 import com.github.manosbatsis.scrudbeans.api.specification.IPredicateFactory;
 import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.search.FullTextSearchProvider;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.ConversionService;
@@ -55,7 +58,15 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 
 	public static final String PARAM_PAGE_SIZE = "_ps";
 
-	public static final String[] PARAMS_IGNORE_FOR_CRITERIA = {PARAM_RELATION_NAME, PARAM_FILTER, PARAM_JSONAPI_PAGE_NUMBER, PARAM_JSONAPI_PAGE_SIZE, PARAM_SORT, PARAM_PK, PARAM_PAGE_NUMBER, PARAM_PAGE_SIZE};
+	public static final String PARAM_FIELDS = "_fields";
+
+	public static final String PARAM_JSONAPI_FIELDS_PREFIX = "fields[";
+
+	public static final String PARAM_GROUP_BY = "_groupBy";
+
+	public static final String PARAM_METRICS = "_metrics";
+
+	public static final String[] PARAMS_IGNORE_FOR_CRITERIA = {PARAM_RELATION_NAME, PARAM_FILTER, PARAM_JSONAPI_PAGE_NUMBER, PARAM_JSONAPI_PAGE_SIZE, PARAM_SORT, PARAM_PK, PARAM_PAGE_NUMBER, PARAM_PAGE_SIZE, PARAM_FIELDS, SpecificationUtils.SIMPLE_SEARCH_PARAM_NAME};
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(SpecificationsBuilder.class);
 
@@ -63,9 +74,21 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 
 	private final ConversionService conversionService;
 
+	private final FullTextSearchProvider fullTextSearchProvider;
+
 	public SpecificationsBuilder(Class<T> domainClass, ConversionService conversionService) {
+		this(domainClass, conversionService, null);
+	}
+
+	/**
+	 * @param domainClass            the model type
+	 * @param conversionService      the conversion service to use for predicate values
+	 * @param fullTextSearchProvider the provider used for the <code>_all</code> parameter, may be null
+	 */
+	public SpecificationsBuilder(Class<T> domainClass, ConversionService conversionService, FullTextSearchProvider fullTextSearchProvider) {
 		this.domainClass = domainClass;
 		this.conversionService = conversionService;
+		this.fullTextSearchProvider = fullTextSearchProvider;
 	}
 
 	/**
@@ -138,6 +161,14 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 		else {
 			predicate = cb.and(predicates.toArray(new Predicate[predicates.size()]));
 		}
+		// add full-text search criteria if any
+		String[] text = searchTerms.get(SpecificationUtils.SIMPLE_SEARCH_PARAM_NAME);
+		if (ArrayUtils.isNotEmpty(text) && StringUtils.isNotBlank(text[0])) {
+			if (this.fullTextSearchProvider == null) {
+				throw new BadRequestException("Full-text search is not enabled");
+			}
+			predicate = cb.and(predicate, this.fullTextSearchProvider.buildPredicate(root, cb, text[0]));
+		}
 
 		// return the resulting junction
 		return predicate;
@@ -152,6 +183,13 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 		}
 	}
 
+	/**
+	 * Check whether the given parameter name is a JSON API sparse fieldset parameter, i.e. <code>fields[type]</code>
+	 */
+	public static boolean isJsonApiFieldsParam(String paramName) {
+		return paramName != null && paramName.startsWith(PARAM_JSONAPI_FIELDS_PREFIX);
+	}
+
 	/**
 	 * Build the list of predicates corresponding to the given search terms
 	 * @param searchTerms the search terms to match
@@ -167,7 +205,7 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 		if (!MapUtils.isEmpty(searchTerms)) {
 			Set<String> propertyNames = searchTerms.keySet();
 			for (String propertyName : propertyNames) {
-				if (!ignoredTerms.contains(propertyName)) {
+				if (!ignoredTerms.contains(propertyName) && !isJsonApiFieldsParam(propertyName)) {
 					String[] values = searchTerms.get(propertyName);
 					if (LOGGER.isDebugEnabled()) {
 						LOGGER.debug("buildSearchPredicates, propertyName: {}, values: {}", propertyName, Arrays.toString(values));
@@ -193,6 +231,16 @@ public class SpecificationsBuilder<T, PK extends Serializable> {
 			LinkedList<Predicate> predicates, String[] propertyValues, String propertyName) {
 
 		LOGGER.debug("addPredicate1, domainClass: {}, propertyName: {}", domainClass, propertyName);
+		// use the generated filter compiler if available
+		AbstractEntityFilterCompiler filterCompiler = SpecificationUtils.getFilterCompilerForClass(domainClass);
+		if (filterCompiler != null) {
+			Predicate predicate = filterCompiler.buildPredicate(root, cb, propertyName,
+					getPredicateOperator(propertyValues), Arrays.asList(propertyValues), conversionService);
+			if (predicate != null) {
+				predicates.add(predicate);
+				return;
+			}
+		}
 		Class fieldType = SpecificationUtils.getMemberType(domainClass, propertyName);
 		IPredicateFactory predicateFactory = null;
 		if (fieldType != null) {
@@ -22,6 +22,7 @@ package com.github.manosbatsis.scrudbeans.specification.factory;
 
 import com.github.manosbatsis.scrudbeans.api.specification.IPredicateFactory;
 import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.springframework.core.convert.ConversionService;
@@ -92,11 +93,11 @@ public abstract class AbstractPredicateFactory<T> implements IPredicateFactory<T
 				break;
 			}
 			case IN: {
-				predicate = path.in(propertyValues);
+				predicate = InClauseUtils.in(cb, path, propertyValues);
 				break;
 			}
 			case NOT_IN: {
-				predicate = cb.not(path.in(propertyValues));
+				predicate = InClauseUtils.notIn(cb, path, propertyValues);
 				break;
 			}
 			case IS_NULL: {
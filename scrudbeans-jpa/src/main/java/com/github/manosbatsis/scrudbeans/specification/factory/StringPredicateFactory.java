@@ -21,6 +21,7 @@
 package com.github.manosbatsis.scrudbeans.specification.factory;
 
 import com.github.manosbatsis.scrudbeans.api.specification.PredicateOperator;
+import com.github.manosbatsis.scrudbeans.specification.InClauseUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.convert.ConversionService;
@@ -119,11 +120,11 @@ public class StringPredicateFactory extends AbstractPredicateFactory<String> {
 				break;
 			}
 			case IN: {
-				predicate = path.in(propertyValues);
+				predicate = InClauseUtils.in(cb, path, propertyValues);
 				break;
 			}
 			case NOT_IN: {
-				predicate = cb.not(path.in(propertyValues));
+				predicate = InClauseUtils.notIn(cb, path, propertyValues);
 				break;
 			}
 		}
@@ -0,0 +1,51 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.uischema.model;
+
+import org.springframework.util.DigestUtils;
+
+/**
+ * A pre-serialized model schema along with a strong ETag computed from its content.
+ * Instances are immutable; the bytes returned by {@link #getBytes()} must not be modified.
+ */
+public final class CachedSchema {
+
+	private final byte[] bytes;
+
+	private final String eTag;
+
+	private CachedSchema(byte[] bytes) {
+		this.bytes = bytes;
+		this.eTag = "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+	}
+
+	public static CachedSchema of(byte[] bytes) {
+		return new CachedSchema(bytes);
+	}
+
+	public byte[] getBytes() {
+		return bytes;
+	}
+
+	public String getETag() {
+		return eTag;
+	}
+}
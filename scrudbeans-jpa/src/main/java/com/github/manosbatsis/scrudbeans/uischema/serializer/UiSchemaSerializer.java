@@ -23,10 +23,13 @@ package com.github.manosbatsis.scrudbeans.uischema.serializer;
 import java.beans.PropertyDescriptor;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.fasterxml.jackson.core.JsonGenerationException;
 import com.fasterxml.jackson.core.JsonGenerator;
@@ -56,9 +59,10 @@ public class UiSchemaSerializer extends JsonSerializer<UiSchema> {
 
 	private static final char comma = ',';
 
-	private static Map<String, String> fieldTypes = new HashMap<String, String>();
+	private static final Map<String, String> fieldTypes;
 
 	static {
+		Map<String, String> types = new HashMap<String, String>();
 //			  "fields" : {
 //			    "aliases" : {
 //			      "fieldType" : "Set"
@@ -89,31 +93,27 @@ public class UiSchemaSerializer extends JsonSerializer<UiSchema> {
 //			    }
 //			  }
 //			}
-		fieldTypes.put("String", "String");
+		types.put("String", "String");
 
-		fieldTypes.put("Short", "Number");
-		fieldTypes.put("Integer", "Number");
+		types.put("Short", "Number");
+		types.put("Integer", "Number");
 
-		fieldTypes.put("Float", "Decimal");
-		fieldTypes.put("BigDecimal", "Decimal");
-		fieldTypes.put("Double", "Decimal");
+		types.put("Float", "Decimal");
+		types.put("BigDecimal", "Decimal");
+		types.put("Double", "Decimal");
 
-		fieldTypes.put("DateTime", "Datetime");
-		fieldTypes.put("Datetime", "Datetime");
-		fieldTypes.put("Date", "Date");
+		types.put("DateTime", "Datetime");
+		types.put("Datetime", "Datetime");
+		types.put("Date", "Date");
+		fieldTypes = Collections.unmodifiableMap(types);
 	}
 
 	// datatypes
 
-	private static final HashMap<String, String> CONFIG_CACHE = new HashMap<String, String>();
+	private static final Map<String, String> CONFIG_CACHE = new ConcurrentHashMap<String, String>();
 
-	private static List<String> ignoredFieldNames = new LinkedList<String>();
-
-	static {
-		ignoredFieldNames.add("new");
-		ignoredFieldNames.add("class");
-		ignoredFieldNames.add("metadataDomainClass");
-	}
+	private static final Set<String> ignoredFieldNames = Collections.unmodifiableSet(
+			new HashSet<String>(Arrays.asList("new", "class", "metadataDomainClass")));
 
 	@Override
 	public void serialize(UiSchema schema, JsonGenerator jgen,
@@ -177,8 +177,11 @@ public class UiSchemaSerializer extends JsonSerializer<UiSchema> {
 			}
 
 		}
+		catch (IOException e) {
+			throw e;
+		}
 		catch (Exception e) {
-			new RuntimeException("Failed serializing form schema", e);
+			throw new RuntimeException("Failed serializing form schema", e);
 		}
 	}
 
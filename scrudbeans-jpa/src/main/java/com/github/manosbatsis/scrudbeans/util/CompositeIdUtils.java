@@ -0,0 +1,97 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.util;
+
+import java.util.Objects;
+
+import com.github.manosbatsis.scrudbeans.api.mdd.model.EmbeddableCompositeIdentifier;
+import lombok.NonNull;
+
+/**
+ * Allocation-light helpers for {@link EmbeddableCompositeIdentifier} implementations
+ */
+public final class CompositeIdUtils {
+
+	private static final String[] EMPTY = {""};
+
+	private CompositeIdUtils() {
+	}
+
+	/**
+	 * Split the given composite identifier value using {@link EmbeddableCompositeIdentifier#SPLIT_CHAR}.
+	 * Behaves like <code>value.split("_")</code>, i.e. trailing empty parts are removed,
+	 * without the intermediate list.
+	 *
+	 * @param value the composite identifier value
+	 * @return the identifier parts
+	 */
+	public static String[] split(@NonNull String value) {
+		if (value.isEmpty()) {
+			return EMPTY.clone();
+		}
+		// ignore trailing separators
+		int end = value.length();
+		while (end > 0 && value.charAt(end - 1) == '_') {
+			end--;
+		}
+		if (end == 0) {
+			return new String[0];
+		}
+		int count = 1;
+		for (int i = 0; i < end; i++) {
+			if (value.charAt(i) == '_') {
+				count++;
+			}
+		}
+		String[] parts = new String[count];
+		int start = 0;
+		for (int i = 0; i < count - 1; i++) {
+			int separator = value.indexOf('_', start);
+			parts[i] = value.substring(start, separator);
+			start = separator + 1;
+		}
+		parts[count - 1] = value.substring(start, end);
+		return parts;
+	}
+
+	/**
+	 * Combine the given hash with the identifier of the given entity
+	 */
+	public static int hash(int hash, Object entity) {
+		return 31 * hash + Objects.hashCode(EntityUtil.idOrNull(entity));
+	}
+
+	/**
+	 * Check whether the given entities have equal identifiers. Missing entities or identifiers
+	 * never match, so composite identifiers with such parts are only equal to themselves.
+	 */
+	public static boolean idEquals(Object entity, Object other) {
+		Object id = EntityUtil.idOrNull(entity);
+		return id != null && id.equals(EntityUtil.idOrNull(other));
+	}
+
+	/**
+	 * Check whether the given entity has an identifier
+	 */
+	public static boolean isIdentified(Object entity) {
+		return EntityUtil.idOrNull(entity) != null;
+	}
+}
@@ -21,8 +21,10 @@
 package com.github.manosbatsis.scrudbeans.util;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityFilterCompiler;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.EntityPredicateFactory;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.IdentifierAdapterBean;
+import com.github.manosbatsis.scrudbeans.api.mdd.annotation.PropertyAccessorBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.annotation.model.ScrudRelatedBean;
 import com.github.manosbatsis.scrudbeans.api.mdd.model.IdentifierAdapter;
@@ -30,6 +32,7 @@ import com.github.manosbatsis.scrudbeans.api.mdd.registry.IdentifierAdaptersRegi
 import com.github.manosbatsis.scrudbeans.validation.CaseSensitive;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.hibernate.proxy.HibernateProxyHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeanWrapper;
@@ -102,7 +105,8 @@ public class EntityUtil {
     }
 
     public static Set<BeanDefinition> findAllHelpers(String... basePackages) {
-        createComponentScanner(EntityPredicateFactory.class, IdentifierAdapterBean.class);
+        createComponentScanner(EntityPredicateFactory.class, EntityFilterCompiler.class,
+                IdentifierAdapterBean.class, PropertyAccessorBean.class);
         Set<BeanDefinition> predicateFactories = new HashSet<>();
         for (String basePackage : basePackages) {
             predicateFactories.addAll(provider.findCandidateComponents(basePackage));
@@ -208,12 +212,17 @@ public class EntityUtil {
     }
 
     public static <PK extends Serializable> PK idOrNull(Object entity) {
-        IdentifierAdapter identifierAdapter = IdentifierAdaptersRegistry.getAdapterForClass(entity.getClass());
-        return entity != null ? (PK) identifierAdapter.readId(entity) : null;
+        return entity != null ? (PK) getIdentifierAdapter(entity).readId(entity) : null;
     }
 
     public static String idOrNEmpty(Object entity) {
-        IdentifierAdapter identifierAdapter = IdentifierAdaptersRegistry.getAdapterForClass(entity.getClass());
-        return entity != null ? identifierAdapter.readId(entity).toString() : StringUtils.EMPTY;
+        return entity != null ? getIdentifierAdapter(entity).readId(entity).toString() : StringUtils.EMPTY;
+    }
+
+    /**
+     * Get the identifier adapter for the given entity, using the entity type of uninitialized proxies
+     */
+    private static IdentifierAdapter getIdentifierAdapter(Object entity) {
+        return IdentifierAdaptersRegistry.getAdapterForClass(HibernateProxyHelper.getClassWithoutInitializingProxy(entity));
     }
 }
@@ -0,0 +1,85 @@
+/**
+ *
+ * ScrudBeans: Model driven development for Spring Boot
+ * -------------------------------------------------------------------
+ *
+ * Copyright © 2005 Manos Batsis (manosbatsis gmail)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.github.manosbatsis.scrudbeans.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
+import com.github.manosbatsis.scrudbeans.datasource.ReadWriteRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+
+/**
+ * Wraps the primary <code>dataSource</code> bean in a {@link ReadWriteRoutingDataSource}
+ * using the replicas configured under <code>scrudbeans.replicas</code>
+ */
+@Slf4j
+public class ReplicaRoutingDataSourcePostProcessor implements BeanPostProcessor, EnvironmentAware {
+
+	public static final String PRIMARY_BEAN_NAME = "dataSource";
+
+	private Environment environment;
+
+	@Override
+	public void setEnvironment(Environment environment) {
+		this.environment = environment;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource && PRIMARY_BEAN_NAME.equals(beanName)
+				&& !(bean instanceof ReadWriteRoutingDataSource.LazyRoutingDataSource)) {
+			// Bind directly as this runs before configuration properties beans may be available
+			ScrudBeansProperties.Replicas config = Binder.get(this.environment)
+					.bind("scrudbeans.replicas", ScrudBeansProperties.Replicas.class)
+					.orElseGet(ScrudBeansProperties.Replicas::new);
+			if (!config.getDatasources().isEmpty()) {
+				List<DataSource> replicas = new ArrayList<>(config.getDatasources().size());
+				for (ScrudBeansProperties.Replica replica : config.getDatasources()) {
+					replicas.add(this.buildReplica(replica));
+				}
+				log.info("Routing read-only transactions to {} replicas", replicas.size());
+				bean = ReadWriteRoutingDataSource.lazy((DataSource) bean, replicas, config);
+			}
+		}
+		return bean;
+	}
+
+	protected DataSource buildReplica(ScrudBeansProperties.Replica replica) {
+		DataSourceBuilder<?> builder = DataSourceBuilder.create(this.getClass().getClassLoader())
+				.url(replica.getUrl())
+				.username(replica.getUsername())
+				.password(replica.getPassword());
+		if (StringUtils.isNotBlank(replica.getDriverClassName())) {
+			builder.driverClassName(replica.getDriverClassName());
+		}
+		return builder.build();
+	}
+}
@@ -1,10 +1,20 @@
 package com.github.manosbatsis.scrudbeans.autoconfigure;
 
+import com.github.manosbatsis.scrudbeans.ScrudBeansProperties;
 import com.github.manosbatsis.scrudbeans.binding.CustomEnumConverterFactory;
+import com.github.manosbatsis.scrudbeans.binding.ScrudBeansJacksonModule;
 import com.github.manosbatsis.scrudbeans.binding.StringToEmbeddableCompositeIdConverterFactory;
+import com.github.manosbatsis.scrudbeans.datasource.ReplicaRoutingInterceptor;
 import com.github.manosbatsis.scrudbeans.fs.FilePersistenceConfigPostProcessor;
+import com.github.manosbatsis.scrudbeans.fs.FileRenditionService;
 import com.github.manosbatsis.scrudbeans.model.AbstractEmbeddableManyToManyIdentifier;
 import com.github.manosbatsis.scrudbeans.registry.JpaModelInfoRegistry;
+import com.github.manosbatsis.scrudbeans.registry.RelationshipFetchIntegrator;
+import com.github.manosbatsis.scrudbeans.repository.ChangeTombstones;
+import com.github.manosbatsis.scrudbeans.repository.SoftDeleteArchiver;
+import com.github.manosbatsis.scrudbeans.search.DatabaseFullTextSearchProvider;
+import com.github.manosbatsis.scrudbeans.search.FullTextSearchProvider;
+import com.github.manosbatsis.scrudbeans.search.LuceneFullTextSearchProvider;
 import com.github.manosbatsis.scrudbeans.validation.UniqueValidator;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,6 +23,7 @@ import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
@@ -20,6 +31,7 @@ import org.springframework.format.FormatterRegistry;
 import org.springframework.orm.hibernate5.HibernateExceptionTranslator;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Slf4j
@@ -29,11 +41,22 @@ public class ScrudBeansAutoConfiguration implements WebMvcConfigurer {
 
 	private WebApplicationContext wac;
 
+	@Autowired(required = false)
+	private ReplicaRoutingInterceptor replicaRoutingInterceptor;
+
 	@Autowired
 	public void setWac(WebApplicationContext wac) {
 		this.wac = wac;
 	}
 
+	/** Route GET requests to replicas if enabled */
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		if (this.replicaRoutingInterceptor != null) {
+			registry.addInterceptor(this.replicaRoutingInterceptor);
+		}
+	}
+
 	/**
 	 * Register a converter factory for
 	 * a) identifiers extending {@link AbstractEmbeddableManyToManyIdentifier} and
@@ -59,6 +82,16 @@ public class ScrudBeansAutoConfiguration implements WebMvcConfigurer {
 		return new JpaModelInfoRegistry();
 	}
 
+	/** Tune relationship fetching based on the model registry, see {@link RelationshipFetchIntegrator} */
+	@Bean
+	@ConditionalOnProperty(prefix = "scrudbeans.fetch", name = "enabled", havingValue = "true", matchIfMissing = true)
+	public HibernatePropertiesCustomizer relationshipFetchCustomizer(
+			JpaModelInfoRegistry jpaModelInfoRegistry, ScrudBeansProperties scrudBeansProperties) {
+		RelationshipFetchIntegrator integrator = new RelationshipFetchIntegrator(jpaModelInfoRegistry, scrudBeansProperties.getFetch());
+		return properties -> properties.put(RelationshipFetchIntegrator.INTEGRATOR_PROVIDER,
+				RelationshipFetchIntegrator.addTo(properties.get(RelationshipFetchIntegrator.INTEGRATOR_PROVIDER), integrator));
+	}
+
 	/** Add a validator is none is already created */
 	@Bean
 	@ConditionalOnMissingBean
@@ -73,6 +106,79 @@ public class ScrudBeansAutoConfiguration implements WebMvcConfigurer {
 		return new UniqueValidator();
 	}
 
+	/** Register the on-demand file preview renderer */
+	@Bean
+	@ConditionalOnMissingBean
+	public FileRenditionService fileRenditionService() {
+		return new FileRenditionService();
+	}
+
+	/** Register the archiver of soft-deleted rows if archiving is configured */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "scrudbeans.soft-delete", name = "archive-after")
+	public SoftDeleteArchiver softDeleteArchiver() {
+		return new SoftDeleteArchiver();
+	}
+
+	/** Register the store of hard deletions reported by changes feeds */
+	@Bean
+	@ConditionalOnMissingBean
+	public ChangeTombstones changeTombstones() {
+		return new ChangeTombstones();
+	}
+
+	/** Register the Jackson module using the generated model property accessors if enabled, picked up by Spring Boot's ObjectMapper */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "scrudbeans.jackson", name = "generated-accessors", havingValue = "true")
+	public ScrudBeansJacksonModule scrudBeansJacksonModule() {
+		return new ScrudBeansJacksonModule();
+	}
+
+	/** Register the embedded index full-text search provider if enabled and Lucene is available */
+	@Configuration
+	@ConditionalOnClass(name = "org.apache.lucene.index.IndexWriter")
+	@ConditionalOnProperty(prefix = "scrudbeans.search", name = "provider", havingValue = "lucene")
+	static class LuceneSearchConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(FullTextSearchProvider.class)
+		public LuceneFullTextSearchProvider luceneFullTextSearchProvider() {
+			return new LuceneFullTextSearchProvider();
+		}
+	}
+
+	/** Register the database full-text search provider */
+	@Configuration
+	@ConditionalOnProperty(prefix = "scrudbeans.search", name = "provider", havingValue = "database")
+	static class DatabaseSearchConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean(FullTextSearchProvider.class)
+		public DatabaseFullTextSearchProvider databaseFullTextSearchProvider() {
+			return new DatabaseFullTextSearchProvider();
+		}
+	}
+
+	/** Route read-only transactions and GET requests to read replicas */
+	@Configuration
+	@ConditionalOnProperty(prefix = "scrudbeans.replicas", name = "enabled", havingValue = "true")
+	static class ReplicaRoutingConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		static ReplicaRoutingDataSourcePostProcessor replicaRoutingDataSourcePostProcessor() {
+			return new ReplicaRoutingDataSourcePostProcessor();
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		public ReplicaRoutingInterceptor replicaRoutingInterceptor() {
+			return new ReplicaRoutingInterceptor();
+		}
+	}
+
 	//TODO
 	@Bean
 	@ConditionalOnMissingBean